@@ -0,0 +1,87 @@
+package com.wellsfargo.workflow.listener.client;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, preallocated queue for many producers and one consumer, after Dmitry
+ * Vyukov's bounded queue. Each slot carries a sequence number that says whether
+ * it is free for the producer claiming position {@code p} ({@code seq == p}) or
+ * holds an event for the consumer ({@code seq == p + 1}). A producer claims a
+ * position with one compare-and-set on the tail and never waits: when the queue
+ * is full, {@link #offer} fails at once.
+ */
+final class EventRingBuffer<E> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    EventRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two, was " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E event) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+        slots[index] = event;
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} events to {@code sink}. Consumer thread only.
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(List<? super E> sink, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            sink.add((E) slots[index]);
+            slots[index] = null;
+            sequences.lazySet(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Events ever accepted.
+     */
+    long offered() {
+        return tail.get();
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
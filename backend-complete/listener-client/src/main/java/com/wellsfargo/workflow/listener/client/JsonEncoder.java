@@ -0,0 +1,93 @@
+package com.wellsfargo.workflow.listener.client;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes event maps as JSON. Maps, iterables, arrays, strings, numbers, booleans
+ * and null are written as such; anything else as its {@code toString()}.
+ */
+final class JsonEncoder {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JsonEncoder() {
+    }
+
+    static void write(Object value, Writer out) throws IOException {
+        if (value == null) {
+            out.write("null");
+        } else if (value instanceof CharSequence text) {
+            writeString(text, out);
+        } else if (value instanceof Number number) {
+            double asDouble = number.doubleValue();
+            if (Double.isNaN(asDouble) || Double.isInfinite(asDouble)) {
+                out.write("null");
+            } else {
+                out.write(number.toString());
+            }
+        } else if (value instanceof Boolean bool) {
+            out.write(bool ? "true" : "false");
+        } else if (value instanceof Map<?, ?> map) {
+            out.write('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                writeString(String.valueOf(entry.getKey()), out);
+                out.write(':');
+                write(entry.getValue(), out);
+            }
+            out.write('}');
+        } else if (value instanceof Iterable<?> items) {
+            out.write('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                write(item, out);
+            }
+            out.write(']');
+        } else if (value instanceof Object[] items) {
+            out.write('[');
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                write(items[i], out);
+            }
+            out.write(']');
+        } else {
+            writeString(value.toString(), out);
+        }
+    }
+
+    private static void writeString(CharSequence text, Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write("\\u00");
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xF]);
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,425 @@
+package com.wellsfargo.workflow.listener.client;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reports listener events to the workflow backend's batched event endpoint
+ * ({@code POST /api/v1/ab-tests/events}) without making the process engine wait
+ * on HTTP. {@link #record} only puts the event in a bounded lock-free buffer; a
+ * background thread drains it, sends batches as gzip-compressed NDJSON, and
+ * retries failed sends with exponential backoff and full jitter.
+ *
+ * Under backpressure the caller is never blocked. If the buffer is full the event
+ * is dropped and counted. If the backend is still unreachable after the retries,
+ * batches go to the spill directory, when one is configured, and are replayed
+ * oldest first once sends succeed again; past the spill limit they are lost.
+ *
+ * Events are serialized on the background thread, so their maps must not be
+ * changed after they are recorded.
+ */
+public final class ListenerEventClient implements AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(ListenerEventClient.class.getName());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String GZIP = "gzip";
+
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    private final EventRingBuffer<Map<String, ?>> buffer;
+    private final SpillDirectory spill;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final boolean compress;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long probeIntervalNanos;
+    private final Duration requestTimeout;
+    private final Duration closeTimeout;
+    private final Thread sender;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running = true;
+
+    // Written by the sender thread only
+    private volatile long sent;
+    private volatile long spilled;
+    private volatile long replayed;
+    private volatile long rejected;
+    private volatile long lost;
+    private long backendDownUntil;
+
+    private ListenerEventClient(Builder builder) {
+        this.endpoint = builder.endpoint;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(builder.connectTimeout).build();
+        this.buffer = new EventRingBuffer<>(builder.capacity);
+        this.spill = builder.spillDirectory != null
+                ? new SpillDirectory(builder.spillDirectory, builder.maxSpillBytes)
+                : null;
+        this.batchSize = builder.batchSize;
+        this.lingerNanos = builder.linger.toNanos();
+        this.compress = builder.compress;
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.probeIntervalNanos = builder.probeInterval.toNanos();
+        this.requestTimeout = builder.requestTimeout;
+        this.closeTimeout = builder.closeTimeout;
+        this.sender = new Thread(this::run, "listener-event-sender");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * @param endpoint the backend's event endpoint, e.g.
+     *                 {@code http://localhost:8989/api/v1/ab-tests/events}
+     */
+    public static Builder builder(URI endpoint) {
+        return new Builder(endpoint);
+    }
+
+    /**
+     * Queues {@code event} for sending. Never blocks.
+     *
+     * @return false if the buffer was full and the event was dropped
+     */
+    public boolean record(Map<String, ?> event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(buffer.offered(), dropped.sum(), buffer.size(), sent, spilled, replayed, rejected,
+                lost);
+    }
+
+    /**
+     * Sends what is still buffered, trying each batch once and spilling it if that
+     * fails, for at most the close timeout.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(sender);
+        try {
+            sender.join(closeTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (sender.isAlive()) {
+            LOG.log(System.Logger.Level.WARNING, "Closed with {0} listener events unsent", buffer.size());
+            sender.interrupt();
+        }
+    }
+
+    private void run() {
+        List<Map<String, ?>> batch = new ArrayList<>(batchSize);
+        long batchStarted = 0;
+        while (running) {
+            int drained = buffer.drainTo(batch, batchSize - batch.size());
+            if (drained > 0 && batchStarted == 0) {
+                batchStarted = System.nanoTime();
+            }
+            if (batch.size() >= batchSize
+                    || (!batch.isEmpty() && System.nanoTime() - batchStarted >= lingerNanos)) {
+                ship(batch);
+                batch.clear();
+                batchStarted = 0;
+            } else if (drained == 0) {
+                if (batch.isEmpty() && System.nanoTime() >= backendDownUntil) {
+                    replayOne();
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        do {
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (!batch.isEmpty()) {
+                ship(batch);
+                batch.clear();
+            }
+        } while (buffer.size() > 0 && !Thread.currentThread().isInterrupted());
+    }
+
+    private void ship(List<Map<String, ?>> batch) {
+        byte[] body = encode(batch);
+        int events = batch.size();
+        if (System.nanoTime() < backendDownUntil) {
+            spillOrLose(body, events);
+            return;
+        }
+        switch (send(body, compress ? GZIP : null, running ? maxAttempts : 1)) {
+            case DELIVERED -> {
+                sent += events;
+                replayOne();
+            }
+            case REJECTED -> rejected += events;
+            case FAILED -> {
+                backendDownUntil = System.nanoTime() + probeIntervalNanos;
+                spillOrLose(body, events);
+            }
+        }
+    }
+
+    /**
+     * Sends the oldest spilled batch, once. Called between live batches so a
+     * backlog drains without holding up new events.
+     */
+    private void replayOne() {
+        if (spill == null || spill.isEmpty()) {
+            return;
+        }
+        try {
+            Path file = spill.files().get(0);
+            int events = SpillDirectory.eventsIn(file);
+            switch (send(Files.readAllBytes(file), SpillDirectory.encodingOf(file), 1)) {
+                case DELIVERED -> {
+                    spill.delete(file);
+                    replayed += events;
+                }
+                case REJECTED -> {
+                    spill.delete(file);
+                    rejected += events;
+                }
+                case FAILED -> backendDownUntil = System.nanoTime() + probeIntervalNanos;
+            }
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Could not replay spilled listener events: " + e.getMessage());
+            backendDownUntil = System.nanoTime() + probeIntervalNanos;
+        }
+    }
+
+    private void spillOrLose(byte[] body, int events) {
+        try {
+            if (spill != null && spill.write(body, events, compress ? GZIP : null)) {
+                spilled += events;
+                return;
+            }
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Could not spill listener events: " + e.getMessage());
+        }
+        lost += events;
+    }
+
+    private Outcome send(byte[] body, String encoding, int attempts) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (encoding != null) {
+            request.header("Content-Encoding", encoding);
+        }
+        for (int attempt = 1; ; attempt++) {
+            long retryAfterNanos = 0;
+            try {
+                HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                if (status / 100 == 2) {
+                    return Outcome.DELIVERED;
+                }
+                if (status != 429 && status < 500) {
+                    LOG.log(System.Logger.Level.WARNING, "Listener events rejected with HTTP " + status);
+                    return Outcome.REJECTED;
+                }
+                retryAfterNanos = response.headers().firstValue("Retry-After")
+                        .map(ListenerEventClient::parseRetryAfter)
+                        .map(nanos -> Math.min(nanos, maxBackoffNanos))
+                        .orElse(0L);
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.DEBUG, "Sending listener events failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Outcome.FAILED;
+            }
+            if (attempt >= attempts) {
+                return Outcome.FAILED;
+            }
+            LockSupport.parkNanos(Math.max(retryAfterNanos, backoff(attempt)));
+            if (Thread.currentThread().isInterrupted()) {
+                return Outcome.FAILED;
+            }
+        }
+    }
+
+    /**
+     * Full jitter: uniform between zero and the exponential ceiling, so clients
+     * that failed together do not retry together.
+     */
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static long parseRetryAfter(String value) {
+        try {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private byte[] encode(List<Map<String, ?>> batch) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 256);
+        StringWriter line = new StringWriter(512);
+        try (OutputStream out = compress ? new GZIPOutputStream(bytes, 8192) : bytes;
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192)) {
+            for (Map<String, ?> event : batch) {
+                line.getBuffer().setLength(0);
+                try {
+                    JsonEncoder.write(event, line);
+                } catch (RuntimeException e) {
+                    LOG.log(System.Logger.Level.WARNING, "Dropped listener event that could not be serialized: " + e);
+                    dropped.increment();
+                    continue;
+                }
+                writer.append(line.getBuffer()).append('\n');
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private enum Outcome { DELIVERED, REJECTED, FAILED }
+
+    /**
+     * @param recorded events accepted by {@link #record}
+     * @param dropped  events refused because the buffer was full, or unserializable
+     * @param buffered events waiting to be sent
+     * @param sent     events delivered on their first send
+     * @param spilled  events written to the spill directory
+     * @param replayed spilled events delivered later
+     * @param rejected events the backend refused (a 4xx other than 429)
+     * @param lost     events that could be neither sent nor spilled
+     */
+    public record Statistics(long recorded, long dropped, long buffered, long sent, long spilled, long replayed,
+                             long rejected, long lost) {
+    }
+
+    public static final class Builder {
+
+        private final URI endpoint;
+        private int capacity = 65_536;
+        private int batchSize = 1_000;
+        private Duration linger = Duration.ofMillis(200);
+        private boolean compress = true;
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private Duration probeInterval = Duration.ofSeconds(5);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private Duration closeTimeout = Duration.ofSeconds(5);
+        private Path spillDirectory;
+        private long maxSpillBytes = 256L * 1024 * 1024;
+
+        private Builder(URI endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * Events buffered before {@link #record} starts dropping; a power of two.
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * How long a partial batch may wait for more events before it is sent.
+         */
+        public Builder linger(Duration linger) {
+            this.linger = linger;
+            return this;
+        }
+
+        public Builder compress(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        /**
+         * Sends per batch, including the first, before it is spilled.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder backoff(Duration initial, Duration max) {
+            this.initialBackoff = initial;
+            this.maxBackoff = max;
+            return this;
+        }
+
+        /**
+         * After a batch fails every attempt, further batches are spilled without
+         * trying the backend until this much time has passed.
+         */
+        public Builder probeInterval(Duration probeInterval) {
+            this.probeInterval = probeInterval;
+            return this;
+        }
+
+        public Builder timeouts(Duration connect, Duration request) {
+            this.connectTimeout = connect;
+            this.requestTimeout = request;
+            return this;
+        }
+
+        public Builder closeTimeout(Duration closeTimeout) {
+            this.closeTimeout = closeTimeout;
+            return this;
+        }
+
+        /**
+         * Where undeliverable batches are kept for replay. Without one they are
+         * lost.
+         */
+        public Builder spillDirectory(Path directory, long maxBytes) {
+            this.spillDirectory = directory;
+            this.maxSpillBytes = maxBytes;
+            return this;
+        }
+
+        public ListenerEventClient build() {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be positive");
+            }
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be positive");
+            }
+            return new ListenerEventClient(this);
+        }
+    }
+}
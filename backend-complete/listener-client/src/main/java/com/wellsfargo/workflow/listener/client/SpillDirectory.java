@@ -0,0 +1,96 @@
+package com.wellsfargo.workflow.listener.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Batches that could not be delivered, one encoded request body per file, kept
+ * until the backend is reachable again. Files are written under a {@code .part}
+ * name and renamed when complete, so a crash never leaves half a batch to replay.
+ * Files left by an earlier run are picked up on start.
+ */
+final class SpillDirectory {
+
+    private static final String SUFFIX = ".ndjson";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong sequence = new AtomicLong();
+    private long bytes;
+    private int count;
+
+    SpillDirectory(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            for (Path file : files()) {
+                bytes += Files.size(file);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot use spill directory " + directory, e);
+        }
+    }
+
+    /**
+     * Writes {@code body}, holding {@code events} events, or returns false if that
+     * would exceed the size limit.
+     */
+    boolean write(byte[] body, int events, String encoding) throws IOException {
+        if (bytes + body.length > maxBytes) {
+            return false;
+        }
+        String name = String.format("events-%013d-%06d-%d%s%s", System.currentTimeMillis(),
+                sequence.incrementAndGet() % 1_000_000, events, SUFFIX, encoding != null ? "." + encoding : "");
+        Path part = directory.resolve(name + ".part");
+        Files.write(part, body);
+        Files.move(part, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        bytes += body.length;
+        count++;
+        return true;
+    }
+
+    /**
+     * Spilled files, oldest first.
+     */
+    List<Path> files() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            List<Path> files = new ArrayList<>(listing
+                    .filter(file -> file.getFileName().toString().startsWith("events-"))
+                    .filter(file -> !file.getFileName().toString().endsWith(".part"))
+                    .toList());
+            files.sort(null);
+            return files;
+        }
+    }
+
+    static String encodingOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(SUFFIX) ? null : name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    static int eventsIn(Path file) {
+        String name = file.getFileName().toString();
+        String stem = name.substring(0, name.indexOf(SUFFIX));
+        return Integer.parseInt(stem.substring(stem.lastIndexOf('-') + 1));
+    }
+
+    void delete(Path file) throws IOException {
+        long size = Files.size(file);
+        Files.delete(file);
+        bytes -= size;
+        count--;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+}
@@ -2,11 +2,13 @@ package com.wellsfargo.workflow;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class WorkflowApplication {
     public static void main(String[] args) {
-        SpringApplication.run(WorkflowApplication.java, args);
+        SpringApplication.run(WorkflowApplication.class, args);
         System.out.println("\n===========================================");
         System.out.println("Wells Fargo Workflow Management System");
         System.out.println("H2 Console: http://localhost:8080/h2-console");
@@ -1,15 +1,38 @@
 package com.wellsfargo.workflow.abtest.controller;
 
 import com.wellsfargo.workflow.abtest.dto.*;
+import com.wellsfargo.workflow.abtest.ingest.ListenerEventIngester;
+import com.wellsfargo.workflow.abtest.ingest.ListenerEventPipeline;
+import com.wellsfargo.workflow.abtest.service.ABTestLiveFeed;
 import com.wellsfargo.workflow.abtest.service.ABTestService;
+import com.wellsfargo.workflow.abtest.sla.SlaEngine;
 import com.wellsfargo.workflow.common.dto.ErrorResponse;
+import com.wellsfargo.workflow.common.dto.ExportJobResponse;
+import com.wellsfargo.workflow.common.export.ExportFormat;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyConflictException;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyKeyReuseException;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyStore;
+import com.wellsfargo.workflow.common.ratelimit.ConcurrencyLimitExceededException;
+import com.wellsfargo.workflow.common.ratelimit.RateLimitExceededException;
+import com.wellsfargo.workflow.common.ratelimit.RateLimiter;
+import com.wellsfargo.workflow.common.http.ConditionalGet;
+import com.wellsfargo.workflow.common.service.WorkflowExecutionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/v1/ab-tests")
@@ -19,6 +42,13 @@ import java.util.List;
 public class ABTestController {
 
     private final ABTestService abTestService;
+    private final ABTestLiveFeed liveFeed;
+    private final ListenerEventIngester listenerEventIngester;
+    private final ListenerEventPipeline listenerEventPipeline;
+    private final SlaEngine slaEngine;
+    private final RateLimiter rateLimiter;
+    private final WorkflowExecutionService workflowExecutionService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     public ResponseEntity<ABTestResponse> createABTest(@Valid @RequestBody ABTestRequest request) {
@@ -42,9 +72,36 @@ public class ABTestController {
     @PostMapping("/{testId}/execute")
     public ResponseEntity<ExecutionResultResponse> executeABTest(
             @PathVariable String testId,
-            @Valid @RequestBody ExecuteABTestRequest request) {
+            @Valid @RequestBody ExecuteABTestRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        rateLimiter.acquire(testId, RateLimiter.caller(httpRequest));
         log.info("Executing A/B test: {}", testId);
-        return ResponseEntity.ok(abTestService.executeABTest(testId, request));
+        return ResponseEntity.ok(idempotencyStore.execute(
+                IdempotencyStore.key("ab-test:" + testId, idempotencyKey), request, ExecutionResultResponse.class,
+                claim -> workflowExecutionService.execute(() -> abTestService.executeABTest(testId, request, claim))));
+    }
+
+    /**
+     * Events from generated BPMN listeners, many per request: a JSON array or
+     * newline-delimited JSON of mixed execution and activity events, optionally
+     * gzip-compressed. Accepted events are written shortly after the response.
+     */
+    @PostMapping(value = "/events", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ListenerEventIngestResponse> ingestListenerEvents(HttpServletRequest httpRequest)
+            throws IOException {
+        InputStream body = httpRequest.getInputStream();
+        if ("gzip".equalsIgnoreCase(httpRequest.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        ListenerEventIngestResponse response = listenerEventIngester.ingest(body);
+        log.info("Queued {} listener events", response.getReceived());
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @GetMapping("/events/pipeline")
+    public ResponseEntity<ListenerEventPipelineResponse> getListenerEventPipeline() {
+        return ResponseEntity.ok(listenerEventPipeline.getStatistics());
     }
 
     @GetMapping
@@ -60,9 +117,20 @@ public class ABTestController {
     }
 
     @GetMapping("/{testId}/analytics")
-    public ResponseEntity<ABTestAnalyticsResponse> getAnalytics(@PathVariable String testId) {
+    public ResponseEntity<ABTestAnalyticsResponse> getAnalytics(@PathVariable String testId, WebRequest request) {
         log.info("Fetching analytics for A/B test: {}", testId);
-        return ResponseEntity.ok(abTestService.getAnalytics(testId));
+        return ConditionalGet.respond(request, abTestService.getAnalyticsVersion(testId), CacheControl.noCache(),
+                () -> abTestService.getAnalytics(testId));
+    }
+
+    /**
+     * Server-sent events: a {@code snapshot} of the analytics, then an {@code update}
+     * with only the changed parts whenever they change.
+     */
+    @GetMapping(value = "/{testId}/analytics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnalytics(@PathVariable String testId) {
+        log.info("Streaming analytics for A/B test: {}", testId);
+        return liveFeed.subscribe(testId);
     }
 
     @GetMapping("/{testId}/logs")
@@ -74,12 +142,99 @@ public class ABTestController {
         return ResponseEntity.ok(abTestService.getExecutionLogs(testId, page, size));
     }
 
+    @GetMapping("/{testId}/executions/export")
+    public ResponseEntity<StreamingResponseBody> exportExecutions(
+            @PathVariable String testId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Exporting executions of A/B test {} as {}", testId, format);
+        return abTestService.exportExecutions(testId, ExportFormat.fromName(format), from, to);
+    }
+
+    @PostMapping("/{testId}/executions/dataset-exports")
+    public ResponseEntity<ExportJobResponse> startDatasetExport(
+            @PathVariable String testId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Starting dataset export of A/B test {}", testId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(abTestService.startDatasetExport(testId, from, to));
+    }
+
+    /**
+     * Latency SLA compliance of each arm over the sliding window, from memory.
+     */
+    @GetMapping("/{testId}/sla")
+    public ResponseEntity<SlaComplianceResponse> getSlaCompliance(@PathVariable String testId) {
+        return ResponseEntity.ok(slaEngine.getCompliance(testId));
+    }
+
+    /**
+     * Compliance snapshots taken every {@code workflow.sla.flush-interval-ms}; the
+     * last 24 hours unless a range is given.
+     */
+    @GetMapping("/{testId}/sla/history")
+    public ResponseEntity<List<SlaTrackingResponse>> getSlaHistory(
+            @PathVariable String testId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        return ResponseEntity.ok(slaEngine.getHistory(testId, from != null ? from : end.minusHours(24), end));
+    }
+
+    @PutMapping("/{testId}/arms/{armId}/sla")
+    public ResponseEntity<SlaComplianceResponse> setSlaThreshold(@PathVariable String testId,
+                                                                 @PathVariable String armId,
+                                                                 @Valid @RequestBody SlaThresholdRequest request) {
+        log.info("Setting SLA threshold of arm {} of A/B test {} to {}", armId, testId, request.getThresholdMs());
+        slaEngine.setThreshold(testId, armId, request.getThresholdMs());
+        return ResponseEntity.ok(slaEngine.getCompliance(testId));
+    }
+
     @GetMapping("/{testId}/comprehensive-metrics")
     public ResponseEntity<ABTestAnalyticsResponse> getComprehensiveMetrics(@PathVariable String testId) {
         log.info("Fetching comprehensive metrics for A/B test: {}", testId);
         return ResponseEntity.ok(abTestService.calculateComprehensiveMetrics(testId));
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("IDEMPOTENCY_CONFLICT")
+                        .build());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("IDEMPOTENCY_KEY_REUSED")
+                        .build());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("RATE_LIMITED")
+                        .build());
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("OVERLOADED")
+                        .build());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception", ex);
@@ -0,0 +1,25 @@
+package com.wellsfargo.workflow.abtest.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "abTestId", "armId", "status", "executionTimeMs", "errorMessage", "userId", "sessionId",
+        "requestPayload", "startedAt", "completedAt"})
+public class ABTestExecutionExportRow {
+    private String id;
+    private String abTestId;
+    private String armId;
+    private String status;
+    private Long executionTimeMs;
+    private String errorMessage;
+    private String userId;
+    private String sessionId;
+    private String requestPayload;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
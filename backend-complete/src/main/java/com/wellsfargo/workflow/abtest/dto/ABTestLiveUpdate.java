@@ -0,0 +1,24 @@
+package com.wellsfargo.workflow.abtest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One event on an A/B test's analytics stream. A snapshot carries every part;
+ * an update carries only the parts that changed, with arms and time series points
+ * replaced by id and timestamp.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ABTestLiveUpdate {
+    private ABTestAnalyticsResponse.OverviewMetrics overview;
+    private List<ABTestAnalyticsResponse.ArmPerformance> armPerformance;
+    private List<ABTestAnalyticsResponse.TimeSeriesData> timeSeries;
+    private List<String> removedTimestamps;
+    private ABTestAnalyticsResponse.StatisticalAnalysis statisticalAnalysis;
+}
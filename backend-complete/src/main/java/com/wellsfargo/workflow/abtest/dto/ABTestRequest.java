@@ -35,5 +35,7 @@ public class ABTestRequest {
         private Integer trafficPercentage;
         @NotNull
         private Boolean isControl;
+        @Positive
+        private Long slaThresholdMs;
     }
 }
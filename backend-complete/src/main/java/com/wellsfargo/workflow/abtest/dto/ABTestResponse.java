@@ -49,6 +49,7 @@ public class ABTestResponse {
         private Double p50Latency;
         private Double p95Latency;
         private Double p99Latency;
+        private Long slaThresholdMs;
     }
 
     @Data
@@ -0,0 +1,18 @@
+package com.wellsfargo.workflow.abtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListenerEventIngestResponse {
+    private long received;
+    private long executionsAccepted;
+    private long activitiesAccepted;
+    private long skipped;
+    private long invalid;
+}
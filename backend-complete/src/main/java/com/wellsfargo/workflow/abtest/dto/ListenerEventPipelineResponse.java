@@ -0,0 +1,35 @@
+package com.wellsfargo.workflow.abtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListenerEventPipelineResponse {
+    private int capacity;
+    private long publishedCount;
+    private long remainingCapacity;
+    private long executionsWritten;
+    private long activitiesWritten;
+    private long duplicatesSkipped;
+    private long writeFailures;
+    private long eventsParked;
+    private List<Consumer> consumers;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Consumer {
+        private String name;
+        private long sequence;
+        private long lag;
+        private long failureCount;
+    }
+}
@@ -0,0 +1,34 @@
+package com.wellsfargo.workflow.abtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaComplianceResponse {
+    private String testId;
+    private long windowSeconds;
+    private LocalDateTime evaluatedAt;
+    private List<ArmCompliance> arms;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ArmCompliance {
+        private String armId;
+        private String armName;
+        private long thresholdMs;
+        private long executions;
+        private long breaches;
+        private Double complianceRate;
+        private Double avgResponseTimeMs;
+    }
+}
@@ -0,0 +1,17 @@
+package com.wellsfargo.workflow.abtest.dto;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaThresholdRequest {
+    /**
+     * Null reverts the arm to the configured default.
+     */
+    @Positive
+    private Long thresholdMs;
+}
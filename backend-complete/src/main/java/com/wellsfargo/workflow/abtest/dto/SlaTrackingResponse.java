@@ -0,0 +1,23 @@
+package com.wellsfargo.workflow.abtest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaTrackingResponse {
+    private String armId;
+    private long thresholdMs;
+    private int windowSeconds;
+    private long executions;
+    private long breaches;
+    private Double complianceRate;
+    private Double avgResponseTimeMs;
+    private LocalDateTime recordedAt;
+}
@@ -1,10 +1,12 @@
 package com.wellsfargo.workflow.abtest.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -13,11 +15,12 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ab-test-arm")
 public class ABTestArmEntity {
 
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Uuid7Id
     @Column(name = "id", length = 36)
     private String id;
 
@@ -76,6 +79,12 @@ public class ABTestArmEntity {
     @Column(name = "p99_latency")
     private Double p99Latency = 0.0;
 
+    /**
+     * Null means the configured default.
+     */
+    @Column(name = "sla_threshold_ms")
+    private Long slaThresholdMs;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -1,10 +1,12 @@
 package com.wellsfargo.workflow.abtest.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -15,11 +17,12 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ab-test")
 public class ABTestEntity {
 
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Uuid7Id
     @Column(name = "id", length = 36)
     private String id;
 
@@ -63,6 +66,7 @@ public class ABTestEntity {
     @Column(name = "confidence_level")
     private Double confidenceLevel = 0.95;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ab-test-arms")
     @OneToMany(mappedBy = "abTest", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<ABTestArmEntity> arms = new ArrayList<>();
 
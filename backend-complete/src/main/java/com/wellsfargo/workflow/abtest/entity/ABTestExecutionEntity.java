@@ -1,14 +1,17 @@
 package com.wellsfargo.workflow.abtest.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDateTime;
 
+// Mapped to the partition view; inserts go through the repository's append.
 @Entity
+@Immutable
 @Table(name = "ab_test_executions")
 @Data
 @NoArgsConstructor
@@ -16,8 +19,7 @@ import java.time.LocalDateTime;
 public class ABTestExecutionEntity {
 
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Uuid7Id
     @Column(name = "id", length = 36)
     private String id;
 
@@ -0,0 +1,170 @@
+package com.wellsfargo.workflow.abtest.export;
+
+import com.wellsfargo.workflow.abtest.dto.ABTestExecutionExportRow;
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Writes one A/B test's executions as an Arrow IPC file, one record batch per
+ * {@code batchRows} rows. Arm ids and statuses are dictionary-encoded against the
+ * test's arms and the status enum, both known before the first row, so every
+ * batch shares a single dictionary. The test id is the same for every row and is
+ * kept in the schema metadata instead of a column. Timestamps are zone-less
+ * microseconds, as stored.
+ */
+public class ABTestExecutionArrowWriter {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "vnd.apache.arrow.file");
+
+    private static final ArrowType.Int DICTIONARY_INDEX = new ArrowType.Int(32, true);
+    private static final ArrowType TIMESTAMP = new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+    private static final DictionaryEncoding ARM_ENCODING = new DictionaryEncoding(0, false, DICTIONARY_INDEX);
+    private static final DictionaryEncoding STATUS_ENCODING = new DictionaryEncoding(1, false, DICTIONARY_INDEX);
+    private static final List<String> STATUSES = Arrays.stream(ABTestExecutionEntity.ExecutionStatus.values())
+            .map(Enum::name)
+            .toList();
+
+    private final String testId;
+    private final List<String> armIds;
+    private final int batchRows;
+
+    public ABTestExecutionArrowWriter(String testId, List<String> armIds, int batchRows) {
+        this.testId = testId;
+        this.armIds = armIds;
+        this.batchRows = batchRows;
+    }
+
+    public void write(Iterator<ABTestExecutionExportRow> rows, OutputStream out, LongConsumer progress)
+            throws IOException {
+        Map<String, Integer> armIndex = indexOf(armIds);
+        Map<String, Integer> statusIndex = indexOf(STATUSES);
+
+        try (BufferAllocator allocator = new RootAllocator();
+             VarCharVector armValues = dictionaryValues("arm_id", armIds, allocator);
+             VarCharVector statusValues = dictionaryValues("status", STATUSES, allocator);
+             VectorSchemaRoot root = VectorSchemaRoot.create(schema(), allocator);
+             ArrowFileWriter writer = new ArrowFileWriter(root,
+                     new DictionaryProvider.MapDictionaryProvider(
+                             new Dictionary(armValues, ARM_ENCODING),
+                             new Dictionary(statusValues, STATUS_ENCODING)),
+                     Channels.newChannel(out))) {
+            VarCharVector id = (VarCharVector) root.getVector("id");
+            IntVector arm = (IntVector) root.getVector("arm_id");
+            IntVector status = (IntVector) root.getVector("status");
+            BigIntVector executionTime = (BigIntVector) root.getVector("execution_time_ms");
+            TimeStampMicroVector startedAt = (TimeStampMicroVector) root.getVector("started_at");
+            TimeStampMicroVector completedAt = (TimeStampMicroVector) root.getVector("completed_at");
+            VarCharVector userId = (VarCharVector) root.getVector("user_id");
+            VarCharVector sessionId = (VarCharVector) root.getVector("session_id");
+            VarCharVector errorMessage = (VarCharVector) root.getVector("error_message");
+
+            writer.start();
+            while (rows.hasNext()) {
+                root.allocateNew();
+                int n = 0;
+                while (n < batchRows && rows.hasNext()) {
+                    ABTestExecutionExportRow row = rows.next();
+                    id.setSafe(n, utf8(row.getId()));
+                    arm.setSafe(n, lookup(armIndex, row.getArmId(), "arm"));
+                    status.setSafe(n, lookup(statusIndex, row.getStatus(), "status"));
+                    executionTime.setSafe(n, row.getExecutionTimeMs());
+                    startedAt.setSafe(n, micros(row.getStartedAt()));
+                    completedAt.setSafe(n, micros(row.getCompletedAt()));
+                    setNullable(userId, n, row.getUserId());
+                    setNullable(sessionId, n, row.getSessionId());
+                    setNullable(errorMessage, n, row.getErrorMessage());
+                    n++;
+                }
+                root.setRowCount(n);
+                writer.writeBatch();
+                progress.accept(n);
+            }
+            writer.end();
+        }
+    }
+
+    private Schema schema() {
+        return new Schema(List.of(
+                new Field("id", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+                new Field("arm_id", new FieldType(false, DICTIONARY_INDEX, ARM_ENCODING), null),
+                new Field("status", new FieldType(false, DICTIONARY_INDEX, STATUS_ENCODING), null),
+                new Field("execution_time_ms", FieldType.notNullable(new ArrowType.Int(64, true)), null),
+                new Field("started_at", FieldType.notNullable(TIMESTAMP), null),
+                new Field("completed_at", FieldType.notNullable(TIMESTAMP), null),
+                new Field("user_id", FieldType.nullable(ArrowType.Utf8.INSTANCE), null),
+                new Field("session_id", FieldType.nullable(ArrowType.Utf8.INSTANCE), null),
+                new Field("error_message", FieldType.nullable(ArrowType.Utf8.INSTANCE), null)),
+                Map.of("ab_test_id", testId));
+    }
+
+    private static VarCharVector dictionaryValues(String name, List<String> values, BufferAllocator allocator) {
+        VarCharVector vector = new VarCharVector(name, allocator);
+        vector.allocateNew(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            vector.setSafe(i, utf8(values.get(i)));
+        }
+        vector.setValueCount(values.size());
+        return vector;
+    }
+
+    private static Map<String, Integer> indexOf(List<String> values) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            index.put(values.get(i), i);
+        }
+        return index;
+    }
+
+    private static int lookup(Map<String, Integer> index, String value, String what) {
+        Integer i = index.get(value);
+        if (i == null) {
+            throw new IllegalStateException("Execution references unknown " + what + " " + value);
+        }
+        return i;
+    }
+
+    private static void setNullable(VarCharVector vector, int index, String value) {
+        if (value == null) {
+            vector.setNull(index);
+        } else {
+            vector.setSafe(index, utf8(value));
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+}
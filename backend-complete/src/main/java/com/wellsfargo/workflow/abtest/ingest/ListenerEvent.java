@@ -0,0 +1,44 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One event from a generated BPMN listener, as read by {@link ListenerEventReader}.
+ * Payloads are kept as the JSON text they arrived as.
+ */
+@Data
+class ListenerEvent {
+
+    private String event;
+    private String testId;
+    private String executionId;
+    private String processInstanceId;
+    private String armId;
+    private String armName;
+    private String activityId;
+    private String activityName;
+    private String status;
+    private Long duration;
+    private String timestamp;
+    private String requestPayload;
+    private String responsePayload;
+    private String errorMessage;
+    private String userId;
+    private String sessionId;
+    private final List<Activity> activityExecutions = new ArrayList<>();
+
+    /**
+     * An entry of a {@code process_end} event's {@code activityExecutions}.
+     */
+    @Data
+    static class Activity {
+        private String activityId;
+        private String activityName;
+        private String status;
+        private String endTime;
+        private Long duration;
+    }
+}
@@ -0,0 +1,238 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.abtest.dto.ListenerEventIngestResponse;
+import com.wellsfargo.workflow.abtest.entity.ABTestArmEntity;
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestArmRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads a stream of listener events and hands each accepted one to the
+ * {@link ListenerEventPipeline}, which writes them in batches off the request
+ * thread; only one event is held here at a time, however long the stream.
+ *
+ * A {@code process_end} event becomes an {@code ab_test_executions} row, together
+ * with any {@code activityExecutions} it carries; task and activity events become
+ * {@code ab_test_activity_executions} rows. {@code process_start} events are
+ * accepted but nothing is written for them, as the execution row is written whole
+ * from its end event. Events for unknown tests or arms, or of unknown types, are
+ * counted as skipped. Events missing a field they need are counted as invalid
+ * rather than filled in: in particular a readable timestamp, which is part of the
+ * key that makes a resent event a duplicate, and a {@code process_end} event's
+ * duration and status.
+ */
+@Slf4j
+@Service
+public class ListenerEventIngester {
+
+    private final ObjectMapper objectMapper;
+    private final ABTestArmRepository armRepository;
+    private final ListenerEventRing ring;
+
+    public ListenerEventIngester(ObjectMapper objectMapper, ABTestArmRepository armRepository,
+                                 ListenerEventRing ring) {
+        this.objectMapper = objectMapper;
+        this.armRepository = armRepository;
+        this.ring = ring;
+    }
+
+    /**
+     * Reads every event in {@code in} and queues the accepted ones for writing,
+     * waiting for room while the pipeline is full. If the stream turns out to be
+     * malformed part-way, the events before the bad one are still written.
+     *
+     * @throws IllegalArgumentException if the stream is not a JSON array or
+     *         newline-delimited JSON of event objects
+     */
+    public ListenerEventIngestResponse ingest(InputStream in) throws IOException {
+        Ingestion ingestion = new Ingestion();
+        try (ListenerEventReader reader = new ListenerEventReader(objectMapper.getFactory(), in)) {
+            ListenerEvent event;
+            while ((event = reader.next()) != null) {
+                ingestion.received++;
+                switch (accept(event, ingestion)) {
+                    case SKIPPED -> ingestion.skipped++;
+                    case INVALID -> ingestion.invalid++;
+                    case ACCEPTED -> { }
+                }
+            }
+        }
+        log.debug("Queued {} listener events: {} executions, {} activities, {} skipped, {} invalid",
+                ingestion.received, ingestion.executionsAccepted, ingestion.activitiesAccepted, ingestion.skipped,
+                ingestion.invalid);
+        return ListenerEventIngestResponse.builder()
+                .received(ingestion.received)
+                .executionsAccepted(ingestion.executionsAccepted)
+                .activitiesAccepted(ingestion.activitiesAccepted)
+                .skipped(ingestion.skipped)
+                .invalid(ingestion.invalid)
+                .build();
+    }
+
+    private Outcome accept(ListenerEvent event, Ingestion ingestion) {
+        if (event.getEvent() == null || event.getExecutionId() == null) {
+            return Outcome.INVALID;
+        }
+        String type = event.getEvent().toLowerCase(Locale.ROOT);
+        if (type.equals("process_start")) {
+            return Outcome.ACCEPTED;
+        }
+        String armId = resolveArm(event, ingestion);
+        if (armId == null) {
+            return Outcome.SKIPPED;
+        }
+        LocalDateTime timestamp = parseTime(event.getTimestamp());
+        if (timestamp == null) {
+            return Outcome.INVALID;
+        }
+        return switch (type) {
+            case "process_end" -> acceptProcessEnd(event, armId, timestamp, ingestion);
+            case "task_create", "activity_start" ->
+                    acceptActivity(event, armId, "START", null, null, timestamp, ingestion);
+            case "task_complete", "activity_complete" ->
+                    acceptActivity(event, armId, "COMPLETE", event.getStatus(), event.getDuration(), timestamp,
+                            ingestion);
+            default -> Outcome.SKIPPED;
+        };
+    }
+
+    private Outcome acceptProcessEnd(ListenerEvent event, String armId, LocalDateTime completedAt,
+                                     Ingestion ingestion) {
+        ABTestExecutionEntity.ExecutionStatus status = parseStatus(event.getStatus());
+        if (status == null || event.getDuration() == null) {
+            return Outcome.INVALID;
+        }
+        long duration = Math.max(0, event.getDuration());
+        String metadata = metadata(event);
+
+        ring.publish(slot -> slot.setExecution(event, armId, status, duration, completedAt, metadata));
+        ingestion.executionsAccepted++;
+
+        for (ListenerEvent.Activity activity : event.getActivityExecutions()) {
+            if (activity.getActivityId() == null) {
+                continue;
+            }
+            LocalDateTime endTime = activity.getEndTime() != null ? parseTime(activity.getEndTime()) : completedAt;
+            publishActivity(event.getTestId(), armId, event.getExecutionId(), activity.getActivityId(),
+                    activity.getActivityName(), "COMPLETE", activity.getStatus(), activity.getDuration(),
+                    endTime != null ? endTime : completedAt);
+            ingestion.activitiesAccepted++;
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    private Outcome acceptActivity(ListenerEvent event, String armId, String eventType, String status,
+                                   Long duration, LocalDateTime timestamp, Ingestion ingestion) {
+        if (event.getActivityId() == null) {
+            return Outcome.INVALID;
+        }
+        publishActivity(event.getTestId(), armId, event.getExecutionId(), event.getActivityId(),
+                event.getActivityName(), eventType, status, duration, timestamp);
+        ingestion.activitiesAccepted++;
+        return Outcome.ACCEPTED;
+    }
+
+    private void publishActivity(String testId, String armId, String executionId, String activityId,
+                                 String activityName, String eventType, String status, Long duration,
+                                 LocalDateTime occurredAt) {
+        ring.publish(slot -> slot.setActivity(testId, armId, executionId, activityId, activityName, eventType,
+                status, duration, occurredAt));
+    }
+
+    /**
+     * The arm an event names, by id or else by name, looked up once per test and
+     * request.
+     */
+    private String resolveArm(ListenerEvent event, Ingestion ingestion) {
+        if (event.getTestId() == null) {
+            return null;
+        }
+        Map<String, String> arms = ingestion.armsByTest.computeIfAbsent(event.getTestId(), testId -> {
+            Map<String, String> byKey = new HashMap<>();
+            for (ABTestArmEntity arm : armRepository.findByAbTestId(testId)) {
+                byKey.put(arm.getId(), arm.getId());
+                byKey.putIfAbsent(arm.getName(), arm.getId());
+            }
+            return byKey;
+        });
+        if (event.getArmId() != null) {
+            return arms.get(event.getArmId());
+        }
+        return event.getArmName() != null ? arms.get(event.getArmName()) : null;
+    }
+
+    private String metadata(ListenerEvent event) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("listenerExecutionId", event.getExecutionId());
+        if (event.getProcessInstanceId() != null) {
+            metadata.put("processInstanceId", event.getProcessInstanceId());
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Listener timestamps are instants ({@code 2024-01-01T10:00:00Z}); stored times
+     * are local, as elsewhere. A zone-less local time is taken as is. Null if
+     * missing or unreadable.
+     */
+    private static LocalDateTime parseTime(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.ofInstant(Instant.parse(text), ZoneId.systemDefault());
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(text);
+            } catch (DateTimeParseException notLocal) {
+                return null;
+            }
+        }
+    }
+
+    private static ABTestExecutionEntity.ExecutionStatus parseStatus(String text) {
+        if (text == null) {
+            return ABTestExecutionEntity.ExecutionStatus.SUCCESS;
+        }
+        String status = text.toUpperCase(Locale.ROOT);
+        if (status.equals("FAILED") || status.equals("FAILURE")) {
+            return ABTestExecutionEntity.ExecutionStatus.ERROR;
+        }
+        try {
+            return ABTestExecutionEntity.ExecutionStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private enum Outcome {
+        ACCEPTED, SKIPPED, INVALID
+    }
+
+    private static class Ingestion {
+        final Map<String, Map<String, String>> armsByTest = new HashMap<>();
+        long received;
+        long executionsAccepted;
+        long activitiesAccepted;
+        long skipped;
+        long invalid;
+    }
+}
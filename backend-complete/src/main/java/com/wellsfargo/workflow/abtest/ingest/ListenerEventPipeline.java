@@ -0,0 +1,392 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import com.wellsfargo.workflow.abtest.dto.ListenerEventPipelineResponse;
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository.ActivityRow;
+import com.wellsfargo.workflow.abtest.repository.ABTestExecutionRepository;
+import com.wellsfargo.workflow.abtest.repository.ListenerDeadLetterRepository;
+import com.wellsfargo.workflow.abtest.repository.ListenerExecutionKeyRepository;
+import com.wellsfargo.workflow.abtest.service.ABTestLiveFeed;
+import com.wellsfargo.workflow.abtest.service.ABTestService;
+import com.wellsfargo.workflow.abtest.sla.SlaEngine;
+import com.wellsfargo.workflow.common.pipeline.BatchEventProcessor;
+import com.wellsfargo.workflow.common.pipeline.EventHandler;
+import com.wellsfargo.workflow.common.pipeline.RingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carries accepted listener events and execute results from request threads to
+ * the database through the {@link ListenerEventRing}, so a request returns once
+ * its events are in memory and database latency never holds up the parser or
+ * the execute endpoint. Three consumers, each on its own thread:
+ * <ul>
+ *   <li>{@code persist} writes whatever has accumulated as one batch per table
+ *       and transaction, up to {@code batchSize} rows, and evaluates the
+ *       committed executions against their arms' SLAs. A process end or activity
+ *       event already written, because its batch was retried or replayed, is
+ *       skipped. A batch that fails is retried with backoff, and after
+ *       {@code writeAttempts} its events are parked in
+ *       {@code listener_event_dead_letters} and later put back on the ring; the
+ *       consumer moves past a batch only once it is written or parked;</li>
+ *   <li>{@code arm-statistics} refreshes the metrics of the arms written to;</li>
+ *   <li>{@code live-feed} pushes analytics of watched tests to their streams.</li>
+ * </ul>
+ * The last two run in parallel, both behind {@code persist}, so they only see
+ * events that are committed. Consumers handle slots in sequence order, and the
+ * events of one request are published in stream order, so an execution's
+ * activity rows are never written after its own later events.
+ *
+ * Events accepted but not yet written or parked are lost if the process dies; a
+ * graceful shutdown drains the ring first.
+ */
+@Slf4j
+@Component
+public class ListenerEventPipeline {
+
+    private final ListenerIngestProperties properties;
+    private final ListenerEventRing eventRing;
+    private final RingBuffer<ListenerEventSlot> ring;
+    private final ListenerExecutionKeyRepository executionKeyRepository;
+    private final ListenerDeadLetterRepository deadLetterRepository;
+    private final PersistHandler persistHandler;
+    // In halt order: each consumer after the ones it waits on
+    private final List<BatchEventProcessor<ListenerEventSlot>> processors;
+    private final List<Thread> threads = new ArrayList<>();
+
+    public ListenerEventPipeline(ListenerIngestProperties properties, ListenerEventRing eventRing,
+                                 ABTestExecutionRepository executionRepository,
+                                 ListenerExecutionKeyRepository executionKeyRepository,
+                                 ABTestActivityExecutionRepository activityRepository,
+                                 ListenerDeadLetterRepository deadLetterRepository,
+                                 ABTestService abTestService, ABTestLiveFeed liveFeed, SlaEngine slaEngine,
+                                 PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.eventRing = eventRing;
+        this.ring = eventRing.buffer();
+        this.executionKeyRepository = executionKeyRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.persistHandler = new PersistHandler(executionRepository, executionKeyRepository, activityRepository,
+                deadLetterRepository, slaEngine, new TransactionTemplate(transactionManager), properties);
+
+        BatchEventProcessor<ListenerEventSlot> persist =
+                new BatchEventProcessor<>("persist", ring, ring.newBarrier(), persistHandler);
+        BatchEventProcessor<ListenerEventSlot> armStatistics = new BatchEventProcessor<>("arm-statistics", ring,
+                ring.newBarrier(persist.getSequence()),
+                new ArmStatisticsHandler(abTestService, properties.getArmStatisticsRefreshMs()));
+        BatchEventProcessor<ListenerEventSlot> liveUpdates = new BatchEventProcessor<>("live-feed", ring,
+                ring.newBarrier(persist.getSequence()), new LiveFeedHandler(liveFeed));
+        ring.gateOn(armStatistics.getSequence(), liveUpdates.getSequence());
+        this.processors = List.of(persist, armStatistics, liveUpdates);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (BatchEventProcessor<ListenerEventSlot> processor : processors) {
+            Thread thread = new Thread(processor, "listener-events-" + processor.getName());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (int i = 0; i < processors.size(); i++) {
+            processors.get(i).halt();
+            threads.get(i).join(properties.getShutdownTimeoutMs());
+        }
+        long pending = ring.getCursor() - processors.get(0).getSequence().get();
+        if (pending > 0) {
+            log.warn("Listener event pipeline stopped with {} events not written", pending);
+        }
+    }
+
+    /**
+     * Keys only have to outlive the client's retries and spill replays.
+     */
+    @Scheduled(fixedDelayString = "${workflow.listener-ingest.key-cleanup-interval-ms:3600000}")
+    public void deleteExpiredKeys() {
+        int deleted = executionKeyRepository.deleteBefore(
+                LocalDateTime.now().minusHours(properties.getDuplicateWindowHours()));
+        if (deleted > 0) {
+            log.info("Deleted {} expired listener execution keys", deleted);
+        }
+    }
+
+    /**
+     * Puts parked events back on the ring, oldest first, and removes them from the
+     * dead-letter table. An event that fails again is parked again.
+     */
+    @Scheduled(fixedDelayString = "${workflow.listener-ingest.dead-letter-replay-interval-ms:300000}")
+    public void replayParked() {
+        List<ListenerDeadLetterRepository.Parked> parked = deadLetterRepository.findOldest(properties.getBatchSize());
+        if (parked.isEmpty()) {
+            return;
+        }
+        for (ListenerDeadLetterRepository.Parked event : parked) {
+            if (event.getExecution() != null) {
+                eventRing.publishExecution(event.getExecution(), event.getListenerExecutionId());
+            } else {
+                eventRing.publishActivity(event.getActivity());
+            }
+        }
+        deadLetterRepository.delete(parked.stream().map(ListenerDeadLetterRepository.Parked::getId).toList());
+        log.info("Replayed {} parked listener events", parked.size());
+    }
+
+    public ListenerEventPipelineResponse getStatistics() {
+        long cursor = ring.getCursor();
+        return ListenerEventPipelineResponse.builder()
+                .capacity(ring.getSize())
+                .publishedCount(cursor + 1)
+                .remainingCapacity(ring.remainingCapacity())
+                .executionsWritten(persistHandler.executionsWritten.sum())
+                .activitiesWritten(persistHandler.activitiesWritten.sum())
+                .duplicatesSkipped(persistHandler.duplicatesSkipped.sum())
+                .writeFailures(persistHandler.failedAttempts.sum())
+                .eventsParked(persistHandler.parkedRows.sum())
+                .consumers(processors.stream()
+                        .map(processor -> ListenerEventPipelineResponse.Consumer.builder()
+                                .name(processor.getName())
+                                .sequence(processor.getSequence().get())
+                                .lag(cursor - processor.getSequence().get())
+                                .failureCount(processor.getFailureCount())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static final class PersistHandler implements EventHandler<ListenerEventSlot> {
+
+        private final ABTestExecutionRepository executionRepository;
+        private final ListenerExecutionKeyRepository executionKeyRepository;
+        private final ABTestActivityExecutionRepository activityRepository;
+        private final ListenerDeadLetterRepository deadLetterRepository;
+        private final SlaEngine slaEngine;
+        private final TransactionTemplate batchTransaction;
+        private final ListenerIngestProperties properties;
+        private final List<ABTestExecutionEntity> executions = new ArrayList<>();
+        private final List<String> listenerExecutionIds = new ArrayList<>();
+        private final List<ABTestExecutionEntity> keyedExecutions = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<ABTestExecutionEntity> newExecutions = new ArrayList<>();
+        private final List<ActivityRow> activities = new ArrayList<>();
+        private final LongAdder executionsWritten = new LongAdder();
+        private final LongAdder activitiesWritten = new LongAdder();
+        private final LongAdder duplicatesSkipped = new LongAdder();
+        private final LongAdder failedAttempts = new LongAdder();
+        private final LongAdder parkedRows = new LongAdder();
+
+        PersistHandler(ABTestExecutionRepository executionRepository,
+                       ListenerExecutionKeyRepository executionKeyRepository,
+                       ABTestActivityExecutionRepository activityRepository,
+                       ListenerDeadLetterRepository deadLetterRepository, SlaEngine slaEngine,
+                       TransactionTemplate batchTransaction, ListenerIngestProperties properties) {
+            this.executionRepository = executionRepository;
+            this.executionKeyRepository = executionKeyRepository;
+            this.activityRepository = activityRepository;
+            this.deadLetterRepository = deadLetterRepository;
+            this.slaEngine = slaEngine;
+            this.batchTransaction = batchTransaction;
+            this.properties = properties;
+        }
+
+        @Override
+        public void onEvent(ListenerEventSlot slot, long sequence, boolean endOfBatch) {
+            switch (slot.getKind()) {
+                case EXECUTION -> {
+                    executions.add(slot.toExecution());
+                    listenerExecutionIds.add(slot.getListenerExecutionId());
+                }
+                case ACTIVITY -> activities.add(slot.toActivity());
+                case NONE -> { }
+            }
+            if (endOfBatch || executions.size() + activities.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the batch, retrying until it is written or parked. Only an
+         * interrupt, when the process is stopping, gives it up.
+         */
+        private void flush() {
+            if (executions.isEmpty() && activities.isEmpty()) {
+                return;
+            }
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        write();
+                        return;
+                    } catch (RuntimeException e) {
+                        failedAttempts.increment();
+                        if (attempt >= properties.getWriteAttempts() && park(e)) {
+                            return;
+                        }
+                        long backoff = Math.min(properties.getMaxRetryBackoffMs(),
+                                properties.getRetryBackoffMs() << Math.min(attempt - 1, 20));
+                        log.warn("Writing a batch of {} listener executions and {} activities failed, attempt {};"
+                                + " retrying in {} ms: {}", executions.size(), activities.size(), attempt, backoff,
+                                e.getMessage());
+                        Thread.sleep(backoff);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted with a batch of {} listener executions and {} activities not written",
+                        executions.size(), activities.size());
+            } finally {
+                executions.clear();
+                listenerExecutionIds.clear();
+                activities.clear();
+            }
+        }
+
+        private void write() {
+            int activityCount = batchTransaction.execute(status -> {
+                newExecutions.clear();
+                keyedExecutions.clear();
+                keys.clear();
+                for (int i = 0; i < executions.size(); i++) {
+                    if (listenerExecutionIds.get(i) != null) {
+                        keyedExecutions.add(executions.get(i));
+                        keys.add(listenerExecutionIds.get(i));
+                    } else {
+                        newExecutions.add(executions.get(i));
+                    }
+                }
+                if (!keyedExecutions.isEmpty()) {
+                    boolean[] claimed = executionKeyRepository.claim(keyedExecutions, keys);
+                    for (int i = 0; i < claimed.length; i++) {
+                        if (claimed[i]) {
+                            newExecutions.add(keyedExecutions.get(i));
+                        }
+                    }
+                }
+                if (!newExecutions.isEmpty()) {
+                    executionRepository.appendAll(newExecutions);
+                }
+                return activities.isEmpty() ? 0 : activityRepository.appendAll(activities);
+            });
+            executionsWritten.add(newExecutions.size());
+            activitiesWritten.add(activityCount);
+            duplicatesSkipped.add(executions.size() - newExecutions.size() + activities.size() - activityCount);
+            newExecutions.forEach(slaEngine::record);
+            newExecutions.clear();
+            keyedExecutions.clear();
+            keys.clear();
+        }
+
+        /**
+         * Parks the batch in its own transaction and returns whether it is stored.
+         */
+        private boolean park(RuntimeException failure) {
+            try {
+                batchTransaction.executeWithoutResult(status -> deadLetterRepository.park(executions,
+                        listenerExecutionIds, activities, failure.toString()));
+            } catch (RuntimeException e) {
+                log.error("Could not park a batch of {} listener executions and {} activities", executions.size(),
+                        activities.size(), e);
+                return false;
+            }
+            parkedRows.add(executions.size() + activities.size());
+            log.error("Parked a batch of {} listener executions and {} activities after {} attempts",
+                    executions.size(), activities.size(), properties.getWriteAttempts(), failure);
+            return true;
+        }
+    }
+
+    private static final class ArmStatisticsHandler implements EventHandler<ListenerEventSlot> {
+
+        private final ABTestService abTestService;
+        private final long refreshNanos;
+        private final Map<String, Long> refreshedAt = new HashMap<>();
+        private final Set<String> changedArms = new LinkedHashSet<>();
+
+        ArmStatisticsHandler(ABTestService abTestService, long refreshMs) {
+            this.abTestService = abTestService;
+            this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMs);
+        }
+
+        @Override
+        public void onEvent(ListenerEventSlot slot, long sequence, boolean endOfBatch) {
+            if (slot.getKind() == ListenerEventSlot.Kind.EXECUTION) {
+                changedArms.add(slot.getArmId());
+            }
+            if (endOfBatch) {
+                refreshDue();
+            }
+        }
+
+        @Override
+        public void onIdle() {
+            refreshDue();
+            long now = System.nanoTime();
+            refreshedAt.values().removeIf(last -> now - last >= refreshNanos);
+        }
+
+        private void refreshDue() {
+            long now = System.nanoTime();
+            changedArms.removeIf(armId -> {
+                Long last = refreshedAt.get(armId);
+                if (last != null && now - last < refreshNanos) {
+                    return false;
+                }
+                try {
+                    abTestService.updateArmMetrics(armId);
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh statistics of arm {}: {}", armId, e.getMessage());
+                }
+                refreshedAt.put(armId, System.nanoTime());
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Tests refreshed too recently stay pending until the end of a later batch or
+     * the stream goes quiet.
+     */
+    private static final class LiveFeedHandler implements EventHandler<ListenerEventSlot> {
+
+        private final ABTestLiveFeed liveFeed;
+        private final Set<String> changedTests = new LinkedHashSet<>();
+
+        LiveFeedHandler(ABTestLiveFeed liveFeed) {
+            this.liveFeed = liveFeed;
+        }
+
+        @Override
+        public void onEvent(ListenerEventSlot slot, long sequence, boolean endOfBatch) {
+            if (slot.getKind() == ListenerEventSlot.Kind.EXECUTION) {
+                changedTests.add(slot.getAbTestId());
+            }
+            if (endOfBatch) {
+                changedTests.removeIf(liveFeed::publishChanged);
+            }
+        }
+
+        @Override
+        public void onIdle() {
+            changedTests.removeIf(liveFeed::publishChanged);
+        }
+    }
+}
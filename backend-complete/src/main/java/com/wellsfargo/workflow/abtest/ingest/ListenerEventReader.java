@@ -0,0 +1,178 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+/**
+ * Reads listener events one at a time from a stream holding either a JSON array of
+ * events or newline-delimited JSON (one event per line; Jackson treats any
+ * whitespace between root values as a separator). Fields are read token by token
+ * into a {@link ListenerEvent}, without building a tree, so memory stays flat
+ * however long the stream is. Unknown fields are skipped; nested payloads are
+ * copied through as JSON text.
+ */
+class ListenerEventReader implements Closeable {
+
+    private final JsonFactory factory;
+    private final JsonParser parser;
+    private boolean inArray;
+    private boolean started;
+    private long count;
+
+    ListenerEventReader(JsonFactory factory, InputStream in) throws IOException {
+        this.factory = factory;
+        this.parser = factory.createParser(in);
+    }
+
+    /**
+     * The next event, or null at the end of the stream.
+     *
+     * @throws IllegalArgumentException if the stream is not valid JSON or holds
+     *         something other than objects
+     */
+    ListenerEvent next() throws IOException {
+        try {
+            return readEvent();
+        } catch (JsonProcessingException e) {
+            throw malformed(e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private ListenerEvent readEvent() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (!started) {
+            started = true;
+            if (token == JsonToken.START_ARRAY) {
+                inArray = true;
+                token = parser.nextToken();
+            }
+        }
+        if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+            return null;
+        }
+        count++;
+        if (token != JsonToken.START_OBJECT) {
+            throw malformed("expected an object, found " + token);
+        }
+        ListenerEvent event = new ListenerEvent();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "event", "type" -> event.setEvent(text());
+                case "testId" -> event.setTestId(text());
+                case "executionId" -> event.setExecutionId(text());
+                case "processInstanceId" -> event.setProcessInstanceId(text());
+                case "armId" -> event.setArmId(text());
+                case "armName" -> event.setArmName(text());
+                case "activityId" -> event.setActivityId(text());
+                case "activityName" -> event.setActivityName(text());
+                case "status" -> event.setStatus(text());
+                case "duration" -> event.setDuration(number());
+                case "timestamp" -> event.setTimestamp(text());
+                case "requestPayload" -> event.setRequestPayload(raw(value));
+                case "responsePayload" -> event.setResponsePayload(raw(value));
+                case "errorMessage" -> event.setErrorMessage(text());
+                case "userId" -> event.setUserId(text());
+                case "sessionId" -> event.setSessionId(text());
+                case "activityExecutions" -> readActivities(event, value);
+                default -> parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private void readActivities(ListenerEvent event, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            // Clients that cannot serialize an entry as an object send its text instead.
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            ListenerEvent.Activity activity = new ListenerEvent.Activity();
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                switch (field) {
+                    case "activityId" -> activity.setActivityId(text());
+                    case "activityName" -> activity.setActivityName(text());
+                    case "status" -> activity.setStatus(text());
+                    case "endTime" -> activity.setEndTime(text());
+                    case "duration" -> activity.setDuration(number());
+                    default -> parser.skipChildren();
+                }
+            }
+            event.getActivityExecutions().add(activity);
+        }
+    }
+
+    private String text() throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            throw malformed("field " + parser.currentName() + " must be a scalar");
+        }
+        return parser.getText();
+    }
+
+    private Long number() throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getValueAsLong();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseLong(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                throw malformed("field " + parser.currentName() + " must be a number");
+            }
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        throw malformed("field " + parser.currentName() + " must be a number");
+    }
+
+    /**
+     * The current value as JSON text: strings as they are, anything else
+     * re-serialized without building a tree.
+     */
+    private String raw(JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toString();
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed event " + Math.max(count, 1) + " at line "
+                + parser.currentLocation().getLineNr() + ": " + reason);
+    }
+}
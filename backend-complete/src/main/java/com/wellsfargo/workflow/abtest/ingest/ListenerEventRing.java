@@ -0,0 +1,73 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository.ActivityRow;
+import com.wellsfargo.workflow.common.pipeline.RingBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * The ring of the {@link ListenerEventPipeline}, apart from its consumers so
+ * that producers, the listener ingester and the execute endpoint, do not depend
+ * on what the consumers depend on.
+ */
+@Component
+public class ListenerEventRing {
+
+    private final RingBuffer<ListenerEventSlot> ring;
+
+    public ListenerEventRing(ListenerIngestProperties properties) {
+        this.ring = new RingBuffer<>(properties.getRingSize(), ListenerEventSlot::new);
+    }
+
+    /**
+     * Queues an execution that has no engine execution id, such as an execute
+     * result, once the current transaction commits, or at once if there is none,
+     * so a rolled-back execution is never written. Waits while the ring is full.
+     * Its id is kept if set.
+     */
+    public void publishExecutionAfterCommit(ABTestExecutionEntity execution) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishExecution(execution, null);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishExecution(execution, null);
+            }
+        });
+    }
+
+    void publishExecution(ABTestExecutionEntity execution, String listenerExecutionId) {
+        publish(slot -> slot.setExecution(execution, listenerExecutionId));
+    }
+
+    void publishActivity(ActivityRow activity) {
+        publish(slot -> slot.setActivity(activity));
+    }
+
+    /**
+     * Claims the next slot, waiting while the ring is full, fills it and publishes
+     * it. A slot that could not be filled is published empty.
+     */
+    void publish(Consumer<ListenerEventSlot> fill) {
+        long sequence = ring.next();
+        ListenerEventSlot slot = ring.get(sequence);
+        try {
+            fill.accept(slot);
+        } catch (RuntimeException e) {
+            slot.clear();
+            throw e;
+        } finally {
+            ring.publish(sequence);
+        }
+    }
+
+    RingBuffer<ListenerEventSlot> buffer() {
+        return ring;
+    }
+}
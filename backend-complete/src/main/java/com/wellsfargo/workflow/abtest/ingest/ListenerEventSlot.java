@@ -0,0 +1,166 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository.ActivityRow;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reusable slot of the listener event ring: either a finished execution,
+ * from a listener or the execute endpoint, or an activity event, already
+ * resolved to its arm. Both setters assign every
+ * field, so nothing from the slot's previous lap leaks into the next.
+ */
+@Getter
+final class ListenerEventSlot {
+
+    enum Kind { EXECUTION, ACTIVITY, NONE }
+
+    private Kind kind = Kind.NONE;
+    private String abTestId;
+    private String armId;
+    private String listenerExecutionId;
+
+    private String executionId;
+    private ABTestExecutionEntity.ExecutionStatus executionStatus;
+    private long executionTimeMs;
+    private String requestPayload;
+    private String responsePayload;
+    private String errorMessage;
+    private String userId;
+    private String sessionId;
+    private String metadata;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    private String activityId;
+    private String activityName;
+    private String eventType;
+    private String activityStatus;
+    private Long durationMs;
+    private LocalDateTime occurredAt;
+
+    void setExecution(ListenerEvent event, String armId, ABTestExecutionEntity.ExecutionStatus status,
+                      long executionTimeMs, LocalDateTime completedAt, String metadata) {
+        this.kind = Kind.EXECUTION;
+        this.abTestId = event.getTestId();
+        this.armId = armId;
+        this.listenerExecutionId = event.getExecutionId();
+        this.executionId = null;
+        this.executionStatus = status;
+        this.executionTimeMs = executionTimeMs;
+        this.requestPayload = event.getRequestPayload();
+        this.responsePayload = event.getResponsePayload();
+        this.errorMessage = event.getErrorMessage();
+        this.userId = event.getUserId();
+        this.sessionId = event.getSessionId();
+        this.metadata = metadata;
+        this.startedAt = completedAt.minusNanos(executionTimeMs * 1_000_000);
+        this.completedAt = completedAt;
+        clearActivity();
+    }
+
+    /**
+     * Copies an execution built elsewhere, an execute result or a parked one,
+     * keeping its id.
+     */
+    void setExecution(ABTestExecutionEntity execution, String listenerExecutionId) {
+        this.kind = Kind.EXECUTION;
+        this.abTestId = execution.getAbTestId();
+        this.armId = execution.getArmId();
+        this.listenerExecutionId = listenerExecutionId;
+        this.executionId = execution.getId();
+        this.executionStatus = execution.getStatus();
+        this.executionTimeMs = execution.getExecutionTimeMs();
+        this.requestPayload = execution.getRequestPayload();
+        this.responsePayload = execution.getResponsePayload();
+        this.errorMessage = execution.getErrorMessage();
+        this.userId = execution.getUserId();
+        this.sessionId = execution.getSessionId();
+        this.metadata = execution.getMetadata();
+        this.startedAt = execution.getStartedAt();
+        this.completedAt = execution.getCompletedAt();
+        clearActivity();
+    }
+
+    void setActivity(ActivityRow activity) {
+        setActivity(activity.getAbTestId(), activity.getArmId(), activity.getListenerExecutionId(),
+                activity.getActivityId(), activity.getActivityName(), activity.getEventType(), activity.getStatus(),
+                activity.getDurationMs(), activity.getOccurredAt());
+    }
+
+    void setActivity(String abTestId, String armId, String listenerExecutionId, String activityId,
+                     String activityName, String eventType, String status, Long durationMs,
+                     LocalDateTime occurredAt) {
+        this.kind = Kind.ACTIVITY;
+        this.abTestId = abTestId;
+        this.armId = armId;
+        this.listenerExecutionId = listenerExecutionId;
+        this.activityId = activityId;
+        this.activityName = activityName;
+        this.eventType = eventType;
+        this.activityStatus = status;
+        this.durationMs = durationMs;
+        this.occurredAt = occurredAt;
+        clearExecution();
+    }
+
+    /**
+     * Marks a claimed slot that could not be filled, so consumers pass over it.
+     */
+    void clear() {
+        this.kind = Kind.NONE;
+        this.abTestId = null;
+        this.armId = null;
+        this.listenerExecutionId = null;
+        clearExecution();
+        clearActivity();
+    }
+
+    ABTestExecutionEntity toExecution() {
+        ABTestExecutionEntity execution = new ABTestExecutionEntity();
+        execution.setId(executionId);
+        execution.setAbTestId(abTestId);
+        execution.setArmId(armId);
+        execution.setRequestPayload(requestPayload);
+        execution.setResponsePayload(responsePayload);
+        execution.setExecutionTimeMs(executionTimeMs);
+        execution.setStatus(executionStatus);
+        execution.setErrorMessage(errorMessage);
+        execution.setUserId(userId);
+        execution.setSessionId(sessionId);
+        execution.setMetadata(metadata);
+        execution.setStartedAt(startedAt);
+        execution.setCompletedAt(completedAt);
+        return execution;
+    }
+
+    ActivityRow toActivity() {
+        return new ActivityRow(abTestId, armId, listenerExecutionId, activityId, activityName, eventType,
+                activityStatus, durationMs, occurredAt);
+    }
+
+    private void clearExecution() {
+        this.executionId = null;
+        this.executionStatus = null;
+        this.executionTimeMs = 0;
+        this.requestPayload = null;
+        this.responsePayload = null;
+        this.errorMessage = null;
+        this.userId = null;
+        this.sessionId = null;
+        this.metadata = null;
+        this.startedAt = null;
+        this.completedAt = null;
+    }
+
+    private void clearActivity() {
+        this.activityId = null;
+        this.activityName = null;
+        this.eventType = null;
+        this.activityStatus = null;
+        this.durationMs = null;
+        this.occurredAt = null;
+    }
+}
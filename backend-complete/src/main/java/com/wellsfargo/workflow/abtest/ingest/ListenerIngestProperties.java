@@ -0,0 +1,64 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.listener-ingest")
+public class ListenerIngestProperties {
+
+    /**
+     * Most rows written per insert batch and transaction. Batches are smaller
+     * when fewer events are waiting.
+     */
+    private int batchSize = 2_000;
+
+    /**
+     * Events the pipeline holds between the request threads and the database; a
+     * power of two. When it is full, requests wait for room.
+     */
+    private int ringSize = 65_536;
+
+    /**
+     * Arm statistics are recomputed from all of the arm's executions, so while
+     * events keep arriving each arm is refreshed at most this often.
+     */
+    private long armStatisticsRefreshMs = 1_000;
+
+    /**
+     * Attempts at writing a batch before its events are parked in
+     * {@code listener_event_dead_letters}. Between attempts the writer waits
+     * {@code retryBackoffMs}, doubling up to {@code maxRetryBackoffMs}; while
+     * parking fails too it keeps retrying at the longest wait.
+     */
+    private int writeAttempts = 5;
+
+    private long retryBackoffMs = 100;
+
+    private long maxRetryBackoffMs = 5_000;
+
+    /**
+     * How often parked events are put back on the ring, at most {@code batchSize}
+     * at a time.
+     */
+    private long deadLetterReplayIntervalMs = 300_000;
+
+    /**
+     * How long the engine execution ids of written process ends are kept to
+     * recognise a batch that arrives again. Must cover the client's retries and
+     * the time its spilled batches may wait to be replayed.
+     */
+    private long duplicateWindowHours = 168;
+
+    /**
+     * How often keys older than {@code duplicateWindowHours} are deleted.
+     */
+    private long keyCleanupIntervalMs = 3_600_000;
+
+    /**
+     * How long shutdown waits for each pipeline consumer to drain.
+     */
+    private long shutdownTimeoutMs = 30_000;
+}
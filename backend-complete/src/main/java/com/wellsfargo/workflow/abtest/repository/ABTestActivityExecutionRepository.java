@@ -0,0 +1,95 @@
+package com.wellsfargo.workflow.abtest.repository;
+
+import com.wellsfargo.workflow.common.id.Uuid7;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Activity events reported by BPMN listeners, one row per event. An event that
+ * arrives again, with the same activity, type and time, is not written twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ABTestActivityExecutionRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO ab_test_activity_executions (id, ab_test_id, arm_id, listener_execution_id, activity_id,
+                                                     activity_name, event_type, status, duration_ms, occurred_at,
+                                                     created_at)
+            SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?
+            WHERE NOT EXISTS (SELECT 1 FROM ab_test_activity_executions
+                              WHERE ab_test_id = ? AND listener_execution_id = ? AND activity_id = ?
+                                AND event_type = ? AND occurred_at = ?)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value
+    public static class ActivityRow {
+        String abTestId;
+        String armId;
+        String listenerExecutionId;
+        String activityId;
+        String activityName;
+        String eventType;
+        String status;
+        Long durationMs;
+        LocalDateTime occurredAt;
+    }
+
+    /**
+     * Binds positionally rather than through a parameter map per row, which is
+     * measurably faster for batches of this size.
+     *
+     * @return the rows written, leaving out the events already recorded
+     */
+    public int appendAll(List<ActivityRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ActivityRow row = rows.get(i);
+                ps.setString(1, Uuid7.nextString());
+                ps.setString(2, row.getAbTestId());
+                ps.setString(3, row.getArmId());
+                ps.setString(4, row.getListenerExecutionId());
+                ps.setString(5, row.getActivityId());
+                ps.setString(6, row.getActivityName());
+                ps.setString(7, row.getEventType());
+                ps.setString(8, row.getStatus());
+                if (row.getDurationMs() != null) {
+                    ps.setLong(9, row.getDurationMs());
+                } else {
+                    ps.setNull(9, Types.BIGINT);
+                }
+                ps.setTimestamp(10, Timestamp.valueOf(row.getOccurredAt()));
+                ps.setTimestamp(11, now);
+                ps.setString(12, row.getAbTestId());
+                ps.setString(13, row.getListenerExecutionId());
+                ps.setString(14, row.getActivityId());
+                ps.setString(15, row.getEventType());
+                ps.setTimestamp(16, Timestamp.valueOf(row.getOccurredAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        int written = 0;
+        for (int count : counts) {
+            written += count != 0 ? 1 : 0;
+        }
+        return written;
+    }
+}
@@ -1,20 +1,56 @@
 package com.wellsfargo.workflow.abtest.repository;
 
+import com.wellsfargo.workflow.abtest.dto.ABTestExecutionExportRow;
 import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Repository
-public interface ABTestExecutionRepository extends JpaRepository<ABTestExecutionEntity, String> {
+public interface ABTestExecutionRepository extends JpaRepository<ABTestExecutionEntity, String>,
+        ABTestExecutionRepositoryCustom {
     List<ABTestExecutionEntity> findByAbTestId(String abTestId);
     List<ABTestExecutionEntity> findByAbTestIdAndArmId(String abTestId, String armId);
 
     @Query("SELECT COUNT(e) FROM ABTestExecutionEntity e WHERE e.abTestId = :testId AND e.armId = :armId AND e.status = :status")
     long countByTestArmStatus(@Param("testId") String testId, @Param("armId") String armId, @Param("status") ABTestExecutionEntity.ExecutionStatus status);
 
+    /**
+     * Changes whenever an execution of the test is appended or expired. Both parts
+     * are answered from the (ab_test_id, arm_id, execution_time_ms) index.
+     */
+    @Query("SELECT CONCAT(CAST(COUNT(e) AS String), ':', CAST(COALESCE(SUM(e.executionTimeMs), 0) AS String)) "
+            + "FROM ABTestExecutionEntity e WHERE e.abTestId = :testId")
+    String getWatermark(@Param("testId") String testId);
+
     @Query("SELECT e.executionTimeMs FROM ABTestExecutionEntity e WHERE e.abTestId = :testId AND e.armId = :armId ORDER BY e.executionTimeMs")
     List<Long> getExecutionTimesForPercentile(@Param("testId") String testId, @Param("armId") String armId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.wellsfargo.workflow.abtest.dto.ABTestExecutionExportRow(
+                e.id, e.abTestId, e.armId, CAST(e.status AS String), e.executionTimeMs, e.errorMessage,
+                e.userId, e.sessionId, e.requestPayload, e.startedAt, e.completedAt)
+            FROM ABTestExecutionEntity e
+            WHERE e.abTestId = :testId AND e.startedAt >= :from AND e.startedAt < :to
+            ORDER BY e.id
+            """)
+    Stream<ABTestExecutionExportRow> streamForExport(@Param("testId") String testId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    @Query("""
+            SELECT COUNT(e) FROM ABTestExecutionEntity e
+            WHERE e.abTestId = :testId AND e.startedAt >= :from AND e.startedAt < :to
+            """)
+    long countForExport(@Param("testId") String testId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,20 @@
+package com.wellsfargo.workflow.abtest.repository;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+
+import java.util.List;
+
+public interface ABTestExecutionRepositoryCustom {
+
+    /**
+     * Inserts the execution into the partition of its start time. Executions are
+     * read through the {@code ab_test_executions} view, which cannot take inserts,
+     * so this replaces {@code save}.
+     */
+    ABTestExecutionEntity append(ABTestExecutionEntity execution);
+
+    /**
+     * Batch-inserts the executions, one batch per partition of their start times.
+     */
+    void appendAll(List<ABTestExecutionEntity> executions);
+}
@@ -0,0 +1,74 @@
+package com.wellsfargo.workflow.abtest.repository;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.common.id.Uuid7;
+import com.wellsfargo.workflow.common.partition.PartitionRouter;
+import com.wellsfargo.workflow.common.partition.PartitionedTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ABTestExecutionRepositoryImpl implements ABTestExecutionRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO %s (id, ab_test_id, arm_id, request_payload, response_payload, execution_time_ms, status,
+                            error_message, user_id, session_id, metadata, started_at, completed_at, created_at)
+            VALUES (:id, :abTestId, :armId, :requestPayload, :responsePayload, :executionTimeMs, :status,
+                    :errorMessage, :userId, :sessionId, :metadata, :startedAt, :completedAt, :createdAt)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PartitionRouter partitionRouter;
+
+    @Override
+    public ABTestExecutionEntity append(ABTestExecutionEntity execution) {
+        String partition = partitionRouter.route(PartitionedTable.AB_TEST_EXECUTIONS, execution.getStartedAt());
+        jdbcTemplate.update(INSERT_SQL.formatted(partition), toParameters(execution, LocalDateTime.now()));
+        return execution;
+    }
+
+    @Override
+    public void appendAll(List<ABTestExecutionEntity> executions) {
+        Map<String, List<SqlParameterSource>> byPartition = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (ABTestExecutionEntity execution : executions) {
+            String partition = partitionRouter.route(PartitionedTable.AB_TEST_EXECUTIONS, execution.getStartedAt());
+            byPartition.computeIfAbsent(partition, name -> new ArrayList<>()).add(toParameters(execution, now));
+        }
+
+        byPartition.forEach((partition, rows) ->
+                jdbcTemplate.batchUpdate(INSERT_SQL.formatted(partition), rows.toArray(SqlParameterSource[]::new)));
+    }
+
+    private static SqlParameterSource toParameters(ABTestExecutionEntity execution, LocalDateTime now) {
+        if (execution.getId() == null) {
+            execution.setId(Uuid7.nextString());
+        }
+        if (execution.getCreatedAt() == null) {
+            execution.setCreatedAt(now);
+        }
+        return new MapSqlParameterSource()
+                .addValue("id", execution.getId())
+                .addValue("abTestId", execution.getAbTestId())
+                .addValue("armId", execution.getArmId())
+                .addValue("requestPayload", execution.getRequestPayload())
+                .addValue("responsePayload", execution.getResponsePayload())
+                .addValue("executionTimeMs", execution.getExecutionTimeMs())
+                .addValue("status", execution.getStatus().name())
+                .addValue("errorMessage", execution.getErrorMessage())
+                .addValue("userId", execution.getUserId())
+                .addValue("sessionId", execution.getSessionId())
+                .addValue("metadata", execution.getMetadata())
+                .addValue("startedAt", execution.getStartedAt())
+                .addValue("completedAt", execution.getCompletedAt())
+                .addValue("createdAt", execution.getCreatedAt());
+    }
+}
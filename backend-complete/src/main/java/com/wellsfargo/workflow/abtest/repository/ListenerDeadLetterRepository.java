@@ -0,0 +1,167 @@
+package com.wellsfargo.workflow.abtest.repository;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository.ActivityRow;
+import com.wellsfargo.workflow.common.id.Uuid7;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accepted listener events and execute results the pipeline could not write,
+ * parked until they are replayed, so a batch that keeps failing is neither
+ * dropped nor allowed to hold up the events behind it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListenerDeadLetterRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO listener_event_dead_letters (id, kind, ab_test_id, arm_id, listener_execution_id,
+                                                     execution_id, status, execution_time_ms, request_payload,
+                                                     response_payload, error_message, user_id, session_id, metadata,
+                                                     started_at, completed_at, activity_id, activity_name, event_type,
+                                                     duration_ms, occurred_at, failure, parked_at)
+            VALUES (:id, :kind, :abTestId, :armId, :listenerExecutionId, :executionId, :status, :executionTimeMs,
+                    :requestPayload, :responsePayload, :errorMessage, :userId, :sessionId, :metadata, :startedAt,
+                    :completedAt, :activityId, :activityName, :eventType, :durationMs, :occurredAt, :failure,
+                    :parkedAt)
+            """;
+
+    private static final String FIND_OLDEST_SQL = """
+            SELECT id, kind, ab_test_id, arm_id, listener_execution_id, execution_id, status, execution_time_ms,
+                   request_payload, response_payload, error_message, user_id, session_id, metadata, started_at,
+                   completed_at, activity_id, activity_name, event_type, duration_ms, occurred_at
+            FROM listener_event_dead_letters
+            ORDER BY parked_at, id
+            LIMIT :limit
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM listener_event_dead_letters WHERE id IN (:ids)";
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM listener_event_dead_letters";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Parks a batch: the executions with their engine execution ids, given in the
+     * same order (null for execute results), and the activities.
+     */
+    public void park(List<ABTestExecutionEntity> executions, List<String> listenerExecutionIds,
+                     List<ActivityRow> activities, String failure) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<SqlParameterSource> rows = new ArrayList<>(executions.size() + activities.size());
+        for (int i = 0; i < executions.size(); i++) {
+            ABTestExecutionEntity execution = executions.get(i);
+            rows.add(row("EXECUTION", execution.getAbTestId(), execution.getArmId(), listenerExecutionIds.get(i),
+                    failure, now)
+                    .addValue("executionId", execution.getId())
+                    .addValue("status", execution.getStatus().name())
+                    .addValue("executionTimeMs", execution.getExecutionTimeMs())
+                    .addValue("requestPayload", execution.getRequestPayload())
+                    .addValue("responsePayload", execution.getResponsePayload())
+                    .addValue("errorMessage", execution.getErrorMessage())
+                    .addValue("userId", execution.getUserId())
+                    .addValue("sessionId", execution.getSessionId())
+                    .addValue("metadata", execution.getMetadata())
+                    .addValue("startedAt", execution.getStartedAt())
+                    .addValue("completedAt", execution.getCompletedAt()));
+        }
+        for (ActivityRow activity : activities) {
+            rows.add(row("ACTIVITY", activity.getAbTestId(), activity.getArmId(),
+                    activity.getListenerExecutionId(), failure, now)
+                    .addValue("status", activity.getStatus())
+                    .addValue("activityId", activity.getActivityId())
+                    .addValue("activityName", activity.getActivityName())
+                    .addValue("eventType", activity.getEventType())
+                    .addValue("durationMs", activity.getDurationMs())
+                    .addValue("occurredAt", activity.getOccurredAt()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows.toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * The events parked longest, in the order they were parked.
+     */
+    public List<Parked> findOldest(int limit) {
+        return jdbcTemplate.query(FIND_OLDEST_SQL, Map.of("limit", limit), (rs, rowNum) -> parked(rs));
+    }
+
+    public int delete(Collection<String> ids) {
+        return ids.isEmpty() ? 0 : jdbcTemplate.update(DELETE_SQL, Map.of("ids", ids));
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Map.of(), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static MapSqlParameterSource row(String kind, String abTestId, String armId, String listenerExecutionId,
+                                             String failure, Timestamp parkedAt) {
+        MapSqlParameterSource row = new MapSqlParameterSource();
+        for (String column : List.of("executionId", "status", "executionTimeMs", "requestPayload",
+                "responsePayload", "errorMessage", "userId", "sessionId", "metadata", "startedAt", "completedAt",
+                "activityId", "activityName", "eventType", "durationMs", "occurredAt")) {
+            row.addValue(column, null);
+        }
+        return row
+                .addValue("id", Uuid7.nextString())
+                .addValue("kind", kind)
+                .addValue("abTestId", abTestId)
+                .addValue("armId", armId)
+                .addValue("listenerExecutionId", listenerExecutionId)
+                .addValue("failure", failure)
+                .addValue("parkedAt", parkedAt);
+    }
+
+    private static Parked parked(ResultSet rs) throws SQLException {
+        String id = rs.getString("id");
+        String listenerExecutionId = rs.getString("listener_execution_id");
+        if ("EXECUTION".equals(rs.getString("kind"))) {
+            ABTestExecutionEntity execution = new ABTestExecutionEntity();
+            execution.setId(rs.getString("execution_id"));
+            execution.setAbTestId(rs.getString("ab_test_id"));
+            execution.setArmId(rs.getString("arm_id"));
+            execution.setStatus(ABTestExecutionEntity.ExecutionStatus.valueOf(rs.getString("status")));
+            execution.setExecutionTimeMs(rs.getLong("execution_time_ms"));
+            execution.setRequestPayload(rs.getString("request_payload"));
+            execution.setResponsePayload(rs.getString("response_payload"));
+            execution.setErrorMessage(rs.getString("error_message"));
+            execution.setUserId(rs.getString("user_id"));
+            execution.setSessionId(rs.getString("session_id"));
+            execution.setMetadata(rs.getString("metadata"));
+            execution.setStartedAt(rs.getTimestamp("started_at").toLocalDateTime());
+            execution.setCompletedAt(rs.getTimestamp("completed_at").toLocalDateTime());
+            return new Parked(id, listenerExecutionId, execution, null);
+        }
+        long duration = rs.getLong("duration_ms");
+        Long durationMs = rs.wasNull() ? null : duration;
+        return new Parked(id, listenerExecutionId, null, new ActivityRow(rs.getString("ab_test_id"),
+                rs.getString("arm_id"), listenerExecutionId, rs.getString("activity_id"),
+                rs.getString("activity_name"), rs.getString("event_type"), rs.getString("status"),
+                durationMs, rs.getTimestamp("occurred_at").toLocalDateTime()));
+    }
+
+    /**
+     * A parked event: either an execution or an activity.
+     */
+    @Value
+    public static class Parked {
+        String id;
+        String listenerExecutionId;
+        ABTestExecutionEntity execution;
+        ActivityRow activity;
+    }
+}
@@ -0,0 +1,77 @@
+package com.wellsfargo.workflow.abtest.repository;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.common.id.Uuid7;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The engine execution ids of the process ends already written per test, so a
+ * listener batch that arrives twice, retried or replayed from the client's
+ * spill directory, records each execution once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListenerExecutionKeyRepository {
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO ab_test_listener_executions (ab_test_id, listener_execution_id, execution_id, created_at)
+            SELECT ?, ?, ?, ?
+            WHERE NOT EXISTS (SELECT 1 FROM ab_test_listener_executions
+                              WHERE ab_test_id = ? AND listener_execution_id = ?)
+            """;
+
+    private static final String DELETE_BEFORE_SQL = "DELETE FROM ab_test_listener_executions WHERE created_at < :cutoff";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Records the key of each execution, given in the same order, and returns
+     * which were new; an execution repeated within the list is new only the first
+     * time. Assigns the executions their ids. Joins the caller's transaction.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if another instance
+     *         recorded one of the keys concurrently
+     */
+    public boolean[] claim(List<ABTestExecutionEntity> executions, List<String> listenerExecutionIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = jdbcTemplate.getJdbcTemplate().batchUpdate(CLAIM_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ABTestExecutionEntity execution = executions.get(i);
+                if (execution.getId() == null) {
+                    execution.setId(Uuid7.nextString());
+                }
+                ps.setString(1, execution.getAbTestId());
+                ps.setString(2, listenerExecutionIds.get(i));
+                ps.setString(3, execution.getId());
+                ps.setTimestamp(4, now);
+                ps.setString(5, execution.getAbTestId());
+                ps.setString(6, listenerExecutionIds.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return executions.size();
+            }
+        });
+        boolean[] claimed = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            claimed[i] = counts[i] != 0;
+        }
+        return claimed;
+    }
+
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_BEFORE_SQL, new MapSqlParameterSource("cutoff", cutoff));
+    }
+}
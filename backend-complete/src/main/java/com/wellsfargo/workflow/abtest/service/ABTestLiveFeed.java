@@ -0,0 +1,42 @@
+package com.wellsfargo.workflow.abtest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.abtest.dto.ABTestAnalyticsResponse;
+import com.wellsfargo.workflow.abtest.dto.ABTestLiveUpdate;
+import com.wellsfargo.workflow.common.live.LiveFeed;
+import com.wellsfargo.workflow.common.live.LiveFeedProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ABTestLiveFeed extends LiveFeed<ABTestAnalyticsResponse, ABTestLiveUpdate> {
+
+    private final ABTestService abTestService;
+
+    public ABTestLiveFeed(ABTestService abTestService, ObjectMapper objectMapper, LiveFeedProperties properties) {
+        super(objectMapper, properties);
+        this.abTestService = abTestService;
+    }
+
+    @Override
+    protected ABTestAnalyticsResponse compute(String testId) {
+        return abTestService.getAnalytics(testId);
+    }
+
+    @Override
+    protected ABTestLiveUpdate diff(ABTestAnalyticsResponse previous, ABTestAnalyticsResponse next) {
+        if (previous == null) {
+            previous = new ABTestAnalyticsResponse();
+        }
+        ABTestLiveUpdate update = ABTestLiveUpdate.builder()
+                .overview(changed(previous.getOverview(), next.getOverview()))
+                .armPerformance(changedItems(previous.getArmPerformance(), next.getArmPerformance(),
+                        ABTestAnalyticsResponse.ArmPerformance::getArmId))
+                .timeSeries(changedItems(previous.getTimeSeries(), next.getTimeSeries(),
+                        ABTestAnalyticsResponse.TimeSeriesData::getTimestamp))
+                .removedTimestamps(removedKeys(previous.getTimeSeries(), next.getTimeSeries(),
+                        ABTestAnalyticsResponse.TimeSeriesData::getTimestamp))
+                .statisticalAnalysis(changed(previous.getStatisticalAnalysis(), next.getStatisticalAnalysis()))
+                .build();
+        return update.equals(new ABTestLiveUpdate()) ? null : update;
+    }
+}
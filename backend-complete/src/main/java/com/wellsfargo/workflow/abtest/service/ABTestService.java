@@ -3,16 +3,29 @@ package com.wellsfargo.workflow.abtest.service;
 import com.wellsfargo.workflow.abtest.dto.*;
 import com.wellsfargo.workflow.abtest.entity.*;
 import com.wellsfargo.workflow.abtest.repository.*;
+import com.wellsfargo.workflow.abtest.export.ABTestExecutionArrowWriter;
+import com.wellsfargo.workflow.abtest.ingest.ListenerEventRing;
+import com.wellsfargo.workflow.common.dto.ExportJobResponse;
+import com.wellsfargo.workflow.common.export.ExportFormat;
+import com.wellsfargo.workflow.common.export.ExportJobProperties;
+import com.wellsfargo.workflow.common.export.ExportJobRunner;
+import com.wellsfargo.workflow.common.export.RowExporter;
+import com.wellsfargo.workflow.common.http.ConditionalGet;
+import com.wellsfargo.workflow.common.id.Uuid7;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyStore;
 import com.wellsfargo.workflow.common.service.WorkflowExecutionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -23,6 +36,10 @@ public class ABTestService {
     private final ABTestArmRepository armRepository;
     private final ABTestExecutionRepository executionRepository;
     private final WorkflowExecutionService workflowExecutionService;
+    private final RowExporter rowExporter;
+    private final ExportJobRunner exportJobRunner;
+    private final ExportJobProperties exportJobProperties;
+    private final ListenerEventRing eventRing;
 
     @Transactional
     public ABTestResponse createABTest(ABTestRequest request, String userId) {
@@ -62,6 +79,7 @@ public class ABTestService {
             arm.setBpmnFilePath(armRequest.getBpmnFilePath());
             arm.setTrafficPercentage(armRequest.getTrafficPercentage());
             arm.setIsControl(armRequest.getIsControl());
+            arm.setSlaThresholdMs(armRequest.getSlaThresholdMs());
             abTest.addArm(arm);
         }
         armRepository.saveAll(abTest.getArms());
@@ -88,10 +106,17 @@ public class ABTestService {
     }
 
     @Transactional
-    public ExecutionResultResponse executeABTest(String testId, ExecuteABTestRequest request) {
-        ABTestEntity abTest = abTestRepository.findByIdWithArms(testId)
+    public ExecutionResultResponse executeABTest(String testId, ExecuteABTestRequest request,
+                                                 IdempotencyStore.Claim claim) {
+        ABTestEntity abTest = abTestRepository.findById(testId)
                 .orElseThrow(() -> new RuntimeException("Test not found"));
+        ExecutionResultResponse response = runExecution(abTest, request);
+        claim.record(response);
+        return response;
+    }
 
+    private ExecutionResultResponse runExecution(ABTestEntity abTest, ExecuteABTestRequest request) {
+        String testId = abTest.getId();
         ABTestArmEntity selectedArm = selectArmByTraffic(abTest.getArms());
         LocalDateTime startTime = LocalDateTime.now();
 
@@ -119,12 +144,12 @@ public class ABTestService {
         execution.setSessionId(request.getSessionId());
         execution.setStartedAt(startTime);
         execution.setCompletedAt(LocalDateTime.now());
-        executionRepository.save(execution);
-
-        updateArmMetrics(selectedArm.getId());
+        execution.setId(Uuid7.nextString());
+        eventRing.publishExecutionAfterCommit(execution);
 
         return ExecutionResultResponse.builder()
                 .testId(testId)
+                .executionId(execution.getId())
                 .selectedArmId(selectedArm.getId())
                 .status(status.name())
                 .executionTimeMs(executionTime)
@@ -186,7 +211,7 @@ public class ABTestService {
 
     @Transactional(readOnly = true)
     public ABTestResponse getABTest(String testId) {
-        ABTestEntity abTest = abTestRepository.findByIdWithArms(testId)
+        ABTestEntity abTest = abTestRepository.findById(testId)
                 .orElseThrow(() -> new RuntimeException("Test not found"));
         return mapToResponseWithSummary(abTest);
     }
@@ -200,7 +225,7 @@ public class ABTestService {
 
     @Transactional(readOnly = true)
     public ABTestAnalyticsResponse getAnalytics(String testId) {
-        ABTestEntity abTest = abTestRepository.findByIdWithArms(testId)
+        ABTestEntity abTest = abTestRepository.findById(testId)
                 .orElseThrow(() -> new RuntimeException("Test not found"));
 
         List<ABTestExecutionEntity> executions = executionRepository.findByAbTestId(testId);
@@ -208,6 +233,64 @@ public class ABTestService {
         return calculateAnalytics(abTest, abTest.getArms(), executions);
     }
 
+    /**
+     * Version of {@link #getAnalytics} for conditional GET. Executions are
+     * append-only, so their count and latency sum act as a watermark. The arm
+     * statistics in the response are refreshed separately, after the executions
+     * are written, so each arm's {@code updatedAt} is part of the version too.
+     */
+    @Transactional(readOnly = true)
+    public String getAnalyticsVersion(String testId) {
+        ABTestEntity abTest = abTestRepository.findById(testId)
+                .orElseThrow(() -> new RuntimeException("Test not found"));
+        List<Object> parts = new ArrayList<>();
+        parts.add(abTest.getId());
+        parts.add(executionRepository.getWatermark(testId));
+        abTest.getArms().forEach(arm -> parts.add(arm.getId() + "@" + arm.getUpdatedAt()));
+        return ConditionalGet.version(parts.toArray());
+    }
+
+    /**
+     * Streams the test's executions started in {@code [from, to)}, either bound
+     * optional, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<StreamingResponseBody> exportExecutions(String testId, ExportFormat format,
+                                                                  LocalDateTime from, LocalDateTime to) {
+        if (!abTestRepository.existsById(testId)) {
+            throw new RuntimeException("Test not found");
+        }
+        return rowExporter.export("ab-test-" + testId + "-executions", format, ABTestExecutionExportRow.class,
+                () -> executionRepository.streamForExport(testId,
+                        from != null ? from : RowExporter.EARLIEST, to != null ? to : RowExporter.LATEST));
+    }
+
+    /**
+     * Queues a background export of the test's executions started in
+     * {@code [from, to)} to an Arrow IPC file, for offline analysis of tests too
+     * large to page through.
+     */
+    @Transactional(readOnly = true)
+    public ExportJobResponse startDatasetExport(String testId, LocalDateTime from, LocalDateTime to) {
+        ABTestEntity test = abTestRepository.findById(testId)
+                .orElseThrow(() -> new RuntimeException("Test not found"));
+        List<String> armIds = test.getArms().stream().map(ABTestArmEntity::getId).toList();
+        LocalDateTime start = from != null ? from : RowExporter.EARLIEST;
+        LocalDateTime end = to != null ? to : RowExporter.LATEST;
+        long totalRows = executionRepository.countForExport(testId, start, end);
+
+        ABTestExecutionArrowWriter writer =
+                new ABTestExecutionArrowWriter(testId, armIds, exportJobProperties.getBatchRows());
+        return exportJobRunner.submit("Executions of A/B test " + test.getName(),
+                "ab-test-" + testId + "-executions.arrow", ABTestExecutionArrowWriter.MEDIA_TYPE, totalRows,
+                (out, progress) -> {
+                    try (Stream<ABTestExecutionExportRow> rows =
+                                 executionRepository.streamForExport(testId, start, end)) {
+                        writer.write(rows.iterator(), out, progress);
+                    }
+                });
+    }
+
     private ABTestAnalyticsResponse calculateAnalytics(ABTestEntity abTest, List<ABTestArmEntity> arms, List<ABTestExecutionEntity> executions) {
         long totalExec = executions.size();
         long totalSuccess = executions.stream()
@@ -319,6 +402,7 @@ public class ABTestService {
                 .p50Latency(arm.getP50Latency())
                 .p95Latency(arm.getP95Latency())
                 .p99Latency(arm.getP99Latency())
+                .slaThresholdMs(arm.getSlaThresholdMs())
                 .build();
     }
 
@@ -350,7 +434,7 @@ public class ABTestService {
     public ABTestAnalyticsResponse calculateComprehensiveMetrics(String testId) {
         log.info("Calculating comprehensive metrics for test: {}", testId);
 
-        ABTestEntity abTest = abTestRepository.findByIdWithArms(testId)
+        ABTestEntity abTest = abTestRepository.findById(testId)
                 .orElseThrow(() -> new RuntimeException("Test not found"));
 
         List<ABTestExecutionEntity> executions = executionRepository.findByAbTestId(testId);
@@ -396,7 +480,7 @@ public class ABTestService {
                         .build())
                 .collect(Collectors.toList());
 
-        List<ABTestAnalyticsResponse.TimeSeriesPoint> timeSeries = generateTimeSeries(executions, arms);
+        List<ABTestAnalyticsResponse.TimeSeriesData> timeSeries = generateTimeSeries(executions, arms);
 
         ABTestAnalyticsResponse.StatisticalAnalysis statistical = ABTestAnalyticsResponse.StatisticalAnalysis.builder()
                 .testType("Two-sample t-test")
@@ -419,7 +503,7 @@ public class ABTestService {
                 .build();
     }
 
-    private List<ABTestAnalyticsResponse.TimeSeriesPoint> generateTimeSeries(
+    private List<ABTestAnalyticsResponse.TimeSeriesData> generateTimeSeries(
             List<ABTestExecutionEntity> executions,
             List<ABTestArmEntity> arms) {
 
@@ -437,7 +521,7 @@ public class ABTestService {
         int intervals = Math.min((int) hoursBetween + 1, 24);
         long minutesPerInterval = Math.max(60, hoursBetween * 60 / intervals);
 
-        List<ABTestAnalyticsResponse.TimeSeriesPoint> timeSeries = new ArrayList<>();
+        List<ABTestAnalyticsResponse.TimeSeriesData> timeSeries = new ArrayList<>();
 
         for (int i = 0; i < intervals; i++) {
             LocalDateTime intervalStart = start.plus(i * minutesPerInterval, ChronoUnit.MINUTES);
@@ -473,7 +557,7 @@ public class ABTestService {
                 }
             }
 
-            timeSeries.add(ABTestAnalyticsResponse.TimeSeriesPoint.builder()
+            timeSeries.add(ABTestAnalyticsResponse.TimeSeriesData.builder()
                     .timestamp(intervalStart.toString())
                     .executionsByArm(executionsByArm)
                     .successRateByArm(successRateByArm)
@@ -0,0 +1,184 @@
+package com.wellsfargo.workflow.abtest.sla;
+
+import com.wellsfargo.workflow.abtest.dto.SlaComplianceResponse;
+import com.wellsfargo.workflow.abtest.dto.SlaTrackingResponse;
+import com.wellsfargo.workflow.abtest.entity.ABTestArmEntity;
+import com.wellsfargo.workflow.abtest.entity.ABTestEntity;
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestArmRepository;
+import com.wellsfargo.workflow.abtest.repository.ABTestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates every A/B test execution against its arm's latency SLA as it is
+ * recorded, instead of rescanning executions. Each arm has a {@link SlaWindow} of
+ * time buckets, so recording is one bucket update and current compliance is a
+ * sum over the buckets, both independent of how many executions there are. An
+ * execution breaches the SLA if it failed or timed out, or took longer than
+ * the threshold.
+ *
+ * Windows live in memory and start empty after a restart. Every
+ * {@code flush-interval-ms}, arms with new executions are snapshotted into
+ * {@code sla_tracking}, which keeps the history; arms idle for a whole window
+ * are then dropped.
+ */
+@Slf4j
+@Component
+public class SlaEngine {
+
+    private final SlaProperties properties;
+    private final ABTestRepository abTestRepository;
+    private final ABTestArmRepository armRepository;
+    private final SlaTrackingRepository trackingRepository;
+    private final Map<String, Long> thresholds = new ConcurrentHashMap<>();
+    private final Map<String, SlaWindow> windows = new ConcurrentHashMap<>();
+
+    public SlaEngine(SlaProperties properties, ABTestRepository abTestRepository,
+                     ABTestArmRepository armRepository, SlaTrackingRepository trackingRepository) {
+        this.properties = properties;
+        this.abTestRepository = abTestRepository;
+        this.armRepository = armRepository;
+        this.trackingRepository = trackingRepository;
+    }
+
+    /**
+     * Counts an execution that is already committed. The threshold is checked
+     * again under the window's lock, so a window a concurrent
+     * {@link #setThreshold} has just discarded is not recreated with the old one.
+     */
+    public void record(ABTestExecutionEntity execution) {
+        long loaded = thresholdOf(execution.getArmId());
+        LocalDateTime completedAt = execution.getCompletedAt() != null
+                ? execution.getCompletedAt() : LocalDateTime.now();
+        long completedAtMillis = completedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean failed = execution.getStatus() == ABTestExecutionEntity.ExecutionStatus.ERROR
+                || execution.getStatus() == ABTestExecutionEntity.ExecutionStatus.TIMEOUT;
+        long latency = execution.getExecutionTimeMs() != null ? execution.getExecutionTimeMs() : 0;
+        long now = System.currentTimeMillis();
+        windows.compute(execution.getArmId(), (armId, window) -> {
+            long threshold = thresholds.getOrDefault(armId, loaded);
+            if (window == null || window.getThresholdMs() != threshold) {
+                window = newWindow(execution.getAbTestId(), threshold);
+            }
+            window.record(completedAtMillis, latency, failed, now);
+            return window;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public SlaComplianceResponse getCompliance(String testId) {
+        ABTestEntity abTest = abTestRepository.findById(testId)
+                .orElseThrow(() -> new RuntimeException("Test not found"));
+        long now = System.currentTimeMillis();
+        List<SlaComplianceResponse.ArmCompliance> arms = new ArrayList<>();
+        for (ABTestArmEntity arm : abTest.getArms()) {
+            SlaWindow window = windows.get(arm.getId());
+            SlaWindow.Snapshot snapshot = window != null
+                    ? window.snapshot(now)
+                    : new SlaWindow.Snapshot(effectiveThreshold(arm.getSlaThresholdMs()), 0, 0, 0);
+            arms.add(SlaComplianceResponse.ArmCompliance.builder()
+                    .armId(arm.getId())
+                    .armName(arm.getName())
+                    .thresholdMs(snapshot.getThresholdMs())
+                    .executions(snapshot.getExecutions())
+                    .breaches(snapshot.getBreaches())
+                    .complianceRate(snapshot.getComplianceRate())
+                    .avgResponseTimeMs(snapshot.getAvgResponseTimeMs())
+                    .build());
+        }
+        return SlaComplianceResponse.builder()
+                .testId(testId)
+                .windowSeconds(properties.getWindowSeconds())
+                .evaluatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()))
+                .arms(arms)
+                .build();
+    }
+
+    public List<SlaTrackingResponse> getHistory(String testId, LocalDateTime from, LocalDateTime to) {
+        return trackingRepository.findHistory(testId, from, to);
+    }
+
+    /**
+     * Sets the arm's threshold, or reverts it to the default when
+     * {@code thresholdMs} is null. The arm's window starts afresh, so its counts
+     * are never a mix of two thresholds.
+     */
+    @Transactional
+    public void setThreshold(String testId, String armId, Long thresholdMs) {
+        if (thresholdMs != null && thresholdMs <= 0) {
+            throw new IllegalArgumentException("SLA threshold must be positive");
+        }
+        ABTestArmEntity arm = armRepository.findById(armId)
+                .filter(candidate -> candidate.getAbTest().getId().equals(testId))
+                .orElseThrow(() -> new RuntimeException("Arm not found"));
+        arm.setSlaThresholdMs(thresholdMs);
+        armRepository.save(arm);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                thresholds.put(armId, effectiveThreshold(thresholdMs));
+                windows.remove(armId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.sla.flush-interval-ms:60000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        LocalDateTime recordedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        List<SlaTrackingRepository.Sample> samples = new ArrayList<>();
+        windows.forEach((armId, window) -> {
+            SlaWindow.Snapshot snapshot = window.takeIfDirty(now);
+            if (snapshot != null) {
+                samples.add(new SlaTrackingRepository.Sample(window.getTestId(), armId, snapshot.getThresholdMs(),
+                        (int) properties.getWindowSeconds(), snapshot.getExecutions(), snapshot.getBreaches(),
+                        snapshot.getComplianceRate(), snapshot.getAvgResponseTimeMs(), recordedAt));
+            }
+        });
+        for (String armId : windows.keySet()) {
+            windows.computeIfPresent(armId, (id, window) -> window.isExpired(now) ? null : window);
+        }
+        if (samples.isEmpty()) {
+            return;
+        }
+        try {
+            trackingRepository.insertAll(samples);
+            log.debug("Recorded SLA compliance of {} arms", samples.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not record SLA compliance of {} arms: {}", samples.size(), e.getMessage());
+        }
+    }
+
+    private long thresholdOf(String armId) {
+        Long threshold = thresholds.get(armId);
+        if (threshold == null) {
+            threshold = effectiveThreshold(armRepository.findById(armId)
+                    .map(ABTestArmEntity::getSlaThresholdMs)
+                    .orElse(null));
+            thresholds.putIfAbsent(armId, threshold);
+        }
+        return threshold;
+    }
+
+    private long effectiveThreshold(Long thresholdMs) {
+        return thresholdMs != null ? thresholdMs : properties.getDefaultThresholdMs();
+    }
+
+    private SlaWindow newWindow(String testId, long thresholdMs) {
+        return new SlaWindow(testId, thresholdMs, properties.getBucketSeconds() * 1000L,
+                properties.getWindowBuckets());
+    }
+}
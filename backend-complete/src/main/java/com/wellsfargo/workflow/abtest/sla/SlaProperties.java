@@ -0,0 +1,34 @@
+package com.wellsfargo.workflow.abtest.sla;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.sla")
+public class SlaProperties {
+
+    /**
+     * Latency an execution must stay within, for arms without a threshold of
+     * their own.
+     */
+    private long defaultThresholdMs = 1_000;
+
+    /**
+     * Compliance covers the last {@code windowBuckets} buckets of this length; the
+     * window slides a bucket at a time.
+     */
+    private int bucketSeconds = 10;
+
+    private int windowBuckets = 30;
+
+    /**
+     * How often arms with new executions are snapshotted into sla_tracking.
+     */
+    private long flushIntervalMs = 60_000;
+
+    public long getWindowSeconds() {
+        return (long) bucketSeconds * windowBuckets;
+    }
+}
@@ -0,0 +1,91 @@
+package com.wellsfargo.workflow.abtest.sla;
+
+import com.wellsfargo.workflow.abtest.dto.SlaTrackingResponse;
+import com.wellsfargo.workflow.common.id.Uuid7;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SlaTrackingRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO sla_tracking (id, ab_test_id, arm_id, sla_threshold_ms, window_seconds, execution_count,
+                                      breach_count, compliance_rate, avg_response_time_ms, recorded_at)
+            VALUES (:id, :testId, :armId, :thresholdMs, :windowSeconds, :executions, :breaches, :complianceRate,
+                    :avgResponseTimeMs, :recordedAt)
+            """;
+
+    private static final String HISTORY_SQL = """
+            SELECT arm_id, sla_threshold_ms, window_seconds, execution_count, breach_count, compliance_rate,
+                   avg_response_time_ms, recorded_at
+            FROM sla_tracking
+            WHERE ab_test_id = :testId AND recorded_at >= :from AND recorded_at < :to
+            ORDER BY recorded_at, arm_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value
+    public static class Sample {
+        String abTestId;
+        String armId;
+        long thresholdMs;
+        int windowSeconds;
+        long executions;
+        long breaches;
+        Double complianceRate;
+        Double avgResponseTimeMs;
+        LocalDateTime recordedAt;
+    }
+
+    public void insertAll(List<Sample> samples) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, samples.stream()
+                .map(sample -> (SqlParameterSource) new MapSqlParameterSource()
+                        .addValue("id", Uuid7.nextString())
+                        .addValue("testId", sample.getAbTestId())
+                        .addValue("armId", sample.getArmId())
+                        .addValue("thresholdMs", sample.getThresholdMs())
+                        .addValue("windowSeconds", sample.getWindowSeconds())
+                        .addValue("executions", sample.getExecutions())
+                        .addValue("breaches", sample.getBreaches())
+                        .addValue("complianceRate", toDecimal(sample.getComplianceRate(), 4))
+                        .addValue("avgResponseTimeMs", toDecimal(sample.getAvgResponseTimeMs(), 2))
+                        .addValue("recordedAt", sample.getRecordedAt()))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    public List<SlaTrackingResponse> findHistory(String testId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(HISTORY_SQL, new MapSqlParameterSource()
+                        .addValue("testId", testId)
+                        .addValue("from", from)
+                        .addValue("to", to),
+                (rs, rowNum) -> SlaTrackingResponse.builder()
+                        .armId(rs.getString("arm_id"))
+                        .thresholdMs(rs.getLong("sla_threshold_ms"))
+                        .windowSeconds(rs.getInt("window_seconds"))
+                        .executions(rs.getLong("execution_count"))
+                        .breaches(rs.getLong("breach_count"))
+                        .complianceRate(toDouble(rs.getBigDecimal("compliance_rate")))
+                        .avgResponseTimeMs(toDouble(rs.getBigDecimal("avg_response_time_ms")))
+                        .recordedAt(rs.getTimestamp("recorded_at").toLocalDateTime())
+                        .build());
+    }
+
+    private static BigDecimal toDecimal(Double value, int scale) {
+        return value != null ? BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP) : null;
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+}
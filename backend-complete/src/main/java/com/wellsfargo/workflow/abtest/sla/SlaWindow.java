@@ -0,0 +1,120 @@
+package com.wellsfargo.workflow.abtest.sla;
+
+import lombok.Value;
+
+import java.util.Arrays;
+
+/**
+ * Sliding-window SLA counts of one arm, kept in a ring of time buckets. Recording
+ * an execution touches one bucket, clearing it first if it still holds a
+ * previous lap, so the cost is constant however many executions the window
+ * covers. Executions older than the window are ignored; ones stamped in the
+ * future count towards the current bucket.
+ */
+final class SlaWindow {
+
+    private final String testId;
+    private final long bucketMillis;
+    private final long thresholdMs;
+    private final long[] epochs;
+    private final long[] counts;
+    private final long[] breaches;
+    private final long[] latencySums;
+    private long newestEpoch = Long.MIN_VALUE;
+    private boolean dirty;
+
+    SlaWindow(String testId, long thresholdMs, long bucketMillis, int buckets) {
+        this.testId = testId;
+        this.thresholdMs = thresholdMs;
+        this.bucketMillis = bucketMillis;
+        this.epochs = new long[buckets];
+        this.counts = new long[buckets];
+        this.breaches = new long[buckets];
+        this.latencySums = new long[buckets];
+        Arrays.fill(epochs, Long.MIN_VALUE);
+    }
+
+    String getTestId() {
+        return testId;
+    }
+
+    long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    /**
+     * @return whether the execution breached the SLA
+     */
+    synchronized boolean record(long completedAtMillis, long latencyMs, boolean failed, long nowMillis) {
+        long nowEpoch = nowMillis / bucketMillis;
+        long epoch = Math.min(completedAtMillis / bucketMillis, nowEpoch);
+        boolean breach = failed || latencyMs > thresholdMs;
+        if (epoch <= nowEpoch - epochs.length) {
+            return breach;
+        }
+        int i = (int) Math.floorMod(epoch, (long) epochs.length);
+        if (epochs[i] != epoch) {
+            epochs[i] = epoch;
+            counts[i] = 0;
+            breaches[i] = 0;
+            latencySums[i] = 0;
+        }
+        counts[i]++;
+        latencySums[i] += latencyMs;
+        if (breach) {
+            breaches[i]++;
+        }
+        newestEpoch = Math.max(newestEpoch, epoch);
+        dirty = true;
+        return breach;
+    }
+
+    synchronized Snapshot snapshot(long nowMillis) {
+        long nowEpoch = nowMillis / bucketMillis;
+        long count = 0;
+        long breachCount = 0;
+        long latencySum = 0;
+        for (int i = 0; i < epochs.length; i++) {
+            if (epochs[i] > nowEpoch - epochs.length && epochs[i] <= nowEpoch) {
+                count += counts[i];
+                breachCount += breaches[i];
+                latencySum += latencySums[i];
+            }
+        }
+        return new Snapshot(thresholdMs, count, breachCount, latencySum);
+    }
+
+    /**
+     * A snapshot if anything was recorded since the last one taken this way.
+     */
+    synchronized Snapshot takeIfDirty(long nowMillis) {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return snapshot(nowMillis);
+    }
+
+    /**
+     * True once everything recorded has slid out of the window and been flushed.
+     */
+    synchronized boolean isExpired(long nowMillis) {
+        return !dirty && newestEpoch <= nowMillis / bucketMillis - epochs.length;
+    }
+
+    @Value
+    static class Snapshot {
+        long thresholdMs;
+        long executions;
+        long breaches;
+        long latencySumMs;
+
+        Double getComplianceRate() {
+            return executions > 0 ? (executions - breaches) / (double) executions : null;
+        }
+
+        Double getAvgResponseTimeMs() {
+            return executions > 0 ? latencySumMs / (double) executions : null;
+        }
+    }
+}
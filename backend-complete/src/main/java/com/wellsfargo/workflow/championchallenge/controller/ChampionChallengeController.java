@@ -3,12 +3,27 @@ package com.wellsfargo.workflow.championchallenge.controller;
 import com.wellsfargo.workflow.championchallenge.dto.*;
 import com.wellsfargo.workflow.championchallenge.service.ChampionChallengeService;
 import com.wellsfargo.workflow.common.dto.ErrorResponse;
+import com.wellsfargo.workflow.common.export.ExportFormat;
+import com.wellsfargo.workflow.common.http.ConditionalGet;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyConflictException;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyKeyReuseException;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyStore;
+import com.wellsfargo.workflow.common.ratelimit.ConcurrencyLimitExceededException;
+import com.wellsfargo.workflow.common.ratelimit.RateLimitExceededException;
+import com.wellsfargo.workflow.common.ratelimit.RateLimiter;
+import com.wellsfargo.workflow.common.service.WorkflowExecutionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -20,7 +35,16 @@ import java.util.UUID;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class ChampionChallengeController {
 
+    /**
+     * Finished executions only change when compaction drops their raw node metrics
+     * weeks later, and their version covers that.
+     */
+    private static final CacheControl FINISHED_EXECUTION_CACHE = CacheControl.maxAge(Duration.ofDays(7)).cachePublic();
+
     private final ChampionChallengeService championChallengeService;
+    private final RateLimiter rateLimiter;
+    private final WorkflowExecutionService workflowExecutionService;
+    private final IdempotencyStore idempotencyStore;
 
     // ========== COMPARISON ENDPOINTS (MASTER) ==========
 
@@ -38,9 +62,10 @@ public class ChampionChallengeController {
     }
 
     @GetMapping("/comparisons/{id}")
-    public ResponseEntity<ComparisonResponse> getComparison(@PathVariable UUID id) {
+    public ResponseEntity<ComparisonResponse> getComparison(@PathVariable UUID id, WebRequest request) {
         log.info("Fetching comparison: {}", id);
-        return ResponseEntity.ok(championChallengeService.getComparison(id));
+        return ConditionalGet.respond(request, championChallengeService.getComparisonVersion(id), CacheControl.noCache(),
+                () -> championChallengeService.getComparison(id));
     }
 
     @DeleteMapping("/comparisons/{id}")
@@ -55,10 +80,16 @@ public class ChampionChallengeController {
     @PostMapping("/comparisons/{id}/execute")
     public ResponseEntity<ExecutionResponse> executeComparison(
             @PathVariable UUID id,
-            @RequestBody Map<String, Object> payload) {
+            @RequestBody Map<String, Object> payload,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        rateLimiter.acquire(id.toString(), RateLimiter.caller(httpRequest));
         log.info("Executing comparison: {}", id);
         String requestPayload = payload.toString(); // Convert to JSON string in production
-        ExecutionResponse response = championChallengeService.executeComparison(id, requestPayload, "system");
+        ExecutionResponse response = idempotencyStore.execute(
+                IdempotencyStore.key("comparison:" + id, idempotencyKey), requestPayload, ExecutionResponse.class,
+                claim -> workflowExecutionService.execute(
+                        () -> championChallengeService.executeComparison(id, requestPayload, "system", claim)));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -68,14 +99,75 @@ public class ChampionChallengeController {
         return ResponseEntity.ok(championChallengeService.listExecutions(id));
     }
 
+    @GetMapping("/comparisons/{id}/executions/export")
+    public ResponseEntity<StreamingResponseBody> exportExecutions(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Exporting executions of comparison {} as {}", id, format);
+        return championChallengeService.exportExecutions(id, ExportFormat.fromName(format), from, to);
+    }
+
+    @GetMapping("/comparisons/{id}/node-metrics/export")
+    public ResponseEntity<StreamingResponseBody> exportNodeMetrics(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Exporting node metrics of comparison {} as {}", id, format);
+        return championChallengeService.exportNodeMetrics(id, ExportFormat.fromName(format), from, to);
+    }
+
     @GetMapping("/executions/{executionId}")
-    public ResponseEntity<ExecutionResponse> getExecution(@PathVariable String executionId) {
+    public ResponseEntity<ExecutionResponse> getExecution(@PathVariable String executionId, WebRequest request) {
         log.info("Fetching execution: {}", executionId);
-        return ResponseEntity.ok(championChallengeService.getExecution(executionId));
+        ExecutionVersion version = championChallengeService.getExecutionVersion(executionId);
+        return ConditionalGet.respond(request, version.getVersion(),
+                version.isFinished() ? FINISHED_EXECUTION_CACHE : CacheControl.noCache(),
+                () -> championChallengeService.getExecution(executionId));
     }
 
     // ========== EXCEPTION HANDLERS ==========
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("IDEMPOTENCY_CONFLICT")
+                        .build());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("IDEMPOTENCY_KEY_REUSED")
+                        .build());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("RATE_LIMITED")
+                        .build());
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("OVERLOADED")
+                        .build());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception", ex);
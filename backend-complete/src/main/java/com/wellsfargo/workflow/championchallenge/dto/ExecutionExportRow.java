@@ -0,0 +1,27 @@
+package com.wellsfargo.workflow.championchallenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "comparisonId", "status", "winner", "totalChampionTimeMs", "totalChallengeTimeMs",
+        "championError", "challengeError", "createdBy", "requestPayload", "startedAt", "completedAt"})
+public class ExecutionExportRow {
+    private String id;
+    private UUID comparisonId;
+    private String status;
+    private String winner;
+    private Long totalChampionTimeMs;
+    private Long totalChallengeTimeMs;
+    private Boolean championError;
+    private Boolean challengeError;
+    private String createdBy;
+    private String requestPayload;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
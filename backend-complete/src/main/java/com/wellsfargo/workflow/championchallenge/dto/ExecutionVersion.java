@@ -0,0 +1,19 @@
+package com.wellsfargo.workflow.championchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionVersion {
+    private String version;
+
+    /**
+     * Completed and failed executions are no longer written to.
+     */
+    private boolean finished;
+}
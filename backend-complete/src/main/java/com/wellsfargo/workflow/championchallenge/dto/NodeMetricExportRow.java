@@ -0,0 +1,31 @@
+package com.wellsfargo.workflow.championchallenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One node metric of an export. The sampled request and response bodies are left
+ * out; they are available per execution.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"executionId", "variant", "sequence", "nodeId", "nodeName", "nodeType", "status",
+        "executionTimeMs", "errorMessage", "memoryUsedMb", "cpuUsagePercent", "startedAt", "completedAt"})
+public class NodeMetricExportRow {
+    private String executionId;
+    private String variant;
+    private Integer sequence;
+    private String nodeId;
+    private String nodeName;
+    private String nodeType;
+    private String status;
+    private Long executionTimeMs;
+    private String errorMessage;
+    private Double memoryUsedMb;
+    private Double cpuUsagePercent;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -1,8 +1,8 @@
 package com.wellsfargo.workflow.championchallenge.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -14,8 +14,7 @@ import java.util.*;
 public class ChampionChallengeExecutionEntity {
 
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Uuid7Id
     @Column(name = "id", length = 36)
     private String id;
 
@@ -51,7 +50,13 @@ public class ChampionChallengeExecutionEntity {
     @Column(name = "winner", length = 50)
     private String winner;
 
-    @OneToMany(mappedBy = "execution", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @Column(name = "champion_error", nullable = false)
+    private Boolean championError = false;
+
+    @Column(name = "challenge_error", nullable = false)
+    private Boolean challengeError = false;
+
+    @OneToMany(mappedBy = "execution", fetch = FetchType.LAZY)
     private List<ExecutionNodeMetricEntity> nodeMetrics = new ArrayList<>();
 
     @PrePersist
@@ -1,6 +1,9 @@
 package com.wellsfargo.workflow.championchallenge.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,10 +11,12 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "champion_challenge_comparisons")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "champion-challenge-comparison")
 public class ComparisonEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Uuid7Id
     private UUID id;
 
     @Column(nullable = false)
@@ -1,8 +1,8 @@
 package com.wellsfargo.workflow.championchallenge.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
 import java.time.LocalDateTime;
 
 @Entity
@@ -13,8 +13,7 @@ import java.time.LocalDateTime;
 public class ExecutionComparisonEntity {
 
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Uuid7Id
     @Column(name = "id", length = 36)
     private String id;
 
@@ -1,11 +1,14 @@
 package com.wellsfargo.workflow.championchallenge.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
 import java.time.LocalDateTime;
 
+// Mapped to the partition view; inserts go through the repository's append.
 @Entity
+@Immutable
 @Table(name = "execution_node_metrics")
 @Data
 @NoArgsConstructor
@@ -13,8 +16,7 @@ import java.time.LocalDateTime;
 public class ExecutionNodeMetricEntity {
 
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Uuid7Id
     @Column(name = "id", length = 36)
     private String id;
 
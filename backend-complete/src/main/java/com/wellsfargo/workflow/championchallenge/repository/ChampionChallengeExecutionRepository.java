@@ -1,11 +1,17 @@
 package com.wellsfargo.workflow.championchallenge.repository;
 
+import com.wellsfargo.workflow.championchallenge.dto.ExecutionExportRow;
 import com.wellsfargo.workflow.championchallenge.entity.ChampionChallengeExecutionEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Repository
 public interface ChampionChallengeExecutionRepository extends JpaRepository<ChampionChallengeExecutionEntity, String> {
@@ -13,4 +19,18 @@ public interface ChampionChallengeExecutionRepository extends JpaRepository<Cham
 
     @Query("SELECT e FROM ChampionChallengeExecutionEntity e LEFT JOIN FETCH e.nodeMetrics WHERE e.id = :id")
     Optional<ChampionChallengeExecutionEntity> findByIdWithMetrics(@Param("id") String id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.wellsfargo.workflow.championchallenge.dto.ExecutionExportRow(
+                e.id, e.comparison.id, CAST(e.status AS String), e.winner, e.totalChampionTimeMs,
+                e.totalChallengeTimeMs, e.championError, e.challengeError, e.createdBy, e.requestPayload,
+                e.startedAt, e.completedAt)
+            FROM ChampionChallengeExecutionEntity e
+            WHERE e.comparison.id = :comparisonId AND e.startedAt >= :from AND e.startedAt < :to
+            ORDER BY e.id
+            """)
+    Stream<ExecutionExportRow> streamForExport(@Param("comparisonId") UUID comparisonId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
 }
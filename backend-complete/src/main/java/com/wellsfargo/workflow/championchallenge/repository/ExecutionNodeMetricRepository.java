@@ -1,17 +1,44 @@
 package com.wellsfargo.workflow.championchallenge.repository;
 
+import com.wellsfargo.workflow.championchallenge.dto.NodeMetricExportRow;
 import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExecutionNodeMetricRepository extends JpaRepository<ExecutionNodeMetricEntity, String> {
+public interface ExecutionNodeMetricRepository extends JpaRepository<ExecutionNodeMetricEntity, String>,
+        ExecutionNodeMetricRepositoryCustom {
     @Query("SELECT m FROM ExecutionNodeMetricEntity m WHERE m.execution.id = :executionId")
     List<ExecutionNodeMetricEntity> findByExecutionId(@Param("executionId") String executionId);
 
     @Query("SELECT m FROM ExecutionNodeMetricEntity m WHERE m.execution.id = :executionId AND m.variant = :variant")
     List<ExecutionNodeMetricEntity> findByExecutionIdAndVariant(@Param("executionId") String executionId, @Param("variant") String variant);
+
+    @Query("SELECT COUNT(m) FROM ExecutionNodeMetricEntity m WHERE m.execution.id = :executionId")
+    long countByExecutionId(@Param("executionId") String executionId);
+
+    /**
+     * Raw node metrics of a comparison's executions started in {@code [from, to)}.
+     * Metrics already compacted into daily histograms are not included.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.wellsfargo.workflow.championchallenge.dto.NodeMetricExportRow(
+                e.id, m.variant, m.sequence, m.nodeId, m.nodeName, m.nodeType, m.status, m.executionTimeMs,
+                m.errorMessage, m.memoryUsedMb, m.cpuUsagePercent, m.startedAt, m.completedAt)
+            FROM ExecutionNodeMetricEntity m JOIN m.execution e
+            WHERE e.comparison.id = :comparisonId AND e.startedAt >= :from AND e.startedAt < :to
+            ORDER BY e.id, m.variant, m.sequence
+            """)
+    Stream<NodeMetricExportRow> streamForExport(@Param("comparisonId") UUID comparisonId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,16 @@
+package com.wellsfargo.workflow.championchallenge.repository;
+
+import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
+
+import java.util.List;
+
+public interface ExecutionNodeMetricRepositoryCustom {
+
+    /**
+     * Batch-inserts the metrics into the partition of their execution's start
+     * time. Metrics are read through the {@code execution_node_metrics} view,
+     * which cannot take inserts, so this replaces {@code save}. The execution
+     * row must already be flushed.
+     */
+    void append(List<ExecutionNodeMetricEntity> metrics);
+}
@@ -0,0 +1,71 @@
+package com.wellsfargo.workflow.championchallenge.repository;
+
+import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
+import com.wellsfargo.workflow.common.id.Uuid7;
+import com.wellsfargo.workflow.common.partition.PartitionRouter;
+import com.wellsfargo.workflow.common.partition.PartitionedTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ExecutionNodeMetricRepositoryImpl implements ExecutionNodeMetricRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO %s (id, execution_id, variant, node_id, node_name, node_type, sequence, request_data,
+                            response_data, execution_time_ms, status, error_message, started_at, completed_at,
+                            memory_used_mb, cpu_usage_percent, metadata, created_at)
+            VALUES (:id, :executionId, :variant, :nodeId, :nodeName, :nodeType, :sequence, :requestData,
+                    :responseData, :executionTimeMs, :status, :errorMessage, :startedAt, :completedAt,
+                    :memoryUsedMb, :cpuUsagePercent, :metadata, :createdAt)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PartitionRouter partitionRouter;
+
+    @Override
+    public void append(List<ExecutionNodeMetricEntity> metrics) {
+        Map<String, List<SqlParameterSource>> byPartition = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (ExecutionNodeMetricEntity metric : metrics) {
+            if (metric.getId() == null) {
+                metric.setId(Uuid7.nextString());
+            }
+            if (metric.getCreatedAt() == null) {
+                metric.setCreatedAt(now);
+            }
+
+            String partition = partitionRouter.route(PartitionedTable.EXECUTION_NODE_METRICS,
+                    metric.getExecution().getStartedAt());
+            byPartition.computeIfAbsent(partition, name -> new ArrayList<>()).add(new MapSqlParameterSource()
+                    .addValue("id", metric.getId())
+                    .addValue("executionId", metric.getExecution().getId())
+                    .addValue("variant", metric.getVariant())
+                    .addValue("nodeId", metric.getNodeId())
+                    .addValue("nodeName", metric.getNodeName())
+                    .addValue("nodeType", metric.getNodeType())
+                    .addValue("sequence", metric.getSequence())
+                    .addValue("requestData", metric.getRequestData())
+                    .addValue("responseData", metric.getResponseData())
+                    .addValue("executionTimeMs", metric.getExecutionTimeMs())
+                    .addValue("status", metric.getStatus())
+                    .addValue("errorMessage", metric.getErrorMessage())
+                    .addValue("startedAt", metric.getStartedAt())
+                    .addValue("completedAt", metric.getCompletedAt())
+                    .addValue("memoryUsedMb", metric.getMemoryUsedMb() != null ? metric.getMemoryUsedMb() : 0.0)
+                    .addValue("cpuUsagePercent", metric.getCpuUsagePercent() != null ? metric.getCpuUsagePercent() : 0.0)
+                    .addValue("metadata", metric.getMetadata())
+                    .addValue("createdAt", metric.getCreatedAt()));
+        }
+
+        byPartition.forEach((partition, rows) ->
+                jdbcTemplate.batchUpdate(INSERT_SQL.formatted(partition), rows.toArray(SqlParameterSource[]::new)));
+    }
+}
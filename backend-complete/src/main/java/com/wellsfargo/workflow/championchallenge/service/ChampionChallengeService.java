@@ -3,11 +3,17 @@ package com.wellsfargo.workflow.championchallenge.service;
 import com.wellsfargo.workflow.championchallenge.dto.*;
 import com.wellsfargo.workflow.championchallenge.entity.*;
 import com.wellsfargo.workflow.championchallenge.repository.*;
+import com.wellsfargo.workflow.common.export.ExportFormat;
+import com.wellsfargo.workflow.common.export.RowExporter;
+import com.wellsfargo.workflow.common.http.ConditionalGet;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyStore;
 import com.wellsfargo.workflow.common.service.WorkflowExecutionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -23,6 +29,7 @@ public class ChampionChallengeService {
     private final ExecutionComparisonRepository executionComparisonRepository;
     private final ComparisonRepository comparisonRepository;
     private final WorkflowExecutionService workflowExecutionService;
+    private final RowExporter rowExporter;
 
     private static final List<String> SAMPLE_NODES = Arrays.asList(
             "StartEvent", "ServiceTask_ValidateInput", "ServiceTask_ProcessData",
@@ -82,6 +89,16 @@ public class ChampionChallengeService {
         return mapToComparisonResponse(comparison);
     }
 
+    /**
+     * Version of {@link #getComparison} for conditional GET: its update time.
+     */
+    @Transactional(readOnly = true)
+    public String getComparisonVersion(UUID id) {
+        ComparisonEntity comparison = comparisonRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Comparison not found"));
+        return ConditionalGet.version(comparison.getId(), comparison.getUpdatedAt());
+    }
+
     @Transactional
     public void deleteComparison(UUID id) {
         log.info("Deleting comparison: {}", id);
@@ -91,12 +108,18 @@ public class ChampionChallengeService {
     // ========== EXECUTION METHODS (DETAIL) ==========
 
     @Transactional
-    public ExecutionResponse executeComparison(UUID comparisonId, String requestPayload, String userId) {
+    public ExecutionResponse executeComparison(UUID comparisonId, String requestPayload, String userId,
+                                               IdempotencyStore.Claim claim) {
         log.info("Executing comparison: {}", comparisonId);
 
         ComparisonEntity comparison = comparisonRepository.findById(comparisonId)
                 .orElseThrow(() -> new RuntimeException("Comparison not found"));
+        ExecutionResponse response = runExecution(comparison, requestPayload, userId);
+        claim.record(response);
+        return response;
+    }
 
+    private ExecutionResponse runExecution(ComparisonEntity comparison, String requestPayload, String userId) {
         ChampionChallengeExecutionEntity execution = new ChampionChallengeExecutionEntity();
         execution.setComparison(comparison);
         execution.setRequestPayload(requestPayload);
@@ -104,7 +127,7 @@ public class ChampionChallengeService {
         execution.setStatus(ChampionChallengeExecutionEntity.ExecutionStatus.RUNNING);
         execution.setStartedAt(LocalDateTime.now());
 
-        execution = executionRepository.save(execution);
+        execution = executionRepository.saveAndFlush(execution);
 
         List<ExecutionNodeMetricEntity> championMetrics = executeWorkflow(
                 execution, "CHAMPION", comparison.getChampionWorkflowId());
@@ -119,6 +142,8 @@ public class ChampionChallengeService {
         execution.setTotalChampionTimeMs(championTotal);
         execution.setTotalChallengeTimeMs(challengeTotal);
         execution.setWinner(championTotal < challengeTotal ? "CHAMPION" : "CHALLENGE");
+        execution.setChampionError(championMetrics.stream().anyMatch(m -> "ERROR".equals(m.getStatus())));
+        execution.setChallengeError(challengeMetrics.stream().anyMatch(m -> "ERROR".equals(m.getStatus())));
         execution.setStatus(ChampionChallengeExecutionEntity.ExecutionStatus.COMPLETED);
         execution.setCompletedAt(LocalDateTime.now());
 
@@ -148,8 +173,58 @@ public class ChampionChallengeService {
         return mapToExecutionResponse(execution, execution.getComparison());
     }
 
+    /**
+     * Version of {@link #getExecution} without loading its node metrics. The metric
+     * count is part of it because compaction later drops an old execution's
+     * raw metrics.
+     */
+    @Transactional(readOnly = true)
+    public ExecutionVersion getExecutionVersion(String executionId) {
+        ChampionChallengeExecutionEntity execution = executionRepository.findById(executionId)
+                .orElseThrow(() -> new RuntimeException("Execution not found"));
+        ChampionChallengeExecutionEntity.ExecutionStatus status = execution.getStatus();
+        return ExecutionVersion.builder()
+                .version(ConditionalGet.version(execution.getId(), status, execution.getCompletedAt(),
+                        metricRepository.countByExecutionId(executionId)))
+                .finished(status == ChampionChallengeExecutionEntity.ExecutionStatus.COMPLETED
+                        || status == ChampionChallengeExecutionEntity.ExecutionStatus.FAILED)
+                .build();
+    }
+
+    /**
+     * Streams the comparison's executions started in {@code [from, to)}, either
+     * bound optional, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<StreamingResponseBody> exportExecutions(UUID comparisonId, ExportFormat format,
+                                                                  LocalDateTime from, LocalDateTime to) {
+        requireComparison(comparisonId);
+        return rowExporter.export("comparison-" + comparisonId + "-executions", format, ExecutionExportRow.class,
+                () -> executionRepository.streamForExport(comparisonId,
+                        from != null ? from : RowExporter.EARLIEST, to != null ? to : RowExporter.LATEST));
+    }
+
+    /**
+     * Streams the node metrics of the comparison's executions started in
+     * {@code [from, to)}, grouped by execution.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<StreamingResponseBody> exportNodeMetrics(UUID comparisonId, ExportFormat format,
+                                                                   LocalDateTime from, LocalDateTime to) {
+        requireComparison(comparisonId);
+        return rowExporter.export("comparison-" + comparisonId + "-node-metrics", format, NodeMetricExportRow.class,
+                () -> metricRepository.streamForExport(comparisonId,
+                        from != null ? from : RowExporter.EARLIEST, to != null ? to : RowExporter.LATEST));
+    }
+
     // ========== HELPER METHODS ==========
 
+    private void requireComparison(UUID comparisonId) {
+        if (!comparisonRepository.existsById(comparisonId)) {
+            throw new RuntimeException("Comparison not found");
+        }
+    }
+
     private List<ExecutionNodeMetricEntity> executeWorkflow(
             ChampionChallengeExecutionEntity execution, String variant, String workflowId) {
         List<ExecutionNodeMetricEntity> metrics = new ArrayList<>();
@@ -190,7 +265,6 @@ public class ChampionChallengeService {
             metric.setResponseData("{\"result\":\"success\"}");
 
             execution.addNodeMetric(metric);
-            metricRepository.save(metric);
             metrics.add(metric);
 
             if ("ERROR".equals(status)) {
@@ -198,6 +272,7 @@ public class ChampionChallengeService {
             }
         }
 
+        metricRepository.append(metrics);
         return metrics;
     }
 
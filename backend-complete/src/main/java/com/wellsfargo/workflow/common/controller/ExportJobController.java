@@ -0,0 +1,65 @@
+package com.wellsfargo.workflow.common.controller;
+
+import com.wellsfargo.workflow.common.dto.ErrorResponse;
+import com.wellsfargo.workflow.common.dto.ExportJobResponse;
+import com.wellsfargo.workflow.common.export.ExportJob;
+import com.wellsfargo.workflow.common.export.ExportJobRunner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class ExportJobController {
+
+    private final ExportJobRunner exportJobRunner;
+
+    @GetMapping
+    public ResponseEntity<List<ExportJobResponse>> listJobs() {
+        return ResponseEntity.ok(exportJobRunner.listJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ExportJobResponse> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(exportJobRunner.getJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/file")
+    public ResponseEntity<Resource> downloadFile(@PathVariable String jobId) {
+        ExportJob job = exportJobRunner.getCompletedJob(jobId);
+        return ResponseEntity.ok()
+                .contentType(job.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(job.getFile().getFileName().toString())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(job.getFile()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("EXPORT_NOT_READY")
+                        .build());
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponse.builder()
+                        .message(ex.getMessage())
+                        .error("EXPORT_NOT_FOUND")
+                        .build());
+    }
+}
@@ -0,0 +1,29 @@
+package com.wellsfargo.workflow.common.controller;
+
+import com.wellsfargo.workflow.common.dto.ConcurrencyLimitResponse;
+import com.wellsfargo.workflow.common.dto.RateLimitStatisticsResponse;
+import com.wellsfargo.workflow.common.ratelimit.AdaptiveConcurrencyLimiter;
+import com.wellsfargo.workflow.common.ratelimit.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/rate-limits")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class RateLimitController {
+
+    private final RateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @GetMapping("/statistics")
+    public ResponseEntity<RateLimitStatisticsResponse> getStatistics() {
+        return ResponseEntity.ok(rateLimiter.getStatistics());
+    }
+
+    @GetMapping("/concurrency")
+    public ResponseEntity<ConcurrencyLimitResponse> getConcurrencyLimit() {
+        return ResponseEntity.ok(concurrencyLimiter.getStatistics());
+    }
+}
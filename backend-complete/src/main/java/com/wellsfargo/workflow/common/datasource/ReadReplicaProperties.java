@@ -0,0 +1,40 @@
+package com.wellsfargo.workflow.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.datasource.read")
+public class ReadReplicaProperties {
+
+    /**
+     * Routes {@code @Transactional(readOnly = true)} work to a separate read pool;
+     * everything else keeps using {@code spring.datasource}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replica JDBC URL. Left empty, the read pool connects to the primary database,
+     * which still keeps dashboard reads from taking the write pool's connections.
+     */
+    private String url;
+
+    /**
+     * Defaults to {@code spring.datasource.username} / {@code password}.
+     */
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+
+    /**
+     * Read-only work falls back to the primary while the measured replica lag
+     * exceeds this, or while the replica cannot be reached.
+     */
+    private long maxLagMs = 5000;
+
+    private long heartbeatIntervalMs = 1000;
+}
@@ -0,0 +1,65 @@
+package com.wellsfargo.workflow.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single auto-configured pool with a write pool (from
+ * {@code spring.datasource}) and a read pool (from {@code workflow.datasource.read}),
+ * behind one routing data source that JPA, JDBC templates and Flyway all use.
+ * Work outside a read-only transaction, including migrations and partition DDL,
+ * always goes to the write pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "workflow.datasource.read", name = "enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("write");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties primary, ReadReplicaProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("read");
+        dataSource.setDriverClassName(primary.determineDriverClassName());
+        dataSource.setJdbcUrl(properties.getUrl() != null ? properties.getUrl() : primary.determineUrl());
+        dataSource.setUsername(properties.getUsername() != null
+                ? properties.getUsername() : primary.determineUsername());
+        dataSource.setPassword(properties.getPassword() != null
+                ? properties.getPassword() : primary.determinePassword());
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("writeDataSource") DataSource write,
+                                               @Qualifier("readDataSource") DataSource read,
+                                               ReadReplicaProperties properties) {
+        return new ReplicaLagMonitor(write, read, properties.getMaxLagMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource write,
+                                 @Qualifier("readDataSource") DataSource read,
+                                 ReplicaLagMonitor lagMonitor) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(write, read, lagMonitor);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,35 @@
+package com.wellsfargo.workflow.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections requested inside a read-only transaction to the read pool
+ * while the replica is within its lag budget, and everything else to the primary.
+ *
+ * The read-only flag is only bound after the transaction manager has begun the
+ * transaction, so this must sit behind a {@code LazyConnectionDataSourceProxy},
+ * which defers the physical connection to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { WRITE, READ }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource write, DataSource read, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.WRITE, write, Route.READ, read));
+        setDefaultTargetDataSource(write);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()
+                ? Route.READ
+                : Route.WRITE;
+    }
+}
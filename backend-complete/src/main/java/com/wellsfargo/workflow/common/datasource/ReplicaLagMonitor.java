@@ -0,0 +1,72 @@
+package com.wellsfargo.workflow.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary's copy is stamped on
+ * every tick and the replica's copy read back, so the lag is how far the
+ * replica's stamp trails the latest one written. Until the first successful
+ * tick, and whenever the replica is unreachable or too far behind, reads stay
+ * on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String BEAT_SQL = "UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1";
+    private static final String READ_BEAT_SQL = "SELECT beat_millis FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMs = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.datasource.read.heartbeat-interval-ms:1000}")
+    public void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            primary.update(BEAT_SQL, now);
+        } catch (DataAccessException e) {
+            log.warn("Replica heartbeat could not be written: {}", e.getMessage());
+            return;
+        }
+
+        boolean usable;
+        try {
+            Long replicaBeat = replica.queryForObject(READ_BEAT_SQL, Long.class);
+            lagMs = replicaBeat != null ? Math.max(0, now - replicaBeat) : -1;
+            usable = lagMs >= 0 && lagMs <= maxLagMs;
+        } catch (DataAccessException e) {
+            lagMs = -1;
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            log.info(usable ? "Read-only work routed to the replica (lag {} ms)"
+                    : "Read-only work routed to the primary (replica lag {} ms)", lagMs);
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Last measured lag in milliseconds, or -1 if the replica could not be read.
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+}
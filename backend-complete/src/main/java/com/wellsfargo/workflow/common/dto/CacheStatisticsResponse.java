@@ -0,0 +1,32 @@
+package com.wellsfargo.workflow.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsResponse {
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private Double hitRatio;
+    private List<Region> regions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private String name;
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private Double hitRatio;
+    }
+}
@@ -0,0 +1,20 @@
+package com.wellsfargo.workflow.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencyLimitResponse {
+    private boolean enabled;
+    private int limit;
+    private int inFlight;
+    private Double baselineLatencyMs;
+    private Double recentLatencyMs;
+    private long admittedCount;
+    private long shedCount;
+}
@@ -0,0 +1,28 @@
+package com.wellsfargo.workflow.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+    private String id;
+    private String description;
+    private String status;
+    private Long rowsWritten;
+    private Long totalRows;
+    private Double percentComplete;
+    private Long rowsPerSecond;
+    private String fileName;
+    private Long sizeBytes;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,31 @@
+package com.wellsfargo.workflow.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitStatisticsResponse {
+    private boolean enabled;
+    private long allowedCount;
+    private long rejectedCount;
+    private List<Scope> scopes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Scope {
+        private String name;
+        private long capacity;
+        private double refillPerSecond;
+        private long rejectedCount;
+        private long trackedBuckets;
+    }
+}
@@ -0,0 +1,35 @@
+package com.wellsfargo.workflow.common.export;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+@Getter
+public enum ExportFormat {
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON(new MediaType("application", "x-ndjson"), "ndjson"),
+
+    /**
+     * Comma-separated with a header row; one row per record.
+     */
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported export format: " + name));
+    }
+}
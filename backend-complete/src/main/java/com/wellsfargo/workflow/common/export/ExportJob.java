@@ -0,0 +1,67 @@
+package com.wellsfargo.workflow.common.export;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one background export. Written by the job's thread and read by
+ * status requests, so every mutable field is volatile or atomic.
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String description;
+    private final Path file;
+    private final MediaType mediaType;
+    private final long totalRows;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile long sizeBytes;
+    private volatile String errorMessage;
+
+    ExportJob(String id, String description, Path file, MediaType mediaType, long totalRows) {
+        this.id = id;
+        this.description = description;
+        this.file = file;
+        this.mediaType = mediaType;
+        this.totalRows = totalRows;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void addRows(long rows) {
+        rowsWritten.addAndGet(rows);
+    }
+
+    void complete(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+        completedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        completedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wellsfargo.workflow.common.export;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.export")
+public class ExportJobProperties {
+
+    /**
+     * Where dataset export files are written. Files are left in place when their
+     * job is forgotten; removing them is up to whoever collects them.
+     */
+    private String directory = "./data/exports";
+
+    /**
+     * Rows per record batch (row group). Larger batches compress and scan better
+     * offline; each one is held in memory while it is filled.
+     */
+    private int batchRows = 65_536;
+
+    /**
+     * Jobs run one at a time by default; further jobs wait in the queue.
+     */
+    private int concurrency = 1;
+
+    /**
+     * Finished jobs stay visible through the API for this long.
+     */
+    private long retentionHours = 24;
+}
@@ -0,0 +1,168 @@
+package com.wellsfargo.workflow.common.export;
+
+import com.wellsfargo.workflow.common.dto.ExportJobResponse;
+import com.wellsfargo.workflow.common.id.Uuid7;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs dataset exports in the background. Each job writes to a {@code .part} file
+ * in its own read-only transaction and renames it into place only once complete,
+ * so a file under its final name is always whole. Jobs are tracked in memory and
+ * do not survive a restart.
+ */
+@Slf4j
+@Component
+public class ExportJobRunner {
+
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private final ExportJobProperties properties;
+    private final TransactionTemplate exportTransaction;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobRunner(ExportJobProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.getConcurrency());
+        this.executor.setThreadNamePrefix("dataset-export-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues {@code task} to write {@code fileName} in the export directory. The
+     * job id is prefixed to the name so repeated exports of the same data do not
+     * overwrite each other.
+     */
+    public ExportJobResponse submit(String description, String fileName, MediaType mediaType, long totalRows,
+                                    ExportTask task) {
+        forgetExpiredJobs();
+        String id = Uuid7.nextString();
+        Path file = Paths.get(properties.getDirectory()).toAbsolutePath().normalize().resolve(id + "-" + fileName);
+        ExportJob job = new ExportJob(id, description, file, mediaType, totalRows);
+        jobs.put(id, job);
+        executor.execute(() -> run(job, task));
+        log.info("Queued export job {}: {} ({} rows)", id, description, totalRows);
+        return toResponse(job);
+    }
+
+    public ExportJobResponse getJob(String jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    public List<ExportJobResponse> listJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ExportJob::getCreatedAt).reversed())
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * A job whose file is ready to be read.
+     */
+    public ExportJob getCompletedJob(String jobId) {
+        ExportJob job = findJob(jobId);
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new IllegalArgumentException("Export job is " + job.getStatus() + ", not COMPLETED");
+        }
+        return job;
+    }
+
+    private void run(ExportJob job, ExportTask task) {
+        job.start();
+        Path part = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try {
+            Files.createDirectories(part.getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), BUFFER_BYTES)) {
+                exportTransaction.executeWithoutResult(status -> {
+                    try {
+                        task.write(out, job::addRows);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            Files.move(part, job.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(Files.size(job.getFile()));
+            log.info("Export job {} wrote {} rows, {} bytes to {}", job.getId(), job.getRowsWritten().get(),
+                    job.getSizeBytes(), job.getFile());
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException cleanup) {
+                log.warn("Could not remove partial export {}: {}", part, cleanup.getMessage());
+            }
+        }
+    }
+
+    private ExportJob findJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Export job not found");
+        }
+        return job;
+    }
+
+    private void forgetExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(properties.getRetentionHours());
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    private ExportJobResponse toResponse(ExportJob job) {
+        long rowsWritten = job.getRowsWritten().get();
+        LocalDateTime startedAt = job.getStartedAt();
+        Long rowsPerSecond = null;
+        if (startedAt != null) {
+            LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+            long elapsedMs = Math.max(1, Duration.between(startedAt, end).toMillis());
+            rowsPerSecond = rowsWritten * 1000 / elapsedMs;
+        }
+        return ExportJobResponse.builder()
+                .id(job.getId())
+                .description(job.getDescription())
+                .status(job.getStatus().name())
+                .rowsWritten(rowsWritten)
+                .totalRows(job.getTotalRows())
+                .percentComplete(job.getTotalRows() > 0
+                        ? Math.min(100.0, rowsWritten * 100.0 / job.getTotalRows())
+                        : job.isFinished() ? 100.0 : 0.0)
+                .rowsPerSecond(rowsPerSecond)
+                .fileName(job.getFile().getFileName().toString())
+                .sizeBytes(job.getStatus() == ExportJob.Status.COMPLETED ? job.getSizeBytes() : null)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(startedAt)
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
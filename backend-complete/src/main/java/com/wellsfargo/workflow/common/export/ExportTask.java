@@ -0,0 +1,15 @@
+package com.wellsfargo.workflow.common.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * The body of an export job: writes the whole file to {@code out}, reporting each
+ * batch of rows written to {@code progress}.
+ */
+@FunctionalInterface
+public interface ExportTask {
+
+    void write(OutputStream out, LongConsumer progress) throws IOException;
+}
@@ -0,0 +1,104 @@
+package com.wellsfargo.workflow.common.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a query's rows to the response as they are read. The query runs in its
+ * own read-only transaction on the thread that writes the body, and each row is
+ * encoded and handed to a fixed-size buffer before the next is fetched, so heap
+ * use does not depend on the number of rows.
+ *
+ * Row types must be flat (no nested objects) so that the CSV columns and the
+ * NDJSON fields are the same; {@code @JsonPropertyOrder} fixes the column order.
+ */
+@Component
+public class RowExporter {
+
+    /**
+     * Stand-ins for an export time range's missing bounds.
+     */
+    public static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final TransactionTemplate exportTransaction;
+
+    public RowExporter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+    }
+
+    /**
+     * A downloadable response that streams {@code rows}. The supplier is called on
+     * the writing thread, inside the export transaction, and the stream it returns
+     * is closed when the body is complete.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(String fileName, ExportFormat format, Class<T> type,
+                                                            Supplier<Stream<T>> rows) {
+        StreamingResponseBody body = out -> exportTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                write(format, type, stream.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private <T> void write(ExportFormat format, Class<T> type, Iterator<T> rows, OutputStream out)
+            throws IOException {
+        BufferedOutputStream buffer = new BufferedOutputStream(out, BUFFER_BYTES);
+        if (format == ExportFormat.CSV) {
+            ObjectWriter writer = csvMapper.writerFor(type).with(csvMapper.schemaFor(type).withHeader());
+            try (SequenceWriter sequence = writer.writeValues(buffer)) {
+                while (rows.hasNext()) {
+                    sequence.write(rows.next());
+                }
+            }
+        } else {
+            ObjectWriter writer = objectMapper.writerFor(type);
+            while (rows.hasNext()) {
+                buffer.write(writer.writeValueAsBytes(rows.next()));
+                buffer.write('\n');
+            }
+        }
+        buffer.flush();
+    }
+}
@@ -0,0 +1,93 @@
+package com.wellsfargo.workflow.common.http;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Conditional GET for resources whose version can be looked up more cheaply than
+ * the body can be built. The caller derives the version first; the body supplier
+ * only runs when the client's {@code If-None-Match} does not match.
+ *
+ * The same resource is served as JSON, CBOR or Smile depending on {@code Accept},
+ * so the ETag covers the requested encoding as well as the version, and responses
+ * vary by {@code Accept}.
+ */
+public final class ConditionalGet {
+
+    private static final List<MediaType> BINARY_TYPES = List.of(
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * A resource version from the given parts (ids, statuses, timestamps, counts).
+     */
+    public static String version(Object... parts) {
+        return Arrays.stream(parts).map(Objects::toString).collect(Collectors.joining("|"));
+    }
+
+    public static <T> ResponseEntity<T> respond(WebRequest request, String version, CacheControl cacheControl,
+                                                Supplier<T> body) {
+        String eTag = eTag(version + "|" + encoding(request.getHeader(HttpHeaders.ACCEPT)));
+        // checkNotModified also writes the ETag header, for 304 and 200 alike
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body.get());
+    }
+
+    private static String eTag(String value) {
+        return "\"" + DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * The binary type content negotiation will pick for {@code accept}, or
+     * {@code json} for everything else.
+     */
+    private static String encoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "json";
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                if (type.getQualityValue() == 0) {
+                    continue;
+                }
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return "json";
+                }
+                for (MediaType binary : BINARY_TYPES) {
+                    if (binary.includes(type)) {
+                        return binary.getSubtype();
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // negotiation rejects it too
+        }
+        return "json";
+    }
+}
@@ -0,0 +1,54 @@
+package com.wellsfargo.workflow.common.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUID version 7 identifiers (RFC 9562): 48 bits of Unix epoch
+ * milliseconds, a 12-bit counter that keeps ids from one process strictly
+ * increasing within a millisecond (borrowing the next millisecond when it runs
+ * out), and 62 random bits.
+ *
+ * Consecutive inserts land next to each other at the right edge of the primary
+ * key B-tree instead of on random pages, which is what keeps the execution and
+ * node metric tables' insert rate flat as they grow.
+ */
+public final class Uuid7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static long lastMillis;
+    private static int counter;
+
+    private Uuid7() {
+    }
+
+    public static UUID next() {
+        long random = RANDOM.nextLong();
+        long timeAndCounter;
+        synchronized (Uuid7.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = 0;
+            } else if (++counter > 0xFFF) {
+                lastMillis++;
+                counter = 0;
+            }
+            timeAndCounter = lastMillis << 16 | 0x7000 | counter;
+        }
+        return new UUID(timeAndCounter, random & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L);
+    }
+
+    public static String nextString() {
+        return next().toString();
+    }
+
+    /**
+     * The first 24 characters of a new id ({@code xxxxxxxx-xxxx-7xxx-xxxx-}), for
+     * statements that complete one id per row with a 12-digit row number.
+     */
+    public static String nextPrefix() {
+        return nextString().substring(0, 24);
+    }
+}
@@ -0,0 +1,44 @@
+package com.wellsfargo.workflow.common.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Hibernate generator behind {@link Uuid7Id}.
+ */
+public class Uuid7Generator implements BeforeExecutionGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean uuidTyped;
+
+    public Uuid7Generator(Uuid7Id config, Member member, CustomIdGeneratorCreationContext context) {
+        Class<?> type = member instanceof Field field ? field.getType() : ((Method) member).getReturnType();
+        if (type != String.class && type != UUID.class) {
+            throw new IllegalArgumentException("@Uuid7Id requires a String or UUID id, not " + type.getName());
+        }
+        this.uuidTyped = type == UUID.class;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        UUID id = Uuid7.next();
+        return uuidTyped ? id : id.toString();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+}
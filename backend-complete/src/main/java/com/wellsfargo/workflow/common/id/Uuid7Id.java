@@ -0,0 +1,19 @@
+package com.wellsfargo.workflow.common.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@code @Id} of type {@code String} or {@code UUID} as generated in the
+ * application by {@link Uuid7}, so no database round trip is needed and inserts
+ * can be batched.
+ */
+@IdGeneratorType(Uuid7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Uuid7Id {
+}
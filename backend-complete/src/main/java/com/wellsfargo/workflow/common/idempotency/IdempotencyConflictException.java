@@ -0,0 +1,26 @@
+package com.wellsfargo.workflow.common.idempotency;
+
+public class IdempotencyConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private IdempotencyConflictException(String message) {
+        super(message);
+    }
+
+    /**
+     * Another instance recorded the key while this one was running it.
+     */
+    public static IdempotencyConflictException completedConcurrently(String key) {
+        return new IdempotencyConflictException(
+                "A request with Idempotency-Key " + key + " completed concurrently; retry to fetch its result");
+    }
+
+    /**
+     * The original request with the key is still running.
+     */
+    public static IdempotencyConflictException inProgress(String key) {
+        return new IdempotencyConflictException(
+                "A request with Idempotency-Key " + key + " is still in progress; retry later to fetch its result");
+    }
+}
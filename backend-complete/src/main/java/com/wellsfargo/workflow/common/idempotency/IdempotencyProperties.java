@@ -0,0 +1,29 @@
+package com.wellsfargo.workflow.common.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a key's result is replayed, in memory and in {@code idempotency_keys}.
+     */
+    private long ttlSeconds = 86_400;
+
+    /**
+     * Keys held in memory; older ones are still answered from the table.
+     */
+    private long maxCachedKeys = 10_000;
+
+    /**
+     * How long a duplicate waits for the original request with its key to finish
+     * before it is answered {@code 409} as still in progress.
+     */
+    private long waitTimeoutMs = 30_000;
+
+    private long cleanupIntervalMs = 3_600_000;
+}
@@ -0,0 +1,67 @@
+package com.wellsfargo.workflow.common.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyRepository {
+
+    private static final String FIND_SQL = """
+            SELECT request_hash, response_body FROM idempotency_keys
+            WHERE idempotency_key = :key AND expires_at > :now
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, response_body, created_at, expires_at)
+            VALUES (:key, :requestHash, :body, :now, :expiresAt)
+            """;
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM idempotency_keys WHERE expires_at <= :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * A recorded result; {@code requestHash} is null for keys recorded before
+     * request hashes were kept.
+     */
+    @Value
+    public static class Recorded {
+        String requestHash;
+        String responseBody;
+    }
+
+    public Optional<Recorded> find(String key, LocalDateTime now) {
+        return jdbcTemplate.query(FIND_SQL, new MapSqlParameterSource()
+                        .addValue("key", key)
+                        .addValue("now", now),
+                        (rs, rowNum) -> new Recorded(rs.getString(1), rs.getString(2)))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Joins the caller's transaction.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if the key was recorded
+     *         by a concurrent request, possibly on another instance
+     */
+    public void insert(String key, String requestHash, String body, LocalDateTime now, LocalDateTime expiresAt) {
+        jdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("requestHash", requestHash)
+                .addValue("body", body)
+                .addValue("now", now)
+                .addValue("expiresAt", expiresAt));
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, new MapSqlParameterSource("now", now));
+    }
+}
@@ -0,0 +1,233 @@
+package com.wellsfargo.workflow.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs an execute call at most once per {@code Idempotency-Key}. The first request
+ * with a key puts a future in a bounded, expiring map; duplicates that arrive
+ * while it runs wait on that future, for up to {@code wait-timeout-ms}, and those
+ * that arrive later get its result straight from the map. The result is also
+ * written to {@code idempotency_keys} in the execution's own transaction, so it is
+ * replayed after a restart, after eviction, or on another instance, until the key
+ * expires.
+ *
+ * Keys are resolved before the execution's transaction opens and before it takes
+ * a concurrency limit permit: a duplicate waits or replays without holding a
+ * connection or a permit, and its latency is not counted by the limiter. Only
+ * the request that claims a key runs the work, which opens the transaction and
+ * records the result through its {@link Claim}. The future completes once the
+ * work has returned, its transaction committed; if the work fails, the key is
+ * released and a waiting duplicate runs it instead.
+ *
+ * Each key remembers a SHA-256 hash of the request it was first used with; a
+ * request that reuses the key with a different body is refused rather than given
+ * the other request's result.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> results;
+
+    public IdempotencyStore(IdempotencyProperties properties, IdempotencyRepository repository,
+                            ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedKeys())
+                .expireAfterWrite(Duration.ofSeconds(properties.getTtlSeconds()))
+                .build();
+    }
+
+    /**
+     * The stored key for {@code clientKey} sent to {@code target}, or null if the
+     * request carried none. Scoping by target keeps one client key from replaying
+     * another test's result.
+     */
+    public static String key(String target, String clientKey) {
+        if (clientKey == null || clientKey.isBlank()) {
+            return null;
+        }
+        if (clientKey.length() > 255) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most 255 characters");
+        }
+        return target + ":" + clientKey;
+    }
+
+    /**
+     * Returns the result recorded for {@code key}, or runs {@code work} and returns
+     * its result. Must be called outside any transaction; {@code work} runs the
+     * transactional execution, which passes its result to {@link Claim#record}
+     * before it commits. Without a key, {@code work} runs with a claim that records
+     * nothing.
+     *
+     * @param request the request body, hashed to detect a key reused for another request
+     * @throws IdempotencyConflictException if the original request with the key is
+     *         still running after the wait timeout, or another instance recorded the
+     *         key while this one was running it; this execution is rolled back
+     * @throws IdempotencyKeyReuseException if the key was first used with a different request
+     */
+    public <T> T execute(String key, Object request, Class<T> type, Function<Claim, T> work) {
+        if (key == null) {
+            return work.apply(Claim.NONE);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Idempotency keys are resolved before the transaction opens");
+        }
+        String requestHash = hash(request);
+        while (true) {
+            Entry entry = new Entry(requestHash, new CompletableFuture<>());
+            Entry existing = results.asMap().putIfAbsent(key, entry);
+            if (existing == null) {
+                return runClaimed(key, type, work, entry);
+            }
+            checkSameRequest(key, existing.getRequestHash(), requestHash);
+            try {
+                log.debug("Idempotency-Key {} seen before; returning its result", key);
+                return type.cast(existing.getResult().get(properties.getWaitTimeoutMs(), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                throw IdempotencyConflictException.inProgress(key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw IdempotencyConflictException.inProgress(key);
+            } catch (ExecutionException | CancellationException e) {
+                // The original attempt failed and released the key; try to claim it.
+                results.asMap().remove(key, existing);
+            }
+        }
+    }
+
+    private <T> T runClaimed(String key, Class<T> type, Function<Claim, T> work, Entry entry) {
+        try {
+            Optional<IdempotencyRepository.Recorded> recorded = repository.find(key, LocalDateTime.now());
+            T result;
+            if (recorded.isPresent()) {
+                if (recorded.get().getRequestHash() != null) {
+                    checkSameRequest(key, recorded.get().getRequestHash(), entry.getRequestHash());
+                }
+                result = read(recorded.get().getResponseBody(), type);
+            } else {
+                result = work.apply(new Claim(this, key, entry.getRequestHash()));
+            }
+            entry.getResult().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            results.asMap().remove(key, entry);
+            entry.getResult().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private static void checkSameRequest(String key, String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize request for idempotency key", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize result for idempotency key", e);
+        }
+    }
+
+    private void record(String key, String requestHash, Object result) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            repository.insert(key, requestHash, write(result), now, now.plusSeconds(properties.getTtlSeconds()));
+        } catch (DuplicateKeyException e) {
+            throw IdempotencyConflictException.completedConcurrently(key);
+        }
+    }
+
+    /**
+     * A key's entry: the hash of the request that claimed it and its eventual result.
+     */
+    @Value
+    private static class Entry {
+        String requestHash;
+        CompletableFuture<Object> result;
+    }
+
+    /**
+     * The right to run the execution for a key, held by the request that claimed it.
+     */
+    public static final class Claim {
+
+        static final Claim NONE = new Claim(null, null, null);
+
+        private final IdempotencyStore store;
+        private final String key;
+        private final String requestHash;
+
+        private Claim(IdempotencyStore store, String key, String requestHash) {
+            this.store = store;
+            this.key = key;
+            this.requestHash = requestHash;
+        }
+
+        /**
+         * Records the execution's result for replay. Must be called in the
+         * execution's transaction, so the record commits or rolls back with it.
+         */
+        public void record(Object result) {
+            if (store != null) {
+                store.record(key, requestHash, result);
+            }
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read recorded result for idempotency key", e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.wellsfargo.workflow.common.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Server-sent event streams of one kind of analytics, keyed by test or comparison
+ * id. On every publish tick each key with open streams is computed once, diffed
+ * against the previous result and the update serialized once for all of its
+ * subscribers, so the cost per tick grows with the number of watched keys, not
+ * the number of dashboards. New subscribers get the last result as a
+ * {@code snapshot} event; later ticks send {@code update} events only when
+ * something changed. Producers of new data can also push a key out between
+ * ticks with {@link #publishChanged}.
+ *
+ * @param <S> the full analytics result
+ * @param <U> the update sent to clients; its unchanged parts are left null
+ */
+@Slf4j
+public abstract class LiveFeed<S, U> {
+
+    private final Map<String, Topic<S>> topics = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final LiveFeedProperties properties;
+
+    protected LiveFeed(ObjectMapper objectMapper, LiveFeedProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    protected abstract S compute(String key);
+
+    /**
+     * The update taking a client from {@code previous} to {@code next}, or null when
+     * nothing changed. {@code previous} is null for a client's first snapshot.
+     */
+    protected abstract U diff(S previous, S next);
+
+    /**
+     * Opens a stream on {@code key}. If nobody is watching it yet the result is
+     * computed here, so an unknown key fails the request instead of the stream.
+     */
+    public SseEmitter subscribe(String key) {
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeoutMs());
+        while (true) {
+            Topic<S> topic = topics.computeIfAbsent(key, k -> new Topic<>());
+            synchronized (topic) {
+                if (topic.closed) {
+                    continue;
+                }
+                if (topic.last == null) {
+                    try {
+                        topic.last = compute(key);
+                    } catch (RuntimeException e) {
+                        close(key, topic);
+                        throw e;
+                    }
+                }
+                topic.subscribers.add(emitter);
+                emitter.onCompletion(() -> topic.subscribers.remove(emitter));
+                emitter.onTimeout(() -> topic.subscribers.remove(emitter));
+                emitter.onError(e -> topic.subscribers.remove(emitter));
+                send(topic, emitter, topic.sequence, "snapshot", serialize(diff(null, topic.last)));
+                return emitter;
+            }
+        }
+    }
+
+    public void publish() {
+        topics.forEach(this::refresh);
+    }
+
+    /**
+     * Recomputes {@code key} now, ahead of the next tick, for callers that know it
+     * has changed. Returns false, leaving it to the caller to try again or to the
+     * tick, if the key was computed less than {@code change-refresh-ms} ago;
+     * returns true straight away if nobody is watching it.
+     */
+    public boolean publishChanged(String key) {
+        Topic<S> topic = topics.get(key);
+        if (topic == null) {
+            return true;
+        }
+        if (System.nanoTime() - topic.computedAt < TimeUnit.MILLISECONDS.toNanos(properties.getChangeRefreshMs())) {
+            return false;
+        }
+        refresh(key, topic);
+        return true;
+    }
+
+    private void refresh(String key, Topic<S> topic) {
+        // One computation per topic at a time, so a slow result never overwrites a newer one
+        synchronized (topic.refresh) {
+            synchronized (topic) {
+                if (topic.subscribers.isEmpty()) {
+                    close(key, topic);
+                    return;
+                }
+            }
+
+            S next;
+            try {
+                topic.computedAt = System.nanoTime();
+                next = compute(key);
+            } catch (RuntimeException e) {
+                log.warn("Closing live streams of {}: {}", key, e.getMessage());
+                synchronized (topic) {
+                    long id = ++topic.sequence;
+                    String error = serialize(Map.of("message", String.valueOf(e.getMessage())));
+                    topic.subscribers.forEach(emitter -> {
+                        send(topic, emitter, id, "error", error);
+                        emitter.complete();
+                    });
+                    close(key, topic);
+                }
+                return;
+            }
+
+            synchronized (topic) {
+                U update = diff(topic.last, next);
+                topic.last = next;
+                if (update != null) {
+                    long id = ++topic.sequence;
+                    String data = serialize(update);
+                    topic.subscribers.forEach(emitter -> send(topic, emitter, id, "update", data));
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code next} if it differs from {@code previous}, otherwise null.
+     */
+    protected static <T> T changed(T previous, T next) {
+        return Objects.equals(previous, next) ? null : next;
+    }
+
+    /**
+     * Items of {@code next} that are new or differ from the item with the same key
+     * in {@code previous}; null if there are none.
+     */
+    protected static <T, K> List<T> changedItems(List<T> previous, List<T> next, Function<T, K> key) {
+        if (next == null) {
+            return null;
+        }
+        Map<K, T> before = index(previous, key);
+        List<T> changed = next.stream()
+                .filter(item -> !item.equals(before.get(key.apply(item))))
+                .toList();
+        return changed.isEmpty() ? null : changed;
+    }
+
+    /**
+     * Keys of {@code previous} items that no longer appear in {@code next}; null if
+     * there are none.
+     */
+    protected static <T, K> List<K> removedKeys(List<T> previous, List<T> next, Function<T, K> key) {
+        if (previous == null) {
+            return null;
+        }
+        Map<K, T> after = index(next, key);
+        List<K> removed = previous.stream()
+                .map(key)
+                .filter(k -> !after.containsKey(k))
+                .toList();
+        return removed.isEmpty() ? null : removed;
+    }
+
+    private static <T, K> Map<K, T> index(List<T> items, Function<T, K> key) {
+        Map<K, T> index = new HashMap<>();
+        if (items != null) {
+            items.forEach(item -> index.put(key.apply(item), item));
+        }
+        return index;
+    }
+
+    private void send(Topic<S> topic, SseEmitter emitter, long id, String name, String data) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(name)
+                    .data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            topic.subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize live update", e);
+        }
+    }
+
+    private void close(String key, Topic<S> topic) {
+        topic.closed = true;
+        topics.remove(key, topic);
+    }
+
+    private static final class Topic<S> {
+        private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+        private final Object refresh = new Object();
+        private volatile long computedAt = System.nanoTime();
+        private S last;
+        private long sequence;
+        private boolean closed;
+    }
+}
@@ -0,0 +1,28 @@
+package com.wellsfargo.workflow.common.live;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.live")
+public class LiveFeedProperties {
+
+    /**
+     * Each subscribed test or comparison is recomputed once per interval, however
+     * many dashboards are open on it.
+     */
+    private long intervalMs = 2000;
+
+    /**
+     * Between ticks, a key reported as changed is recomputed at most this often.
+     */
+    private long changeRefreshMs = 250;
+
+    /**
+     * Streams are closed after this long; browsers' EventSource reconnects and
+     * receives a fresh snapshot.
+     */
+    private long emitterTimeoutMs = 1_800_000;
+}
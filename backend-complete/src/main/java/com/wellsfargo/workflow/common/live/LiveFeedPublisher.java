@@ -0,0 +1,19 @@
+package com.wellsfargo.workflow.common.live;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class LiveFeedPublisher {
+
+    private final List<LiveFeed<?, ?>> feeds;
+
+    @Scheduled(fixedDelayString = "${workflow.live.interval-ms:2000}")
+    public void publish() {
+        feeds.forEach(LiveFeed::publish);
+    }
+}
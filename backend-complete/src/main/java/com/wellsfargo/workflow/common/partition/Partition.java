@@ -0,0 +1,21 @@
+package com.wellsfargo.workflow.common.partition;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * One physical table holding the rows of {@link #table} whose partition time
+ * falls in {@code [start, end)}.
+ */
+@Value
+public class Partition {
+    PartitionedTable table;
+    String name;
+    LocalDate start;
+    LocalDate end;
+
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return start.isBefore(to) && end.isAfter(from);
+    }
+}
@@ -0,0 +1,48 @@
+package com.wellsfargo.workflow.common.partition;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the period covered by one partition.
+ */
+public enum PartitionGranularity {
+
+    DAILY {
+        @Override
+        public LocalDate start(LocalDate day) {
+            return day;
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusDays(1);
+        }
+    },
+
+    /**
+     * ISO weeks, starting on Monday.
+     */
+    WEEKLY {
+        @Override
+        public LocalDate start(LocalDate day) {
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+    };
+
+    /**
+     * First day of the period containing {@code day}.
+     */
+    public abstract LocalDate start(LocalDate day);
+
+    /**
+     * First day of the period following the one starting on {@code start}.
+     */
+    public abstract LocalDate next(LocalDate start);
+}
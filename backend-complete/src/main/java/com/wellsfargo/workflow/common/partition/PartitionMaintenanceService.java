@@ -0,0 +1,88 @@
+package com.wellsfargo.workflow.common.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+/**
+ * Applies retention a whole partition at a time: expired partitions are archived
+ * and dropped instead of deleting their rows one by one.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PartitionMaintenanceService {
+
+    private final PartitionRouter partitionRouter;
+    private final PartitionProperties properties;
+
+    @Scheduled(cron = "${workflow.partitioning.maintenance-cron:0 15 2 * * *}")
+    public void runMaintenance() {
+        LocalDate today = LocalDate.now();
+        LocalDate nextPeriod = properties.getGranularity().next(properties.getGranularity().start(today));
+        for (PartitionedTable table : PartitionedTable.values()) {
+            partitionRouter.route(table, nextPeriod.atStartOfDay());
+            try {
+                expire(table, today.minusDays(properties.getRetentionDays()));
+            } catch (RuntimeException e) {
+                log.error("Retention failed for {}", table.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Archives and drops the partitions whose period ended on or before
+     * {@code cutoff}. A partition is only dropped once its archive is written.
+     */
+    public int expire(PartitionedTable table, LocalDate cutoff) {
+        int dropped = 0;
+        for (Partition partition : partitionRouter.partitions(table)) {
+            if (partition.getEnd().isAfter(cutoff)) {
+                break;
+            }
+            retire(partition);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Archives the partition when archiving is enabled, then drops it.
+     */
+    public void retire(Partition partition) {
+        if (properties.isArchiveEnabled()) {
+            Path file = archiveFile(partition);
+            partitionRouter.archive(partition, file);
+            log.info("Archived partition {} to {}", partition.getName(), file);
+        }
+        partitionRouter.drop(partition);
+    }
+
+    /**
+     * A period can be re-created by late inserts after it expired; its second
+     * archive gets a timestamp suffix rather than overwriting the first.
+     */
+    private Path archiveFile(Partition partition) {
+        Path file = archiveDirectory().resolve(partition.getName() + ".sql.gz");
+        return Files.exists(file)
+                ? file.resolveSibling(partition.getName() + "-" + System.currentTimeMillis() + ".sql.gz")
+                : file;
+    }
+
+    private Path archiveDirectory() {
+        Path directory = Paths.get(properties.getArchiveDirectory());
+        try {
+            return Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create archive directory " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.wellsfargo.workflow.common.partition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.partitioning")
+public class PartitionProperties {
+
+    private PartitionGranularity granularity = PartitionGranularity.WEEKLY;
+
+    /**
+     * Partitions whose period ended more than this many days ago are dropped.
+     */
+    private int retentionDays = 84;
+
+    /**
+     * Writes each expired partition to a gzip-compressed SQL script before
+     * dropping it; restore with {@code RUNSCRIPT FROM '<file>' COMPRESSION GZIP}.
+     */
+    private boolean archiveEnabled = true;
+
+    private String archiveDirectory = "./data/archive";
+
+    /**
+     * Schedule of the retention run, which also creates the next period's partitions.
+     */
+    private String maintenanceCron = "0 15 2 * * *";
+}
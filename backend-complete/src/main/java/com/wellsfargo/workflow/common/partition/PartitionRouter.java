@@ -0,0 +1,238 @@
+package com.wellsfargo.workflow.common.partition;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Maps rows to the physical partition of their period and keeps the partition
+ * views in step with the partitions that exist.
+ *
+ * Partitions are named {@code <table>_p<start>_<end>}, so their bounds survive a
+ * change of granularity. DDL runs in a separate transaction: H2 commits the
+ * session on DDL, which must not happen to the caller's open transaction.
+ */
+@Slf4j
+@Repository
+public class PartitionRouter {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String LIST_TABLES_SQL = """
+            SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES
+            WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ddlTransaction;
+    private final PartitionProperties properties;
+    private final Map<PartitionedTable, NavigableMap<LocalDate, Partition>> partitions =
+            new EnumMap<>(PartitionedTable.class);
+
+    public PartitionRouter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           PartitionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ddlTransaction = new TransactionTemplate(transactionManager);
+        this.ddlTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        for (PartitionedTable table : PartitionedTable.values()) {
+            partitions.put(table, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Loads the existing partitions, brings their indexes up to the current
+     * {@link PartitionedTable} definition and makes sure the current and next
+     * periods have one, so routine inserts never wait on DDL.
+     */
+    @PostConstruct
+    public void initialize() {
+        List<String> tableNames = jdbcTemplate.queryForList(LIST_TABLES_SQL, String.class);
+        LocalDate today = LocalDate.now();
+        for (PartitionedTable table : PartitionedTable.values()) {
+            Pattern pattern = Pattern.compile(
+                    Pattern.quote(table.getName().toUpperCase(Locale.ROOT)) + "_P(\\d{8})_(\\d{8})");
+            for (String tableName : tableNames) {
+                Matcher matcher = pattern.matcher(tableName.toUpperCase(Locale.ROOT));
+                if (matcher.matches()) {
+                    LocalDate start = LocalDate.parse(matcher.group(1), SUFFIX);
+                    partitions.get(table).put(start, new Partition(table,
+                            tableName.toLowerCase(Locale.ROOT), start, LocalDate.parse(matcher.group(2), SUFFIX)));
+                }
+            }
+            ddlTransaction.executeWithoutResult(status -> {
+                partitions.get(table).values().forEach(this::createIndexes);
+                rebuildView(table);
+            });
+            route(table, today.atStartOfDay());
+            route(table, properties.getGranularity().next(properties.getGranularity().start(today)).atStartOfDay());
+            log.info("Table {} has {} partitions", table.getName(), partitions.get(table).size());
+        }
+    }
+
+    /**
+     * Returns the partition for rows with the given partition time, creating it if
+     * needed. A null time routes to the current period.
+     */
+    public String route(PartitionedTable table, LocalDateTime partitionTime) {
+        LocalDate day = (partitionTime != null ? partitionTime : LocalDateTime.now()).toLocalDate();
+        Partition partition = find(table, day);
+        return partition != null ? partition.getName() : create(table, day).getName();
+    }
+
+    /**
+     * Partitions of the table ordered by period; the legacy table is not included.
+     */
+    public List<Partition> partitions(PartitionedTable table) {
+        return new ArrayList<>(partitions.get(table).values());
+    }
+
+    /**
+     * Row source covering partition times in {@code [from, to]}: a union of the
+     * legacy table and the overlapping partitions, so range scans skip the rest.
+     * Falls back to the full view when either bound is unknown.
+     */
+    public String source(PartitionedTable table, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            return table.getName();
+        }
+        LocalDate first = from.toLocalDate();
+        LocalDate last = to.toLocalDate().plusDays(1);
+        List<String> names = new ArrayList<>();
+        names.add(table.getLegacyName());
+        partitions.get(table).values().stream()
+                .filter(partition -> partition.overlaps(first, last))
+                .forEach(partition -> names.add(partition.getName()));
+        return "(" + unionOf(names) + ")";
+    }
+
+    /**
+     * Writes the partition's definition and rows to a gzip-compressed SQL script.
+     */
+    public void archive(Partition partition, Path file) {
+        String path = file.toAbsolutePath().toString().replace("'", "''");
+        jdbcTemplate.execute("SCRIPT COLUMNS NOPASSWORDS NOSETTINGS TO '" + path
+                + "' COMPRESSION GZIP TABLE " + partition.getName());
+    }
+
+    /**
+     * Removes the partition from the view and drops its table.
+     */
+    public synchronized void drop(Partition partition) {
+        PartitionedTable table = partition.getTable();
+        NavigableMap<LocalDate, Partition> remaining = new TreeMap<>(partitions.get(table));
+        remaining.remove(partition.getStart());
+        ddlTransaction.executeWithoutResult(status -> {
+            rebuildView(table, remaining.values());
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.getName());
+        });
+        partitions.get(table).remove(partition.getStart());
+        log.info("Dropped partition {}", partition.getName());
+    }
+
+    private Partition find(PartitionedTable table, LocalDate day) {
+        Map.Entry<LocalDate, Partition> entry = partitions.get(table).floorEntry(day);
+        return entry != null && entry.getValue().getEnd().isAfter(day) ? entry.getValue() : null;
+    }
+
+    /**
+     * Creates the partition for the period containing {@code day}, trimmed to the
+     * neighbouring partitions in case they were created under another granularity.
+     * The partition is only routed to once its table, indexes and view have
+     * committed; if the DDL fails, whatever it left behind is dropped.
+     */
+    private synchronized Partition create(PartitionedTable table, LocalDate day) {
+        Partition existing = find(table, day);
+        if (existing != null) {
+            return existing;
+        }
+
+        NavigableMap<LocalDate, Partition> tablePartitions = partitions.get(table);
+        LocalDate start = properties.getGranularity().start(day);
+        LocalDate end = properties.getGranularity().next(start);
+        Map.Entry<LocalDate, Partition> previous = tablePartitions.floorEntry(day);
+        if (previous != null && previous.getValue().getEnd().isAfter(start)) {
+            start = previous.getValue().getEnd();
+        }
+        LocalDate following = tablePartitions.higherKey(day);
+        if (following != null && following.isBefore(end)) {
+            end = following;
+        }
+
+        Partition partition = new Partition(table,
+                table.getName() + "_p" + start.format(SUFFIX) + "_" + end.format(SUFFIX), start, end);
+        NavigableMap<LocalDate, Partition> members = new TreeMap<>(tablePartitions);
+        members.put(start, partition);
+        try {
+            ddlTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.execute(table.getCreateSql().formatted(partition.getName()));
+                createIndexes(partition);
+                rebuildView(table, members.values());
+            });
+        } catch (RuntimeException e) {
+            discard(partition);
+            throw e;
+        }
+        tablePartitions.put(start, partition);
+        log.info("Created partition {}", partition.getName());
+        return partition;
+    }
+
+    private void createIndexes(Partition partition) {
+        partition.getTable().getIndexSql().forEach(sql -> jdbcTemplate.execute(sql.formatted(partition.getName())));
+    }
+
+    /**
+     * Restores the view over the routed partitions and drops the table of a
+     * partition whose creation failed part way; H2 has already committed the
+     * statements that succeeded.
+     */
+    private void discard(Partition partition) {
+        try {
+            ddlTransaction.executeWithoutResult(status -> {
+                rebuildView(partition.getTable());
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.getName());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not clean up partition {}: {}", partition.getName(), e.getMessage());
+        }
+    }
+
+    private void rebuildView(PartitionedTable table) {
+        rebuildView(table, partitions.get(table).values());
+    }
+
+    private void rebuildView(PartitionedTable table, Collection<Partition> members) {
+        List<String> names = new ArrayList<>();
+        names.add(table.getLegacyName());
+        members.forEach(partition -> names.add(partition.getName()));
+        jdbcTemplate.execute("CREATE OR REPLACE VIEW " + table.getName() + " AS " + unionOf(names));
+    }
+
+    private static String unionOf(List<String> tableNames) {
+        return tableNames.stream()
+                .map(name -> "SELECT * FROM " + name)
+                .collect(Collectors.joining(" UNION ALL "));
+    }
+}
@@ -0,0 +1,83 @@
+package com.wellsfargo.workflow.common.partition;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Tables split into one physical table per period. {@link #getName()} is a view
+ * over the legacy table and every partition, so readers keep using the original
+ * name; inserts are routed to a partition by {@link PartitionRouter}.
+ */
+@Getter
+public enum PartitionedTable {
+
+    AB_TEST_EXECUTIONS("ab_test_executions", """
+            CREATE TABLE IF NOT EXISTS %1$s (
+                id VARCHAR(36) PRIMARY KEY,
+                ab_test_id VARCHAR(36) NOT NULL,
+                arm_id VARCHAR(36) NOT NULL,
+                request_payload TEXT,
+                response_payload TEXT,
+                execution_time_ms BIGINT NOT NULL,
+                status VARCHAR(50) NOT NULL,
+                error_message TEXT,
+                user_id VARCHAR(255),
+                session_id VARCHAR(255),
+                metadata TEXT,
+                started_at TIMESTAMP NOT NULL,
+                completed_at TIMESTAMP NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (ab_test_id) REFERENCES ab_tests(id) ON DELETE CASCADE,
+                FOREIGN KEY (arm_id) REFERENCES ab_test_arms(id) ON DELETE CASCADE
+            )
+            """, List.of(
+            "CREATE INDEX IF NOT EXISTS idx_%1$s_test_arm_status ON %1$s(ab_test_id, arm_id, status)",
+            "CREATE INDEX IF NOT EXISTS idx_%1$s_test_arm_time ON %1$s(ab_test_id, arm_id, execution_time_ms)")),
+
+    /**
+     * Partitioned by the start time of the owning execution, so all metrics of an
+     * execution share one partition.
+     */
+    EXECUTION_NODE_METRICS("execution_node_metrics", """
+            CREATE TABLE IF NOT EXISTS %1$s (
+                id VARCHAR(36) PRIMARY KEY,
+                execution_id VARCHAR(36) NOT NULL,
+                variant VARCHAR(50) NOT NULL,
+                node_id VARCHAR(255) NOT NULL,
+                node_name VARCHAR(255) NOT NULL,
+                node_type VARCHAR(100) NOT NULL,
+                sequence INT NOT NULL,
+                request_data TEXT,
+                response_data TEXT,
+                execution_time_ms BIGINT NOT NULL,
+                status VARCHAR(50) NOT NULL,
+                error_message TEXT,
+                started_at TIMESTAMP NOT NULL,
+                completed_at TIMESTAMP NOT NULL,
+                memory_used_mb DOUBLE DEFAULT 0.0,
+                cpu_usage_percent DOUBLE DEFAULT 0.0,
+                metadata TEXT,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (execution_id) REFERENCES champion_challenge_executions(id) ON DELETE CASCADE
+            )
+            """, List.of(
+            "CREATE INDEX IF NOT EXISTS idx_%1$s_execution ON %1$s(execution_id, sequence)"));
+
+    private final String name;
+    private final String createSql;
+    private final List<String> indexSql;
+
+    PartitionedTable(String name, String createSql, List<String> indexSql) {
+        this.name = name;
+        this.createSql = createSql;
+        this.indexSql = indexSql;
+    }
+
+    /**
+     * Table holding the rows written before partitioning; never expired.
+     */
+    public String getLegacyName() {
+        return name + "_legacy";
+    }
+}
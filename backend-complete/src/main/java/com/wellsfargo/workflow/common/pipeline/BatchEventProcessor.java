@@ -0,0 +1,93 @@
+package com.wellsfargo.workflow.common.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs one {@link EventHandler} on its own thread. Each wake-up hands the
+ * handler every slot that has become available since the last, ending with
+ * {@code endOfBatch}, so the further a consumer falls behind the larger its
+ * batches get. The processor's sequence, which consumers behind it and the
+ * ring's producers wait on, moves only once the whole batch is handled.
+ *
+ * @param <E> the slot type
+ */
+@Slf4j
+public final class BatchEventProcessor<E> implements Runnable {
+
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String name;
+    private final RingBuffer<E> ring;
+    private final SequenceBarrier barrier;
+    private final EventHandler<? super E> handler;
+    private final AtomicLong sequence = new AtomicLong(-1);
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean running = true;
+
+    public BatchEventProcessor(String name, RingBuffer<E> ring, SequenceBarrier barrier,
+                               EventHandler<? super E> handler) {
+        this.name = name;
+        this.ring = ring;
+        this.barrier = barrier;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        while (true) {
+            long available = barrier.waitFor(next, IDLE_WAIT_NANOS);
+            if (available < next) {
+                if (!running) {
+                    return;
+                }
+                try {
+                    handler.onIdle();
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.error("Pipeline consumer {} failed while idle", name, e);
+                }
+                continue;
+            }
+            for (long current = next; current <= available; current++) {
+                try {
+                    handler.onEvent(ring.get(current), current, current == available);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.error("Pipeline consumer {} failed on sequence {}", name, current, e);
+                }
+            }
+            sequence.set(available);
+            ring.getProgress().signal();
+            next = available + 1;
+        }
+    }
+
+    /**
+     * Asks the processor to stop once it has caught up with what is available to
+     * it. Halt consumers in graph order, each after the ones it depends on have
+     * finished, so nothing published is left unhandled.
+     */
+    public void halt() {
+        running = false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The last sequence this processor has finished with.
+     */
+    public AtomicLong getSequence() {
+        return sequence;
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,25 @@
+package com.wellsfargo.workflow.common.pipeline;
+
+/**
+ * Consumes the slots of a {@link RingBuffer}, one consumer thread per handler.
+ * The slot is only valid during the call, and until the batch ends for a handler
+ * that defers work to {@code endOfBatch}: it is reused once the handler's
+ * sequence moves past it.
+ *
+ * @param <E> the slot type
+ */
+public interface EventHandler<E> {
+
+    /**
+     * @param endOfBatch true for the last slot available when the batch was read;
+     *                   the point at which to flush anything accumulated
+     */
+    void onEvent(E slot, long sequence, boolean endOfBatch);
+
+    /**
+     * Called when nothing has arrived for a while, for handlers that hold work
+     * back between batches.
+     */
+    default void onIdle() {
+    }
+}
@@ -0,0 +1,48 @@
+package com.wellsfargo.workflow.common.pipeline;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Wakes threads waiting for a ring to move: consumers waiting for events and
+ * producers waiting for space. Signalling only takes the lock when somebody has
+ * said they are waiting, so a busy pipeline publishes with one atomic swap and
+ * no lock, and an idle one does not burn a core spinning.
+ */
+final class ProgressSignal {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition progressed = lock.newCondition();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+    void signal() {
+        if (signalNeeded.getAndSet(false)) {
+            lock.lock();
+            try {
+                progressed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits until {@code ready} holds, a signal arrives or {@code timeoutNanos}
+     * passes, whichever is first. Callers re-check their condition afterwards.
+     */
+    void await(BooleanSupplier ready, long timeoutNanos) {
+        lock.lock();
+        try {
+            signalNeeded.set(true);
+            if (!ready.getAsBoolean()) {
+                progressed.awaitNanos(timeoutNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
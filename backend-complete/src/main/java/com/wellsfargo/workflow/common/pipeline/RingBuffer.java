@@ -0,0 +1,145 @@
+package com.wellsfargo.workflow.common.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A fixed ring of preallocated, reusable slots between many producers and a
+ * graph of consumers, in the manner of the LMAX Disruptor. Producers claim the
+ * next sequence with a compare-and-set on the cursor, fill the slot at
+ * {@code sequence & mask} in place and publish it; nothing is allocated or
+ * queued per event. Each slot has exactly one writer per lap of the ring.
+ *
+ * Because producers may publish out of claim order, every slot records the lap
+ * it was last published in, and consumers only advance over a contiguous run of
+ * published slots. A producer that would lap the slowest gating consumer waits
+ * for it, so a full ring pushes back on producers instead of dropping events.
+ *
+ * @param <E> the slot type
+ */
+public final class RingBuffer<E> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Object[] slots;
+    private final int mask;
+    private final int shift;
+    private final AtomicIntegerArray publishedLap;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong gatingCache = new AtomicLong(-1);
+    private final ProgressSignal progress = new ProgressSignal();
+    private volatile AtomicLong[] gatingSequences = new AtomicLong[0];
+
+    public RingBuffer(int size, Supplier<E> slotFactory) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two, was " + size);
+        }
+        this.slots = new Object[size];
+        this.mask = size - 1;
+        this.shift = Integer.numberOfTrailingZeros(size);
+        this.publishedLap = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = slotFactory.get();
+            publishedLap.set(i, -1);
+        }
+    }
+
+    /**
+     * The consumers producers must not lap, normally the last ones in the graph.
+     * Set once, before anything is published.
+     */
+    public void gateOn(AtomicLong... sequences) {
+        this.gatingSequences = sequences.clone();
+    }
+
+    public SequenceBarrier newBarrier(AtomicLong... dependencies) {
+        return new SequenceBarrier(this, dependencies.clone());
+    }
+
+    /**
+     * Claims the next slot, waiting while the ring is full. The caller must fill
+     * and {@link #publish} it, even if filling fails, or consumers stall at it.
+     */
+    public long next() {
+        int tries = 0;
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - slots.length;
+            if (wrapPoint > gatingCache.get()) {
+                long minimum = minimumSequence(gatingSequences, current);
+                if (wrapPoint > minimum) {
+                    if (tries++ < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        progress.await(() -> wrapPoint <= minimumSequence(gatingSequences, cursor.get()),
+                                MAX_WAIT_NANOS);
+                    }
+                    continue;
+                }
+                gatingCache.set(minimum);
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        publishedLap.lazySet((int) sequence & mask, (int) (sequence >>> shift));
+        progress.signal();
+    }
+
+    public int getSize() {
+        return slots.length;
+    }
+
+    /**
+     * The highest sequence claimed so far, published or not.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public long remainingCapacity() {
+        long claimed = cursor.get();
+        return slots.length - (claimed - minimumSequence(gatingSequences, claimed));
+    }
+
+    boolean isPublished(long sequence) {
+        return publishedLap.get((int) sequence & mask) == (int) (sequence >>> shift);
+    }
+
+    /**
+     * The end of the contiguous run of published slots from {@code lower} up to
+     * at most {@code upper}; {@code lower - 1} if {@code lower} itself is not
+     * published yet.
+     */
+    long highestPublished(long lower, long upper) {
+        for (long sequence = lower; sequence <= upper; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return upper;
+    }
+
+    ProgressSignal getProgress() {
+        return progress;
+    }
+
+    static long minimumSequence(AtomicLong[] sequences, long minimum) {
+        for (AtomicLong sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
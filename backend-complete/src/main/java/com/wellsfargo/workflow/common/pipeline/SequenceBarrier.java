@@ -0,0 +1,47 @@
+package com.wellsfargo.workflow.common.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What a consumer may read up to: the published slots of the ring, or, for a
+ * consumer placed behind others, the slots every one of those has finished
+ * with. Consumers behind the same dependencies run in parallel; a consumer
+ * behind another sees each slot only after it.
+ */
+public final class SequenceBarrier {
+
+    private static final int SPIN_TRIES = 100;
+
+    private final RingBuffer<?> ring;
+    private final AtomicLong[] dependencies;
+
+    SequenceBarrier(RingBuffer<?> ring, AtomicLong[] dependencies) {
+        this.ring = ring;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * The highest sequence available to read, at least {@code sequence} unless
+     * {@code timeoutNanos} passed first.
+     */
+    public long waitFor(long sequence, long timeoutNanos) {
+        long available = available(sequence);
+        for (int tries = 0; available < sequence && tries < SPIN_TRIES; tries++) {
+            Thread.onSpinWait();
+            available = available(sequence);
+        }
+        if (available < sequence) {
+            ring.getProgress().await(() -> available(sequence) >= sequence, timeoutNanos);
+            available = available(sequence);
+        }
+        return available;
+    }
+
+    private long available(long sequence) {
+        if (dependencies.length > 0) {
+            // Dependencies only ever pass published slots
+            return RingBuffer.minimumSequence(dependencies, Long.MAX_VALUE);
+        }
+        return ring.highestPublished(sequence, ring.getCursor());
+    }
+}
@@ -0,0 +1,148 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import com.wellsfargo.workflow.common.dto.ConcurrencyLimitResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of workflow executions in flight at a limit that follows
+ * latency, in the manner of a gradient limiter. Each window's mean latency is
+ * compared with a slow-moving baseline: while it stays within
+ * {@code tolerance} of the baseline the limit grows by about its square root per
+ * window, and once latency climbs past that the limit shrinks in proportion to
+ * the excess, so queues drain instead of building up. Executions beyond the limit are refused at once
+ * rather than waiting for a slot.
+ *
+ * Admission is a compare-and-set on the in-flight count; only the once-per-window
+ * limit update takes a lock.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private long windowStart = System.nanoTime();
+    private long windowLatencySum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double estimatedLimit;
+    private double baselineNanos;
+    private double recentNanos;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.estimatedLimit = properties.getInitialLimit();
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * Runs {@code work} if the limit allows another execution, and feeds its
+     * latency back into the limit.
+     *
+     * @throws ConcurrencyLimitExceededException if the limit is reached
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (!properties.isEnabled()) {
+            return work.get();
+        }
+        int admittedInFlight = tryAcquire();
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - start, admittedInFlight);
+        }
+    }
+
+    public ConcurrencyLimitResponse getStatistics() {
+        synchronized (this) {
+            return ConcurrencyLimitResponse.builder()
+                    .enabled(properties.isEnabled())
+                    .limit(limit)
+                    .inFlight(inFlight.get())
+                    .baselineLatencyMs(baselineNanos > 0 ? baselineNanos / 1_000_000 : null)
+                    .recentLatencyMs(recentNanos > 0 ? recentNanos / 1_000_000 : null)
+                    .admittedCount(admitted.sum())
+                    .shedCount(shed.sum())
+                    .build();
+        }
+    }
+
+    private int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            int currentLimit = limit;
+            if (current >= currentLimit) {
+                shed.increment();
+                throw new ConcurrencyLimitExceededException(currentLimit);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return current + 1;
+            }
+        }
+    }
+
+    private synchronized void onSample(long latencyNanos, int admittedInFlight) {
+        windowLatencySum += latencyNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, admittedInFlight);
+
+        long now = System.nanoTime();
+        if (now - windowStart < TimeUnit.MILLISECONDS.toNanos(properties.getWindowMs())
+                || windowSamples < properties.getWindowMinSamples()) {
+            return;
+        }
+        double windowNanos = (double) windowLatencySum / windowSamples;
+        boolean appLimited = windowMaxInFlight < limit / 2;
+        windowStart = now;
+        windowLatencySum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        updateLimit(windowNanos, appLimited);
+    }
+
+    private void updateLimit(double windowNanos, boolean appLimited) {
+        recentNanos = windowNanos;
+        if (baselineNanos == 0) {
+            baselineNanos = windowNanos;
+        } else {
+            baselineNanos += (windowNanos - baselineNanos) / properties.getBaselineWindows();
+        }
+        // Latency well below the baseline means the baseline was taken under load;
+        // let it fall faster so the limit is not held down by a stale reference.
+        if (baselineNanos > 2 * windowNanos) {
+            baselineNanos = Math.max(windowNanos, baselineNanos * 0.95);
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getTolerance() * baselineNanos / windowNanos));
+        // Probe upwards only while latency is within tolerance and the limit is
+        // actually being used; too few executions to fill the limit says nothing
+        // about whether it is too low.
+        double headroom = gradient < 1.0 || appLimited ? 0 : Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + headroom;
+        estimatedLimit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(),
+                estimatedLimit * (1 - properties.getSmoothing()) + target * properties.getSmoothing()));
+
+        int previous = limit;
+        limit = (int) estimatedLimit;
+        if (limit != previous) {
+            log.debug("Concurrency limit {} -> {} (latency {} ms, baseline {} ms)", previous, limit,
+                    Math.round(windowNanos / 1_000_000), Math.round(baselineNanos / 1_000_000));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import lombok.Getter;
+
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int limit;
+
+    public ConcurrencyLimitExceededException(int limit) {
+        super("Too many executions in flight (limit " + limit + "); retry shortly");
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,45 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * How far the current latency may rise above the baseline before the limit
+     * starts to shrink; 1.5 tolerates a 50% increase.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Fraction of each computed limit change applied per window. Higher reacts
+     * faster and oscillates more.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * The limit is recomputed once per window, from the mean latency of the
+     * executions that finished in it.
+     */
+    private long windowMs = 500;
+
+    private int windowMinSamples = 10;
+
+    /**
+     * Windows averaged into the baseline latency. Long enough that a sustained
+     * slowdown shows up as a gradient instead of becoming the new normal.
+     */
+    private int baselineWindows = 600;
+}
@@ -0,0 +1,19 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RateLimiter.Scope scope;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(RateLimiter.Scope scope, long retryAfterSeconds) {
+        super("Rate limit exceeded (" + scope.name().toLowerCase() + " quota); retry after "
+                + retryAfterSeconds + "s");
+        this.scope = scope;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,72 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Shared by every execute request, whatever the test or caller.
+     */
+    private Quota global = new Quota(200, 100);
+
+    /**
+     * Each A/B test or champion/challenge comparison gets its own bucket of this size.
+     */
+    private Quota perTest = new Quota(100, 50);
+
+    /**
+     * Each caller (the authenticated principal, or the client address when there
+     * is none) gets its own bucket of this size.
+     */
+    private Quota perCaller = new Quota(20, 10);
+
+    /**
+     * Per-test quotas that replace {@link #perTest} for the tests named, keyed by
+     * test or comparison id.
+     */
+    private Map<String, Quota> tests = new HashMap<>();
+
+    /**
+     * Bounds the per-test and per-caller bucket maps. A bucket evicted for space
+     * or idleness starts full again the next time it is used.
+     */
+    private long maxTrackedKeys = 100_000;
+
+    private long idleExpirySeconds = 600;
+
+    @Data
+    public static class Quota {
+
+        /**
+         * Largest burst admitted at once.
+         */
+        private long capacity;
+
+        /**
+         * Sustained rate. Zero or less leaves the scope unlimited.
+         */
+        private double refillPerSecond;
+
+        public Quota() {
+        }
+
+        public Quota(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        boolean isUnlimited() {
+            return refillPerSecond <= 0 || capacity <= 0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wellsfargo.workflow.common.dto.RateLimitStatisticsResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits execute requests against three token buckets: the caller's, the test's
+ * and a global one. A request needs a token from each; if one scope refuses, the
+ * tokens already taken from the others are returned so a rejected request costs
+ * nothing. Runs in memory before any database work, so a flood of requests is
+ * turned away without touching the connection pool.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    public enum Scope { CALLER, TEST, GLOBAL }
+
+    private final RateLimitProperties properties;
+    private final TokenBucket globalBucket;
+    private final Cache<String, TokenBucket> testBuckets;
+    private final Cache<String, TokenBucket> callerBuckets;
+    private final LongAdder allowed = new LongAdder();
+    private final Map<Scope, LongAdder> rejected = new EnumMap<>(Scope.class);
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.globalBucket = properties.getGlobal().isUnlimited() ? null : new TokenBucket(properties.getGlobal());
+        this.testBuckets = newBucketMap(properties);
+        this.callerBuckets = newBucketMap(properties);
+        for (Scope scope : Scope.values()) {
+            rejected.put(scope, new LongAdder());
+        }
+    }
+
+    /**
+     * Takes a token for one execution of {@code testId} by {@code caller}.
+     *
+     * @throws RateLimitExceededException if any scope is out of tokens
+     */
+    public void acquire(String testId, String caller) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // In Scope order, most specific first, so a caller over its own quota is
+        // refused before it draws on the shared buckets.
+        TokenBucket[] buckets = {
+                callerBucket(caller),
+                testBucket(testId),
+                globalBucket
+        };
+        long now = System.nanoTime();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == null) {
+                continue;
+            }
+            long waitNanos = buckets[i].tryAcquire(now);
+            if (waitNanos > 0) {
+                for (int j = 0; j < i; j++) {
+                    if (buckets[j] != null) {
+                        buckets[j].release();
+                    }
+                }
+                Scope scope = Scope.values()[i];
+                rejected.get(scope).increment();
+                log.debug("Rejected execution of {} by {}: {} quota exhausted", testId, caller, scope);
+                throw new RateLimitExceededException(scope, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                        waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
+        }
+        allowed.increment();
+    }
+
+    /**
+     * The caller a request is charged to: its authenticated principal, or else the
+     * client address. Never an id from the request body, which a client could vary
+     * to get a fresh bucket per request.
+     */
+    public static String caller(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && principal.getName() != null && !principal.getName().isBlank()) {
+            return "user:" + principal.getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    public RateLimitStatisticsResponse getStatistics() {
+        return RateLimitStatisticsResponse.builder()
+                .enabled(properties.isEnabled())
+                .allowedCount(allowed.sum())
+                .rejectedCount(rejected.values().stream().mapToLong(LongAdder::sum).sum())
+                .scopes(Arrays.stream(Scope.values()).map(this::toScope).toList())
+                .build();
+    }
+
+    private TokenBucket callerBucket(String caller) {
+        RateLimitProperties.Quota quota = properties.getPerCaller();
+        return quota.isUnlimited() ? null : callerBuckets.get(caller, key -> new TokenBucket(quota));
+    }
+
+    private TokenBucket testBucket(String testId) {
+        RateLimitProperties.Quota quota = properties.getTests().getOrDefault(testId, properties.getPerTest());
+        return quota.isUnlimited() ? null : testBuckets.get(testId, key -> new TokenBucket(quota));
+    }
+
+    private RateLimitStatisticsResponse.Scope toScope(Scope scope) {
+        RateLimitProperties.Quota quota = switch (scope) {
+            case CALLER -> properties.getPerCaller();
+            case TEST -> properties.getPerTest();
+            case GLOBAL -> properties.getGlobal();
+        };
+        long tracked = switch (scope) {
+            case CALLER -> callerBuckets.estimatedSize();
+            case TEST -> testBuckets.estimatedSize();
+            case GLOBAL -> globalBucket != null ? 1 : 0;
+        };
+        return RateLimitStatisticsResponse.Scope.builder()
+                .name(scope.name())
+                .capacity(quota.getCapacity())
+                .refillPerSecond(quota.getRefillPerSecond())
+                .rejectedCount(rejected.get(scope).sum())
+                .trackedBuckets(tracked)
+                .build();
+    }
+
+    private static Cache<String, TokenBucket> newBucketMap(RateLimitProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(Duration.ofSeconds(properties.getIdleExpirySeconds()))
+                .build();
+    }
+}
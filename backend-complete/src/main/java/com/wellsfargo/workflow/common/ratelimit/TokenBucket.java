@@ -0,0 +1,49 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket stored as its theoretical arrival time (the generic cell rate
+ * algorithm): the instant at which the bucket would be full again if no tokens
+ * were taken meanwhile. Taking a token is one compare-and-set on that instant,
+ * so concurrent callers never block each other and idle buckets need no refill
+ * task.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(RateLimitProperties.Quota quota) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000 / quota.getRefillPerSecond()));
+        this.burstNanos = intervalNanos * quota.getCapacity();
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire} when a later scope refused the
+     * request.
+     */
+    void release() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+}
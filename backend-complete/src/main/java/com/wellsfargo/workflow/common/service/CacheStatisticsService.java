@@ -0,0 +1,71 @@
+package com.wellsfargo.workflow.common.service;
+
+import com.wellsfargo.workflow.common.dto.CacheStatisticsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reports on and clears the second-level cache holding A/B test, arm and
+ * comparison definitions. Counters are cumulative since startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatisticsResponse getStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+
+        List<CacheStatisticsResponse.Region> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(name -> toRegion(name, statistics.getDomainDataRegionStatistics(name)))
+                .toList();
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        return CacheStatisticsResponse.builder()
+                .hitCount(hits)
+                .missCount(misses)
+                .putCount(statistics.getSecondLevelCachePutCount())
+                .hitRatio(ratio(hits, misses))
+                .regions(regions)
+                .build();
+    }
+
+    /**
+     * Needed only after the tables were changed outside the application (e.g. from
+     * the H2 console); the application's own writes keep the cache current.
+     */
+    public void evictAll() {
+        log.info("Evicting all second-level cache regions");
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    private CacheStatisticsResponse.Region toRegion(String name, CacheRegionStatistics region) {
+        return CacheStatisticsResponse.Region.builder()
+                .name(name)
+                .hitCount(region.getHitCount())
+                .missCount(region.getMissCount())
+                .putCount(region.getPutCount())
+                .hitRatio(ratio(region.getHitCount(), region.getMissCount()))
+                .build();
+    }
+
+    private Double ratio(long hits, long misses) {
+        return hits + misses == 0 ? null : hits / (double) (hits + misses);
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
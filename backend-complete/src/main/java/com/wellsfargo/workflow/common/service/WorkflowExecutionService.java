@@ -1,16 +1,34 @@
 package com.wellsfargo.workflow.common.service;
 
+import com.wellsfargo.workflow.common.ratelimit.AdaptiveConcurrencyLimiter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Random;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class WorkflowExecutionService {
 
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
     private final Random random = new Random();
 
+    /**
+     * Runs one workflow execution, including the writes that record it, under the
+     * adaptive concurrency limit. Callers enter here before the transaction that
+     * records the execution opens, so a refused execution neither holds a
+     * connection nor leaves anything behind.
+     *
+     * @throws com.wellsfargo.workflow.common.ratelimit.ConcurrencyLimitExceededException
+     *         if too many executions are already in flight
+     */
+    public <T> T execute(Supplier<T> execution) {
+        return concurrencyLimiter.execute(execution);
+    }
+
     public long simulateExecution(String bpmnFilePath) {
         long baseTime = 100 + random.nextInt(300);
 
@@ -0,0 +1,283 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paired bootstrap of the challenge-minus-champion difference in mean, median and
+ * p95 latency. Each resample draws executions with replacement, so both variants
+ * of an execution stay together.
+ *
+ * Timings are dictionary-encoded up front: a resample only increments one small
+ * count array per variant, then a single scan over the distinct values yields the
+ * mean and both quantiles without sorting. Resamples are split across a fork/join
+ * pool; every task owns a {@link SplittableRandom} split from its parent, so a
+ * fixed seed reproduces the same intervals regardless of scheduling.
+ */
+@Component
+@Slf4j
+public class BootstrapEngine {
+
+    private static final double MEDIAN = 0.5;
+    private static final double P95 = 0.95;
+
+    private final BootstrapProperties properties;
+    private final ForkJoinPool pool;
+
+    public BootstrapEngine(BootstrapProperties properties) {
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Resamples the first {@code size} paired timings. Returns null when there are
+     * fewer than two pairs.
+     */
+    public Result resample(long[] championTimes, long[] challengeTimes, int size) {
+        if (size < 2) {
+            return null;
+        }
+
+        long started = System.nanoTime();
+        Sample champion = new Sample(championTimes, size);
+        Sample challenge = new Sample(challengeTimes, size);
+
+        int iterations = properties.getIterations();
+        double[][] differences = new double[3][iterations];
+        SplittableRandom random = properties.getSeed() != null
+                ? new SplittableRandom(properties.getSeed())
+                : new SplittableRandom();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(properties.getTimeBudgetMs());
+        int grain = Math.max(1, iterations / (pool.getParallelism() * 8));
+
+        pool.invoke(new ResampleTask(champion, challenge, differences, 0, iterations, grain, random, deadline));
+
+        Result result = new Result(
+                new Statistic(challenge.mean - champion.mean, completed(differences[0])),
+                new Statistic(challenge.median - champion.median, completed(differences[1])),
+                new Statistic(challenge.p95 - champion.p95, completed(differences[2])));
+
+        log.debug("Bootstrapped {} pairs with {}/{} resamples in {} ms", size, result.getIterations(), iterations,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return result;
+    }
+
+    /**
+     * Drops resamples skipped after the deadline and sorts the rest.
+     */
+    private static double[] completed(double[] values) {
+        double[] completed = Arrays.stream(values).filter(v -> !Double.isNaN(v)).toArray();
+        Arrays.sort(completed);
+        return completed;
+    }
+
+    private static int rank(double quantile, int size) {
+        return Math.max(1, (int) Math.ceil(quantile * size));
+    }
+
+    /**
+     * Distinct sorted values of one variant plus, per execution, the index of its
+     * value. Observed statistics use the same rank definition as the resamples.
+     */
+    private static final class Sample {
+        final long[] values;
+        final int[] codes;
+        final double mean;
+        final double median;
+        final double p95;
+
+        Sample(long[] times, int size) {
+            long[] ordered = Arrays.copyOf(times, size);
+            Arrays.sort(ordered);
+
+            double sum = 0;
+            long[] distinct = new long[size];
+            int distinctCount = 0;
+            for (long value : ordered) {
+                sum += value;
+                if (distinctCount == 0 || value != distinct[distinctCount - 1]) {
+                    distinct[distinctCount++] = value;
+                }
+            }
+            values = Arrays.copyOf(distinct, distinctCount);
+
+            codes = new int[size];
+            for (int i = 0; i < size; i++) {
+                codes[i] = Arrays.binarySearch(values, times[i]);
+            }
+
+            mean = sum / size;
+            median = ordered[rank(MEDIAN, size) - 1];
+            p95 = ordered[rank(P95, size) - 1];
+        }
+    }
+
+    private static final class ResampleTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Sample champion;
+        private final Sample challenge;
+        private final double[][] differences;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final SplittableRandom random;
+        private final long deadline;
+
+        ResampleTask(Sample champion, Sample challenge, double[][] differences,
+                     int from, int to, int grain, SplittableRandom random, long deadline) {
+            this.champion = champion;
+            this.challenge = challenge;
+            this.differences = differences;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.random = random;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                ResampleTask right = new ResampleTask(
+                        champion, challenge, differences, mid, to, grain, random.split(), deadline);
+                ResampleTask left = new ResampleTask(
+                        champion, challenge, differences, from, mid, grain, random, deadline);
+                invokeAll(left, right);
+                return;
+            }
+
+            int size = champion.codes.length;
+            int[] championCounts = new int[champion.values.length];
+            int[] challengeCounts = new int[challenge.values.length];
+            double[] championStats = new double[3];
+            double[] challengeStats = new double[3];
+
+            for (int iteration = from; iteration < to; iteration++) {
+                if (System.nanoTime() > deadline) {
+                    for (double[] column : differences) {
+                        Arrays.fill(column, iteration, to, Double.NaN);
+                    }
+                    return;
+                }
+
+                // Two draws per nextLong: the high and low 32 bits are each scaled
+                // to [0, size) by multiply-shift (bias below size / 2^32).
+                for (int drawn = 0; drawn < size; drawn += 2) {
+                    long bits = random.nextLong();
+                    int index = (int) (((bits >>> 32) * size) >>> 32);
+                    championCounts[champion.codes[index]]++;
+                    challengeCounts[challenge.codes[index]]++;
+                    if (drawn + 1 < size) {
+                        index = (int) (((bits & 0xFFFFFFFFL) * size) >>> 32);
+                        championCounts[champion.codes[index]]++;
+                        challengeCounts[challenge.codes[index]]++;
+                    }
+                }
+
+                drain(championCounts, champion.values, size, championStats);
+                drain(challengeCounts, challenge.values, size, challengeStats);
+                differences[0][iteration] = challengeStats[0] - championStats[0];
+                differences[1][iteration] = challengeStats[1] - championStats[1];
+                differences[2][iteration] = challengeStats[2] - championStats[2];
+            }
+        }
+
+        /**
+         * Computes mean, median and p95 of one resample from its value counts and
+         * clears the counts for the next resample.
+         */
+        private static void drain(int[] counts, long[] values, int size, double[] stats) {
+            int medianRank = rank(MEDIAN, size);
+            int p95Rank = rank(P95, size);
+            double sum = 0;
+            long seen = 0;
+            double median = 0;
+            double p95 = 0;
+            for (int i = 0; i < counts.length; i++) {
+                int count = counts[i];
+                if (count == 0) continue;
+                counts[i] = 0;
+                sum += (double) count * values[i];
+                long before = seen;
+                seen += count;
+                if (before < medianRank && seen >= medianRank) median = values[i];
+                if (before < p95Rank && seen >= p95Rank) p95 = values[i];
+            }
+            stats[0] = sum / size;
+            stats[1] = median;
+            stats[2] = p95;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Result {
+        private final Statistic mean;
+        private final Statistic median;
+        private final Statistic p95;
+
+        public int getIterations() {
+            return mean.resamples.length;
+        }
+    }
+
+    /**
+     * Observed difference and the sorted bootstrap distribution of that difference.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Statistic {
+        @Getter
+        private final double observed;
+        private final double[] resamples;
+
+        /**
+         * Lower bound of the percentile interval, NaN when no resample completed.
+         */
+        public double lower(double confidenceLevel) {
+            return percentile((1 - confidenceLevel) / 2);
+        }
+
+        public double upper(double confidenceLevel) {
+            return percentile(1 - (1 - confidenceLevel) / 2);
+        }
+
+        /**
+         * Two-sided bootstrap p-value for "no difference": twice the share of
+         * resamples on the far side of zero, with the usual +1 correction.
+         */
+        public double pValue() {
+            int m = resamples.length;
+            if (m == 0) return 1.0;
+            int nonPositive = 0;
+            while (nonPositive < m && resamples[nonPositive] <= 0) nonPositive++;
+            int nonNegative = 0;
+            while (nonNegative < m && resamples[m - 1 - nonNegative] >= 0) nonNegative++;
+            return Math.min(1.0, 2.0 * (Math.min(nonPositive, nonNegative) + 1) / (m + 1));
+        }
+
+        private double percentile(double quantile) {
+            if (resamples.length == 0) return Double.NaN;
+            return resamples[(int) Math.round(quantile * (resamples.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.comparison.bootstrap")
+public class BootstrapProperties {
+
+    /**
+     * Number of resamples drawn per analysis.
+     */
+    private int iterations = 10_000;
+
+    private double confidenceLevel = 0.95;
+
+    /**
+     * Wall-clock budget; resampling stops early once it is spent and the
+     * intervals are computed from the resamples completed so far.
+     */
+    private long timeBudgetMs = 10_000;
+
+    /**
+     * Worker threads of the resampling pool; 0 means one per available processor.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Fixed seed for reproducible intervals; random when unset.
+     */
+    private Long seed;
+}
@@ -0,0 +1,36 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.TreeMap;
+
+/**
+ * The compacted node histograms a comparison's node aggregates include, as
+ * loaded for the days its members span; persisted in
+ * {@code comparison_master.compacted_nodes} next to the aggregate state so
+ * metrics requests do not read the histograms. Stale once the members' days
+ * change, and dropped when compaction folds more days of the comparison's
+ * members. Compacted days count the members included when they were compacted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactedNodes {
+
+    private String fromDay;
+    private String toDay;
+    private TreeMap<String, ComparisonAggregateState.NodeAccumulator> nodes = new TreeMap<>();
+
+    /**
+     * Whether these were loaded for the days {@code state}'s members span.
+     */
+    public boolean covers(ComparisonAggregateState state) {
+        LocalDate[] days = state.startedDays();
+        return days == null
+                ? fromDay == null
+                : days[0].toString().equals(fromDay) && days[1].toString().equals(toDay);
+    }
+}
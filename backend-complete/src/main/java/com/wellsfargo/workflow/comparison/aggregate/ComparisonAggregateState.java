@@ -0,0 +1,213 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.TreeMap;
+
+/**
+ * Running aggregate state of a comparison, persisted in
+ * {@code comparison_master.aggregate_metrics}.
+ *
+ * Every field is a sum, a count, a sum of squared deviations or a
+ * {@link LatencySketch}, so an execution can be folded in with {@code sign = +1}
+ * and taken out again with {@code sign = -1} without rescanning the other
+ * executions of the comparison.
+ */
+@Data
+@NoArgsConstructor
+public class ComparisonAggregateState {
+
+    /**
+     * Bumped whenever the persisted layout changes; states written with another
+     * version are discarded and rebuilt from the executions.
+     */
+    public static final int CURRENT_VERSION = 4;
+
+    private int version;
+    private long executionCount;
+    private VariantAccumulator champion = new VariantAccumulator();
+    private VariantAccumulator challenge = new VariantAccumulator();
+    private long championWins;
+    private long challengeWins;
+    private long ties;
+    private TreeMap<String, NodeAccumulator> nodes = new TreeMap<>();
+    private TreeMap<String, TimeBucket> timeBuckets = new TreeMap<>();
+
+    public static ComparisonAggregateState empty() {
+        ComparisonAggregateState state = new ComparisonAggregateState();
+        state.setVersion(CURRENT_VERSION);
+        return state;
+    }
+
+    /**
+     * First and last day on which the executions started, from the hourly
+     * time buckets; null when none has started.
+     */
+    public LocalDate[] startedDays() {
+        if (timeBuckets.isEmpty()) {
+            return null;
+        }
+        return new LocalDate[]{
+                LocalDateTime.parse(timeBuckets.firstKey()).toLocalDate(),
+                LocalDateTime.parse(timeBuckets.lastKey()).toLocalDate()};
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or subtracts ({@code sign = -1}) the aggregate of
+     * another set of executions, e.g. a batch being attached or detached.
+     */
+    public void merge(ComparisonAggregateState delta, int sign) {
+        executionCount += sign * delta.executionCount;
+        championWins += sign * delta.championWins;
+        challengeWins += sign * delta.challengeWins;
+        ties += sign * delta.ties;
+        champion.merge(delta.champion, sign);
+        challenge.merge(delta.challenge, sign);
+
+        delta.nodes.forEach((nodeId, deltaNode) -> {
+            NodeAccumulator node = nodes.computeIfAbsent(nodeId, id -> new NodeAccumulator());
+            node.setNodeName(deltaNode.getNodeName());
+            node.getChampion().merge(deltaNode.getChampion(), sign);
+            node.getChallenge().merge(deltaNode.getChallenge(), sign);
+            if (node.isEmpty()) {
+                nodes.remove(nodeId);
+            }
+        });
+
+        delta.timeBuckets.forEach((key, deltaBucket) -> {
+            TimeBucket bucket = timeBuckets.computeIfAbsent(key, k -> new TimeBucket());
+            bucket.setCount(bucket.getCount() + sign * deltaBucket.getCount());
+            bucket.setChampionCount(bucket.getChampionCount() + sign * deltaBucket.getChampionCount());
+            bucket.setChampionSum(bucket.getChampionSum() + sign * deltaBucket.getChampionSum());
+            bucket.setChallengeCount(bucket.getChallengeCount() + sign * deltaBucket.getChallengeCount());
+            bucket.setChallengeSum(bucket.getChallengeSum() + sign * deltaBucket.getChallengeSum());
+            if (bucket.getCount() <= 0) {
+                timeBuckets.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Count, sum and latency sketch of one variant's timings, with the spread kept
+     * as the sum of squared deviations from the mean. Adding and removing timings
+     * or whole sets updates it with the pairwise (Chan/Welford) formula in either
+     * direction, which stays accurate where {@code sumOfSquares / n - mean²} cancels
+     * catastrophically; rounding left by removals is clamped at zero.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class VariantAccumulator {
+        private long count;
+        private long errorCount;
+        private double sum;
+        private double squaredDeviations;
+        private LatencySketch latency = new LatencySketch();
+
+        /**
+         * Folds in one timing. A null time, recorded when the variant never
+         * reported one, only counts towards the errors: averaging it in as zero
+         * would pull the mean and percentiles down.
+         */
+        public void apply(Long timeMs, boolean error, int sign) {
+            if (error) errorCount += sign;
+            if (timeMs == null) {
+                return;
+            }
+            combine(1, timeMs, 0.0, sign);
+            if (sign > 0) {
+                latency.add(timeMs);
+            } else {
+                latency.remove(timeMs);
+            }
+        }
+
+        /**
+         * Adds totals computed in bulk by {@link ComparisonKernel}; the caller
+         * feeds the latency sketch separately.
+         */
+        public void accumulate(long count, long errorCount, double sum, double squaredDeviations) {
+            this.errorCount += errorCount;
+            combine(count, sum, squaredDeviations, 1);
+        }
+
+        public void merge(VariantAccumulator other, int sign) {
+            errorCount += sign * other.errorCount;
+            combine(other.count, other.sum, other.squaredDeviations, sign);
+            latency.merge(other.latency, sign);
+        }
+
+        public double mean() {
+            return count > 0 ? sum / count : 0.0;
+        }
+
+        public double stdDev() {
+            return count > 0 ? Math.sqrt(squaredDeviations / count) : 0.0;
+        }
+
+        private void combine(long otherCount, double otherSum, double otherSquaredDeviations, int sign) {
+            if (otherCount == 0) {
+                return;
+            }
+            long combined = count + sign * otherCount;
+            if (combined <= 0 || count <= 0) {
+                count = combined;
+                sum = combined > 0 ? otherSum : 0.0;
+                squaredDeviations = combined > 0 ? otherSquaredDeviations : 0.0;
+                return;
+            }
+            double otherMean = otherSum / otherCount;
+            if (sign > 0) {
+                double delta = otherMean - mean();
+                squaredDeviations += otherSquaredDeviations + delta * delta * count * otherCount / combined;
+                sum += otherSum;
+            } else {
+                double remainingMean = (sum - otherSum) / combined;
+                double delta = otherMean - remainingMean;
+                squaredDeviations -= otherSquaredDeviations + delta * delta * combined * otherCount / count;
+                squaredDeviations = Math.max(0.0, squaredDeviations);
+                sum -= otherSum;
+            }
+            count = combined;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class NodeAccumulator {
+        private String nodeName;
+        private VariantAccumulator champion = new VariantAccumulator();
+        private VariantAccumulator challenge = new VariantAccumulator();
+
+        public void apply(String variant, Long timeMs, boolean error, int sign) {
+            if ("CHAMPION".equals(variant)) {
+                champion.apply(timeMs, error, sign);
+            } else if ("CHALLENGE".equals(variant)) {
+                challenge.apply(timeMs, error, sign);
+            }
+        }
+
+        /**
+         * True once neither variant holds a timing or an error, so a node seen
+         * only through untimed failures is kept until those are taken out again.
+         */
+        @JsonIgnore
+        public boolean isEmpty() {
+            return champion.getCount() <= 0 && challenge.getCount() <= 0
+                    && champion.getErrorCount() <= 0 && challenge.getErrorCount() <= 0;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class TimeBucket {
+        private long count;
+        private long championCount;
+        private double championSum;
+        private long challengeCount;
+        private double challengeSum;
+    }
+}
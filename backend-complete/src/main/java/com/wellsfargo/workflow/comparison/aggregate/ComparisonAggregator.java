@@ -0,0 +1,296 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.championchallenge.entity.ChampionChallengeExecutionEntity;
+import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
+import com.wellsfargo.workflow.comparison.dto.AggregateMetricsResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds executions into a {@link ComparisonAggregateState} and renders the state
+ * as an {@link AggregateMetricsResponse}. Rendering only touches the accumulators,
+ * so its cost is independent of the number of executions in the comparison.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ComparisonAggregator {
+
+    public static final int DEFAULT_TIME_SERIES_POINTS = 200;
+
+    private final ObjectMapper objectMapper;
+    private final BootstrapEngine bootstrapEngine;
+    private final BootstrapProperties bootstrapProperties;
+
+    public void apply(ComparisonAggregateState state,
+                      ChampionChallengeExecutionEntity execution,
+                      List<ExecutionNodeMetricEntity> nodeMetrics,
+                      int sign) {
+        boolean failed = execution.getStatus() == ChampionChallengeExecutionEntity.ExecutionStatus.FAILED;
+        boolean championError = failed || Boolean.TRUE.equals(execution.getChampionError());
+        boolean challengeError = failed || Boolean.TRUE.equals(execution.getChallengeError());
+
+        state.setExecutionCount(state.getExecutionCount() + sign);
+
+        Long championTime = execution.getTotalChampionTimeMs();
+        Long challengeTime = execution.getTotalChallengeTimeMs();
+        state.getChampion().apply(championTime, championError, sign);
+        state.getChallenge().apply(challengeTime, challengeError, sign);
+
+        if ("CHAMPION".equals(execution.getWinner())) {
+            state.setChampionWins(state.getChampionWins() + sign);
+        } else if ("CHALLENGE".equals(execution.getWinner())) {
+            state.setChallengeWins(state.getChallengeWins() + sign);
+        } else {
+            state.setTies(state.getTies() + sign);
+        }
+
+        for (ExecutionNodeMetricEntity metric : nodeMetrics) {
+            ComparisonAggregateState.NodeAccumulator node = state.getNodes()
+                    .computeIfAbsent(metric.getNodeId(), id -> new ComparisonAggregateState.NodeAccumulator());
+            node.setNodeName(metric.getNodeName());
+            node.apply(metric.getVariant(), metric.getExecutionTimeMs(), "ERROR".equals(metric.getStatus()), sign);
+            if (node.isEmpty()) {
+                state.getNodes().remove(metric.getNodeId());
+            }
+        }
+
+        if (execution.getStartedAt() != null) {
+            String bucketKey = execution.getStartedAt().truncatedTo(ChronoUnit.HOURS).toString();
+            ComparisonAggregateState.TimeBucket bucket = state.getTimeBuckets()
+                    .computeIfAbsent(bucketKey, key -> new ComparisonAggregateState.TimeBucket());
+            bucket.setCount(bucket.getCount() + sign);
+            if (championTime != null) {
+                bucket.setChampionCount(bucket.getChampionCount() + sign);
+                bucket.setChampionSum(bucket.getChampionSum() + sign * (double) championTime);
+            }
+            if (challengeTime != null) {
+                bucket.setChallengeCount(bucket.getChallengeCount() + sign);
+                bucket.setChallengeSum(bucket.getChallengeSum() + sign * (double) challengeTime);
+            }
+            if (bucket.getCount() <= 0) {
+                state.getTimeBuckets().remove(bucketKey);
+            }
+        }
+    }
+
+    public AggregateMetricsResponse.PerformanceMetrics performance(ComparisonAggregateState state) {
+        ComparisonAggregateState.VariantAccumulator champion = state.getChampion();
+        ComparisonAggregateState.VariantAccumulator challenge = state.getChallenge();
+
+        double championAvg = champion.mean();
+        double challengeAvg = challenge.mean();
+        double improvement = challengeAvg > 0 ? ((championAvg - challengeAvg) / championAvg) * 100 : 0.0;
+
+        return AggregateMetricsResponse.PerformanceMetrics.builder()
+                .championAvgTime(championAvg)
+                .championMedianTime(champion.getLatency().quantile(0.5))
+                .championP95(champion.getLatency().quantile(0.95))
+                .challengeAvgTime(challengeAvg)
+                .challengeMedianTime(challenge.getLatency().quantile(0.5))
+                .challengeP95(challenge.getLatency().quantile(0.95))
+                .improvement(improvement)
+                .consistency(AggregateMetricsResponse.ConsistencyMetrics.builder()
+                        .championStdDev(champion.stdDev())
+                        .challengeStdDev(challenge.stdDev())
+                        .build())
+                .build();
+    }
+
+    public AggregateMetricsResponse.ReliabilityMetrics reliability(ComparisonAggregateState state) {
+        long total = state.getExecutionCount();
+        long championErrors = state.getChampion().getErrorCount();
+        long challengeErrors = state.getChallenge().getErrorCount();
+
+        return AggregateMetricsResponse.ReliabilityMetrics.builder()
+                .championSuccessRate(total > 0 ? ((total - championErrors) / (double) total) * 100 : 100.0)
+                .challengeSuccessRate(total > 0 ? ((total - challengeErrors) / (double) total) * 100 : 100.0)
+                .championErrorCount((int) championErrors)
+                .challengeErrorCount((int) challengeErrors)
+                .build();
+    }
+
+    public AggregateMetricsResponse.WinnerDistribution winnerDistribution(ComparisonAggregateState state) {
+        long total = state.getExecutionCount();
+        return AggregateMetricsResponse.WinnerDistribution.builder()
+                .championWins((int) state.getChampionWins())
+                .challengeWins((int) state.getChallengeWins())
+                .ties((int) state.getTies())
+                .winRate(total > 0 ? (state.getChallengeWins() / (double) total) * 100 : 0.0)
+                .build();
+    }
+
+    /**
+     * Paired bootstrap over the total timings of the included executions where
+     * both variants reported one. The comparison is significant when the
+     * confidence interval of the mean difference excludes zero.
+     */
+    public AggregateMetricsResponse.StatisticalAnalysis statisticalAnalysis(ExecutionColumns executions) {
+        long[][] paired = executions.pairedTimes();
+        int sampleSize = paired[0].length;
+        double confidenceLevel = bootstrapProperties.getConfidenceLevel();
+        BootstrapEngine.Result bootstrap = bootstrapEngine.resample(paired[0], paired[1], sampleSize);
+
+        AggregateMetricsResponse.StatisticalAnalysis.StatisticalAnalysisBuilder analysis =
+                AggregateMetricsResponse.StatisticalAnalysis.builder()
+                        .sampleSize(sampleSize)
+                        .confidenceLevel(confidenceLevel * 100)
+                        .testMethod("paired bootstrap");
+
+        if (bootstrap == null || bootstrap.getIterations() == 0) {
+            return analysis
+                    .pValue(1.0)
+                    .isSignificant(false)
+                    .bootstrapIterations(0)
+                    .recommendation("Need more data (minimum 10 executions)")
+                    .build();
+        }
+
+        BootstrapEngine.Statistic mean = bootstrap.getMean();
+        boolean isSignificant = mean.lower(confidenceLevel) > 0 || mean.upper(confidenceLevel) < 0;
+
+        String recommendation;
+        if (sampleSize < 10) {
+            recommendation = "Need more data (minimum 10 executions)";
+        } else if (!isSignificant) {
+            recommendation = "No significant difference - continue testing";
+        } else {
+            recommendation = mean.getObserved() < 0 ?
+                    "Deploy Challenge - significantly faster" :
+                    "Keep Champion - currently better";
+        }
+
+        return analysis
+                .pValue(mean.pValue())
+                .isSignificant(isSignificant)
+                .recommendation(recommendation)
+                .bootstrapIterations(bootstrap.getIterations())
+                .meanDifference(interval(mean, confidenceLevel))
+                .medianDifference(interval(bootstrap.getMedian(), confidenceLevel))
+                .p95Difference(interval(bootstrap.getP95(), confidenceLevel))
+                .build();
+    }
+
+    public List<AggregateMetricsResponse.NodeAggregate> nodeAggregates(ComparisonAggregateState state) {
+        List<AggregateMetricsResponse.NodeAggregate> nodeAggregates = new ArrayList<>();
+
+        for (Map.Entry<String, ComparisonAggregateState.NodeAccumulator> entry : state.getNodes().entrySet()) {
+            ComparisonAggregateState.VariantAccumulator champion = entry.getValue().getChampion();
+            ComparisonAggregateState.VariantAccumulator challenge = entry.getValue().getChallenge();
+            if (champion.getCount() <= 0 || challenge.getCount() <= 0) {
+                continue;
+            }
+
+            double champAvg = champion.mean();
+            double challAvg = challenge.mean();
+            double improvement = champAvg > 0 ? ((champAvg - challAvg) / champAvg) * 100 : 0.0;
+            String winner = challAvg < champAvg ? "challenge" :
+                           challAvg > champAvg ? "champion" : "tie";
+
+            nodeAggregates.add(AggregateMetricsResponse.NodeAggregate.builder()
+                    .nodeId(entry.getKey())
+                    .nodeName(entry.getValue().getNodeName())
+                    .championAvgTime(champAvg)
+                    .challengeAvgTime(challAvg)
+                    .championStdDev(champion.stdDev())
+                    .challengeStdDev(challenge.stdDev())
+                    .championP95(champion.getLatency().quantile(0.95))
+                    .challengeP95(challenge.getLatency().quantile(0.95))
+                    .executionCount((int) (champion.getCount() + challenge.getCount()))
+                    .improvement(improvement)
+                    .winner(winner)
+                    .build());
+        }
+
+        return nodeAggregates;
+    }
+
+    /**
+     * Hourly series from the persisted buckets, downsampled to {@link #DEFAULT_TIME_SERIES_POINTS}.
+     */
+    public List<AggregateMetricsResponse.TimeSeriesPoint> timeSeries(ComparisonAggregateState state) {
+        TimeWindowColumns windows = new TimeWindowColumns(state.getTimeBuckets().size());
+        for (Map.Entry<String, ComparisonAggregateState.TimeBucket> entry : state.getTimeBuckets().entrySet()) {
+            ComparisonAggregateState.TimeBucket bucket = entry.getValue();
+            windows.add(
+                    LocalDateTime.parse(entry.getKey()).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    bucket.getCount(),
+                    bucket.getChampionCount() > 0 ? bucket.getChampionSum() / bucket.getChampionCount() : 0.0,
+                    bucket.getChallengeCount() > 0 ? bucket.getChallengeSum() / bucket.getChallengeCount() : 0.0);
+        }
+        return timeSeries(windows, DEFAULT_TIME_SERIES_POINTS);
+    }
+
+    /**
+     * Downsamples the windows to at most {@code points} with LTTB over both
+     * variants' averages. Kept points report their own window's count.
+     */
+    public List<AggregateMetricsResponse.TimeSeriesPoint> timeSeries(TimeWindowColumns windows, int points) {
+        double[] starts = windows.getWindowStarts();
+        double[] championAverages = windows.getChampionAverages();
+        double[] challengeAverages = windows.getChallengeAverages();
+        int[] selected = Lttb.select(starts, new double[][]{championAverages, challengeAverages},
+                windows.getSize(), points);
+
+        List<AggregateMetricsResponse.TimeSeriesPoint> timeSeries = new ArrayList<>(selected.length);
+        for (int i : selected) {
+            timeSeries.add(AggregateMetricsResponse.TimeSeriesPoint.builder()
+                    .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli((long) starts[i]), ZoneOffset.UTC).toString())
+                    .championAvg(championAverages[i])
+                    .challengeAvg(challengeAverages[i])
+                    .count((int) windows.getCounts()[i])
+                    .build());
+        }
+        return timeSeries;
+    }
+
+    /**
+     * Reads a persisted aggregate column, returning null when it is empty or
+     * unreadable so the caller can rebuild it.
+     */
+    public <T> T read(String json, Class<T> type) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            T value = objectMapper.readValue(json, type);
+            if (value instanceof ComparisonAggregateState state
+                    && state.getVersion() != ComparisonAggregateState.CURRENT_VERSION) {
+                log.info("Discarding aggregate state with layout version {}", state.getVersion());
+                return null;
+            }
+            return value;
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable aggregate state: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    public String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialise aggregate state", e);
+        }
+    }
+
+    private AggregateMetricsResponse.ConfidenceInterval interval(BootstrapEngine.Statistic statistic,
+                                                                 double confidenceLevel) {
+        return AggregateMetricsResponse.ConfidenceInterval.builder()
+                .estimate(statistic.getObserved())
+                .lower(statistic.lower(confidenceLevel))
+                .upper(statistic.upper(confidenceLevel))
+                .build();
+    }
+}
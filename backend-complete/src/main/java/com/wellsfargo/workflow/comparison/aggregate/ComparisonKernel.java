@@ -0,0 +1,189 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Builds a {@link ComparisonAggregateState} from columnar execution and node metric
+ * data. Totals (count, sum, errors) are gathered in a single pass per column set;
+ * squared deviations from each mean take a second pass over the timed values,
+ * which are then fed to the sketches in bulk, with node
+ * timings grouped per (node, variant) by a counting sort instead of a comparison
+ * sort or per-row map lookups. Times missing from the columns count towards
+ * errors only.
+ */
+public final class ComparisonKernel {
+
+    private ComparisonKernel() {
+    }
+
+    public static ComparisonAggregateState fold(ExecutionColumns executions, NodeMetricColumns nodeMetrics) {
+        ComparisonAggregateState state = ComparisonAggregateState.empty();
+        foldExecutions(state, executions);
+        foldNodeMetrics(state, nodeMetrics);
+        return state;
+    }
+
+    private static void foldExecutions(ComparisonAggregateState state, ExecutionColumns columns) {
+        int size = columns.getSize();
+        long[] championTimes = columns.getChampionTimes();
+        long[] challengeTimes = columns.getChallengeTimes();
+        boolean[] championErrors = columns.getChampionErrors();
+        boolean[] challengeErrors = columns.getChallengeErrors();
+        byte[] winners = columns.getWinners();
+        long[] hours = columns.getStartedAtHours();
+
+        long championCount = 0, challengeCount = 0;
+        double championSum = 0, challengeSum = 0;
+        long championErrorCount = 0, challengeErrorCount = 0;
+        long championWins = 0, challengeWins = 0, ties = 0;
+
+        long currentHour = Long.MIN_VALUE;
+        ComparisonAggregateState.TimeBucket bucket = null;
+
+        for (int i = 0; i < size; i++) {
+            boolean championTimed = championTimes[i] != ExecutionColumns.NO_TIME;
+            boolean challengeTimed = challengeTimes[i] != ExecutionColumns.NO_TIME;
+            double champion = championTimes[i];
+            double challenge = challengeTimes[i];
+            if (championTimed) {
+                championCount++;
+                championSum += champion;
+            }
+            if (challengeTimed) {
+                challengeCount++;
+                challengeSum += challenge;
+            }
+            if (championErrors[i]) championErrorCount++;
+            if (challengeErrors[i]) challengeErrorCount++;
+
+            switch (winners[i]) {
+                case ExecutionColumns.WINNER_CHAMPION -> championWins++;
+                case ExecutionColumns.WINNER_CHALLENGE -> challengeWins++;
+                default -> ties++;
+            }
+
+            long hour = hours[i];
+            if (hour == Long.MIN_VALUE) {
+                continue;
+            }
+            if (hour != currentHour) {
+                currentHour = hour;
+                String key = LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC).toString();
+                bucket = state.getTimeBuckets().computeIfAbsent(key, k -> new ComparisonAggregateState.TimeBucket());
+            }
+            bucket.setCount(bucket.getCount() + 1);
+            if (championTimed) {
+                bucket.setChampionCount(bucket.getChampionCount() + 1);
+                bucket.setChampionSum(bucket.getChampionSum() + champion);
+            }
+            if (challengeTimed) {
+                bucket.setChallengeCount(bucket.getChallengeCount() + 1);
+                bucket.setChallengeSum(bucket.getChallengeSum() + challenge);
+            }
+        }
+
+        state.setExecutionCount(size);
+        state.setChampionWins(championWins);
+        state.setChallengeWins(challengeWins);
+        state.setTies(ties);
+        fill(state.getChampion(), championErrorCount, championSum,
+                timed(championTimes, size, championCount), 0, (int) championCount);
+        fill(state.getChallenge(), challengeErrorCount, challengeSum,
+                timed(challengeTimes, size, challengeCount), 0, (int) challengeCount);
+    }
+
+    /**
+     * The first {@code size} times without {@link ExecutionColumns#NO_TIME}
+     * entries; the array itself when there are none to drop.
+     */
+    private static long[] timed(long[] times, int size, long timedCount) {
+        if (timedCount == size) {
+            return times;
+        }
+        long[] timed = new long[(int) timedCount];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (times[i] != ExecutionColumns.NO_TIME) {
+                timed[next++] = times[i];
+            }
+        }
+        return timed;
+    }
+
+    private static void foldNodeMetrics(ComparisonAggregateState state, NodeMetricColumns columns) {
+        int size = columns.getSize();
+        int groups = columns.nodeCount() * 2;
+        if (size == 0 || groups == 0) {
+            return;
+        }
+
+        int[] nodeIndexes = columns.getNodeIndexes();
+        byte[] variants = columns.getVariants();
+        long[] times = columns.getTimes();
+        boolean[] errors = columns.getErrors();
+
+        int[] counts = new int[groups];
+        long[] errorCounts = new long[groups];
+        double[] sums = new double[groups];
+
+        for (int i = 0; i < size; i++) {
+            int group = group(nodeIndexes[i], variants[i]);
+            if (group < 0) continue;
+            if (errors[i]) errorCounts[group]++;
+            if (times[i] == ExecutionColumns.NO_TIME) continue;
+            double time = times[i];
+            counts[group]++;
+            sums[group] += time;
+        }
+
+        int[] offsets = new int[groups + 1];
+        for (int g = 0; g < groups; g++) {
+            offsets[g + 1] = offsets[g] + counts[g];
+        }
+        long[] grouped = new long[offsets[groups]];
+        int[] cursor = offsets.clone();
+        for (int i = 0; i < size; i++) {
+            int group = group(nodeIndexes[i], variants[i]);
+            if (group < 0 || times[i] == ExecutionColumns.NO_TIME) continue;
+            grouped[cursor[group]++] = times[i];
+        }
+
+        for (int node = 0; node < columns.nodeCount(); node++) {
+            ComparisonAggregateState.NodeAccumulator accumulator = new ComparisonAggregateState.NodeAccumulator();
+            accumulator.setNodeName(columns.getNodeNames().get(node));
+            fill(accumulator.getChampion(), errorCounts[node * 2], sums[node * 2],
+                    grouped, offsets[node * 2], offsets[node * 2 + 1]);
+            fill(accumulator.getChallenge(), errorCounts[node * 2 + 1], sums[node * 2 + 1],
+                    grouped, offsets[node * 2 + 1], offsets[node * 2 + 2]);
+            if (!accumulator.isEmpty()) {
+                state.getNodes().put(columns.getNodeIds().get(node), accumulator);
+            }
+        }
+    }
+
+    /**
+     * Accumulates the timings in {@code times[from, to)}, whose sum is
+     * {@code sum}, and feeds them to the sketch.
+     */
+    private static void fill(ComparisonAggregateState.VariantAccumulator accumulator, long errorCount, double sum,
+                             long[] times, int from, int to) {
+        int count = to - from;
+        double mean = count > 0 ? sum / count : 0.0;
+        double squaredDeviations = 0;
+        for (int i = from; i < to; i++) {
+            double deviation = times[i] - mean;
+            squaredDeviations += deviation * deviation;
+        }
+        accumulator.accumulate(count, errorCount, sum, squaredDeviations);
+        accumulator.getLatency().addAll(times, from, to);
+    }
+
+    private static int group(int nodeIndex, byte variant) {
+        return switch (variant) {
+            case NodeMetricColumns.VARIANT_CHAMPION -> nodeIndex * 2;
+            case NodeMetricColumns.VARIANT_CHALLENGE -> nodeIndex * 2 + 1;
+            default -> -1;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Column-oriented view of champion/challenge executions: one primitive array per
+ * attribute, indexed by row. Filled straight from a JDBC cursor so aggregation
+ * never hydrates entities or boxes timings.
+ */
+@Getter
+public class ExecutionColumns {
+
+    public static final byte WINNER_TIE = 0;
+    public static final byte WINNER_CHAMPION = 1;
+    public static final byte WINNER_CHALLENGE = 2;
+
+    /**
+     * Stands in for a variant time that was never reported, here and in
+     * {@link NodeMetricColumns}; aggregation skips it.
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private int size;
+    private long[] championTimes;
+    private long[] challengeTimes;
+    private boolean[] championErrors;
+    private boolean[] challengeErrors;
+    private byte[] winners;
+    private long[] startedAtHours;
+
+    public ExecutionColumns(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        championTimes = new long[capacity];
+        challengeTimes = new long[capacity];
+        championErrors = new boolean[capacity];
+        challengeErrors = new boolean[capacity];
+        winners = new byte[capacity];
+        startedAtHours = new long[capacity];
+    }
+
+    /**
+     * Appends a row. Either time may be {@link #NO_TIME}; {@code startedAtHour} is hours since the epoch (UTC), or
+     * {@link Long#MIN_VALUE} when the execution has not started.
+     */
+    public void add(long championTime, long challengeTime, boolean championError, boolean challengeError,
+                    byte winner, long startedAtHour) {
+        if (size == championTimes.length) {
+            int capacity = size * 2;
+            championTimes = Arrays.copyOf(championTimes, capacity);
+            challengeTimes = Arrays.copyOf(challengeTimes, capacity);
+            championErrors = Arrays.copyOf(championErrors, capacity);
+            challengeErrors = Arrays.copyOf(challengeErrors, capacity);
+            winners = Arrays.copyOf(winners, capacity);
+            startedAtHours = Arrays.copyOf(startedAtHours, capacity);
+        }
+        championTimes[size] = championTime;
+        challengeTimes[size] = challengeTime;
+        championErrors[size] = championError;
+        challengeErrors[size] = challengeError;
+        winners[size] = winner;
+        startedAtHours[size] = startedAtHour;
+        size++;
+    }
+
+    /**
+     * The rows where both variants reported a time, as a champion and a
+     * challenge array of equal length, for paired statistics.
+     */
+    public long[][] pairedTimes() {
+        long[] champion = new long[size];
+        long[] challenge = new long[size];
+        int pairs = 0;
+        for (int i = 0; i < size; i++) {
+            if (championTimes[i] != NO_TIME && challengeTimes[i] != NO_TIME) {
+                champion[pairs] = championTimes[i];
+                challenge[pairs] = challengeTimes[i];
+                pairs++;
+            }
+        }
+        return new long[][]{Arrays.copyOf(champion, pairs), Arrays.copyOf(challenge, pairs)};
+    }
+
+    public static byte winnerCode(String winner) {
+        if ("CHAMPION".equals(winner)) return WINNER_CHAMPION;
+        if ("CHALLENGE".equals(winner)) return WINNER_CHALLENGE;
+        return WINNER_TIE;
+    }
+}
@@ -0,0 +1,124 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable, reversible latency sketch with bounded relative error.
+ *
+ * Values are counted into logarithmic bins (gamma = (1 + a) / (1 - a)), so any
+ * quantile is within {@link #RELATIVE_ACCURACY} of the true value. Because the
+ * sketch only keeps counts, an observation can be removed again by decrementing
+ * its bin, which is what lets comparison aggregates be maintained incrementally.
+ */
+@Data
+@NoArgsConstructor
+public class LatencySketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private long zeroCount;
+    private long count;
+    private TreeMap<Integer, Long> bins = new TreeMap<>();
+
+    public void add(long value) {
+        adjust(value, 1);
+    }
+
+    public void remove(long value) {
+        adjust(value, -1);
+    }
+
+    /**
+     * Adds {@code values[from..to)} in one pass: bin indexes are counted into a
+     * dense local histogram first, so the sorted bin map is touched once per
+     * distinct bin rather than once per value.
+     */
+    public void addAll(long[] values, int from, int to) {
+        if (from >= to) return;
+
+        int[] indexes = new int[to - from];
+        int minIndex = Integer.MAX_VALUE;
+        int maxIndex = Integer.MIN_VALUE;
+        int positives = 0;
+        for (int i = from; i < to; i++) {
+            long value = values[i];
+            if (value <= 0) {
+                zeroCount++;
+                continue;
+            }
+            int index = binIndex(value);
+            indexes[positives++] = index;
+            if (index < minIndex) minIndex = index;
+            if (index > maxIndex) maxIndex = index;
+        }
+        count += to - from;
+        if (positives == 0) return;
+
+        long[] dense = new long[maxIndex - minIndex + 1];
+        for (int i = 0; i < positives; i++) {
+            dense[indexes[i] - minIndex]++;
+        }
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] > 0) {
+                bins.merge(minIndex + i, dense[i], Long::sum);
+            }
+        }
+    }
+
+    public void merge(LatencySketch other) {
+        merge(other, 1);
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or subtracts ({@code sign = -1}) another sketch.
+     */
+    public void merge(LatencySketch other, int sign) {
+        zeroCount += sign * other.zeroCount;
+        count += sign * other.count;
+        other.bins.forEach((index, binCount) ->
+                bins.merge(index, sign * binCount, (a, b) -> a + b == 0 ? null : a + b));
+    }
+
+    /**
+     * Returns the value at the given quantile (0..1), or 0 when the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (count <= 0) return 0.0;
+
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        if (rank <= zeroCount) return 0.0;
+
+        long seen = zeroCount;
+        for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+            seen += bin.getValue();
+            if (seen >= rank) {
+                return binValue(bin.getKey());
+            }
+        }
+        return binValue(bins.lastKey());
+    }
+
+    private void adjust(long value, long delta) {
+        count += delta;
+        if (value <= 0) {
+            zeroCount += delta;
+            return;
+        }
+        bins.merge(binIndex(value), delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private static int binIndex(long value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    private static double binValue(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+}
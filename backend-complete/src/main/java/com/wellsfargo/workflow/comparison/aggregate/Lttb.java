@@ -0,0 +1,72 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling. Keeps the first and last point and,
+ * from each of {@code threshold - 2} equal buckets in between, the point forming
+ * the largest triangle with the previously kept point and the average of the next
+ * bucket, which preserves peaks and dips that plain averaging flattens.
+ *
+ * Several series sharing one x axis are downsampled together: a candidate's area
+ * is the sum of its areas across the series, so the kept x values suit all of them.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Returns the ascending indexes of the points to keep out of the first
+     * {@code size} points; all of them when {@code size <= threshold}.
+     */
+    public static int[] select(double[] x, double[][] series, int size, int threshold) {
+        if (size <= threshold || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) all[i] = i;
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        double[] averageY = new double[series.length];
+        int previous = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            Arrays.fill(averageY, 0);
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                for (int s = 0; s < series.length; s++) averageY[s] += series[s][i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            for (int s = 0; s < series.length; s++) averageY[s] /= nextCount;
+
+            int rangeStart = (int) (bucket * bucketSize) + 1;
+            int rangeEnd = (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = 0;
+                for (int s = 0; s < series.length; s++) {
+                    double[] y = series[s];
+                    area += Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                            - (x[previous] - x[i]) * (averageY[s] - y[previous]));
+                }
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,76 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented view of node metric rows. Node ids are dictionary-encoded into
+ * {@link #getNodeIndexes()} so the kernel can accumulate into flat arrays; only
+ * the dictionary itself holds strings.
+ */
+@Getter
+public class NodeMetricColumns {
+
+    public static final byte VARIANT_OTHER = 0;
+    public static final byte VARIANT_CHAMPION = 1;
+    public static final byte VARIANT_CHALLENGE = 2;
+
+    private int size;
+    private int[] nodeIndexes;
+    private byte[] variants;
+    private long[] times;
+    private boolean[] errors;
+
+    private final List<String> nodeIds = new ArrayList<>();
+    private final List<String> nodeNames = new ArrayList<>();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    public NodeMetricColumns(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        nodeIndexes = new int[capacity];
+        variants = new byte[capacity];
+        times = new long[capacity];
+        errors = new boolean[capacity];
+    }
+
+    /**
+     * Appends a row; {@code timeMs} is {@link ExecutionColumns#NO_TIME} when the
+     * node reported none.
+     */
+    public void add(String nodeId, String nodeName, String variant, long timeMs, boolean error) {
+        if (size == nodeIndexes.length) {
+            int capacity = size * 2;
+            nodeIndexes = Arrays.copyOf(nodeIndexes, capacity);
+            variants = Arrays.copyOf(variants, capacity);
+            times = Arrays.copyOf(times, capacity);
+            errors = Arrays.copyOf(errors, capacity);
+        }
+        Integer index = dictionary.get(nodeId);
+        if (index == null) {
+            index = nodeIds.size();
+            dictionary.put(nodeId, index);
+            nodeIds.add(nodeId);
+            nodeNames.add(nodeName);
+        }
+        nodeIndexes[size] = index;
+        variants[size] = variantCode(variant);
+        times[size] = timeMs;
+        errors[size] = error;
+        size++;
+    }
+
+    public int nodeCount() {
+        return nodeIds.size();
+    }
+
+    private static byte variantCode(String variant) {
+        if ("CHAMPION".equals(variant)) return VARIANT_CHAMPION;
+        if ("CHALLENGE".equals(variant)) return VARIANT_CHALLENGE;
+        return VARIANT_OTHER;
+    }
+}
@@ -0,0 +1,42 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Per-window execution counts and average timings, ordered by window start
+ * (epoch milliseconds, UTC).
+ */
+@Getter
+public class TimeWindowColumns {
+
+    private int size;
+    private double[] windowStarts;
+    private long[] counts;
+    private double[] championAverages;
+    private double[] challengeAverages;
+
+    public TimeWindowColumns(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        windowStarts = new double[capacity];
+        counts = new long[capacity];
+        championAverages = new double[capacity];
+        challengeAverages = new double[capacity];
+    }
+
+    public void add(long windowStart, long count, double championAverage, double challengeAverage) {
+        if (size == windowStarts.length) {
+            int capacity = size * 2;
+            windowStarts = Arrays.copyOf(windowStarts, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            championAverages = Arrays.copyOf(championAverages, capacity);
+            challengeAverages = Arrays.copyOf(challengeAverages, capacity);
+        }
+        windowStarts[size] = windowStart;
+        counts[size] = count;
+        championAverages[size] = championAverage;
+        challengeAverages[size] = challengeAverage;
+        size++;
+    }
+}
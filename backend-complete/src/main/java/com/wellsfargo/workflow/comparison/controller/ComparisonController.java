@@ -1,16 +1,27 @@
 package com.wellsfargo.workflow.comparison.controller;
 
 import com.wellsfargo.workflow.common.dto.ErrorResponse;
+import com.wellsfargo.workflow.common.http.ConditionalGet;
 import com.wellsfargo.workflow.comparison.dto.AggregateMetricsResponse;
 import com.wellsfargo.workflow.comparison.dto.ComparisonRequest;
 import com.wellsfargo.workflow.comparison.dto.ComparisonResponse;
+import com.wellsfargo.workflow.comparison.dto.ExecutionBatchRequest;
+import com.wellsfargo.workflow.comparison.dto.ExecutionBatchResponse;
+import com.wellsfargo.workflow.comparison.dto.ExecutionFilterRequest;
+import com.wellsfargo.workflow.comparison.service.ComparisonLiveFeed;
 import com.wellsfargo.workflow.comparison.service.ComparisonService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +33,7 @@ import java.util.Map;
 public class ComparisonController {
 
     private final ComparisonService comparisonService;
+    private final ComparisonLiveFeed liveFeed;
 
     @PostMapping
     public ResponseEntity<ComparisonResponse> createComparison(@RequestBody ComparisonRequest request) {
@@ -37,9 +49,10 @@ public class ComparisonController {
     }
 
     @GetMapping("/{comparisonId}")
-    public ResponseEntity<ComparisonResponse> getComparison(@PathVariable String comparisonId) {
+    public ResponseEntity<ComparisonResponse> getComparison(@PathVariable String comparisonId, WebRequest request) {
         log.info("Getting comparison: {}", comparisonId);
-        return ResponseEntity.ok(comparisonService.getComparison(comparisonId));
+        return ConditionalGet.respond(request, comparisonService.getComparisonVersion(comparisonId),
+                CacheControl.noCache(), () -> comparisonService.getComparison(comparisonId));
     }
 
     @PostMapping("/{comparisonId}/executions")
@@ -52,6 +65,22 @@ public class ComparisonController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{comparisonId}/executions:batch")
+    public ResponseEntity<ExecutionBatchResponse> updateExecutions(
+            @PathVariable String comparisonId,
+            @RequestBody ExecutionBatchRequest request) {
+        log.info("Batch updating executions of comparison: {}", comparisonId);
+        return ResponseEntity.ok(comparisonService.updateExecutions(comparisonId, request));
+    }
+
+    @PostMapping("/{comparisonId}/executions:attachByFilter")
+    public ResponseEntity<ExecutionBatchResponse> attachByFilter(
+            @PathVariable String comparisonId,
+            @RequestBody ExecutionFilterRequest filter) {
+        log.info("Attaching executions to comparison {} by filter", comparisonId);
+        return ResponseEntity.ok(comparisonService.attachByFilter(comparisonId, filter));
+    }
+
     @DeleteMapping("/{comparisonId}/executions/{executionId}")
     public ResponseEntity<Void> removeExecution(
             @PathVariable String comparisonId,
@@ -61,12 +90,43 @@ public class ComparisonController {
         return ResponseEntity.ok().build();
     }
 
+    @PatchMapping("/{comparisonId}/executions/{executionId}")
+    public ResponseEntity<Void> setExecutionIncluded(
+            @PathVariable String comparisonId,
+            @PathVariable String executionId,
+            @RequestBody Map<String, Boolean> request) {
+        log.info("Setting included={} for execution {} in comparison {}",
+                request.get("included"), executionId, comparisonId);
+        comparisonService.setExecutionIncluded(comparisonId, executionId, Boolean.TRUE.equals(request.get("included")));
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/{comparisonId}/aggregate-metrics")
     public ResponseEntity<AggregateMetricsResponse> getAggregateMetrics(@PathVariable String comparisonId) {
         log.info("Calculating aggregate metrics for comparison: {}", comparisonId);
         return ResponseEntity.ok(comparisonService.calculateAggregateMetrics(comparisonId));
     }
 
+    /**
+     * Server-sent events: a {@code snapshot} of the aggregate metrics, then an
+     * {@code update} with only the changed parts whenever they change.
+     */
+    @GetMapping(value = "/{comparisonId}/aggregate-metrics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAggregateMetrics(@PathVariable String comparisonId) {
+        log.info("Streaming aggregate metrics for comparison: {}", comparisonId);
+        return liveFeed.subscribe(comparisonId);
+    }
+
+    @GetMapping("/{comparisonId}/time-series")
+    public ResponseEntity<List<AggregateMetricsResponse.TimeSeriesPoint>> getTimeSeries(
+            @PathVariable String comparisonId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "200") int points) {
+        log.info("Getting time series for comparison {} ({} points)", comparisonId, points);
+        return ResponseEntity.ok(comparisonService.getTimeSeries(comparisonId, from, to, points));
+    }
+
     @DeleteMapping("/{comparisonId}")
     public ResponseEntity<Void> deleteComparison(@PathVariable String comparisonId) {
         log.info("Deleting comparison: {}", comparisonId);
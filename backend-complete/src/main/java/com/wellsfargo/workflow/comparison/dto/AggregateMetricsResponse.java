@@ -17,6 +17,11 @@ public class AggregateMetricsResponse {
     private ReliabilityMetrics reliability;
     private WinnerDistribution winnerDistribution;
     private StatisticalAnalysis statistical;
+    /**
+     * Whether {@code statistical} predates the latest change to the included
+     * executions; a fresh analysis is being computed.
+     */
+    private Boolean statisticalStale;
     private List<NodeAggregate> nodeAggregates;
     private List<TimeSeriesPoint> timeSeries;
 
@@ -77,6 +82,23 @@ public class AggregateMetricsResponse {
         private Boolean isSignificant;
         private String recommendation;
         private String testMethod;
+        private Integer bootstrapIterations;
+        private ConfidenceInterval meanDifference;
+        private ConfidenceInterval medianDifference;
+        private ConfidenceInterval p95Difference;
+    }
+
+    /**
+     * Challenge minus champion, in milliseconds; negative means the challenge is faster.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConfidenceInterval {
+        private Double estimate;
+        private Double lower;
+        private Double upper;
     }
 
     @Data
@@ -88,6 +110,10 @@ public class AggregateMetricsResponse {
         private String nodeName;
         private Double championAvgTime;
         private Double challengeAvgTime;
+        private Double championStdDev;
+        private Double challengeStdDev;
+        private Double championP95;
+        private Double challengeP95;
         private Integer executionCount;
         private Double improvement;
         private String winner;
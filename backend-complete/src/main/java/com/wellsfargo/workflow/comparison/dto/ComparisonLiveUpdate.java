@@ -0,0 +1,30 @@
+package com.wellsfargo.workflow.comparison.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One event on a comparison's aggregate metrics stream. A snapshot carries every
+ * part; an update carries only the parts that changed, with node aggregates and
+ * time series points replaced by node id and timestamp.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ComparisonLiveUpdate {
+    private Integer totalExecutions;
+    private Integer includedExecutions;
+    private Integer outlierCount;
+    private AggregateMetricsResponse.PerformanceMetrics performance;
+    private AggregateMetricsResponse.ReliabilityMetrics reliability;
+    private AggregateMetricsResponse.WinnerDistribution winnerDistribution;
+    private AggregateMetricsResponse.StatisticalAnalysis statistical;
+    private Boolean statisticalStale;
+    private List<AggregateMetricsResponse.NodeAggregate> nodeAggregates;
+    private List<AggregateMetricsResponse.TimeSeriesPoint> timeSeries;
+    private List<String> removedTimestamps;
+}
@@ -0,0 +1,14 @@
+package com.wellsfargo.workflow.comparison.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionBatchRequest {
+    private List<String> attach;
+    private List<String> detach;
+}
@@ -0,0 +1,16 @@
+package com.wellsfargo.workflow.comparison.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionBatchResponse {
+    private String comparisonId;
+    private Integer attached;
+    private Integer detached;
+    private Integer totalExecutions;
+    private Integer includedExecutions;
+    private Integer outlierCount;
+}
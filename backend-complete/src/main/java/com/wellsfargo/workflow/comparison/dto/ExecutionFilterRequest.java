@@ -0,0 +1,20 @@
+package com.wellsfargo.workflow.comparison.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Selects executions of the comparison's workflow pair; {@code from} is inclusive
+ * and {@code to} exclusive on {@code startedAt}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionFilterRequest {
+    @Builder.Default
+    private String status = "COMPLETED";
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
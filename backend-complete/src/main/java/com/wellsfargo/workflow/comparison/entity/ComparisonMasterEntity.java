@@ -1,5 +1,6 @@
 package com.wellsfargo.workflow.comparison.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -18,7 +19,7 @@ import java.util.List;
 public class ComparisonMasterEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @Uuid7Id
     private String id;
 
     @Column(nullable = false)
@@ -58,6 +59,16 @@ public class ComparisonMasterEntity {
     @Column(name = "statistical_analysis", columnDefinition = "jsonb")
     private String statisticalAnalysis;
 
+    @Column(name = "compacted_nodes", columnDefinition = "jsonb")
+    private String compactedNodes;
+
+    @Column(name = "membership_version", nullable = false)
+    @Builder.Default
+    private Long membershipVersion = 0L;
+
+    @Column(name = "statistical_analysis_version")
+    private Long statisticalAnalysisVersion;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -1,12 +1,13 @@
 package com.wellsfargo.workflow.comparison.entity;
 
+import com.wellsfargo.workflow.common.id.Uuid7Id;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
-@Entity
+@Entity(name = "ExecutionComparisonMappingEntity")
 @Table(name = "execution_comparison_mapping")
 @Data
 @NoArgsConstructor
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 public class ExecutionComparisonEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @Uuid7Id
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
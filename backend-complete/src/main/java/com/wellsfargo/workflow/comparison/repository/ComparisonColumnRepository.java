@@ -0,0 +1,196 @@
+package com.wellsfargo.workflow.comparison.repository;
+
+import com.wellsfargo.workflow.common.partition.PartitionRouter;
+import com.wellsfargo.workflow.common.partition.PartitionedTable;
+import com.wellsfargo.workflow.comparison.aggregate.ExecutionColumns;
+import com.wellsfargo.workflow.comparison.aggregate.NodeMetricColumns;
+import com.wellsfargo.workflow.comparison.aggregate.TimeWindowColumns;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Projection queries that stream only the columns aggregation needs into primitive
+ * arrays, bypassing entity hydration and the request/response TEXT columns.
+ *
+ * Rows are chosen by an {@link ExecutionSelection}: comparison members are joined
+ * through {@code execution_comparison_mapping} and explicit id lists are bound as
+ * one array, so statements stay constant-size and cacheable however many
+ * executions are involved.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ComparisonColumnRepository {
+
+    private static final String EXECUTION_COLUMNS = """
+            SELECT e.total_champion_time_ms, e.total_challenge_time_ms, e.status, e.winner, e.started_at,
+                   e.champion_error, e.challenge_error
+            FROM champion_challenge_executions e
+            """;
+
+    private static final String NODE_METRIC_COLUMNS = """
+            SELECT m.node_id, m.node_name, m.variant, m.execution_time_ms, m.status
+            FROM %s m
+            JOIN champion_challenge_executions e ON e.id = m.execution_id
+            """;
+
+    private static final String COUNT_INCLUDED_SQL = """
+            SELECT COUNT(*) FROM execution_comparison_mapping
+            WHERE comparison_id = :comparisonId AND included = TRUE
+            """;
+
+    /**
+     * Node metrics are partitioned by their execution's start time; the third
+     * column counts executions that cannot be placed in a partition range.
+     */
+    private static final String PARTITION_RANGE_SQL = """
+            SELECT MIN(e.started_at), MAX(e.started_at), COUNT(*) - COUNT(e.started_at)
+            FROM champion_challenge_executions e
+            """;
+
+    private static final String STARTED_AT_RANGE_SQL = """
+            SELECT MIN(e.started_at), MAX(e.started_at)
+            FROM champion_challenge_executions e
+            """;
+
+    /**
+     * Windows are numbered from {@code :from} in SQL, so only one row per
+     * non-empty window leaves the database.
+     */
+    private static final String TIME_WINDOWS_SQL = """
+            SELECT w.window_index, COUNT(*), AVG(w.champion_time), AVG(w.challenge_time)
+            FROM (SELECT DATEDIFF('MILLISECOND', :from, e.started_at) / :windowMs AS window_index,
+                         CAST(e.total_champion_time_ms AS DOUBLE) AS champion_time,
+                         CAST(e.total_challenge_time_ms AS DOUBLE) AS challenge_time
+                  FROM champion_challenge_executions e
+                  %s  AND e.started_at >= :from AND e.started_at < :to) w
+            GROUP BY w.window_index
+            ORDER BY w.window_index
+            """;
+
+    private static final int NODES_PER_EXECUTION_HINT = 14;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PartitionRouter partitionRouter;
+
+    /**
+     * Loads the executions currently included in the comparison.
+     */
+    public ExecutionColumns loadExecutions(String comparisonId) {
+        return loadExecutions(ExecutionSelection.includedIn(comparisonId), countIncluded(comparisonId));
+    }
+
+    /**
+     * Loads the node metrics of the executions currently included in the comparison.
+     */
+    public NodeMetricColumns loadNodeMetrics(String comparisonId) {
+        return loadNodeMetrics(ExecutionSelection.includedIn(comparisonId), countIncluded(comparisonId));
+    }
+
+    /**
+     * Loads the selected executions. Rows are not sorted: an ORDER BY makes H2
+     * drive the join from the sort key instead of the selection.
+     */
+    public ExecutionColumns loadExecutions(ExecutionSelection selection, int expectedSize) {
+        ExecutionColumns columns = new ExecutionColumns(expectedSize);
+        jdbcTemplate.query(EXECUTION_COLUMNS + selection.getClause(), selection.getParams(), executionRow(columns));
+        return columns;
+    }
+
+    public NodeMetricColumns loadNodeMetrics(ExecutionSelection selection, int expectedExecutions) {
+        NodeMetricColumns columns = new NodeMetricColumns(expectedExecutions * NODES_PER_EXECUTION_HINT);
+        jdbcTemplate.query(NODE_METRIC_COLUMNS.formatted(nodeMetricSource(selection)) + selection.getClause(),
+                selection.getParams(), nodeMetricRow(columns));
+        return columns;
+    }
+
+    /**
+     * Returns the earliest and latest start time of the included executions, or
+     * null when none has started.
+     */
+    public LocalDateTime[] loadStartedAtRange(String comparisonId) {
+        ExecutionSelection selection = ExecutionSelection.includedIn(comparisonId);
+        return jdbcTemplate.queryForObject(STARTED_AT_RANGE_SQL + selection.getClause(), selection.getParams(),
+                (rs, rowNum) -> rs.getTimestamp(1) == null ? null : new LocalDateTime[]{
+                        rs.getTimestamp(1).toLocalDateTime(), rs.getTimestamp(2).toLocalDateTime()});
+    }
+
+    /**
+     * Aggregates the included executions started in {@code [from, to)} into
+     * windows of {@code windowMs}; empty windows are omitted.
+     */
+    public TimeWindowColumns loadTimeWindows(String comparisonId, LocalDateTime from, LocalDateTime to, long windowMs) {
+        ExecutionSelection selection = ExecutionSelection.includedIn(comparisonId);
+        Map<String, Object> params = new HashMap<>(selection.getParams());
+        params.put("from", from);
+        params.put("to", to);
+        params.put("windowMs", windowMs);
+
+        long fromMillis = from.toInstant(ZoneOffset.UTC).toEpochMilli();
+        TimeWindowColumns columns = new TimeWindowColumns(0);
+        jdbcTemplate.query(TIME_WINDOWS_SQL.formatted(selection.getClause()), params, (RowCallbackHandler) rs ->
+                columns.add(fromMillis + rs.getLong(1) * windowMs, rs.getLong(2), rs.getDouble(3), rs.getDouble(4)));
+        return columns;
+    }
+
+    /**
+     * Restricts node metrics to the partitions spanned by the selected executions'
+     * start times; the full view when some execution has not started.
+     */
+    private String nodeMetricSource(ExecutionSelection selection) {
+        return jdbcTemplate.queryForObject(PARTITION_RANGE_SQL + selection.getClause(), selection.getParams(),
+                (rs, rowNum) -> {
+                    Timestamp from = rs.getTimestamp(1);
+                    Timestamp to = rs.getTimestamp(2);
+                    if (from == null || rs.getLong(3) > 0) {
+                        return partitionRouter.source(PartitionedTable.EXECUTION_NODE_METRICS, null, null);
+                    }
+                    return partitionRouter.source(PartitionedTable.EXECUTION_NODE_METRICS,
+                            from.toLocalDateTime(), to.toLocalDateTime());
+                });
+    }
+
+    private int countIncluded(String comparisonId) {
+        Integer count = jdbcTemplate.queryForObject(COUNT_INCLUDED_SQL, Map.of("comparisonId", comparisonId), Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private static RowCallbackHandler executionRow(ExecutionColumns columns) {
+        return rs -> {
+            long championTime = rs.getLong(1);
+            if (rs.wasNull()) championTime = ExecutionColumns.NO_TIME;
+            long challengeTime = rs.getLong(2);
+            if (rs.wasNull()) challengeTime = ExecutionColumns.NO_TIME;
+            boolean failed = "FAILED".equals(rs.getString(3));
+            Timestamp startedAt = rs.getTimestamp(5);
+            columns.add(
+                    championTime,
+                    challengeTime,
+                    failed || rs.getBoolean(6),
+                    failed || rs.getBoolean(7),
+                    ExecutionColumns.winnerCode(rs.getString(4)),
+                    startedAt == null ? Long.MIN_VALUE : Math.floorDiv(
+                            startedAt.toLocalDateTime().toEpochSecond(ZoneOffset.UTC), 3600));
+        };
+    }
+
+    private static RowCallbackHandler nodeMetricRow(NodeMetricColumns columns) {
+        return rs -> {
+            long time = rs.getLong(4);
+            if (rs.wasNull()) time = ExecutionColumns.NO_TIME;
+            columns.add(
+                    rs.getString(1),
+                    rs.getString(2),
+                    rs.getString(3),
+                    time,
+                    "ERROR".equals(rs.getString(5)));
+        };
+    }
+}
@@ -1,10 +1,18 @@
 package com.wellsfargo.workflow.comparison.repository;
 
 import com.wellsfargo.workflow.comparison.entity.ComparisonMasterEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +28,39 @@ public interface ComparisonMasterRepository extends JpaRepository<ComparisonMast
 
     @Query("SELECT c FROM ComparisonMasterEntity c LEFT JOIN FETCH c.executionMappings WHERE c.id = :id")
     Optional<ComparisonMasterEntity> findByIdWithMappings(String id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ComparisonMasterEntity c WHERE c.id = :id")
+    Optional<ComparisonMasterEntity> findByIdForUpdate(String id);
+
+    /**
+     * Drops the persisted aggregate state of every comparison with a member started
+     * in {@code [from, to)}, so it is rebuilt on next use. The query space hint
+     * names the only table written; without it a native update evicts every
+     * second-level cache region. Comparisons themselves are not cached, as their
+     * aggregate state is large and rewritten on every refresh.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comparison_master"))
+    @Query(value = """
+            MERGE INTO comparison_master cm
+            USING (SELECT DISTINCT ecm.comparison_id AS id
+                   FROM execution_comparison_mapping ecm
+                   JOIN champion_challenge_executions e ON e.id = ecm.execution_id
+                   WHERE e.started_at >= :from AND e.started_at < :to) affected
+              ON cm.id = affected.id
+            WHEN MATCHED THEN UPDATE SET aggregate_metrics = NULL
+            """, nativeQuery = true)
+    int clearAggregatesForMembersStartedBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Drops the stored compacted node histograms of the given comparisons, so
+     * they are reloaded with the newly compacted days.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comparison_master"))
+    @Query(value = """
+            UPDATE comparison_master SET compacted_nodes = NULL WHERE id IN (:comparisonIds)
+            """, nativeQuery = true)
+    int clearCompactedNodes(Collection<String> comparisonIds);
 }
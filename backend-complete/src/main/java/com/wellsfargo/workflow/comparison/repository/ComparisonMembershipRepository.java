@@ -0,0 +1,84 @@
+package com.wellsfargo.workflow.comparison.repository;
+
+import com.wellsfargo.workflow.common.id.Uuid7;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Set-based writes to {@code execution_comparison_mapping}. Each operation is a
+ * single statement whatever the number of executions; duplicates are filtered in
+ * SQL by the selection rather than looked up one by one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ComparisonMembershipRepository {
+
+    /**
+     * Ids are one {@link Uuid7} prefix completed with the row number, so a bulk
+     * attach stays time-ordered (H2 has no UUIDv7 function).
+     */
+    private static final String ATTACH_SQL = """
+            INSERT INTO execution_comparison_mapping (id, comparison_id, execution_id, included, outlier_flag, created_at)
+            SELECT :idPrefix || LPAD(CAST(ROWNUM() AS VARCHAR), 12, '0'), :comparisonId, e.id, TRUE, FALSE,
+                   CURRENT_TIMESTAMP
+            FROM champion_challenge_executions e
+            """;
+
+    /**
+     * Driven from the requested ids; a plain {@code DELETE ... WHERE execution_id IN
+     * (SELECT ...)} makes H2 re-run the subquery for every candidate row.
+     */
+    private static final String DETACH_SQL = """
+            MERGE INTO execution_comparison_mapping ecm
+            USING (SELECT DISTINCT req.id FROM UNNEST(CAST(:executionIds AS VARCHAR(36) ARRAY)) AS req(id)) r
+              ON ecm.comparison_id = :comparisonId AND ecm.execution_id = r.id
+            WHEN MATCHED THEN DELETE
+            """;
+
+    private static final String COUNT_MEMBERS_SQL = """
+            SELECT COUNT(*),
+                   COUNT(CASE WHEN included THEN 1 END),
+                   COUNT(CASE WHEN outlier_flag THEN 1 END)
+            FROM execution_comparison_mapping
+            WHERE comparison_id = :comparisonId
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Attaches the selected executions as included members and returns how many
+     * mappings were inserted. The selection must exclude already attached rows.
+     */
+    public int attach(ExecutionSelection selection) {
+        Map<String, Object> params = new HashMap<>(selection.getParams());
+        params.put("idPrefix", Uuid7.nextPrefix());
+        return jdbcTemplate.update(ATTACH_SQL + selection.getClause(), params);
+    }
+
+    /**
+     * Detaches the given executions and returns how many mappings were deleted.
+     */
+    public int detach(String comparisonId, Collection<String> executionIds) {
+        return jdbcTemplate.update(DETACH_SQL, Map.of(
+                "comparisonId", comparisonId,
+                "executionIds", executionIds.toArray(String[]::new)));
+    }
+
+    public MemberCounts countMembers(String comparisonId) {
+        return jdbcTemplate.queryForObject(COUNT_MEMBERS_SQL, Map.of("comparisonId", comparisonId),
+                (rs, rowNum) -> new MemberCounts(rs.getInt(1), rs.getInt(2), rs.getInt(3)));
+    }
+
+    @Value
+    public static class MemberCounts {
+        int total;
+        int included;
+        int outliers;
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
-@Repository
+@Repository("executionComparisonMappingRepository")
 public interface ExecutionComparisonRepository extends JpaRepository<ExecutionComparisonEntity, String> {
 
     List<ExecutionComparisonEntity> findByComparisonId(String comparisonId);
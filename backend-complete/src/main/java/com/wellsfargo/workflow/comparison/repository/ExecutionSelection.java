@@ -0,0 +1,105 @@
+package com.wellsfargo.workflow.comparison.repository;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of champion/challenge executions expressed as SQL over
+ * {@code champion_challenge_executions e}. The same selection drives both the
+ * column loaders (to fold the aggregate delta) and the membership writes, so the
+ * rows that are counted are exactly the rows that are attached or detached.
+ *
+ * Explicit id lists are bound as a single array parameter and joined as an
+ * {@code UNNEST} derived table, which keeps statements constant-size for any
+ * number of ids and lets H2 probe the primary key once per distinct id
+ * ({@code = ANY(array)} is re-checked linearly per row and degrades to quadratic).
+ * H2 caps arrays at {@link #MAX_IDS} elements, so longer lists are split by the
+ * caller.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ExecutionSelection {
+
+    public static final int MAX_IDS = 65_536;
+
+    private static final String INCLUDED = """
+            JOIN execution_comparison_mapping ecm ON ecm.execution_id = e.id
+            WHERE ecm.comparison_id = :comparisonId AND ecm.included = TRUE
+            """;
+
+    private static final String REQUESTED_IDS = """
+            JOIN (SELECT DISTINCT req.id FROM UNNEST(CAST(:executionIds AS VARCHAR(36) ARRAY)) AS req(id)) r
+              ON r.id = e.id
+            """;
+
+    private static final String NOT_ATTACHED = """
+            NOT EXISTS (SELECT 1 FROM execution_comparison_mapping ecm
+                        WHERE ecm.comparison_id = :comparisonId AND ecm.execution_id = e.id)
+            """;
+
+    /**
+     * Joins and predicates appended after {@code FROM champion_challenge_executions e}.
+     */
+    private final String clause;
+    private final Map<String, Object> params;
+
+    /**
+     * Executions currently included in the comparison.
+     */
+    public static ExecutionSelection includedIn(String comparisonId) {
+        return new ExecutionSelection(INCLUDED, Map.of("comparisonId", comparisonId));
+    }
+
+    /**
+     * Existing executions among {@code executionIds} that are not yet attached.
+     */
+    public static ExecutionSelection unattachedAmong(String comparisonId, Collection<String> executionIds) {
+        return new ExecutionSelection(REQUESTED_IDS + "WHERE " + NOT_ATTACHED, Map.of(
+                "comparisonId", comparisonId, "executionIds", executionIds.toArray(String[]::new)));
+    }
+
+    /**
+     * Executions among {@code executionIds} that are attached and included.
+     */
+    public static ExecutionSelection includedAmong(String comparisonId, Collection<String> executionIds) {
+        return new ExecutionSelection(REQUESTED_IDS + INCLUDED, Map.of(
+                "comparisonId", comparisonId, "executionIds", executionIds.toArray(String[]::new)));
+    }
+
+    /**
+     * Not yet attached executions of the given workflow pair with the given status,
+     * optionally restricted to {@code from <= started_at < to}.
+     */
+    public static ExecutionSelection unattachedMatching(String comparisonId, String championWorkflowId,
+                                                        String challengeWorkflowId, String status,
+                                                        LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("comparisonId", comparisonId);
+        params.put("championWorkflowId", championWorkflowId);
+        params.put("challengeWorkflowId", challengeWorkflowId);
+        params.put("status", status);
+
+        StringBuilder clause = new StringBuilder("""
+                JOIN champion_challenge_comparisons c ON c.id = e.comparison_id
+                WHERE c.champion_workflow_id = :championWorkflowId
+                  AND c.challenge_workflow_id = :challengeWorkflowId
+                  AND e.status = :status
+                """);
+        if (from != null) {
+            clause.append("  AND e.started_at >= :from\n");
+            params.put("from", from);
+        }
+        if (to != null) {
+            clause.append("  AND e.started_at < :to\n");
+            params.put("to", to);
+        }
+        clause.append("  AND ").append(NOT_ATTACHED);
+        return new ExecutionSelection(clause.toString(), params);
+    }
+}
@@ -0,0 +1,286 @@
+package com.wellsfargo.workflow.comparison.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.comparison.aggregate.CompactedNodes;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregateState;
+import com.wellsfargo.workflow.comparison.aggregate.LatencySketch;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compacted node metrics, folded from raw {@code execution_node_metrics} rows
+ * before those are dropped: per (workflow, variant, day, node) counts, error
+ * counts, sums and a {@link LatencySketch} of every folded row, where the
+ * workflow is the champion or challenge workflow depending on the variant, and
+ * the same per (comparison, variant, day, node) for the comparisons the row's
+ * execution is an included member of at compaction time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NodeMetricHistogramRepository {
+
+    /**
+     * The raw metrics a fold covers, and so the ones compaction may remove: those
+     * of a champion or challenge run whose execution and comparison definition
+     * still exist.
+     */
+    private static final String FOLDED_SQL = """
+            m.variant IN ('CHAMPION', 'CHALLENGE')
+            AND EXISTS (SELECT 1 FROM champion_challenge_executions e
+                        JOIN champion_challenge_comparisons c ON c.id = e.comparison_id
+                        WHERE e.id = m.execution_id)
+            """;
+
+    private static final String RAW_METRICS_SQL = """
+            SELECT CASE m.variant WHEN 'CHAMPION' THEN c.champion_workflow_id ELSE c.challenge_workflow_id END,
+                   m.variant, CAST(m.started_at AS DATE), m.node_id, m.node_name, m.execution_time_ms, m.status
+            FROM %s m
+            JOIN champion_challenge_executions e ON e.id = m.execution_id
+            JOIN champion_challenge_comparisons c ON c.id = e.comparison_id
+            """;
+
+    private static final String RAW_MEMBER_METRICS_SQL = """
+            SELECT ecm.comparison_id, m.variant, CAST(m.started_at AS DATE), m.node_id, m.node_name,
+                   m.execution_time_ms, m.status
+            FROM %s m
+            JOIN execution_comparison_mapping ecm ON ecm.execution_id = m.execution_id AND ecm.included = TRUE
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT node_name, sample_count, error_count, time_sum, time_squared_deviations, latency_sketch
+            FROM %s
+            WHERE %s = :ownerId AND variant = :variant AND metric_day = :day AND node_id = :nodeId
+            """;
+
+    private static final String UPSERT_SQL = """
+            MERGE INTO %1$s (%2$s, variant, metric_day, node_id, node_name, sample_count, error_count, time_sum,
+                             time_squared_deviations, latency_sketch, updated_at)
+            KEY (%2$s, variant, metric_day, node_id)
+            VALUES (:ownerId, :variant, :day, :nodeId, :nodeName, :count, :errorCount, :sum, :squaredDeviations,
+                    :latency, CURRENT_TIMESTAMP)
+            """;
+
+    /**
+     * One key-prefix range per variant: with the two variants OR-ed in one WHERE,
+     * H2 walks the whole primary key.
+     */
+    private static final String LOAD_SQL = """
+            SELECT node_id, node_name, variant, sample_count, error_count, time_sum, time_squared_deviations, latency_sketch
+            FROM comparison_node_histograms
+            WHERE comparison_id = :comparisonId AND variant = 'CHAMPION'
+              AND metric_day BETWEEN :fromDay AND :toDay
+            UNION ALL
+            SELECT node_id, node_name, variant, sample_count, error_count, time_sum, time_squared_deviations, latency_sketch
+            FROM comparison_node_histograms
+            WHERE comparison_id = :comparisonId AND variant = 'CHALLENGE'
+              AND metric_day BETWEEN :fromDay AND :toDay
+            """;
+
+    private static final String IS_COMPACTED_SQL =
+            "SELECT COUNT(*) FROM node_metric_compactions WHERE partition_name = :partition";
+
+    private static final String MARK_COMPACTED_SQL =
+            "INSERT INTO node_metric_compactions (partition_name, compacted_at) VALUES (:partition, CURRENT_TIMESTAMP)";
+
+    private static final String COUNT_UNFOLDED_SQL = "SELECT COUNT(*) FROM %s m WHERE NOT (" + FOLDED_SQL + ")";
+
+    private static final String DELETE_FOLDED_SQL = "DELETE FROM %s m WHERE " + FOLDED_SQL;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Folds the raw metrics of {@code source}, optionally only those started
+     * before {@code before}, into histograms keyed by workflow, variant, day and node.
+     */
+    public Map<Key, Histogram> fold(String source, LocalDateTime before) {
+        return fold(RAW_METRICS_SQL, source, before);
+    }
+
+    /**
+     * Folds the same raw metrics as {@link #fold} into histograms keyed by
+     * comparison, variant, day and node, once per comparison the execution is an
+     * included member of.
+     */
+    public Map<Key, Histogram> foldMembers(String source, LocalDateTime before) {
+        return fold(RAW_MEMBER_METRICS_SQL, source, before);
+    }
+
+    /**
+     * Adds the workflow histograms to the stored ones.
+     */
+    public void merge(Map<Key, Histogram> histograms) {
+        merge("node_metric_histograms", "workflow_id", histograms);
+    }
+
+    /**
+     * Adds the comparison histograms to the stored ones.
+     */
+    public void mergeMembers(Map<Key, Histogram> histograms) {
+        merge("comparison_node_histograms", "comparison_id", histograms);
+    }
+
+    /**
+     * Loads the histograms of a comparison for the days in
+     * {@code [fromDay, toDay]} as node accumulators of an otherwise empty state.
+     */
+    public ComparisonAggregateState loadNodes(String comparisonId, LocalDate fromDay, LocalDate toDay) {
+        ComparisonAggregateState state = ComparisonAggregateState.empty();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("comparisonId", comparisonId)
+                .addValue("fromDay", fromDay)
+                .addValue("toDay", toDay);
+        jdbcTemplate.query(LOAD_SQL, params, (RowCallbackHandler) rs -> {
+            ComparisonAggregateState.NodeAccumulator node = state.getNodes()
+                    .computeIfAbsent(rs.getString(1), id -> new ComparisonAggregateState.NodeAccumulator());
+            node.setNodeName(rs.getString(2));
+            ComparisonAggregateState.VariantAccumulator variant =
+                    "CHAMPION".equals(rs.getString(3)) ? node.getChampion() : node.getChallenge();
+            variant.merge(accumulator(rs, 4), 1);
+        });
+        return state;
+    }
+
+    /**
+     * Loads the histograms of a comparison for the days {@code state}'s
+     * executions started on.
+     */
+    public CompactedNodes loadCompacted(String comparisonId, ComparisonAggregateState state) {
+        LocalDate[] days = state.startedDays();
+        if (days == null) {
+            return new CompactedNodes(null, null, new TreeMap<>());
+        }
+        return new CompactedNodes(days[0].toString(), days[1].toString(),
+                loadNodes(comparisonId, days[0], days[1]).getNodes());
+    }
+
+    public boolean isCompacted(String partition) {
+        Integer count = jdbcTemplate.queryForObject(IS_COMPACTED_SQL, Map.of("partition", partition), Integer.class);
+        return count != null && count > 0;
+    }
+
+    public void markCompacted(String partition) {
+        jdbcTemplate.update(MARK_COMPACTED_SQL, Map.of("partition", partition));
+    }
+
+    /**
+     * Counts the raw metrics of {@code source} a fold does not cover.
+     */
+    public long countUnfolded(String source) {
+        Long count = jdbcTemplate.queryForObject(COUNT_UNFOLDED_SQL.formatted(source), Map.of(), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Deletes the raw metrics of {@code source} a fold covers, optionally only
+     * those started before {@code before}.
+     */
+    public int deleteFolded(String source, LocalDateTime before) {
+        String sql = DELETE_FOLDED_SQL.formatted(source) + (before != null ? "AND m.started_at < :before" : "");
+        return jdbcTemplate.update(sql, new MapSqlParameterSource("before", before));
+    }
+
+    private Map<Key, Histogram> fold(String rawSql, String source, LocalDateTime before) {
+        Map<Key, Histogram> histograms = new HashMap<>();
+        String sql = rawSql.formatted(source) + "WHERE " + FOLDED_SQL
+                + (before != null ? "AND m.started_at < :before" : "");
+        jdbcTemplate.query(sql, new MapSqlParameterSource("before", before), (RowCallbackHandler) rs -> {
+            Key key = new Key(rs.getString(1), rs.getString(2), rs.getDate(3).toLocalDate(), rs.getString(4));
+            String nodeName = rs.getString(5);
+            long timeMs = rs.getLong(6);
+            histograms.computeIfAbsent(key, k -> new Histogram(nodeName))
+                    .getAccumulator().apply(rs.wasNull() ? null : timeMs, "ERROR".equals(rs.getString(7)), 1);
+        });
+        return histograms;
+    }
+
+    private void merge(String table, String ownerColumn, Map<Key, Histogram> histograms) {
+        String findSql = FIND_SQL.formatted(table, ownerColumn);
+        String upsertSql = UPSERT_SQL.formatted(table, ownerColumn);
+        histograms.forEach((key, histogram) -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ownerId", key.getOwnerId())
+                    .addValue("variant", key.getVariant())
+                    .addValue("day", key.getDay())
+                    .addValue("nodeId", key.getNodeId());
+
+            ComparisonAggregateState.VariantAccumulator accumulator = histogram.getAccumulator();
+            List<ComparisonAggregateState.VariantAccumulator> stored =
+                    jdbcTemplate.query(findSql, params, (rs, rowNum) -> accumulator(rs, 2));
+            if (!stored.isEmpty()) {
+                accumulator.merge(stored.get(0), 1);
+            }
+
+            jdbcTemplate.update(upsertSql, params
+                    .addValue("nodeName", histogram.getNodeName())
+                    .addValue("count", accumulator.getCount())
+                    .addValue("errorCount", accumulator.getErrorCount())
+                    .addValue("sum", accumulator.getSum())
+                    .addValue("squaredDeviations", accumulator.getSquaredDeviations())
+                    .addValue("latency", writeSketch(accumulator.getLatency())));
+        });
+    }
+
+    /**
+     * Reads count, error count, sum, squared deviations and sketch from consecutive
+     * columns starting at {@code column}.
+     */
+    private ComparisonAggregateState.VariantAccumulator accumulator(ResultSet rs, int column) throws SQLException {
+        ComparisonAggregateState.VariantAccumulator accumulator = new ComparisonAggregateState.VariantAccumulator();
+        accumulator.setCount(rs.getLong(column));
+        accumulator.setErrorCount(rs.getLong(column + 1));
+        accumulator.setSum(rs.getDouble(column + 2));
+        accumulator.setSquaredDeviations(rs.getDouble(column + 3));
+        try {
+            accumulator.setLatency(objectMapper.readValue(rs.getString(column + 4), LatencySketch.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable latency sketch in node histograms", e);
+        }
+        return accumulator;
+    }
+
+    private String writeSketch(LatencySketch sketch) {
+        try {
+            return objectMapper.writeValueAsString(sketch);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize latency sketch", e);
+        }
+    }
+
+    /**
+     * A histogram's workflow or comparison, variant, day and node.
+     */
+    @Value
+    public static class Key {
+        String ownerId;
+        String variant;
+        LocalDate day;
+        String nodeId;
+    }
+
+    @Getter
+    public static class Histogram {
+        private final String nodeName;
+        private final ComparisonAggregateState.VariantAccumulator accumulator =
+                new ComparisonAggregateState.VariantAccumulator();
+
+        Histogram(String nodeName) {
+            this.nodeName = nodeName;
+        }
+    }
+}
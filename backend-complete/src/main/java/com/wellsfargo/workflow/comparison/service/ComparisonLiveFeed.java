@@ -0,0 +1,49 @@
+package com.wellsfargo.workflow.comparison.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.common.live.LiveFeed;
+import com.wellsfargo.workflow.common.live.LiveFeedProperties;
+import com.wellsfargo.workflow.comparison.dto.AggregateMetricsResponse;
+import com.wellsfargo.workflow.comparison.dto.ComparisonLiveUpdate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ComparisonLiveFeed extends LiveFeed<AggregateMetricsResponse, ComparisonLiveUpdate> {
+
+    private final ComparisonService comparisonService;
+
+    public ComparisonLiveFeed(ComparisonService comparisonService, ObjectMapper objectMapper,
+                              LiveFeedProperties properties) {
+        super(objectMapper, properties);
+        this.comparisonService = comparisonService;
+    }
+
+    @Override
+    protected AggregateMetricsResponse compute(String comparisonId) {
+        return comparisonService.calculateAggregateMetrics(comparisonId);
+    }
+
+    @Override
+    protected ComparisonLiveUpdate diff(AggregateMetricsResponse previous, AggregateMetricsResponse next) {
+        if (previous == null) {
+            previous = new AggregateMetricsResponse();
+        }
+        ComparisonLiveUpdate update = ComparisonLiveUpdate.builder()
+                .totalExecutions(changed(previous.getTotalExecutions(), next.getTotalExecutions()))
+                .includedExecutions(changed(previous.getIncludedExecutions(), next.getIncludedExecutions()))
+                .outlierCount(changed(previous.getOutlierCount(), next.getOutlierCount()))
+                .performance(changed(previous.getPerformance(), next.getPerformance()))
+                .reliability(changed(previous.getReliability(), next.getReliability()))
+                .winnerDistribution(changed(previous.getWinnerDistribution(), next.getWinnerDistribution()))
+                .statistical(changed(previous.getStatistical(), next.getStatistical()))
+                .statisticalStale(changed(previous.getStatisticalStale(), next.getStatisticalStale()))
+                .nodeAggregates(changedItems(previous.getNodeAggregates(), next.getNodeAggregates(),
+                        AggregateMetricsResponse.NodeAggregate::getNodeId))
+                .timeSeries(changedItems(previous.getTimeSeries(), next.getTimeSeries(),
+                        AggregateMetricsResponse.TimeSeriesPoint::getTimestamp))
+                .removedTimestamps(removedKeys(previous.getTimeSeries(), next.getTimeSeries(),
+                        AggregateMetricsResponse.TimeSeriesPoint::getTimestamp))
+                .build();
+        return update.equals(new ComparisonLiveUpdate()) ? null : update;
+    }
+}
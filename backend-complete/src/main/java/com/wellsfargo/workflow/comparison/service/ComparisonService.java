@@ -1,19 +1,28 @@
 package com.wellsfargo.workflow.comparison.service;
 
 import com.wellsfargo.workflow.championchallenge.entity.ChampionChallengeExecutionEntity;
-import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
 import com.wellsfargo.workflow.championchallenge.repository.ChampionChallengeExecutionRepository;
 import com.wellsfargo.workflow.championchallenge.repository.ExecutionNodeMetricRepository;
+import com.wellsfargo.workflow.common.http.ConditionalGet;
+import com.wellsfargo.workflow.comparison.aggregate.CompactedNodes;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregateState;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregator;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonKernel;
 import com.wellsfargo.workflow.comparison.dto.*;
 import com.wellsfargo.workflow.comparison.entity.ComparisonMasterEntity;
 import com.wellsfargo.workflow.comparison.entity.ExecutionComparisonEntity;
+import com.wellsfargo.workflow.comparison.repository.ComparisonColumnRepository;
 import com.wellsfargo.workflow.comparison.repository.ComparisonMasterRepository;
+import com.wellsfargo.workflow.comparison.repository.ComparisonMembershipRepository;
 import com.wellsfargo.workflow.comparison.repository.ExecutionComparisonRepository;
+import com.wellsfargo.workflow.comparison.repository.ExecutionSelection;
+import com.wellsfargo.workflow.comparison.repository.NodeMetricHistogramRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,10 +32,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ComparisonService {
 
+    private static final int TIME_SERIES_OVERSAMPLING = 4;
+    private static final int MAX_TIME_SERIES_POINTS = 5_000;
+    private static final long MIN_TIME_WINDOW_MS = 1_000;
+
     private final ComparisonMasterRepository comparisonRepository;
     private final ExecutionComparisonRepository executionComparisonRepository;
     private final ChampionChallengeExecutionRepository executionRepository;
     private final ExecutionNodeMetricRepository nodeMetricRepository;
+    private final ComparisonColumnRepository columnRepository;
+    private final ComparisonMembershipRepository membershipRepository;
+    private final NodeMetricHistogramRepository histogramRepository;
+    private final ComparisonAggregator aggregator;
+    private final ComparisonStatisticsRefresher statisticsRefresher;
 
     @Transactional
     public ComparisonResponse createComparison(ComparisonRequest request, String userId) {
@@ -44,12 +62,13 @@ public class ComparisonService {
                 .createdBy(userId)
                 .build();
 
-        comparison = comparisonRepository.save(comparison);
+        comparison = comparisonRepository.saveAndFlush(comparison);
 
         if (request.getExecutionIds() != null && !request.getExecutionIds().isEmpty()) {
-            for (String executionId : request.getExecutionIds()) {
-                addExecutionToComparison(comparison.getId(), executionId);
-            }
+            ComparisonAggregateState state = attachIds(comparison, ComparisonAggregateState.empty(),
+                    request.getExecutionIds());
+            refreshCounts(comparison);
+            storeState(comparison, state);
         }
 
         return mapToResponse(comparison);
@@ -69,9 +88,19 @@ public class ComparisonService {
         return mapToResponse(comparison);
     }
 
+    /**
+     * Version of {@link #getComparison} for conditional GET: its update time.
+     */
+    @Transactional(readOnly = true)
+    public String getComparisonVersion(String comparisonId) {
+        ComparisonMasterEntity comparison = comparisonRepository.findById(comparisonId)
+                .orElseThrow(() -> new RuntimeException("Comparison not found"));
+        return ConditionalGet.version(comparison.getId(), comparison.getUpdatedAt());
+    }
+
     @Transactional
     public void addExecutionToComparison(String comparisonId, String executionId) {
-        ComparisonMasterEntity comparison = comparisonRepository.findById(comparisonId)
+        ComparisonMasterEntity comparison = comparisonRepository.findByIdForUpdate(comparisonId)
                 .orElseThrow(() -> new RuntimeException("Comparison not found"));
 
         Optional<ExecutionComparisonEntity> existing =
@@ -82,6 +111,9 @@ public class ComparisonService {
             return;
         }
 
+        ComparisonAggregateState state = loadState(comparison);
+        applyExecution(state, executionId, 1);
+
         ExecutionComparisonEntity mapping = ExecutionComparisonEntity.builder()
                 .comparison(comparison)
                 .executionId(executionId)
@@ -90,335 +122,327 @@ public class ComparisonService {
                 .build();
 
         executionComparisonRepository.save(mapping);
-    }
 
-    @Transactional
-    public void removeExecutionFromComparison(String comparisonId, String executionId) {
-        executionComparisonRepository.deleteByComparisonIdAndExecutionId(comparisonId, executionId);
+        comparison.setTotalExecutions(comparison.getTotalExecutions() + 1);
+        comparison.setIncludedExecutions(comparison.getIncludedExecutions() + 1);
+        storeState(comparison, state);
     }
 
+    /**
+     * Detaches then attaches the given executions in one transaction. Ids already
+     * attached, or unknown, are skipped.
+     */
     @Transactional
-    public AggregateMetricsResponse calculateAggregateMetrics(String comparisonId) {
-        log.info("Calculating aggregate metrics for comparison: {}", comparisonId);
+    public ExecutionBatchResponse updateExecutions(String comparisonId, ExecutionBatchRequest request) {
+        log.info("Updating executions of comparison {}", comparisonId);
 
-        ComparisonMasterEntity comparison = comparisonRepository.findByIdWithMappings(comparisonId)
+        ComparisonMasterEntity comparison = comparisonRepository.findByIdForUpdate(comparisonId)
                 .orElseThrow(() -> new RuntimeException("Comparison not found"));
 
-        List<ExecutionComparisonEntity> mappings = comparison.getExecutionMappings().stream()
-                .filter(ExecutionComparisonEntity::getIncluded)
-                .collect(Collectors.toList());
-
-        if (mappings.isEmpty()) {
-            throw new RuntimeException("No executions included in comparison");
+        ComparisonAggregateState state = loadState(comparison);
+        int detached = 0;
+        if (request.getDetach() != null && !request.getDetach().isEmpty()) {
+            detached = detach(comparison, state, request.getDetach());
+        }
+        int totalBeforeAttach = comparison.getTotalExecutions() - detached;
+        if (request.getAttach() != null && !request.getAttach().isEmpty()) {
+            state = attachIds(comparison, state, request.getAttach());
         }
 
-        List<String> executionIds = mappings.stream()
-                .map(ExecutionComparisonEntity::getExecutionId)
-                .collect(Collectors.toList());
-
-        List<ChampionChallengeExecutionEntity> executions = executionRepository.findAllById(executionIds);
-
-        return calculateMetrics(executions, comparison);
+        refreshCounts(comparison);
+        storeState(comparison, state);
+        return mapToBatchResponse(comparison, comparison.getTotalExecutions() - totalBeforeAttach, detached);
     }
 
-    private AggregateMetricsResponse calculateMetrics(
-            List<ChampionChallengeExecutionEntity> executions,
-            ComparisonMasterEntity comparison) {
-
-        List<Long> championTimes = executions.stream()
-                .map(ChampionChallengeExecutionEntity::getTotalChampionTimeMs)
-                .filter(Objects::nonNull)
-                .map(Integer::longValue)
-                .collect(Collectors.toList());
-
-        List<Long> challengeTimes = executions.stream()
-                .map(ChampionChallengeExecutionEntity::getTotalChallengeTimeMs)
-                .filter(Objects::nonNull)
-                .map(Integer::longValue)
-                .collect(Collectors.toList());
+    /**
+     * Attaches every not yet attached execution of the comparison's workflow pair
+     * that matches the filter.
+     */
+    @Transactional
+    public ExecutionBatchResponse attachByFilter(String comparisonId, ExecutionFilterRequest filter) {
+        log.info("Attaching executions to comparison {} by filter: {}", comparisonId, filter);
 
-        AggregateMetricsResponse.PerformanceMetrics performance = calculatePerformanceMetrics(
-                championTimes, challengeTimes);
+        ComparisonMasterEntity comparison = comparisonRepository.findByIdForUpdate(comparisonId)
+                .orElseThrow(() -> new RuntimeException("Comparison not found"));
 
-        AggregateMetricsResponse.ReliabilityMetrics reliability = calculateReliabilityMetrics(executions);
+        int totalBefore = comparison.getTotalExecutions();
+        ComparisonAggregateState state = attach(comparison, loadState(comparison),
+                ExecutionSelection.unattachedMatching(
+                        comparisonId,
+                        comparison.getChampionWorkflowId(),
+                        comparison.getChallengeWorkflowId(),
+                        filter.getStatus() != null ? filter.getStatus() : "COMPLETED",
+                        filter.getFrom(),
+                        filter.getTo()),
+                0);
+
+        refreshCounts(comparison);
+        storeState(comparison, state);
+        return mapToBatchResponse(comparison, comparison.getTotalExecutions() - totalBefore, 0);
+    }
 
-        AggregateMetricsResponse.WinnerDistribution winnerDist = calculateWinnerDistribution(executions);
+    @Transactional
+    public void removeExecutionFromComparison(String comparisonId, String executionId) {
+        ComparisonMasterEntity comparison = comparisonRepository.findByIdForUpdate(comparisonId)
+                .orElseThrow(() -> new RuntimeException("Comparison not found"));
 
-        AggregateMetricsResponse.StatisticalAnalysis statistical = calculateStatisticalAnalysis(
-                championTimes, challengeTimes, executions.size());
+        Optional<ExecutionComparisonEntity> existing =
+                executionComparisonRepository.findByComparisonIdAndExecutionId(comparisonId, executionId);
 
-        List<AggregateMetricsResponse.NodeAggregate> nodeAggregates = calculateNodeAggregates(
-                executions.stream().map(ChampionChallengeExecutionEntity::getId).collect(Collectors.toList()));
+        if (existing.isEmpty()) {
+            return;
+        }
 
-        List<AggregateMetricsResponse.TimeSeriesPoint> timeSeries = calculateTimeSeries(executions);
+        ExecutionComparisonEntity mapping = existing.get();
+        ComparisonAggregateState state = loadState(comparison);
+        if (Boolean.TRUE.equals(mapping.getIncluded())) {
+            applyExecution(state, executionId, -1);
+            comparison.setIncludedExecutions(comparison.getIncludedExecutions() - 1);
+        }
+        if (Boolean.TRUE.equals(mapping.getOutlierFlag())) {
+            comparison.setOutlierCount(comparison.getOutlierCount() - 1);
+        }
 
-        comparison.setStatus("COMPLETED");
-        comparison.setCompletedAt(LocalDateTime.now());
-        comparisonRepository.save(comparison);
+        executionComparisonRepository.delete(mapping);
 
-        return AggregateMetricsResponse.builder()
-                .totalExecutions(executions.size())
-                .includedExecutions(executions.size())
-                .outlierCount(0)
-                .performance(performance)
-                .reliability(reliability)
-                .winnerDistribution(winnerDist)
-                .statistical(statistical)
-                .nodeAggregates(nodeAggregates)
-                .timeSeries(timeSeries)
-                .build();
+        comparison.setTotalExecutions(comparison.getTotalExecutions() - 1);
+        storeState(comparison, state);
     }
 
-    private AggregateMetricsResponse.PerformanceMetrics calculatePerformanceMetrics(
-            List<Long> championTimes, List<Long> challengeTimes) {
-
-        double championAvg = championTimes.stream().mapToLong(Long::longValue).average().orElse(0.0);
-        double challengeAvg = challengeTimes.stream().mapToLong(Long::longValue).average().orElse(0.0);
+    @Transactional
+    public void setExecutionIncluded(String comparisonId, String executionId, boolean included) {
+        ComparisonMasterEntity comparison = comparisonRepository.findByIdForUpdate(comparisonId)
+                .orElseThrow(() -> new RuntimeException("Comparison not found"));
 
-        double championMedian = calculateMedian(championTimes);
-        double challengeMedian = calculateMedian(challengeTimes);
+        ExecutionComparisonEntity mapping = executionComparisonRepository
+                .findByComparisonIdAndExecutionId(comparisonId, executionId)
+                .orElseThrow(() -> new RuntimeException("Execution not in comparison"));
 
-        double championP95 = calculatePercentile(championTimes, 0.95);
-        double challengeP95 = calculatePercentile(challengeTimes, 0.95);
+        if (Objects.equals(mapping.getIncluded(), included)) {
+            return;
+        }
 
-        double improvement = challengeAvg > 0 ? ((championAvg - challengeAvg) / championAvg) * 100 : 0.0;
+        ComparisonAggregateState state = loadState(comparison);
+        applyExecution(state, executionId, included ? 1 : -1);
 
-        double championStdDev = calculateStdDev(championTimes, championAvg);
-        double challengeStdDev = calculateStdDev(challengeTimes, challengeAvg);
+        mapping.setIncluded(included);
+        executionComparisonRepository.save(mapping);
 
-        return AggregateMetricsResponse.PerformanceMetrics.builder()
-                .championAvgTime(championAvg)
-                .championMedianTime(championMedian)
-                .championP95(championP95)
-                .challengeAvgTime(challengeAvg)
-                .challengeMedianTime(challengeMedian)
-                .challengeP95(challengeP95)
-                .improvement(improvement)
-                .consistency(AggregateMetricsResponse.ConsistencyMetrics.builder()
-                        .championStdDev(championStdDev)
-                        .challengeStdDev(challengeStdDev)
-                        .build())
-                .build();
+        comparison.setIncludedExecutions(comparison.getIncludedExecutions() + (included ? 1 : -1));
+        storeState(comparison, state);
     }
 
-    private AggregateMetricsResponse.ReliabilityMetrics calculateReliabilityMetrics(
-            List<ChampionChallengeExecutionEntity> executions) {
+    /**
+     * Answers from the persisted aggregate state and the last bootstrap analysis
+     * without writing. An analysis computed before the latest membership change
+     * is returned with {@code statisticalStale} set, and a refresh is queued.
+     */
+    @Transactional(readOnly = true)
+    public AggregateMetricsResponse calculateAggregateMetrics(String comparisonId) {
+        log.info("Calculating aggregate metrics for comparison: {}", comparisonId);
 
-        int total = executions.size();
-        int championErrors = 0;
-        int challengeErrors = 0;
+        ComparisonMasterEntity comparison = comparisonRepository.findById(comparisonId)
+                .orElseThrow(() -> new RuntimeException("Comparison not found"));
 
-        for (ChampionChallengeExecutionEntity exec : executions) {
-            if ("FAILED".equals(exec.getStatus())) {
-                championErrors++;
-                challengeErrors++;
-            }
+        if (comparison.getIncludedExecutions() == null || comparison.getIncludedExecutions() <= 0) {
+            throw new RuntimeException("No executions included in comparison");
         }
 
-        double championSuccessRate = total > 0 ? ((total - championErrors) / (double) total) * 100 : 100.0;
-        double challengeSuccessRate = total > 0 ? ((total - challengeErrors) / (double) total) * 100 : 100.0;
+        ComparisonAggregateState state = aggregator.read(
+                comparison.getAggregateMetrics(), ComparisonAggregateState.class);
+        AggregateMetricsResponse.StatisticalAnalysis statistical = aggregator.read(
+                comparison.getStatisticalAnalysis(), AggregateMetricsResponse.StatisticalAnalysis.class);
+        boolean stale = !ComparisonStatisticsRefresher.isCurrent(comparison);
+        boolean dropped = state == null;
+        if (dropped) {
+            state = rebuildState(comparisonId);
+        }
+        if (stale || dropped) {
+            statisticsRefresher.requestRefresh(comparisonId);
+        }
 
-        return AggregateMetricsResponse.ReliabilityMetrics.builder()
-                .championSuccessRate(championSuccessRate)
-                .challengeSuccessRate(challengeSuccessRate)
-                .championErrorCount(championErrors)
-                .challengeErrorCount(challengeErrors)
+        return AggregateMetricsResponse.builder()
+                .totalExecutions(comparison.getTotalExecutions())
+                .includedExecutions((int) state.getExecutionCount())
+                .outlierCount(comparison.getOutlierCount())
+                .performance(aggregator.performance(state))
+                .reliability(aggregator.reliability(state))
+                .winnerDistribution(aggregator.winnerDistribution(state))
+                .statistical(statistical)
+                .statisticalStale(stale)
+                .nodeAggregates(aggregator.nodeAggregates(withCompactedNodes(comparison, state)))
+                .timeSeries(aggregator.timeSeries(state))
                 .build();
     }
 
-    private AggregateMetricsResponse.WinnerDistribution calculateWinnerDistribution(
-            List<ChampionChallengeExecutionEntity> executions) {
-
-        int championWins = 0;
-        int challengeWins = 0;
-        int ties = 0;
+    /**
+     * Time series of the included executions between {@code from} (inclusive) and
+     * {@code to} (exclusive), defaulting to the full range. Executions are grouped
+     * into time windows in SQL at {@link #TIME_SERIES_OVERSAMPLING} times the point
+     * budget, then downsampled to {@code points} with LTTB, so the response size
+     * does not depend on how many executions the comparison holds.
+     */
+    @Transactional(readOnly = true)
+    public List<AggregateMetricsResponse.TimeSeriesPoint> getTimeSeries(String comparisonId, LocalDateTime from,
+                                                                        LocalDateTime to, int points) {
+        if (!comparisonRepository.existsById(comparisonId)) {
+            throw new RuntimeException("Comparison not found");
+        }
 
-        for (ChampionChallengeExecutionEntity exec : executions) {
-            if ("CHAMPION".equals(exec.getWinner())) {
-                championWins++;
-            } else if ("CHALLENGE".equals(exec.getWinner())) {
-                challengeWins++;
-            } else {
-                ties++;
+        if (from == null || to == null) {
+            LocalDateTime[] range = columnRepository.loadStartedAtRange(comparisonId);
+            if (range == null) {
+                return List.of();
             }
+            from = from != null ? from : range[0];
+            to = to != null ? to : range[1].plusNanos(1_000_000);
+        }
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("Time series range is empty");
         }
 
-        int total = executions.size();
-        double winRate = total > 0 ? (challengeWins / (double) total) * 100 : 0.0;
+        int budget = Math.min(Math.max(points, 3), MAX_TIME_SERIES_POINTS);
+        long spanMs = Duration.between(from, to).toMillis();
+        long windowMs = Math.max(MIN_TIME_WINDOW_MS, -Math.floorDiv(-spanMs, (long) budget * TIME_SERIES_OVERSAMPLING));
 
-        return AggregateMetricsResponse.WinnerDistribution.builder()
-                .championWins(championWins)
-                .challengeWins(challengeWins)
-                .ties(ties)
-                .winRate(winRate)
-                .build();
+        return aggregator.timeSeries(columnRepository.loadTimeWindows(comparisonId, from, to, windowMs), budget);
     }
 
-    private AggregateMetricsResponse.StatisticalAnalysis calculateStatisticalAnalysis(
-            List<Long> championTimes, List<Long> challengeTimes, int sampleSize) {
-
-        double pValue = calculateTTest(championTimes, challengeTimes);
-        boolean isSignificant = pValue < 0.05;
-
-        String recommendation;
-        if (sampleSize < 10) {
-            recommendation = "Need more data (minimum 10 executions)";
-        } else if (!isSignificant) {
-            recommendation = "No significant difference - continue testing";
-        } else {
-            double champAvg = championTimes.stream().mapToLong(Long::longValue).average().orElse(0.0);
-            double challAvg = challengeTimes.stream().mapToLong(Long::longValue).average().orElse(0.0);
-            recommendation = challAvg < champAvg ?
-                    "Deploy Challenge - significantly faster" :
-                    "Keep Champion - currently better";
+    /**
+     * Returns the persisted aggregate state, rebuilding it from the included
+     * executions when the comparison predates incremental aggregation.
+     */
+    private ComparisonAggregateState loadState(ComparisonMasterEntity comparison) {
+        ComparisonAggregateState state = aggregator.read(
+                comparison.getAggregateMetrics(), ComparisonAggregateState.class);
+        if (state != null) {
+            return state;
         }
 
-        return AggregateMetricsResponse.StatisticalAnalysis.builder()
-                .sampleSize(sampleSize)
-                .confidenceLevel(95.0)
-                .pValue(pValue)
-                .isSignificant(isSignificant)
-                .recommendation(recommendation)
-                .testMethod("t-test")
-                .build();
+        return rebuildState(comparison.getId());
     }
 
-    private List<AggregateMetricsResponse.NodeAggregate> calculateNodeAggregates(List<String> executionIds) {
-        List<ExecutionNodeMetricEntity> allMetrics = nodeMetricRepository.findByExecutionIdIn(executionIds);
-
-        Map<String, List<ExecutionNodeMetricEntity>> metricsByNode = allMetrics.stream()
-                .collect(Collectors.groupingBy(ExecutionNodeMetricEntity::getNodeId));
-
-        List<AggregateMetricsResponse.NodeAggregate> nodeAggregates = new ArrayList<>();
-
-        for (Map.Entry<String, List<ExecutionNodeMetricEntity>> entry : metricsByNode.entrySet()) {
-            String nodeId = entry.getKey();
-            List<ExecutionNodeMetricEntity> nodeMetrics = entry.getValue();
-
-            List<ExecutionNodeMetricEntity> championMetrics = nodeMetrics.stream()
-                    .filter(m -> "CHAMPION".equals(m.getVariant()))
-                    .collect(Collectors.toList());
-
-            List<ExecutionNodeMetricEntity> challengeMetrics = nodeMetrics.stream()
-                    .filter(m -> "CHALLENGE".equals(m.getVariant()))
-                    .collect(Collectors.toList());
-
-            if (!championMetrics.isEmpty() && !challengeMetrics.isEmpty()) {
-                double champAvg = championMetrics.stream()
-                        .mapToInt(ExecutionNodeMetricEntity::getExecutionTimeMs)
-                        .average().orElse(0.0);
-
-                double challAvg = challengeMetrics.stream()
-                        .mapToInt(ExecutionNodeMetricEntity::getExecutionTimeMs)
-                        .average().orElse(0.0);
-
-                double improvement = champAvg > 0 ? ((champAvg - challAvg) / champAvg) * 100 : 0.0;
-
-                String winner = challAvg < champAvg ? "challenge" :
-                               challAvg > champAvg ? "champion" : "tie";
-
-                String nodeName = championMetrics.isEmpty() ?
-                        challengeMetrics.get(0).getNodeName() :
-                        championMetrics.get(0).getNodeName();
-
-                nodeAggregates.add(AggregateMetricsResponse.NodeAggregate.builder()
-                        .nodeId(nodeId)
-                        .nodeName(nodeName)
-                        .championAvgTime(champAvg)
-                        .challengeAvgTime(challAvg)
-                        .executionCount(nodeMetrics.size())
-                        .improvement(improvement)
-                        .winner(winner)
-                        .build());
-            }
+    /**
+     * Adds the comparison's compacted node histograms over the days its members
+     * span. The persisted state only holds raw node metrics, and
+     * compaction clears it for affected comparisons, so nothing is counted twice.
+     * The histograms stored with the state are used when they cover the same
+     * days; otherwise they are loaded here and the refresher stores them.
+     */
+    private ComparisonAggregateState withCompactedNodes(ComparisonMasterEntity comparison,
+                                                        ComparisonAggregateState state) {
+        CompactedNodes compacted = aggregator.read(comparison.getCompactedNodes(), CompactedNodes.class);
+        if (compacted == null || !compacted.covers(state)) {
+            compacted = histogramRepository.loadCompacted(comparison.getId(), state);
+            statisticsRefresher.requestRefresh(comparison.getId());
+        }
+        if (compacted.getNodes().isEmpty()) {
+            return state;
         }
 
-        return nodeAggregates;
+        ComparisonAggregateState compactedState = ComparisonAggregateState.empty();
+        compactedState.setNodes(compacted.getNodes());
+        ComparisonAggregateState combined = ComparisonAggregateState.empty();
+        combined.merge(state, 1);
+        combined.merge(compactedState, 1);
+        return combined;
     }
 
-    private List<AggregateMetricsResponse.TimeSeriesPoint> calculateTimeSeries(
-            List<ChampionChallengeExecutionEntity> executions) {
-
-        List<AggregateMetricsResponse.TimeSeriesPoint> timeSeries = new ArrayList<>();
-
-        executions.sort(Comparator.comparing(ChampionChallengeExecutionEntity::getStartedAt));
-
-        int bucketSize = Math.max(1, executions.size() / 10);
-
-        for (int i = 0; i < executions.size(); i += bucketSize) {
-            int end = Math.min(i + bucketSize, executions.size());
-            List<ChampionChallengeExecutionEntity> bucket = executions.subList(i, end);
-
-            double champAvg = bucket.stream()
-                    .map(ChampionChallengeExecutionEntity::getTotalChampionTimeMs)
-                    .filter(Objects::nonNull)
-                    .mapToInt(Integer::intValue)
-                    .average().orElse(0.0);
-
-            double challAvg = bucket.stream()
-                    .map(ChampionChallengeExecutionEntity::getTotalChallengeTimeMs)
-                    .filter(Objects::nonNull)
-                    .mapToInt(Integer::intValue)
-                    .average().orElse(0.0);
+    private ComparisonAggregateState rebuildState(String comparisonId) {
+        log.info("Rebuilding aggregate state for comparison: {}", comparisonId);
 
-            LocalDateTime timestamp = bucket.get(0).getStartedAt();
+        return ComparisonKernel.fold(
+                columnRepository.loadExecutions(comparisonId),
+                columnRepository.loadNodeMetrics(comparisonId));
+    }
 
-            timeSeries.add(AggregateMetricsResponse.TimeSeriesPoint.builder()
-                    .timestamp(timestamp.toString())
-                    .championAvg(champAvg)
-                    .challengeAvg(challAvg)
-                    .count(bucket.size())
-                    .build());
+    /**
+     * Folds the selected executions, inserts their mappings and merges the fold
+     * into {@code state}. If the insert picked up a different number of rows than
+     * the fold (executions written in between), the state is rebuilt instead.
+     */
+    private ComparisonAggregateState attach(ComparisonMasterEntity comparison, ComparisonAggregateState state,
+                                            ExecutionSelection selection, int expectedSize) {
+        ComparisonAggregateState delta = ComparisonKernel.fold(
+                columnRepository.loadExecutions(selection, expectedSize),
+                columnRepository.loadNodeMetrics(selection, expectedSize));
+
+        int attached = membershipRepository.attach(selection);
+        if (attached != delta.getExecutionCount()) {
+            log.warn("Executions changed while attaching to comparison {}", comparison.getId());
+            return rebuildState(comparison.getId());
         }
 
-        return timeSeries;
+        state.merge(delta, 1);
+        return state;
     }
 
-    private double calculateMedian(List<Long> values) {
-        if (values.isEmpty()) return 0.0;
-        List<Long> sorted = new ArrayList<>(values);
-        Collections.sort(sorted);
-        int size = sorted.size();
-        if (size % 2 == 0) {
-            return (sorted.get(size / 2 - 1) + sorted.get(size / 2)) / 2.0;
-        } else {
-            return sorted.get(size / 2);
+    /**
+     * Attaches the given ids in chunks that fit one array parameter.
+     */
+    private ComparisonAggregateState attachIds(ComparisonMasterEntity comparison, ComparisonAggregateState state,
+                                               List<String> executionIds) {
+        for (List<String> chunk : idChunks(executionIds)) {
+            state = attach(comparison, state,
+                    ExecutionSelection.unattachedAmong(comparison.getId(), chunk), chunk.size());
         }
+        return state;
     }
 
-    private double calculatePercentile(List<Long> values, double percentile) {
-        if (values.isEmpty()) return 0.0;
-        List<Long> sorted = new ArrayList<>(values);
-        Collections.sort(sorted);
-        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
-        index = Math.max(0, Math.min(index, sorted.size() - 1));
-        return sorted.get(index);
-    }
-
-    private double calculateStdDev(List<Long> values, double mean) {
-        if (values.isEmpty()) return 0.0;
-        double variance = values.stream()
-                .mapToDouble(v -> Math.pow(v - mean, 2))
-                .average().orElse(0.0);
-        return Math.sqrt(variance);
+    private int detach(ComparisonMasterEntity comparison, ComparisonAggregateState state, List<String> executionIds) {
+        int detached = 0;
+        for (List<String> chunk : idChunks(executionIds)) {
+            detached += detachChunk(comparison, state, chunk);
+        }
+        return detached;
     }
 
-    private double calculateTTest(List<Long> group1, List<Long> group2) {
-        if (group1.size() < 2 || group2.size() < 2) return 1.0;
-
-        double mean1 = group1.stream().mapToLong(Long::longValue).average().orElse(0.0);
-        double mean2 = group2.stream().mapToLong(Long::longValue).average().orElse(0.0);
+    private int detachChunk(ComparisonMasterEntity comparison, ComparisonAggregateState state,
+                            List<String> executionIds) {
+        ExecutionSelection selection = ExecutionSelection.includedAmong(comparison.getId(), executionIds);
+        ComparisonAggregateState delta = ComparisonKernel.fold(
+                columnRepository.loadExecutions(selection, executionIds.size()),
+                columnRepository.loadNodeMetrics(selection, executionIds.size()));
 
-        double var1 = calculateStdDev(group1, mean1);
-        double var2 = calculateStdDev(group2, mean2);
+        state.merge(delta, -1);
+        return membershipRepository.detach(comparison.getId(), executionIds);
+    }
 
-        double pooledStd = Math.sqrt((var1 * var1 / group1.size()) + (var2 * var2 / group2.size()));
+    private static List<List<String>> idChunks(List<String> executionIds) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < executionIds.size(); from += ExecutionSelection.MAX_IDS) {
+            chunks.add(executionIds.subList(from, Math.min(executionIds.size(), from + ExecutionSelection.MAX_IDS)));
+        }
+        return chunks;
+    }
 
-        if (pooledStd == 0) return 1.0;
+    private void refreshCounts(ComparisonMasterEntity comparison) {
+        ComparisonMembershipRepository.MemberCounts counts = membershipRepository.countMembers(comparison.getId());
+        comparison.setTotalExecutions(counts.getTotal());
+        comparison.setIncludedExecutions(counts.getIncluded());
+        comparison.setOutlierCount(counts.getOutliers());
+    }
 
-        double tStat = Math.abs((mean1 - mean2) / pooledStd);
+    private void applyExecution(ComparisonAggregateState state, String executionId, int sign) {
+        ChampionChallengeExecutionEntity execution = executionRepository.findById(executionId)
+                .orElseThrow(() -> new RuntimeException("Execution not found"));
+        aggregator.apply(state, execution, nodeMetricRepository.findByExecutionId(executionId), sign);
+    }
 
-        return tStat > 2.0 ? 0.03 : 0.15;
+    /**
+     * Persists the aggregate state and moves the membership version on, which
+     * marks the statistical analysis stale until the refresher has resampled it.
+     * The compacted node histograms are reloaded when the members' days changed.
+     */
+    private void storeState(ComparisonMasterEntity comparison, ComparisonAggregateState state) {
+        CompactedNodes compacted = aggregator.read(comparison.getCompactedNodes(), CompactedNodes.class);
+        if (compacted == null || !compacted.covers(state)) {
+            comparison.setCompactedNodes(aggregator.write(histogramRepository.loadCompacted(comparison.getId(), state)));
+        }
+        comparison.setAggregateMetrics(aggregator.write(state));
+        comparison.setMembershipVersion(comparison.getMembershipVersion() + 1);
+        comparisonRepository.save(comparison);
+        statisticsRefresher.requestRefresh(comparison.getId());
     }
 
     @Transactional
@@ -426,6 +450,17 @@ public class ComparisonService {
         comparisonRepository.deleteById(comparisonId);
     }
 
+    private ExecutionBatchResponse mapToBatchResponse(ComparisonMasterEntity entity, int attached, int detached) {
+        return ExecutionBatchResponse.builder()
+                .comparisonId(entity.getId())
+                .attached(attached)
+                .detached(detached)
+                .totalExecutions(entity.getTotalExecutions())
+                .includedExecutions(entity.getIncludedExecutions())
+                .outlierCount(entity.getOutlierCount())
+                .build();
+    }
+
     private ComparisonResponse mapToResponse(ComparisonMasterEntity entity) {
         return ComparisonResponse.builder()
                 .id(entity.getId())
@@ -0,0 +1,198 @@
+package com.wellsfargo.workflow.comparison.service;
+
+import com.wellsfargo.workflow.comparison.aggregate.CompactedNodes;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregateState;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregator;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonKernel;
+import com.wellsfargo.workflow.comparison.aggregate.ExecutionColumns;
+import com.wellsfargo.workflow.comparison.dto.AggregateMetricsResponse;
+import com.wellsfargo.workflow.comparison.entity.ComparisonMasterEntity;
+import com.wellsfargo.workflow.comparison.repository.ComparisonColumnRepository;
+import com.wellsfargo.workflow.comparison.repository.ComparisonMasterRepository;
+import com.wellsfargo.workflow.comparison.repository.NodeMetricHistogramRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recomputes a comparison's bootstrap analysis in the background after its
+ * membership changes, so metrics requests never resample or write. The analysis is
+ * stored with the membership version it was computed from, and requests serve
+ * the last one stored, marked stale until it catches up.
+ *
+ * Requests for a comparison already queued are coalesced into one run; a change
+ * made while a run is resampling queues another.
+ */
+@Slf4j
+@Component
+public class ComparisonStatisticsRefresher {
+
+    private final ComparisonMasterRepository comparisonRepository;
+    private final ComparisonColumnRepository columnRepository;
+    private final NodeMetricHistogramRepository histogramRepository;
+    private final ComparisonAggregator aggregator;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ThreadPoolTaskExecutor executor;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public ComparisonStatisticsRefresher(ComparisonMasterRepository comparisonRepository,
+                                         ComparisonColumnRepository columnRepository,
+                                         NodeMetricHistogramRepository histogramRepository,
+                                         ComparisonAggregator aggregator,
+                                         PlatformTransactionManager transactionManager) {
+        this.comparisonRepository = comparisonRepository;
+        this.columnRepository = columnRepository;
+        this.histogramRepository = histogramRepository;
+        this.aggregator = aggregator;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // One comparison at a time: the bootstrap already uses every core
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(1);
+        this.executor.setThreadNamePrefix("comparison-statistics-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Whether the stored analysis was computed from the current members.
+     */
+    public static boolean isCurrent(ComparisonMasterEntity comparison) {
+        return comparison.getStatisticalAnalysis() != null
+                && Objects.equals(comparison.getStatisticalAnalysisVersion(), comparison.getMembershipVersion());
+    }
+
+    /**
+     * Queues a refresh of the comparison, once the current transaction commits
+     * when there is one.
+     */
+    public void requestRefresh(String comparisonId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(comparisonId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(comparisonId);
+            }
+        });
+    }
+
+    private void submit(String comparisonId) {
+        if (queued.add(comparisonId)) {
+            executor.execute(() -> {
+                queued.remove(comparisonId);
+                try {
+                    refresh(comparisonId);
+                } catch (RuntimeException e) {
+                    log.error("Could not refresh statistics of comparison {}", comparisonId, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Resamples outside any transaction, between a read of the members and a
+     * write under the comparison's row lock. The result is kept even if members
+     * changed meanwhile, as it is newer than the one stored; it stays stale and
+     * the change has queued another run. An aggregate state dropped by node
+     * metric compaction, and compacted histograms that no longer cover the
+     * members' days, are restored in the same run.
+     */
+    void refresh(String comparisonId) {
+        Snapshot snapshot = readTransaction.execute(status -> comparisonRepository.findById(comparisonId)
+                .map(this::snapshot)
+                .orElse(null));
+        if (snapshot == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        AggregateMetricsResponse.StatisticalAnalysis analysis = snapshot.isResample()
+                ? aggregator.statisticalAnalysis(snapshot.getExecutions())
+                : null;
+
+        writeTransaction.executeWithoutResult(status -> comparisonRepository.findByIdForUpdate(comparisonId)
+                .ifPresent(comparison -> {
+                    Long stored = comparison.getStatisticalAnalysisVersion();
+                    if (analysis != null && (stored == null || stored <= snapshot.getMembershipVersion())) {
+                        comparison.setStatisticalAnalysis(aggregator.write(analysis));
+                        comparison.setStatisticalAnalysisVersion(snapshot.getMembershipVersion());
+                    }
+                    if (comparison.getMembershipVersion() == snapshot.getMembershipVersion()) {
+                        if (snapshot.getRebuiltState() != null) {
+                            comparison.setAggregateMetrics(aggregator.write(snapshot.getRebuiltState()));
+                        }
+                        if (snapshot.getCompactedNodes() != null) {
+                            comparison.setCompactedNodes(aggregator.write(snapshot.getCompactedNodes()));
+                        }
+                    }
+                    if (!"COMPLETED".equals(comparison.getStatus())) {
+                        comparison.setStatus("COMPLETED");
+                        comparison.setCompletedAt(LocalDateTime.now());
+                    }
+                    comparisonRepository.save(comparison);
+                }));
+        log.info("Refreshed statistics of comparison {} at membership version {} in {} ms", comparisonId,
+                snapshot.getMembershipVersion(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Reads what the comparison needs refreshed; null when it is up to date.
+     */
+    private Snapshot snapshot(ComparisonMasterEntity comparison) {
+        String comparisonId = comparison.getId();
+        boolean resample = !isCurrent(comparison);
+        ComparisonAggregateState state = aggregator.read(
+                comparison.getAggregateMetrics(), ComparisonAggregateState.class);
+        ExecutionColumns executions = resample || state == null ? columnRepository.loadExecutions(comparisonId) : null;
+
+        ComparisonAggregateState rebuilt = null;
+        if (state == null) {
+            rebuilt = ComparisonKernel.fold(executions, columnRepository.loadNodeMetrics(comparisonId));
+            state = rebuilt;
+        }
+        CompactedNodes compacted = aggregator.read(comparison.getCompactedNodes(), CompactedNodes.class);
+        if (compacted == null || !compacted.covers(state)) {
+            compacted = histogramRepository.loadCompacted(comparison.getId(), state);
+        } else {
+            compacted = null;
+        }
+
+        if (!resample && rebuilt == null && compacted == null) {
+            return null;
+        }
+        return new Snapshot(comparison.getMembershipVersion(), resample, executions, rebuilt, compacted);
+    }
+
+    /**
+     * What a run works from; {@code rebuiltState} and {@code compactedNodes} are
+     * set only when the stored ones need replacing.
+     */
+    @Value
+    private static class Snapshot {
+        long membershipVersion;
+        boolean resample;
+        ExecutionColumns executions;
+        ComparisonAggregateState rebuiltState;
+        CompactedNodes compactedNodes;
+    }
+}
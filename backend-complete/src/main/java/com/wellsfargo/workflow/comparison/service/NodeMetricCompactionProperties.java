@@ -0,0 +1,21 @@
+package com.wellsfargo.workflow.comparison.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow.comparison.node-metric-compaction")
+public class NodeMetricCompactionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Raw node metrics older than this many days are folded into histograms and
+     * removed. Keep it below the partition retention, which drops them outright.
+     */
+    private int afterDays = 28;
+
+    private String cron = "0 0 2 * * *";
+}
@@ -0,0 +1,129 @@
+package com.wellsfargo.workflow.comparison.service;
+
+import com.wellsfargo.workflow.common.partition.Partition;
+import com.wellsfargo.workflow.common.partition.PartitionMaintenanceService;
+import com.wellsfargo.workflow.common.partition.PartitionRouter;
+import com.wellsfargo.workflow.common.partition.PartitionedTable;
+import com.wellsfargo.workflow.comparison.repository.ComparisonMasterRepository;
+import com.wellsfargo.workflow.comparison.repository.NodeMetricHistogramRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Folds raw node metrics older than the configured age into per (workflow,
+ * variant, day, node) histograms, and per (comparison, variant, day, node)
+ * histograms of each comparison's included members, then removes exactly the
+ * raw rows folded: whole partitions are dropped once nothing else is left in
+ * them, legacy rows deleted.
+ *
+ * Comparisons with members in a compacted period get their aggregate state
+ * cleared; the rebuild covers the raw metrics still present. A comparison's own
+ * histograms over its members' days are kept alongside the state and added to
+ * its node aggregates; compaction drops them for the comparisons it folded, and
+ * they are reloaded. They reflect membership and inclusion at compaction time:
+ * members added, removed, included or excluded later change the compacted days
+ * of the node aggregates no more.
+ *
+ * Raw rows outside the fold, whose execution or comparison definition is gone,
+ * stay where they are; a partition holding some is left to the retention job.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NodeMetricCompactionService {
+
+    private final NodeMetricHistogramRepository histogramRepository;
+    private final ComparisonMasterRepository comparisonRepository;
+    private final PartitionRouter partitionRouter;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final NodeMetricCompactionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${workflow.comparison.node-metric-compaction.cron:0 0 2 * * *}")
+    public void runCompaction() {
+        if (properties.isEnabled()) {
+            compact(LocalDate.now().minusDays(properties.getAfterDays()));
+        }
+    }
+
+    /**
+     * Compacts the raw metrics started before {@code cutoff} and returns the
+     * number of partitions removed.
+     */
+    public int compact(LocalDate cutoff) {
+        transactionTemplate.executeWithoutResult(status -> {
+            String legacy = PartitionedTable.EXECUTION_NODE_METRICS.getLegacyName();
+            Map<NodeMetricHistogramRepository.Key, NodeMetricHistogramRepository.Histogram> histograms =
+                    histogramRepository.fold(legacy, cutoff.atStartOfDay());
+            if (!histograms.isEmpty()) {
+                Map<NodeMetricHistogramRepository.Key, NodeMetricHistogramRepository.Histogram> members =
+                        histogramRepository.foldMembers(legacy, cutoff.atStartOfDay());
+                histogramRepository.merge(histograms);
+                histogramRepository.mergeMembers(members);
+                int deleted = histogramRepository.deleteFolded(legacy, cutoff.atStartOfDay());
+                comparisonRepository.clearAggregatesForMembersStartedBetween(
+                        LocalDate.EPOCH.atStartOfDay(), cutoff.atStartOfDay());
+                clearCompactedNodes(members);
+                log.info("Compacted {} legacy node metrics into {} histograms", deleted, histograms.size());
+            }
+        });
+
+        int removed = 0;
+        for (Partition partition : partitionRouter.partitions(PartitionedTable.EXECUTION_NODE_METRICS)) {
+            if (partition.getEnd().isAfter(cutoff)) {
+                break;
+            }
+            Boolean folded = transactionTemplate.execute(status -> compact(partition));
+            if (Boolean.TRUE.equals(folded)) {
+                partitionMaintenanceService.retire(partition);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Folds the partition once and returns whether every row in it was folded,
+     * so it can be dropped. Otherwise the folded rows are deleted and the rest
+     * kept.
+     */
+    private boolean compact(Partition partition) {
+        long unfolded = histogramRepository.countUnfolded(partition.getName());
+        if (histogramRepository.isCompacted(partition.getName())) {
+            return unfolded == 0;
+        }
+        Map<NodeMetricHistogramRepository.Key, NodeMetricHistogramRepository.Histogram> histograms =
+                histogramRepository.fold(partition.getName(), null);
+        Map<NodeMetricHistogramRepository.Key, NodeMetricHistogramRepository.Histogram> members =
+                histogramRepository.foldMembers(partition.getName(), null);
+        histogramRepository.merge(histograms);
+        histogramRepository.mergeMembers(members);
+        histogramRepository.markCompacted(partition.getName());
+        if (unfolded > 0) {
+            histogramRepository.deleteFolded(partition.getName(), null);
+            log.warn("Keeping partition {}: {} node metrics of missing executions were not compacted",
+                    partition.getName(), unfolded);
+        }
+        comparisonRepository.clearAggregatesForMembersStartedBetween(
+                partition.getStart().atStartOfDay(), partition.getEnd().atStartOfDay());
+        clearCompactedNodes(members);
+        log.info("Compacted partition {} into {} histograms", partition.getName(), histograms.size());
+        return unfolded == 0;
+    }
+
+    private void clearCompactedNodes(
+            Map<NodeMetricHistogramRepository.Key, NodeMetricHistogramRepository.Histogram> members) {
+        if (!members.isEmpty()) {
+            comparisonRepository.clearCompactedNodes(members.keySet().stream()
+                    .map(NodeMetricHistogramRepository.Key::getOwnerId)
+                    .collect(Collectors.toSet()));
+        }
+    }
+}
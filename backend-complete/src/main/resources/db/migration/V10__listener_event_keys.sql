@@ -0,0 +1,27 @@
+-- Listener batches can arrive more than once: the client retries a batch whose
+-- response it did not see and replays batches it spilled while the backend was
+-- down. A process end is written only if its engine execution id is not here yet.
+CREATE TABLE IF NOT EXISTS ab_test_listener_executions (
+    ab_test_id VARCHAR(36) NOT NULL,
+    listener_execution_id VARCHAR(255) NOT NULL,
+    execution_id VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (ab_test_id, listener_execution_id),
+    FOREIGN KEY (ab_test_id) REFERENCES ab_tests(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_ab_test_listener_executions_created
+    ON ab_test_listener_executions(created_at);
+
+-- An activity event that arrives again has the same activity, type and time.
+-- Drop the copies already written, then key the table on them.
+DELETE FROM ab_test_activity_executions a
+WHERE EXISTS (SELECT 1 FROM ab_test_activity_executions b
+              WHERE b.ab_test_id = a.ab_test_id AND b.listener_execution_id = a.listener_execution_id
+                AND b.activity_id = a.activity_id AND b.event_type = a.event_type
+                AND b.occurred_at = a.occurred_at AND b.id < a.id);
+
+DROP INDEX IF EXISTS idx_ab_test_activity_executions_execution;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_ab_test_activity_executions_event
+    ON ab_test_activity_executions(ab_test_id, listener_execution_id, activity_id, event_type, occurred_at);
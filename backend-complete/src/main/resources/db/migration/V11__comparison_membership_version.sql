@@ -0,0 +1,5 @@
+-- membership_version counts changes to a comparison's included executions.
+-- statistical_analysis_version is the membership version the stored bootstrap
+-- analysis was computed from; the analysis is stale while the two differ.
+ALTER TABLE comparison_master ADD COLUMN IF NOT EXISTS membership_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE comparison_master ADD COLUMN IF NOT EXISTS statistical_analysis_version BIGINT;
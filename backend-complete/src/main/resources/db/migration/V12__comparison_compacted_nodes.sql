@@ -0,0 +1,3 @@
+-- Compacted node histograms of the comparison's workflows over the days its
+-- members span, stored so metrics requests do not read node_metric_histograms.
+ALTER TABLE comparison_master ADD COLUMN IF NOT EXISTS compacted_nodes TEXT;
@@ -0,0 +1,12 @@
+-- Node histograms keep the sum of squared deviations from the mean rather than
+-- the raw sum of squares, whose variance (sumOfSquares / n - mean^2) cancels
+-- catastrophically and can turn negative after repeated merges.
+ALTER TABLE node_metric_histograms ALTER COLUMN time_sum_of_squares RENAME TO time_squared_deviations;
+
+UPDATE node_metric_histograms SET time_squared_deviations = CASE
+    WHEN sample_count > 0 THEN GREATEST(0, time_squared_deviations - time_sum * time_sum / sample_count)
+    ELSE 0 END;
+
+-- Compacted nodes stored next to the aggregate state carry the old field; they
+-- are reloaded from the histograms on the next read.
+UPDATE comparison_master SET compacted_nodes = NULL;
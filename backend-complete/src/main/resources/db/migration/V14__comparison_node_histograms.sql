@@ -0,0 +1,22 @@
+-- Compacted node metrics of each comparison's included members: one row per
+-- comparison, node, variant and day. node_metric_histograms keeps the per
+-- workflow totals of every compacted row; these feed comparison node aggregates.
+CREATE TABLE IF NOT EXISTS comparison_node_histograms (
+    comparison_id VARCHAR(36) NOT NULL,
+    node_id VARCHAR(255) NOT NULL,
+    variant VARCHAR(50) NOT NULL,
+    metric_day DATE NOT NULL,
+    node_name VARCHAR(255) NOT NULL,
+    sample_count BIGINT NOT NULL,
+    error_count BIGINT NOT NULL,
+    time_sum DOUBLE NOT NULL,
+    time_squared_deviations DOUBLE NOT NULL,
+    latency_sketch TEXT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (comparison_id, variant, metric_day, node_id),
+    FOREIGN KEY (comparison_id) REFERENCES comparison_master(id) ON DELETE CASCADE
+);
+
+-- Compacted nodes stored so far came from the workflow histograms and counted
+-- other comparisons' executions; they are reloaded from the new table.
+UPDATE comparison_master SET compacted_nodes = NULL;
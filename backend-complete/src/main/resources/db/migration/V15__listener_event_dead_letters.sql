@@ -0,0 +1,33 @@
+-- Accepted listener events and execute results whose batch still failed after
+-- the pipeline's retries, one row per event, kept until they are replayed
+-- through the pipeline. kind is EXECUTION or ACTIVITY; the columns of the other
+-- kind are null.
+CREATE TABLE IF NOT EXISTS listener_event_dead_letters (
+    id VARCHAR(36) PRIMARY KEY,
+    kind VARCHAR(16) NOT NULL,
+    ab_test_id VARCHAR(36) NOT NULL,
+    arm_id VARCHAR(36) NOT NULL,
+    listener_execution_id VARCHAR(255),
+    execution_id VARCHAR(36),
+    status VARCHAR(50),
+    execution_time_ms BIGINT,
+    request_payload TEXT,
+    response_payload TEXT,
+    error_message TEXT,
+    user_id VARCHAR(255),
+    session_id VARCHAR(255),
+    metadata TEXT,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    activity_id VARCHAR(255),
+    activity_name VARCHAR(255),
+    event_type VARCHAR(50),
+    duration_ms BIGINT,
+    occurred_at TIMESTAMP,
+    failure TEXT,
+    parked_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (ab_test_id) REFERENCES ab_tests(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_listener_event_dead_letters_parked
+    ON listener_event_dead_letters(parked_at);
@@ -61,12 +61,20 @@ CREATE TABLE IF NOT EXISTS ab_test_executions (
 );
 
 -- Champion vs Challenge Tables
-CREATE TABLE IF NOT EXISTS champion_challenge_executions (
-    id VARCHAR(36) PRIMARY KEY,
+CREATE TABLE IF NOT EXISTS champion_challenge_comparisons (
+    id UUID PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description TEXT,
     champion_workflow_id VARCHAR(255) NOT NULL,
     challenge_workflow_id VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS champion_challenge_executions (
+    id VARCHAR(36) PRIMARY KEY,
+    comparison_id UUID NOT NULL,
     request_payload TEXT,
     status VARCHAR(50) DEFAULT 'PENDING',
     started_at TIMESTAMP,
@@ -75,7 +83,8 @@ CREATE TABLE IF NOT EXISTS champion_challenge_executions (
     created_by VARCHAR(255) NOT NULL,
     total_champion_time_ms BIGINT DEFAULT 0,
     total_challenge_time_ms BIGINT DEFAULT 0,
-    winner VARCHAR(50)
+    winner VARCHAR(50),
+    FOREIGN KEY (comparison_id) REFERENCES champion_challenge_comparisons(id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS execution_node_metrics (
@@ -115,6 +124,41 @@ CREATE TABLE IF NOT EXISTS execution_comparisons (
     FOREIGN KEY (execution_id) REFERENCES champion_challenge_executions(id) ON DELETE CASCADE
 );
 
+-- Comparison Master Tables
+CREATE TABLE IF NOT EXISTS comparison_master (
+    id VARCHAR(36) PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    workflow_pair VARCHAR(511) NOT NULL,
+    champion_workflow_id VARCHAR(255) NOT NULL,
+    challenge_workflow_id VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+    total_executions INT DEFAULT 0,
+    included_executions INT DEFAULT 0,
+    outlier_count INT DEFAULT 0,
+    aggregate_metrics TEXT,
+    statistical_analysis TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS execution_comparison_mapping (
+    id VARCHAR(36) PRIMARY KEY,
+    comparison_id VARCHAR(36) NOT NULL,
+    execution_id VARCHAR(36) NOT NULL,
+    included BOOLEAN NOT NULL DEFAULT TRUE,
+    outlier_flag BOOLEAN DEFAULT FALSE,
+    outlier_reason VARCHAR(255),
+    outlier_score DOUBLE,
+    execution_order INT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (comparison_id) REFERENCES comparison_master(id) ON DELETE CASCADE,
+    FOREIGN KEY (execution_id) REFERENCES champion_challenge_executions(id) ON DELETE CASCADE,
+    UNIQUE (comparison_id, execution_id)
+);
+
 -- Indexes
 CREATE INDEX IF NOT EXISTS idx_ab_tests_status ON ab_tests(status);
 CREATE INDEX IF NOT EXISTS idx_ab_test_arms_test_id ON ab_test_arms(ab_test_id);
@@ -123,3 +167,7 @@ CREATE INDEX IF NOT EXISTS idx_cc_executions_status ON champion_challenge_execut
 CREATE INDEX IF NOT EXISTS idx_node_metrics_execution_id ON execution_node_metrics(execution_id);
 CREATE INDEX IF NOT EXISTS idx_node_metrics_sequence ON execution_node_metrics(execution_id, sequence);
 CREATE INDEX IF NOT EXISTS idx_comparisons_execution_id ON execution_comparisons(execution_id);
+CREATE INDEX IF NOT EXISTS idx_cc_executions_comparison_status ON champion_challenge_executions(comparison_id, status, started_at);
+CREATE INDEX IF NOT EXISTS idx_comparison_master_created_at ON comparison_master(created_at);
+CREATE INDEX IF NOT EXISTS idx_execution_mapping_execution ON execution_comparison_mapping(execution_id);
+CREATE INDEX IF NOT EXISTS idx_execution_mapping_included ON execution_comparison_mapping(comparison_id, included, execution_id);
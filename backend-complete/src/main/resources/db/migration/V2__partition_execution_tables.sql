@@ -0,0 +1,10 @@
+-- Execution history moves to time-partitioned tables (see PartitionRouter).
+-- Rows written so far stay in a *_legacy table that retention never drops;
+-- the original names become views that the router redefines over the legacy
+-- table and every period partition.
+
+ALTER TABLE ab_test_executions RENAME TO ab_test_executions_legacy;
+CREATE VIEW ab_test_executions AS SELECT * FROM ab_test_executions_legacy;
+
+ALTER TABLE execution_node_metrics RENAME TO execution_node_metrics_legacy;
+CREATE VIEW execution_node_metrics AS SELECT * FROM execution_node_metrics_legacy;
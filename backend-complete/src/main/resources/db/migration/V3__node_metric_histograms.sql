@@ -0,0 +1,34 @@
+-- Per-execution error flags, so reliability metrics no longer depend on raw node
+-- metric rows that compaction removes.
+ALTER TABLE champion_challenge_executions ADD COLUMN IF NOT EXISTS champion_error BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE champion_challenge_executions ADD COLUMN IF NOT EXISTS challenge_error BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE champion_challenge_executions e SET
+    champion_error = EXISTS (SELECT 1 FROM execution_node_metrics m
+                             WHERE m.execution_id = e.id AND m.variant = 'CHAMPION' AND m.status = 'ERROR'),
+    challenge_error = EXISTS (SELECT 1 FROM execution_node_metrics m
+                              WHERE m.execution_id = e.id AND m.variant = 'CHALLENGE' AND m.status = 'ERROR');
+
+-- Compacted node metrics: one row per workflow, node, variant and day.
+-- latency_sketch holds a serialized LatencySketch.
+CREATE TABLE IF NOT EXISTS node_metric_histograms (
+    workflow_id VARCHAR(255) NOT NULL,
+    node_id VARCHAR(255) NOT NULL,
+    variant VARCHAR(50) NOT NULL,
+    metric_day DATE NOT NULL,
+    node_name VARCHAR(255) NOT NULL,
+    sample_count BIGINT NOT NULL,
+    error_count BIGINT NOT NULL,
+    time_sum DOUBLE NOT NULL,
+    time_sum_of_squares DOUBLE NOT NULL,
+    latency_sketch TEXT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (workflow_id, variant, metric_day, node_id)
+);
+
+-- Node metric partitions already folded into histograms, so a partition whose
+-- drop failed is not folded twice.
+CREATE TABLE IF NOT EXISTS node_metric_compactions (
+    partition_name VARCHAR(255) PRIMARY KEY,
+    compacted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,25 @@
+-- Composite indexes for the repository queries checked by QueryPlanVerifier.
+-- Period partitions of ab_test_executions get the same indexes from PartitionedTable.
+
+-- countByTestArmStatus / findByAbTestIdAndArmId; replaces the ab_test_id index it prefixes.
+CREATE INDEX IF NOT EXISTS idx_ab_test_executions_legacy_test_arm_status
+    ON ab_test_executions_legacy(ab_test_id, arm_id, status);
+DROP INDEX IF EXISTS idx_ab_test_executions_test_id;
+
+-- getExecutionTimesForPercentile reads the times from the index alone.
+CREATE INDEX IF NOT EXISTS idx_ab_test_executions_legacy_test_arm_time
+    ON ab_test_executions_legacy(ab_test_id, arm_id, execution_time_ms);
+
+-- Auto-attach looks comparisons up by workflow pair before their executions.
+CREATE INDEX IF NOT EXISTS idx_cc_comparisons_workflow_pair
+    ON champion_challenge_comparisons(champion_workflow_id, challenge_workflow_id);
+
+-- Aggregate invalidation after compaction selects executions by start time.
+CREATE INDEX IF NOT EXISTS idx_cc_executions_started_at ON champion_challenge_executions(started_at);
+
+CREATE INDEX IF NOT EXISTS idx_comparison_master_status ON comparison_master(status);
+CREATE INDEX IF NOT EXISTS idx_comparison_master_workflow_pair
+    ON comparison_master(champion_workflow_id, challenge_workflow_id);
+
+CREATE INDEX IF NOT EXISTS idx_execution_mapping_outlier
+    ON execution_comparison_mapping(comparison_id, outlier_flag, execution_id);
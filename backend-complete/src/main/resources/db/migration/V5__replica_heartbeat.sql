@@ -0,0 +1,8 @@
+-- Written on the primary by ReplicaLagMonitor and read back from the read pool;
+-- the difference is the replica's lag. beat_millis is application epoch time.
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INT PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
+INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, 0);
@@ -0,0 +1,11 @@
+-- Results of execute calls made with an Idempotency-Key header, written in the
+-- same transaction as the execution they describe. A retry with the same key
+-- before expires_at gets response_body back instead of running again.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(300) PRIMARY KEY,
+    response_body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
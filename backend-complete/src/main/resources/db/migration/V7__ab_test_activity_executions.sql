@@ -0,0 +1,21 @@
+-- Activity (task) events reported by generated BPMN listeners through the batched
+-- event endpoint. listener_execution_id is the engine's execution id, also kept in
+-- the metadata of the ab_test_executions row written for the process end.
+CREATE TABLE IF NOT EXISTS ab_test_activity_executions (
+    id VARCHAR(36) PRIMARY KEY,
+    ab_test_id VARCHAR(36) NOT NULL,
+    arm_id VARCHAR(36) NOT NULL,
+    listener_execution_id VARCHAR(255) NOT NULL,
+    activity_id VARCHAR(255) NOT NULL,
+    activity_name VARCHAR(255),
+    event_type VARCHAR(20) NOT NULL,
+    status VARCHAR(50),
+    duration_ms BIGINT,
+    occurred_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (ab_test_id) REFERENCES ab_tests(id) ON DELETE CASCADE,
+    FOREIGN KEY (arm_id) REFERENCES ab_test_arms(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_ab_test_activity_executions_execution
+    ON ab_test_activity_executions(ab_test_id, listener_execution_id);
@@ -0,0 +1,24 @@
+-- Latency SLA per A/B test arm. Arms without a threshold use
+-- workflow.sla.default-threshold-ms.
+ALTER TABLE ab_test_arms ADD COLUMN IF NOT EXISTS sla_threshold_ms BIGINT;
+
+-- Periodic snapshots of each active arm's sliding-window SLA compliance, written
+-- by the in-memory SLA engine. Each row covers the window_seconds before
+-- recorded_at; an execution is a breach if it failed or took longer than
+-- sla_threshold_ms.
+CREATE TABLE IF NOT EXISTS sla_tracking (
+    id VARCHAR(36) PRIMARY KEY,
+    ab_test_id VARCHAR(36) NOT NULL,
+    arm_id VARCHAR(36) NOT NULL,
+    sla_threshold_ms BIGINT NOT NULL,
+    window_seconds INT NOT NULL,
+    execution_count BIGINT NOT NULL,
+    breach_count BIGINT NOT NULL,
+    compliance_rate DECIMAL(5,4),
+    avg_response_time_ms DECIMAL(12,2),
+    recorded_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (ab_test_id) REFERENCES ab_tests(id) ON DELETE CASCADE,
+    FOREIGN KEY (arm_id) REFERENCES ab_test_arms(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_sla_tracking_test_recorded ON sla_tracking(ab_test_id, recorded_at);
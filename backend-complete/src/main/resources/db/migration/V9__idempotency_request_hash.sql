@@ -0,0 +1,4 @@
+-- Fingerprint of the request an Idempotency-Key was first used with, so a retry
+-- that reuses the key with a different body is rejected instead of being given
+-- another request's result. NULL for keys recorded before the column existed.
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
@@ -0,0 +1,60 @@
+package com.wellsfargo.workflow;
+
+import org.flywaydb.core.Flyway;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Settings shared by the benchmarks, which run with {@code -Pbenchmark}. Sizes
+ * default to the ones the benchmark is about and can be overridden with
+ * {@code -Dbenchmark.<name>=<n>}.
+ */
+public final class BenchmarkDatabase {
+
+    private static final Path DIRECTORY = Path.of("target", "benchmark");
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * URL of a file-backed database under {@code target/benchmark}, for data that
+     * does not fit the test heap. The previous run's file is deleted first.
+     */
+    public static String fileUrl(String name) {
+        return "jdbc:h2:file:" + filePath(name) + ";DB_CLOSE_ON_EXIT=FALSE";
+    }
+
+    /**
+     * Path, without extension, of a database file under {@code target/benchmark},
+     * after deleting the previous run's file.
+     */
+    public static String filePath(String name) {
+        try {
+            Files.createDirectories(DIRECTORY);
+            Files.deleteIfExists(DIRECTORY.resolve(name + ".mv.db"));
+            Files.deleteIfExists(DIRECTORY.resolve(name + ".trace.db"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return DIRECTORY.toAbsolutePath().resolve(name).toString();
+    }
+
+    /**
+     * Applies the application's migrations, for benchmarks that work on the
+     * schema without starting the application.
+     */
+    public static void migrate(String url) {
+        Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration").load().migrate();
+    }
+
+    public static int size(String name, int defaultSize) {
+        return Integer.getInteger("benchmark." + name, defaultSize);
+    }
+
+    public static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
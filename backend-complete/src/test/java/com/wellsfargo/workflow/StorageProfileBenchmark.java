@@ -0,0 +1,152 @@
+package com.wellsfargo.workflow;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.PropertyPlaceholderHelper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts 10M executions into the default in-memory database and into a file
+ * database opened with the {@code durable} profile's settings, then times
+ * analytic queries over one comparison's share of them. The in-memory run needs
+ * a heap large enough for the whole table; reduce {@code benchmark.executions}
+ * otherwise.
+ */
+@Tag("benchmark")
+class StorageProfileBenchmark {
+
+    private static final int COMPARISONS = 10;
+    private static final int BATCH_ROWS = 1000;
+    private static final int ROUNDS = 3;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO champion_challenge_executions (id, comparison_id, status, started_at, completed_at, created_by,
+                                                       total_champion_time_ms, total_challenge_time_ms, winner)
+            VALUES (?, ?, ?, ?, ?, 'benchmark', ?, ?, ?)
+            """;
+
+    private static final String HOURLY_WINDOWS_SQL = """
+            SELECT DATEDIFF('HOUR', TIMESTAMP '2000-01-01 00:00:00', started_at) AS hour_bucket, COUNT(*),
+                   AVG(CAST(total_champion_time_ms AS DOUBLE)), AVG(CAST(total_challenge_time_ms AS DOUBLE))
+            FROM champion_challenge_executions
+            WHERE comparison_id = ? AND status = 'COMPLETED'
+            GROUP BY hour_bucket
+            """;
+
+    private static final String WINNERS_SQL = """
+            SELECT winner, COUNT(*) FROM champion_challenge_executions
+            WHERE comparison_id = ? AND status = 'COMPLETED'
+            GROUP BY winner
+            """;
+
+    @Test
+    void compareStorageModes() throws SQLException {
+        int executions = BenchmarkDatabase.size("executions", 10_000_000);
+        run("in-memory", "jdbc:h2:mem:storage-benchmark;DB_CLOSE_DELAY=-1", executions);
+        run("file-backed", durableUrl(), executions);
+    }
+
+    private void run(String mode, String url, int executions) throws SQLException {
+        BenchmarkDatabase.migrate(url);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            UUID[] comparisonIds = new UUID[COMPARISONS];
+            for (int i = 0; i < COMPARISONS; i++) {
+                comparisonIds[i] = UUID.randomUUID();
+                statement.execute("INSERT INTO champion_challenge_comparisons (id, name, champion_workflow_id, "
+                        + "challenge_workflow_id, created_by) VALUES ('" + comparisonIds[i]
+                        + "', 'storage', 'champion', 'challenge', 'benchmark')");
+            }
+
+            long inserting = System.nanoTime();
+            insert(connection, comparisonIds, executions);
+            long insertMillis = Math.max(1, BenchmarkDatabase.millisSince(inserting));
+            System.out.printf("%s: inserted %d executions in %d ms (%d rows/s)%n",
+                    mode, executions, insertMillis, executions * 1000L / insertMillis);
+
+            for (int round = 1; round <= ROUNDS; round++) {
+                long started = System.nanoTime();
+                long windowed = count(connection, HOURLY_WINDOWS_SQL, comparisonIds[round % COMPARISONS], 2);
+                long windowsDone = System.nanoTime();
+                long won = count(connection, WINNERS_SQL, comparisonIds[round % COMPARISONS], 2);
+                System.out.printf("%s round %d: hourly windows over %d executions %d ms, winners %d ms%n",
+                        mode, round, windowed, (windowsDone - started) / 1_000_000,
+                        BenchmarkDatabase.millisSince(windowsDone));
+                assertThat(won).isEqualTo(windowed);
+            }
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    private static void insert(Connection connection, UUID[] comparisonIds, int executions) throws SQLException {
+        Random random = new Random(1);
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        long spanSeconds = 30L * 86_400;
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < executions; i++) {
+                Timestamp startedAt = Timestamp.valueOf(start.plusSeconds(spanSeconds * i / executions));
+                long championTime = 100 + random.nextInt(3000);
+                long challengeTime = 100 + random.nextInt(3000);
+                insert.setString(1, UUID.randomUUID().toString());
+                insert.setObject(2, comparisonIds[i % COMPARISONS]);
+                insert.setString(3, random.nextInt(50) == 0 ? "FAILED" : "COMPLETED");
+                insert.setTimestamp(4, startedAt);
+                insert.setTimestamp(5, startedAt);
+                insert.setLong(6, championTime);
+                insert.setLong(7, challengeTime);
+                insert.setString(8, championTime <= challengeTime ? "CHAMPION" : "CHALLENGE");
+                insert.addBatch();
+                if (i % BATCH_ROWS == BATCH_ROWS - 1 || i == executions - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        connection.setAutoCommit(true);
+    }
+
+    /**
+     * Sums the given count column over the query's rows.
+     */
+    private static long count(Connection connection, String sql, UUID comparisonId, int column) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            query.setObject(1, comparisonId);
+            long total = 0;
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    total += rs.getLong(column);
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * The {@code durable} profile's URL with the file under {@code target/benchmark}.
+     */
+    private static String durableUrl() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application-durable.yml"));
+        Properties properties = yaml.getObject();
+        Map<String, String> values = Map.of("workflow.storage.path", BenchmarkDatabase.filePath("storage"));
+        return new PropertyPlaceholderHelper("${", "}", ":", true)
+                .replacePlaceholders(properties.getProperty("spring.datasource.url"), values::get);
+    }
+}
@@ -0,0 +1,131 @@
+package com.wellsfargo.workflow.abtest.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.wellsfargo.workflow.BenchmarkDatabase;
+import com.wellsfargo.workflow.abtest.dto.ABTestExecutionExportRow;
+import com.wellsfargo.workflow.common.export.ExportJobProperties;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes 1M A/B test executions as an Arrow IPC file, in batches of the export
+ * job's default size, and as CSV the way the logs export writes it: once with
+ * all of its columns and once with only the columns the Arrow file holds.
+ * Reports throughput and file size.
+ */
+@Tag("benchmark")
+class ArrowExportBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final Path DIRECTORY = Path.of("target", "benchmark");
+    private static final List<String> ARM_IDS = List.of(
+            "01a151c0-f351-7000-b3be-000000000001", "01a151c0-f351-7000-b3be-000000000002");
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    @Test
+    void compareWithCsv() throws IOException {
+        int rows = BenchmarkDatabase.size("rows", 1_000_000);
+        Files.createDirectories(DIRECTORY);
+        CsvSchema allColumns = csvMapper.schemaFor(ABTestExecutionExportRow.class).withHeader();
+        CsvSchema.Builder arrowColumns = CsvSchema.builder().setUseHeader(true);
+        for (CsvSchema.Column column : allColumns) {
+            if (!Set.of("abTestId", "requestPayload").contains(column.getName())) {
+                arrowColumns.addColumn(column.getName());
+            }
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d, %d executions%n", round, rows);
+            time("csv, all columns", DIRECTORY.resolve("executions.csv"), rows,
+                    out -> writeCsv(allColumns, rows, out));
+            time("csv, arrow columns", DIRECTORY.resolve("executions-narrow.csv"), rows,
+                    out -> writeCsv(arrowColumns.build(), rows, out));
+            time("arrow", DIRECTORY.resolve("executions.arrow"), rows,
+                    out -> new ABTestExecutionArrowWriter("benchmark", ARM_IDS, new ExportJobProperties().getBatchRows())
+                            .write(rows(rows), out, written -> {
+                            }));
+        }
+
+        try (RootAllocator allocator = new RootAllocator();
+             ArrowFileReader reader = new ArrowFileReader(
+                     Files.newByteChannel(DIRECTORY.resolve("executions.arrow")), allocator)) {
+            long read = 0;
+            while (reader.loadNextBatch()) {
+                read += reader.getVectorSchemaRoot().getRowCount();
+            }
+            assertThat(read).isEqualTo(rows);
+        }
+    }
+
+    private void writeCsv(CsvSchema schema, int rows, OutputStream out) throws IOException {
+        try (SequenceWriter sequence = csvMapper.writerFor(ABTestExecutionExportRow.class)
+                .with(schema)
+                .with(JsonGenerator.Feature.IGNORE_UNKNOWN)
+                .writeValues(out)) {
+            for (Iterator<ABTestExecutionExportRow> it = rows(rows); it.hasNext(); ) {
+                sequence.write(it.next());
+            }
+        }
+    }
+
+    private static void time(String format, Path file, int rows, Export export) throws IOException {
+        long started = System.nanoTime();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES)) {
+            export.writeTo(out);
+        }
+        long millis = Math.max(1, BenchmarkDatabase.millisSince(started));
+        System.out.printf("  %-18s %6d ms, %8d rows/s, %6.1f MB%n", format, millis, rows * 1000L / millis,
+                Files.size(file) / 1048576.0);
+    }
+
+    /**
+     * Executions of two arms, one in twenty failed, as the logs export reads them.
+     */
+    private static Iterator<ABTestExecutionExportRow> rows(int count) {
+        Random random = new Random(1);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        Stream<ABTestExecutionExportRow> rows = IntStream.range(0, count).mapToObj(i -> {
+            LocalDateTime startedAt = start.plusNanos(i * 7_000_123L);
+            long millis = 50 + random.nextInt(900);
+            boolean failed = random.nextInt(20) == 0;
+            return new ABTestExecutionExportRow(String.format("01a151c0-%04x-7000-8000-%012x", i >>> 16, i),
+                    "benchmark", ARM_IDS.get(random.nextInt(ARM_IDS.size())), failed ? "ERROR" : "SUCCESS", millis,
+                    failed ? "Simulated workflow failure" : null, "user-" + random.nextInt(5000), null,
+                    "{\"amount\":" + random.nextInt(10_000) + "}", startedAt, startedAt.plusNanos(millis * 1_000_000));
+        });
+        return rows.iterator();
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
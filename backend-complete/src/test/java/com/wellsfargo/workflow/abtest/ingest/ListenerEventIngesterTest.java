@@ -0,0 +1,58 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.abtest.dto.ListenerEventIngestResponse;
+import com.wellsfargo.workflow.abtest.entity.ABTestArmEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestArmRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ListenerEventIngesterTest {
+
+    private final ABTestArmRepository armRepository = mock(ABTestArmRepository.class);
+    private ListenerEventRing ring;
+    private ListenerEventIngester ingester;
+
+    @BeforeEach
+    void setUp() {
+        ABTestArmEntity arm = new ABTestArmEntity();
+        arm.setId("arm");
+        arm.setName("A");
+        when(armRepository.findByAbTestId("test")).thenReturn(List.of(arm));
+        ListenerIngestProperties properties = new ListenerIngestProperties();
+        properties.setRingSize(64);
+        ring = new ListenerEventRing(properties);
+        ingester = new ListenerEventIngester(new ObjectMapper(), armRepository, ring);
+    }
+
+    @Test
+    void eventsWithoutATimestampOrDurationAreInvalidRatherThanFilledIn() throws IOException {
+        ListenerEventIngestResponse response = ingest("""
+                {"event":"process_end","testId":"test","executionId":"e1","armId":"arm","duration":5}
+                {"event":"task_complete","testId":"test","executionId":"e1","armId":"arm","activityId":"t"}
+                {"event":"process_end","testId":"test","executionId":"e2","armId":"arm","timestamp":"2024-03-01T10:00:00Z"}
+                {"event":"process_end","testId":"test","executionId":"e3","armId":"arm","duration":5,"timestamp":"2024-03-01T10:00:00Z"}
+                {"event":"process_end","testId":"other","executionId":"e4","armId":"arm","duration":5,"timestamp":"2024-03-01T10:00:00Z"}
+                """);
+
+        assertThat(response.getReceived()).isEqualTo(5);
+        assertThat(response.getExecutionsAccepted()).isEqualTo(1);
+        assertThat(response.getInvalid()).isEqualTo(3);
+        assertThat(response.getSkipped()).isEqualTo(1);
+        assertThat(ring.buffer().getCursor()).isEqualTo(0);
+        assertThat(ring.buffer().get(0).toExecution().getExecutionTimeMs()).isEqualTo(5);
+    }
+
+    private ListenerEventIngestResponse ingest(String ndjson) throws IOException {
+        return ingester.ingest(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+}
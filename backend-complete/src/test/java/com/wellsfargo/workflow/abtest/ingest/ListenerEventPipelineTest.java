@@ -0,0 +1,105 @@
+package com.wellsfargo.workflow.abtest.ingest;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository;
+import com.wellsfargo.workflow.abtest.repository.ABTestExecutionRepository;
+import com.wellsfargo.workflow.abtest.repository.ListenerDeadLetterRepository;
+import com.wellsfargo.workflow.abtest.repository.ListenerExecutionKeyRepository;
+import com.wellsfargo.workflow.abtest.service.ABTestLiveFeed;
+import com.wellsfargo.workflow.abtest.service.ABTestService;
+import com.wellsfargo.workflow.abtest.sla.SlaEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class ListenerEventPipelineTest {
+
+    private final ABTestExecutionRepository executionRepository = mock(ABTestExecutionRepository.class);
+    private final ListenerDeadLetterRepository deadLetterRepository = mock(ListenerDeadLetterRepository.class);
+    private ListenerEventRing ring;
+    private ListenerEventPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        ListenerIngestProperties properties = new ListenerIngestProperties();
+        properties.setRingSize(64);
+        properties.setWriteAttempts(3);
+        properties.setRetryBackoffMs(1);
+        ring = new ListenerEventRing(properties);
+        pipeline = new ListenerEventPipeline(properties, ring, executionRepository,
+                mock(ListenerExecutionKeyRepository.class), mock(ABTestActivityExecutionRepository.class),
+                deadLetterRepository, mock(ABTestService.class), mock(ABTestLiveFeed.class), mock(SlaEngine.class),
+                mock(PlatformTransactionManager.class));
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void aFailedBatchIsRetriedUntilWritten() throws InterruptedException {
+        doThrow(new TransientDataAccessResourceException("down"))
+                .doThrow(new TransientDataAccessResourceException("down"))
+                .doNothing()
+                .when(executionRepository).appendAll(anyList());
+
+        ring.publishExecutionAfterCommit(execution());
+
+        await(() -> pipeline.getStatistics().getExecutionsWritten() == 1);
+        assertThat(pipeline.getStatistics().getWriteFailures()).isEqualTo(2);
+        assertThat(pipeline.getStatistics().getEventsParked()).isZero();
+    }
+
+    @Test
+    void aBatchThatKeepsFailingIsParkedRatherThanDropped() throws InterruptedException {
+        doThrow(new TransientDataAccessResourceException("down")).when(executionRepository).appendAll(anyList());
+        List<ABTestExecutionEntity> parked = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> parked.addAll(invocation.getArgument(0)))
+                .when(deadLetterRepository).park(anyList(), anyList(), anyList(), anyString());
+        ABTestExecutionEntity execution = execution();
+
+        ring.publishExecutionAfterCommit(execution);
+
+        await(() -> pipeline.getStatistics().getEventsParked() == 1);
+        assertThat(pipeline.getStatistics().getWriteFailures()).isEqualTo(3);
+        assertThat(parked).containsExactly(execution);
+    }
+
+    private static ABTestExecutionEntity execution() {
+        ABTestExecutionEntity execution = new ABTestExecutionEntity();
+        execution.setId("x1");
+        execution.setAbTestId("test");
+        execution.setArmId("arm");
+        execution.setStatus(ABTestExecutionEntity.ExecutionStatus.SUCCESS);
+        execution.setExecutionTimeMs(100L);
+        execution.setStartedAt(LocalDateTime.of(2024, 3, 1, 10, 0));
+        execution.setCompletedAt(LocalDateTime.of(2024, 3, 1, 10, 0, 0, 100_000_000));
+        return execution;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
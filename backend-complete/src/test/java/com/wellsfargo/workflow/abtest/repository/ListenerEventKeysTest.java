@@ -0,0 +1,118 @@
+package com.wellsfargo.workflow.abtest.repository;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository.ActivityRow;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListenerEventKeysTest {
+
+    private static final LocalDateTime OCCURRED_AT = LocalDateTime.of(2024, 3, 1, 10, 15);
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ListenerExecutionKeyRepository keyRepository;
+    private ABTestActivityExecutionRepository activityRepository;
+    private ListenerDeadLetterRepository deadLetterRepository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:listener-keys-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.getJdbcTemplate().update("""
+                INSERT INTO ab_tests (id, name, workflow_id, status, created_by)
+                VALUES ('test', 'Test', 'wf', 'RUNNING', 'me')
+                """);
+        jdbcTemplate.getJdbcTemplate().update("""
+                INSERT INTO ab_test_arms (id, ab_test_id, name, bpmn_file_path, traffic_percentage)
+                VALUES ('arm', 'test', 'A', 'a.bpmn', 100)
+                """);
+        keyRepository = new ListenerExecutionKeyRepository(jdbcTemplate);
+        activityRepository = new ABTestActivityExecutionRepository(jdbcTemplate);
+        deadLetterRepository = new ListenerDeadLetterRepository(jdbcTemplate);
+    }
+
+    @Test
+    void processEndIsClaimedOnceAcrossAndWithinBatches() {
+        boolean[] first = keyRepository.claim(List.of(execution(), execution()), List.of("e1", "e2"));
+        boolean[] retried = keyRepository.claim(List.of(execution(), execution(), execution()),
+                List.of("e2", "e3", "e3"));
+
+        assertThat(first).containsExactly(true, true);
+        assertThat(retried).containsExactly(false, true, false);
+        assertThat(count("ab_test_listener_executions")).isEqualTo(3);
+    }
+
+    @Test
+    void expiredKeysAreDeleted() {
+        keyRepository.claim(List.of(execution()), List.of("e1"));
+
+        assertThat(keyRepository.deleteBefore(LocalDateTime.now().minusHours(1))).isZero();
+        assertThat(keyRepository.deleteBefore(LocalDateTime.now().plusSeconds(1))).isEqualTo(1);
+        assertThat(keyRepository.claim(List.of(execution()), List.of("e1"))).containsExactly(true);
+    }
+
+    @Test
+    void repeatedActivityEventsAreWrittenOnce() {
+        ActivityRow completed = activity("task", "COMPLETE", OCCURRED_AT);
+
+        int first = activityRepository.appendAll(List.of(activity("task", "CREATE", OCCURRED_AT), completed));
+        int replayed = activityRepository.appendAll(List.of(completed, completed,
+                activity("task", "COMPLETE", OCCURRED_AT.plusSeconds(5))));
+
+        assertThat(first).isEqualTo(2);
+        assertThat(replayed).isEqualTo(1);
+        assertThat(count("ab_test_activity_executions")).isEqualTo(3);
+    }
+
+    @Test
+    void parkedEventsAreReadBackAsTheyWere() {
+        ABTestExecutionEntity execution = execution();
+        execution.setId("x1");
+        execution.setStatus(ABTestExecutionEntity.ExecutionStatus.ERROR);
+        execution.setExecutionTimeMs(250L);
+        execution.setErrorMessage("boom");
+        execution.setStartedAt(OCCURRED_AT);
+        execution.setCompletedAt(OCCURRED_AT.plusNanos(250_000_000));
+        ActivityRow activity = new ActivityRow("test", "arm", "e1", "task", "Task", "START", null, null, OCCURRED_AT);
+
+        deadLetterRepository.park(List.of(execution), Collections.singletonList(null), List.of(activity),
+                "database unavailable");
+        List<ListenerDeadLetterRepository.Parked> parked = deadLetterRepository.findOldest(10);
+
+        assertThat(parked).hasSize(2);
+        assertThat(parked).extracting(ListenerDeadLetterRepository.Parked::getExecution)
+                .containsOnlyOnce(execution);
+        assertThat(parked).extracting(ListenerDeadLetterRepository.Parked::getActivity)
+                .containsOnlyOnce(activity);
+        assertThat(deadLetterRepository.delete(parked.stream().map(ListenerDeadLetterRepository.Parked::getId)
+                .toList())).isEqualTo(2);
+        assertThat(deadLetterRepository.count()).isZero();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static ABTestExecutionEntity execution() {
+        ABTestExecutionEntity execution = new ABTestExecutionEntity();
+        execution.setAbTestId("test");
+        execution.setArmId("arm");
+        return execution;
+    }
+
+    private static ActivityRow activity(String activityId, String eventType, LocalDateTime occurredAt) {
+        return new ActivityRow("test", "arm", "e1", activityId, "Task", eventType, "SUCCESS", 10L, occurredAt);
+    }
+}
@@ -0,0 +1,121 @@
+package com.wellsfargo.workflow.abtest.sla;
+
+import com.wellsfargo.workflow.abtest.dto.SlaComplianceResponse;
+import com.wellsfargo.workflow.abtest.entity.ABTestArmEntity;
+import com.wellsfargo.workflow.abtest.entity.ABTestEntity;
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestArmRepository;
+import com.wellsfargo.workflow.abtest.repository.ABTestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlaEngineTest {
+
+    private final ABTestRepository abTestRepository = mock(ABTestRepository.class);
+    private final ABTestArmRepository armRepository = mock(ABTestArmRepository.class);
+    private final SlaEngine engine = new SlaEngine(new SlaProperties(), abTestRepository, armRepository,
+            mock(SlaTrackingRepository.class));
+
+    private ABTestArmEntity arm;
+
+    @BeforeEach
+    void setUp() {
+        ABTestEntity abTest = new ABTestEntity();
+        abTest.setId("test");
+        arm = new ABTestArmEntity();
+        arm.setId("arm");
+        arm.setName("Arm");
+        arm.setAbTest(abTest);
+        abTest.setArms(List.of(arm));
+        when(abTestRepository.findById("test")).thenReturn(Optional.of(abTest));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void countsBreachesAgainstTheArmThreshold() {
+        when(armRepository.findById("arm")).thenReturn(Optional.of(arm));
+        arm.setSlaThresholdMs(300L);
+
+        engine.record(execution(200));
+        engine.record(execution(400));
+
+        SlaComplianceResponse.ArmCompliance compliance = engine.getCompliance("test").getArms().get(0);
+        assertThat(compliance.getThresholdMs()).isEqualTo(300);
+        assertThat(compliance.getExecutions()).isEqualTo(2);
+        assertThat(compliance.getBreaches()).isEqualTo(1);
+    }
+
+    @Test
+    void thresholdChangedWhileRecordingIsNotOverwrittenByTheOldOne() {
+        ABTestArmEntity beforeChange = new ABTestArmEntity();
+        beforeChange.setId("arm");
+        AtomicBoolean changed = new AtomicBoolean();
+        // The first lookup, made by record(), returns the old threshold only after
+        // the change has committed, as when the two calls race.
+        when(armRepository.findById("arm")).thenAnswer(invocation -> {
+            if (changed.compareAndSet(false, true)) {
+                setThresholdAndCommit(200L);
+                return Optional.of(beforeChange);
+            }
+            return Optional.of(arm);
+        });
+
+        engine.record(execution(500));
+
+        SlaComplianceResponse.ArmCompliance compliance = engine.getCompliance("test").getArms().get(0);
+        assertThat(compliance.getThresholdMs()).isEqualTo(200);
+        assertThat(compliance.getBreaches()).isEqualTo(1);
+    }
+
+    @Test
+    void settingTheThresholdStartsTheWindowAfresh() {
+        when(armRepository.findById("arm")).thenReturn(Optional.of(arm));
+        engine.record(execution(500));
+
+        setThresholdAndCommit(100L);
+        engine.record(execution(50));
+
+        SlaComplianceResponse.ArmCompliance compliance = engine.getCompliance("test").getArms().get(0);
+        assertThat(compliance.getThresholdMs()).isEqualTo(100);
+        assertThat(compliance.getExecutions()).isEqualTo(1);
+        assertThat(compliance.getBreaches()).isZero();
+    }
+
+    private void setThresholdAndCommit(Long thresholdMs) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.setThreshold("test", "arm", thresholdMs);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ABTestExecutionEntity execution(long timeMs) {
+        ABTestExecutionEntity execution = new ABTestExecutionEntity();
+        execution.setAbTestId("test");
+        execution.setArmId("arm");
+        execution.setExecutionTimeMs(timeMs);
+        execution.setStatus(ABTestExecutionEntity.ExecutionStatus.SUCCESS);
+        execution.setCompletedAt(LocalDateTime.now());
+        return execution;
+    }
+}
@@ -0,0 +1,241 @@
+package com.wellsfargo.workflow.common.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wellsfargo.workflow.BenchmarkDatabase;
+import com.wellsfargo.workflow.abtest.dto.ABTestAnalyticsResponse;
+import com.wellsfargo.workflow.abtest.dto.ExecutionResultResponse;
+import com.wellsfargo.workflow.championchallenge.dto.ExecutionResponse;
+import com.wellsfargo.workflow.championchallenge.dto.NodeMetricResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Encodes and decodes representative responses of the heavy endpoints with the
+ * JSON, CBOR and Smile mappers the application registers, and reports payload
+ * size (raw and gzipped) and the time per write and read.
+ */
+@Tag("benchmark")
+class ResponseCodecBenchmark {
+
+    private static final String[] NODES = {"StartEvent", "ServiceTask_ValidateInput", "ServiceTask_ProcessData",
+            "ServiceTask_CallApi", "Gateway_CheckCondition", "ServiceTask_HandleResult", "EndEvent"};
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 18, 0, 0);
+
+    private final Random random = new Random(1);
+
+    @Test
+    void compareEncodings() throws IOException {
+        int iterations = BenchmarkDatabase.size("iterations", 20_000);
+        WebConfig webConfig = new WebConfig();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", builder().build());
+        mappers.put("cbor", webConfig.cborHttpMessageConverter(builder()).getObjectMapper());
+        mappers.put("smile", webConfig.smileHttpMessageConverter(builder()).getObjectMapper());
+
+        ObjectMapper json = mappers.get("json");
+        Map<String, Object> responses = new LinkedHashMap<>();
+        responses.put("execution (2 x " + NODES.length + " node metrics)", execution());
+        responses.put("execution logs page (100 executions)", logsPage(100));
+        responses.put("analytics (288-point time series)", analytics(288));
+
+        for (Map.Entry<String, Object> response : responses.entrySet()) {
+            System.out.printf("%s%n", response.getKey());
+            JavaType type = response.getValue() instanceof List
+                    ? json.getTypeFactory().constructCollectionType(List.class, ExecutionResultResponse.class)
+                    : json.constructType(response.getValue().getClass());
+            int jsonSize = json.writeValueAsBytes(response.getValue()).length;
+            for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+                ObjectWriter writer = mapper.getValue().writer();
+                ObjectReader reader = mapper.getValue().readerFor(type);
+                byte[] bytes = writer.writeValueAsBytes(response.getValue());
+                assertThat((Object) reader.readValue(bytes)).isEqualTo(response.getValue());
+                assertThat(bytes.length).isLessThanOrEqualTo(jsonSize);
+
+                for (int i = 0; i < iterations; i++) {
+                    writer.writeValueAsBytes(response.getValue());
+                    reader.readValue(bytes);
+                }
+                long started = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    writer.writeValueAsBytes(response.getValue());
+                }
+                long written = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    reader.readValue(bytes);
+                }
+                long read = System.nanoTime();
+                System.out.printf("  %-5s %7d B, gzip %6d B, write %6.1f us, read %6.1f us%n", mapper.getKey(),
+                        bytes.length, gzipSize(bytes), (written - started) / 1e3 / iterations,
+                        (read - written) / 1e3 / iterations);
+            }
+        }
+    }
+
+    /**
+     * The application's builder as Spring Boot configures it: ISO dates.
+     */
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private ExecutionResponse execution() {
+        LocalDateTime startedAt = START;
+        List<NodeMetricResponse> champion = nodeMetrics("CHAMPION", startedAt);
+        List<NodeMetricResponse> challenge = nodeMetrics("CHALLENGE", startedAt);
+        return ExecutionResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .name("checkout comparison")
+                .championWorkflowId("checkout-v1")
+                .challengeWorkflowId("checkout-v2")
+                .requestPayload("{\"orderId\":\"A-10021\",\"amount\":129.95}")
+                .status("COMPLETED")
+                .startedAt(startedAt)
+                .completedAt(startedAt.plusSeconds(4))
+                .createdAt(startedAt)
+                .createdBy("system")
+                .totalChampionTimeMs(champion.stream().mapToLong(NodeMetricResponse::getExecutionTimeMs).sum())
+                .totalChallengeTimeMs(challenge.stream().mapToLong(NodeMetricResponse::getExecutionTimeMs).sum())
+                .winner("CHAMPION")
+                .championMetrics(champion)
+                .challengeMetrics(challenge)
+                .build();
+    }
+
+    private List<NodeMetricResponse> nodeMetrics(String variant, LocalDateTime startedAt) {
+        List<NodeMetricResponse> metrics = new ArrayList<>();
+        for (String node : NODES) {
+            long millis = 50 + random.nextInt(400);
+            metrics.add(NodeMetricResponse.builder()
+                    .id(UUID.randomUUID().toString())
+                    .variant(variant)
+                    .nodeId(node.toLowerCase())
+                    .nodeName(node)
+                    .nodeType(node.substring(0, node.indexOf('_') > 0 ? node.indexOf('_') : node.length()))
+                    .requestData("{\"payload\":\"test\"}")
+                    .responseData("{\"result\":\"success\"}")
+                    .executionTimeMs(millis)
+                    .status("SUCCESS")
+                    .startedAt(startedAt)
+                    .completedAt(startedAt.plusNanos(millis * 1_000_000))
+                    .build());
+            startedAt = startedAt.plusNanos(millis * 1_000_000);
+        }
+        return metrics;
+    }
+
+    private List<ExecutionResultResponse> logsPage(int size) {
+        String testId = UUID.randomUUID().toString();
+        String[] arms = {UUID.randomUUID().toString(), UUID.randomUUID().toString()};
+        List<ExecutionResultResponse> page = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            boolean failed = random.nextInt(20) == 0;
+            page.add(ExecutionResultResponse.builder()
+                    .testId(testId)
+                    .executionId(UUID.randomUUID().toString())
+                    .selectedArmId(arms[random.nextInt(arms.length)])
+                    .status(failed ? "ERROR" : "SUCCESS")
+                    .executionTimeMs(failed ? 0L : 100L + random.nextInt(300))
+                    .timestamp(START.plusSeconds(i))
+                    .errorMessage(failed ? "Simulated execution error for: checkout.bpmn" : null)
+                    .requestPayload("{}")
+                    .build());
+        }
+        return page;
+    }
+
+    /**
+     * Two arms with a day of 5-minute points, keyed by arm id as the analytics
+     * service writes them.
+     */
+    private ABTestAnalyticsResponse analytics(int points) {
+        List<ABTestAnalyticsResponse.ArmPerformance> arms = List.of(arm("A", true), arm("B", false));
+        List<ABTestAnalyticsResponse.TimeSeriesData> timeSeries = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            Map<String, Long> executions = new LinkedHashMap<>();
+            Map<String, Double> successRates = new LinkedHashMap<>();
+            Map<String, Double> latencies = new LinkedHashMap<>();
+            for (ABTestAnalyticsResponse.ArmPerformance arm : arms) {
+                executions.put(arm.getArmId(), 40L + random.nextInt(40));
+                successRates.put(arm.getArmId(), 85 + random.nextDouble() * 15);
+                latencies.put(arm.getArmId(), 200 + random.nextDouble() * 100);
+            }
+            timeSeries.add(ABTestAnalyticsResponse.TimeSeriesData.builder()
+                    .timestamp(START.plusMinutes(5L * i).toString())
+                    .executionsByArm(executions)
+                    .successRateByArm(successRates)
+                    .avgLatencyByArm(latencies)
+                    .build());
+        }
+        return ABTestAnalyticsResponse.builder()
+                .overview(ABTestAnalyticsResponse.OverviewMetrics.builder()
+                        .totalExecutions(17_280L)
+                        .totalSuccessful(16_243L)
+                        .totalFailed(1_037L)
+                        .overallSuccessRate(94.0)
+                        .avgExecutionTime(251.94)
+                        .currentWinner("B")
+                        .winnerConfidence(95.0)
+                        .isStatisticallySignificant(true)
+                        .sampleSizeReached(17_280)
+                        .sampleSizeTarget(10_000)
+                        .build())
+                .armPerformance(arms)
+                .timeSeries(timeSeries)
+                .statisticalAnalysis(ABTestAnalyticsResponse.StatisticalAnalysis.builder()
+                        .testType("Two-sample t-test")
+                        .pValue(0.03)
+                        .confidenceLevel(0.95)
+                        .isSignificant(true)
+                        .effectSize(0.5)
+                        .degreesOfFreedom(17_278)
+                        .interpretation("Significant difference detected")
+                        .recommendation("Deploy winner")
+                        .minimumDetectableEffect(0.05)
+                        .requiredSampleSize(10_000)
+                        .build())
+                .build();
+    }
+
+    private ABTestAnalyticsResponse.ArmPerformance arm(String name, boolean control) {
+        return ABTestAnalyticsResponse.ArmPerformance.builder()
+                .armId(UUID.randomUUID().toString())
+                .armName(name)
+                .isControl(control)
+                .executions(8_640L)
+                .successRate(90 + random.nextDouble() * 10)
+                .errorRate(random.nextDouble() * 10)
+                .avgExecutionTime(250 + random.nextDouble() * 20)
+                .p50Latency(270.0)
+                .p95Latency(390.0)
+                .p99Latency(399.0)
+                .improvementVsControl(control ? 0.0 : 3.5)
+                .status("Healthy")
+                .build();
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,170 @@
+package com.wellsfargo.workflow.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadWriteRoutingTest {
+
+    private static final int POOL_SIZE = 2;
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private ExecutorService readers;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        lagMonitor = new ReplicaLagMonitor(primary, replica, 1000);
+        ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource(primary, replica, lagMonitor);
+        router.afterPropertiesSet();
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(router);
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        readers = Executors.newFixedThreadPool(POOL_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readers.shutdownNow();
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyWorkGoesToTheReplicaWhileItKeepsUp() {
+        replicateHeartbeat();
+
+        String read = readOnly.execute(status -> whoami());
+        String written = readWrite.execute(status -> whoami());
+
+        assertThat(read).isEqualTo("replica");
+        assertThat(written).isEqualTo("primary");
+        assertThat(whoami()).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyWorkStaysOnThePrimaryWhileTheReplicaLags() {
+        lagMonitor.beat();
+
+        String read = readOnly.execute(status -> whoami());
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(read).isEqualTo("primary");
+    }
+
+    @Test
+    void analyticsHoldingEveryReadConnectionDoNotDelayWrites() throws Exception {
+        replicateHeartbeat();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> analytics = holdConnections(release);
+
+        long started = System.nanoTime();
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE whoami SET name = name"));
+        long writeMillis = (System.nanoTime() - started) / 1_000_000;
+
+        release.countDown();
+        for (Future<String> reader : analytics) {
+            assertThat(reader.get(5, TimeUnit.SECONDS)).isEqualTo("replica");
+        }
+        assertThat(writeMillis).isLessThan(primary.getConnectionTimeout());
+    }
+
+    @Test
+    void withoutAReplicaTheSameAnalyticsStarveWrites() throws Exception {
+        lagMonitor.beat();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> analytics = holdConnections(release);
+
+        assertThatThrownBy(() -> readWrite.executeWithoutResult(
+                status -> jdbcTemplate.update("UPDATE whoami SET name = name")))
+                .isInstanceOf(TransientDataAccessResourceException.class)
+                .hasMessageContaining("Connection is not available");
+
+        release.countDown();
+        for (Future<String> reader : analytics) {
+            assertThat(reader.get(5, TimeUnit.SECONDS)).isEqualTo("primary");
+        }
+    }
+
+    /**
+     * Starts a read-only transaction per pooled connection that keeps its
+     * connection until released.
+     */
+    private List<Future<String>> holdConnections(CountDownLatch release) throws InterruptedException {
+        CountDownLatch holding = new CountDownLatch(POOL_SIZE);
+        List<Future<String>> analytics = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            analytics.add(readers.submit(() -> readOnly.execute(status -> {
+                String name = whoami();
+                holding.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return name;
+            })));
+        }
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+        return analytics;
+    }
+
+    /**
+     * Copies the primary's heartbeat to the replica, as replication would, and
+     * lets the monitor measure it.
+     */
+    private void replicateHeartbeat() {
+        lagMonitor.beat();
+        Long beat = new JdbcTemplate(primary).queryForObject(
+                "SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+        new JdbcTemplate(replica).update("UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1", beat);
+        lagMonitor.beat();
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+    }
+
+    private String whoami() {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(POOL_SIZE);
+        dataSource.setConnectionTimeout(250);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, 0)");
+        jdbcTemplate.execute("CREATE TABLE whoami (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO whoami (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
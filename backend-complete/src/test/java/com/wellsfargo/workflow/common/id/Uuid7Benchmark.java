@@ -0,0 +1,144 @@
+package com.wellsfargo.workflow.common.id;
+
+import com.wellsfargo.workflow.BenchmarkDatabase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserts 1M rows into each of the A/B test execution and node metric tables of
+ * a file database, with random UUIDv4 ids and with {@link Uuid7} ids, and
+ * reports insert throughput and the space each table and its indexes use.
+ */
+@Tag("benchmark")
+class Uuid7Benchmark {
+
+    private static final int BATCH_ROWS = 100;
+    private static final int NODES_PER_EXECUTION = 14;
+
+    private static final String AB_TEST_EXECUTION_SQL = """
+            INSERT INTO ab_test_executions_legacy (id, ab_test_id, arm_id, execution_time_ms, status, started_at,
+                                                   completed_at)
+            VALUES (?, 'uuid-test', ?, ?, 'SUCCESS', ?, ?)
+            """;
+
+    private static final String EXECUTION_SQL = """
+            INSERT INTO champion_challenge_executions (id, comparison_id, status, started_at, created_by)
+            VALUES (?, ?, 'COMPLETED', ?, 'benchmark')
+            """;
+
+    private static final String NODE_METRIC_SQL = """
+            INSERT INTO execution_node_metrics_legacy (id, execution_id, variant, node_id, node_name, node_type,
+                                                       sequence, execution_time_ms, status, started_at, completed_at)
+            VALUES (?, ?, 'CHAMPION', ?, 'Node', 'serviceTask', ?, ?, 'SUCCESS', ?, ?)
+            """;
+
+    @Test
+    void compareRandomAndTimeOrderedIds() throws SQLException {
+        int rows = BenchmarkDatabase.size("rows", 1_000_000);
+        run("UUIDv4", () -> UUID.randomUUID().toString(), rows);
+        run("UUIDv7", Uuid7::nextString, rows);
+    }
+
+    private void run(String mode, Supplier<String> ids, int rows) throws SQLException {
+        String url = BenchmarkDatabase.fileUrl("uuid-" + mode.toLowerCase()) + ";CACHE_SIZE=65536";
+        BenchmarkDatabase.migrate(url);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            UUID comparisonId = UUID.randomUUID();
+            statement.execute("INSERT INTO ab_tests (id, name, workflow_id, status, created_by) "
+                    + "VALUES ('uuid-test', 'uuid', 'workflow', 'RUNNING', 'benchmark')");
+            statement.execute("INSERT INTO ab_test_arms (id, ab_test_id, name, bpmn_file_path, traffic_percentage, "
+                    + "is_control) VALUES ('uuid-arm', 'uuid-test', 'arm', 'arm.bpmn', 100, TRUE)");
+            statement.execute("INSERT INTO champion_challenge_comparisons (id, name, champion_workflow_id, "
+                    + "challenge_workflow_id, created_by) VALUES ('" + comparisonId
+                    + "', 'uuid', 'champion', 'challenge', 'benchmark')");
+            connection.setAutoCommit(false);
+
+            long started = System.nanoTime();
+            insertAbTestExecutions(connection, ids, rows);
+            report(connection, mode, "ab_test_executions_legacy", rows, started);
+
+            started = System.nanoTime();
+            insertNodeMetrics(connection, ids, comparisonId, rows);
+            report(connection, mode, "execution_node_metrics_legacy", rows, started);
+
+            connection.setAutoCommit(true);
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    private static void insertAbTestExecutions(Connection connection, Supplier<String> ids, int rows)
+            throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement(AB_TEST_EXECUTION_SQL)) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, ids.get());
+                insert.setString(2, "uuid-arm");
+                insert.setLong(3, i % 1000);
+                insert.setTimestamp(4, now);
+                insert.setTimestamp(5, now);
+                insert.addBatch();
+                if (i % BATCH_ROWS == BATCH_ROWS - 1 || i == rows - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Node metrics with their parent executions, as the append path writes them.
+     */
+    private static void insertNodeMetrics(Connection connection, Supplier<String> ids, UUID comparisonId, int rows)
+            throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement execution = connection.prepareStatement(EXECUTION_SQL);
+             PreparedStatement metric = connection.prepareStatement(NODE_METRIC_SQL)) {
+            String executionId = null;
+            for (int i = 0; i < rows; i++) {
+                if (i % NODES_PER_EXECUTION == 0) {
+                    executionId = ids.get();
+                    execution.setString(1, executionId);
+                    execution.setObject(2, comparisonId);
+                    execution.setTimestamp(3, now);
+                    execution.addBatch();
+                }
+                int node = i % NODES_PER_EXECUTION;
+                metric.setString(1, ids.get());
+                metric.setString(2, executionId);
+                metric.setString(3, "node-" + node);
+                metric.setInt(4, node);
+                metric.setLong(5, i % 1000);
+                metric.setTimestamp(6, now);
+                metric.setTimestamp(7, now);
+                metric.addBatch();
+                if (i % BATCH_ROWS == BATCH_ROWS - 1 || i == rows - 1) {
+                    execution.executeBatch();
+                    metric.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    private static void report(Connection connection, String mode, String table, int rows, long startedNanos)
+            throws SQLException {
+        long millis = Math.max(1, BenchmarkDatabase.millisSince(startedNanos));
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT DISK_SPACE_USED('" + table.toUpperCase() + "')")) {
+            rs.next();
+            System.out.printf("%s %s: %d rows in %d ms (%d rows/s), %.1f MB with indexes%n", mode, table, rows,
+                    millis, rows * 1000L / millis, rs.getLong(1) / 1048576.0);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.wellsfargo.workflow.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyRepository repository = mock(IdempotencyRepository.class);
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties.setWaitTimeoutMs(200);
+        store = new IdempotencyStore(properties, repository, new ObjectMapper());
+        when(repository.find(anyString(), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void replaysTheFirstResultForTheSameRequest() {
+        String first = store.execute("k", Map.of("n", 1), String.class, this::run);
+        String second = store.execute("k", Map.of("n", 1), String.class, this::run);
+
+        assertThat(first).isEqualTo("result-1");
+        assertThat(second).isEqualTo("result-1");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void rejectsAKeyReusedWithAnotherRequest() {
+        store.execute("k", Map.of("n", 1), String.class, this::run);
+
+        assertThatThrownBy(() -> store.execute("k", Map.of("n", 2), String.class, this::run))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void rejectsAKeyRecordedForAnotherRequest() {
+        when(repository.find(eq("k"), any()))
+                .thenReturn(Optional.of(new IdempotencyRepository.Recorded("0".repeat(64), "\"stored\"")));
+
+        assertThatThrownBy(() -> store.execute("k", Map.of("n", 1), String.class, this::run))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void replaysAKeyRecordedBeforeRequestHashesWereKept() {
+        when(repository.find(eq("k"), any()))
+                .thenReturn(Optional.of(new IdempotencyRepository.Recorded(null, "\"stored\"")));
+
+        String result = store.execute("k", Map.of("n", 1), String.class, this::run);
+
+        assertThat(result).isEqualTo("stored");
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void answersInProgressWhenTheOriginalOutlastsTheWait() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> original = CompletableFuture.supplyAsync(
+                () -> store.execute("k", Map.of("n", 1), String.class, claim -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                    return run(claim);
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> store.execute("k", Map.of("n", 1), String.class, this::run))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("in progress");
+
+        release.countDown();
+        assertThat(original.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+        assertThat(store.execute("k", Map.of("n", 1), String.class, this::run)).isEqualTo("result-1");
+    }
+
+    @Test
+    void aFailedOriginalReleasesTheKey() {
+        assertThatThrownBy(() -> store.execute("k", Map.of("n", 1), String.class, claim -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.execute("k", Map.of("n", 1), String.class, this::run)).isEqualTo("result-1");
+    }
+
+    @Test
+    void refusesToResolveAKeyInsideATransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> store.execute("k", Map.of("n", 1), String.class, this::run))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(runs).hasValue(0);
+    }
+
+    private String run(IdempotencyStore.Claim claim) {
+        String result = "result-" + runs.incrementAndGet();
+        claim.record(result);
+        return result;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
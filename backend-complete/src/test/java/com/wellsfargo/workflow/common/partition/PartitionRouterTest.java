@@ -0,0 +1,96 @@
+package com.wellsfargo.workflow.common.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionRouterTest {
+
+    private static final LocalDate FUTURE = LocalDate.now().plusYears(1);
+
+    private FailingJdbcTemplate jdbcTemplate;
+    private PartitionRouter router;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:partition-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new FailingJdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE ab_tests (id VARCHAR(36) PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE ab_test_arms (id VARCHAR(36) PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE champion_challenge_executions (id VARCHAR(36) PRIMARY KEY)");
+        for (PartitionedTable table : PartitionedTable.values()) {
+            jdbcTemplate.execute(table.getCreateSql().formatted(table.getLegacyName()));
+        }
+        router = new PartitionRouter(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new PartitionProperties());
+        router.initialize();
+    }
+
+    @Test
+    void partitionIsNotRoutedToWhenItsDdlFails() {
+        int before = router.partitions(PartitionedTable.AB_TEST_EXECUTIONS).size();
+        jdbcTemplate.failOn = "CREATE INDEX";
+
+        assertThatThrownBy(() -> router.route(PartitionedTable.AB_TEST_EXECUTIONS, FUTURE.atStartOfDay()))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(router.partitions(PartitionedTable.AB_TEST_EXECUTIONS)).hasSize(before);
+        assertThat(tableCount(futurePartitionPrefix())).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ab_test_executions", Long.class)).isZero();
+
+        jdbcTemplate.failOn = null;
+        String name = router.route(PartitionedTable.AB_TEST_EXECUTIONS, FUTURE.atStartOfDay());
+
+        assertThat(name).startsWith(futurePartitionPrefix());
+        assertThat(router.partitions(PartitionedTable.AB_TEST_EXECUTIONS)).hasSize(before + 1);
+        assertThat(tableCount(futurePartitionPrefix())).isEqualTo(1);
+    }
+
+    @Test
+    void droppedPartitionStaysRoutedWhenItsDdlFails() {
+        Partition partition = router.partitions(PartitionedTable.AB_TEST_EXECUTIONS).get(0);
+        jdbcTemplate.failOn = "DROP TABLE";
+
+        assertThatThrownBy(() -> router.drop(partition)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(router.partitions(PartitionedTable.AB_TEST_EXECUTIONS)).contains(partition);
+    }
+
+    private String futurePartitionPrefix() {
+        LocalDate start = new PartitionProperties().getGranularity().start(FUTURE);
+        return "ab_test_executions_p" + start.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private long tableCount(String prefix) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE LOWER(TABLE_NAME) LIKE ?",
+                Long.class, prefix + "%");
+    }
+
+    private static final class FailingJdbcTemplate extends JdbcTemplate {
+
+        private String failOn;
+
+        FailingJdbcTemplate(DriverManagerDataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public void execute(String sql) {
+            if (failOn != null && sql.startsWith(failOn)) {
+                throw new IllegalStateException("Simulated DDL failure: " + sql);
+            }
+            super.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.wellsfargo.workflow.common.pipeline;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two producers hand events to one batching consumer, through a
+ * {@link RingBuffer} of reusable slots and through a bounded
+ * {@link LinkedBlockingQueue} of new objects drained in batches, as the
+ * listener pipeline did before the ring. JMH measures throughput and, with the
+ * GC profiler, bytes allocated per event.
+ */
+@Tag("benchmark")
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class RingBufferBenchmark {
+
+    private static final int CAPACITY = 65_536;
+    private static final int BATCH = 1024;
+
+    public static final class Event {
+        long executionId;
+        long sequence;
+        long executionTimeMs;
+        long timestamp;
+        String testId;
+        String status;
+        Object request;
+        Object response;
+    }
+
+    private final AtomicLong sink = new AtomicLong();
+    private RingBuffer<Event> ring;
+    private BatchEventProcessor<Event> processor;
+    private Thread ringConsumer;
+    private LinkedBlockingQueue<Event> queue;
+    private Thread queueConsumer;
+    private volatile boolean stopped;
+
+    @Test
+    void compareWithLinkedBlockingQueue() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RingBufferBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        ring = new RingBuffer<>(CAPACITY, Event::new);
+        processor = new BatchEventProcessor<>("benchmark", ring, ring.newBarrier(), (event, sequence, endOfBatch) -> {
+            if (endOfBatch) {
+                sink.lazySet(event.sequence);
+            }
+        });
+        ring.gateOn(processor.getSequence());
+        ringConsumer = new Thread(processor);
+        ringConsumer.setDaemon(true);
+        ringConsumer.start();
+
+        queue = new LinkedBlockingQueue<>(CAPACITY);
+        queueConsumer = new Thread(this::drainQueue);
+        queueConsumer.setDaemon(true);
+        queueConsumer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        processor.halt();
+        stopped = true;
+        ringConsumer.join();
+        queueConsumer.join();
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(2)
+    public void ring() {
+        long sequence = ring.next();
+        fill(ring.get(sequence), sequence);
+        ring.publish(sequence);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(2)
+    public void queue() throws InterruptedException {
+        Event event = new Event();
+        fill(event, 0);
+        queue.put(event);
+    }
+
+    private static void fill(Event event, long sequence) {
+        event.executionId = sequence;
+        event.sequence = sequence;
+        event.executionTimeMs = 250;
+        event.timestamp = sequence;
+        event.testId = "test";
+        event.status = "SUCCESS";
+        event.request = null;
+        event.response = null;
+    }
+
+    private void drainQueue() {
+        List<Event> batch = new ArrayList<>(BATCH);
+        while (!stopped) {
+            try {
+                Event first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH - 1);
+                sink.lazySet(batch.get(batch.size() - 1).sequence);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
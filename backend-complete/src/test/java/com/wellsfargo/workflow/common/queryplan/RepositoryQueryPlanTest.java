@@ -0,0 +1,299 @@
+package com.wellsfargo.workflow.common.queryplan;
+
+import com.wellsfargo.workflow.abtest.entity.ABTestExecutionEntity;
+import com.wellsfargo.workflow.abtest.repository.ABTestActivityExecutionRepository;
+import com.wellsfargo.workflow.abtest.repository.ABTestArmRepository;
+import com.wellsfargo.workflow.abtest.repository.ABTestExecutionRepository;
+import com.wellsfargo.workflow.abtest.repository.ListenerExecutionKeyRepository;
+import com.wellsfargo.workflow.abtest.sla.SlaTrackingRepository;
+import com.wellsfargo.workflow.championchallenge.repository.ChampionChallengeExecutionRepository;
+import com.wellsfargo.workflow.championchallenge.repository.ExecutionNodeMetricRepository;
+import com.wellsfargo.workflow.common.idempotency.IdempotencyRepository;
+import com.wellsfargo.workflow.comparison.repository.ComparisonColumnRepository;
+import com.wellsfargo.workflow.comparison.repository.ComparisonMasterRepository;
+import com.wellsfargo.workflow.comparison.repository.ComparisonMembershipRepository;
+import com.wellsfargo.workflow.comparison.repository.ExecutionComparisonRepository;
+import com.wellsfargo.workflow.comparison.repository.ExecutionSelection;
+import com.wellsfargo.workflow.comparison.repository.NodeMetricHistogramRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the repository methods on request paths against a seeded database,
+ * captures the SQL they send and explains it, failing when a plan reads a whole
+ * table: an H2 {@code tableScan}, or an index walked without a condition on its
+ * leading column (H2 then lists the other conditions but still visits every
+ * entry). Add a call here with every new request-path query.
+ *
+ * Unfiltered listings ({@code findAll}, {@code findAllByOrderByCreatedAtDesc}) and
+ * scheduled batch work (compaction, retention) read whole tables by design and are
+ * not called.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final int SEED_ROWS = 20000;
+    private static final LocalDateTime FROM = LocalDateTime.now().minusDays(7);
+    private static final LocalDateTime TO = LocalDateTime.now();
+    private static final UUID COMPARISON_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static final String LEADING_COLUMNS_SQL = """
+            SELECT INDEX_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+            WHERE INDEX_SCHEMA = 'PUBLIC' AND ORDINAL_POSITION = 1
+            """;
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\*\\s*\\w+\\.(\\w+)\\.tableScan\\s*\\*/");
+
+    /**
+     * An index access comment: schema, index name and the conditions used, which
+     * are missing when the index is only walked for its order.
+     */
+    private static final Pattern INDEX_ACCESS =
+            Pattern.compile("/\\*\\s*\\w+\\.(\\w+)(?::\\s*(.*?))?\\s*\\*/", Pattern.DOTALL);
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        static BeanPostProcessor statementCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "dataSource".equals(beanName) ? new StatementCapture((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired private DataSource dataSource;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ABTestArmRepository armRepository;
+    @Autowired private ABTestExecutionRepository abTestExecutionRepository;
+    @Autowired private ABTestActivityExecutionRepository activityRepository;
+    @Autowired private ListenerExecutionKeyRepository listenerKeyRepository;
+    @Autowired private SlaTrackingRepository slaTrackingRepository;
+    @Autowired private IdempotencyRepository idempotencyRepository;
+    @Autowired private ChampionChallengeExecutionRepository ccExecutionRepository;
+    @Autowired private ExecutionNodeMetricRepository nodeMetricRepository;
+    @Autowired private com.wellsfargo.workflow.championchallenge.repository.ExecutionComparisonRepository
+            ccComparisonRepository;
+    @Autowired private ComparisonMasterRepository masterRepository;
+    @Autowired private ExecutionComparisonRepository mappingRepository;
+    @Autowired private ComparisonColumnRepository columnRepository;
+    @Autowired private ComparisonMembershipRepository membershipRepository;
+    @Autowired private NodeMetricHistogramRepository histogramRepository;
+
+    private final Map<String, String> leadingColumns = new HashMap<>();
+
+    @BeforeAll
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET @rows = " + SEED_ROWS);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("query-plan/seed.sql"));
+            statement.execute("SET @rows = NULL");
+            try (ResultSet rs = statement.executeQuery(LEADING_COLUMNS_SQL)) {
+                while (rs.next()) {
+                    leadingColumns.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+    }
+
+    @Test
+    void abTestQueriesUseIndexes() {
+        List<String> violations = new ArrayList<>();
+        explain(violations, "ABTestArmRepository.findByAbTestId", () -> armRepository.findByAbTestId("qp-t-1"));
+        explain(violations, "ABTestExecutionRepository.findByAbTestId",
+                () -> abTestExecutionRepository.findByAbTestId("qp-t-1"));
+        explain(violations, "ABTestExecutionRepository.findByAbTestIdAndArmId",
+                () -> abTestExecutionRepository.findByAbTestIdAndArmId("qp-t-1", "qp-a-0"));
+        explain(violations, "ABTestExecutionRepository.countByTestArmStatus",
+                () -> abTestExecutionRepository.countByTestArmStatus("qp-t-1", "qp-a-0",
+                        ABTestExecutionEntity.ExecutionStatus.SUCCESS));
+        explain(violations, "ABTestExecutionRepository.getWatermark",
+                () -> abTestExecutionRepository.getWatermark("qp-t-1"));
+        explain(violations, "ABTestExecutionRepository.getExecutionTimesForPercentile",
+                () -> abTestExecutionRepository.getExecutionTimesForPercentile("qp-t-1", "qp-a-0"));
+        explain(violations, "ABTestExecutionRepository.countForExport",
+                () -> abTestExecutionRepository.countForExport("qp-t-1", FROM, TO));
+        explain(violations, "ABTestExecutionRepository.streamForExport",
+                () -> count(abTestExecutionRepository.streamForExport("qp-t-1", FROM, TO)));
+        explain(violations, "ListenerExecutionKeyRepository.claim", () -> {
+            ABTestExecutionEntity execution = new ABTestExecutionEntity();
+            execution.setAbTestId("qp-t-1");
+            return listenerKeyRepository.claim(List.of(execution), List.of("qp-l-1"));
+        });
+        explain(violations, "ABTestActivityExecutionRepository.appendAll",
+                () -> activityRepository.appendAll(List.of(new ABTestActivityExecutionRepository.ActivityRow(
+                        "qp-t-1", "qp-a-0", "qp-l-1", "task", "Task", "END", "COMPLETED", 5L, TO))));
+        explain(violations, "SlaTrackingRepository.findHistory",
+                () -> slaTrackingRepository.findHistory("qp-t-1", FROM, TO));
+        explain(violations, "IdempotencyRepository.find",
+                () -> idempotencyRepository.find("ab-test:qp-t-1:qp-key-1", TO));
+
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void championChallengeQueriesUseIndexes() {
+        List<String> violations = new ArrayList<>();
+        explain(violations, "ChampionChallengeExecutionRepository.findByIdWithMetrics",
+                () -> ccExecutionRepository.findByIdWithMetrics("qp-e-1"));
+        explain(violations, "ChampionChallengeExecutionRepository.streamForExport",
+                () -> count(ccExecutionRepository.streamForExport(COMPARISON_ID, FROM, TO)));
+        explain(violations, "ExecutionNodeMetricRepository.findByExecutionId",
+                () -> nodeMetricRepository.findByExecutionId("qp-e-1"));
+        explain(violations, "ExecutionNodeMetricRepository.findByExecutionIdAndVariant",
+                () -> nodeMetricRepository.findByExecutionIdAndVariant("qp-e-1", "CHAMPION"));
+        explain(violations, "ExecutionNodeMetricRepository.countByExecutionId",
+                () -> nodeMetricRepository.countByExecutionId("qp-e-1"));
+        explain(violations, "ExecutionNodeMetricRepository.streamForExport",
+                () -> count(nodeMetricRepository.streamForExport(COMPARISON_ID, FROM, TO)));
+        explain(violations, "championchallenge.ExecutionComparisonRepository.findByExecutionId",
+                () -> ccComparisonRepository.findByExecutionId("qp-e-1"));
+
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void comparisonQueriesUseIndexes() {
+        List<String> violations = new ArrayList<>();
+        explain(violations, "ComparisonMasterRepository.findByStatus", () -> masterRepository.findByStatus("PENDING"));
+        explain(violations, "ComparisonMasterRepository.findByChampionWorkflowIdAndChallengeWorkflowId",
+                () -> masterRepository.findByChampionWorkflowIdAndChallengeWorkflowId(
+                        "qp-champion-1", "qp-challenge-1"));
+        explain(violations, "ComparisonMasterRepository.findByIdWithMappings",
+                () -> masterRepository.findByIdWithMappings("qp-cm-1"));
+        explain(violations, "ComparisonMasterRepository.findByIdForUpdate",
+                () -> masterRepository.findByIdForUpdate("qp-cm-1"));
+        explain(violations, "ComparisonMasterRepository.clearAggregatesForMembersStartedBetween",
+                () -> masterRepository.clearAggregatesForMembersStartedBetween(FROM, TO));
+        explain(violations, "ExecutionComparisonRepository.findByComparisonId",
+                () -> mappingRepository.findByComparisonId("qp-cm-1"));
+        explain(violations, "ExecutionComparisonRepository.findByComparisonIdAndIncluded",
+                () -> mappingRepository.findByComparisonIdAndIncluded("qp-cm-1", true));
+        explain(violations, "ExecutionComparisonRepository.findByComparisonIdAndOutlierFlag",
+                () -> mappingRepository.findByComparisonIdAndOutlierFlag("qp-cm-1", true));
+        explain(violations, "ExecutionComparisonRepository.findByComparisonIdAndExecutionId",
+                () -> mappingRepository.findByComparisonIdAndExecutionId("qp-cm-1", "qp-e-1"));
+        explain(violations, "ComparisonColumnRepository.loadExecutions",
+                () -> columnRepository.loadExecutions("qp-cm-1"));
+        explain(violations, "ComparisonColumnRepository.loadNodeMetrics",
+                () -> columnRepository.loadNodeMetrics("qp-cm-1"));
+        explain(violations, "ComparisonColumnRepository.loadStartedAtRange",
+                () -> columnRepository.loadStartedAtRange("qp-cm-1"));
+        explain(violations, "ComparisonColumnRepository.loadTimeWindows",
+                () -> columnRepository.loadTimeWindows("qp-cm-1", FROM, TO, 3_600_000L));
+        explain(violations, "ComparisonMembershipRepository.attach(unattachedMatching)",
+                () -> membershipRepository.attach(ExecutionSelection.unattachedMatching(
+                        "qp-cm-1", "qp-champion-1", "qp-challenge-1", "COMPLETED", null, null)));
+        explain(violations, "ComparisonMembershipRepository.attach(unattachedAmong)",
+                () -> membershipRepository.attach(
+                        ExecutionSelection.unattachedAmong("qp-cm-1", List.of("qp-e-1", "qp-e-2"))));
+        explain(violations, "ComparisonMembershipRepository.detach",
+                () -> membershipRepository.detach("qp-cm-1", List.of("qp-e-1", "qp-e-2")));
+        explain(violations, "ComparisonMembershipRepository.countMembers",
+                () -> membershipRepository.countMembers("qp-cm-1"));
+        explain(violations, "NodeMetricHistogramRepository.loadNodes",
+                () -> histogramRepository.loadNodes("qp-cm-1", LocalDate.now().minusDays(30), LocalDate.now()));
+
+        assertThat(violations).isEmpty();
+    }
+
+    /**
+     * Calls the method in a transaction that is rolled back, and explains every
+     * statement it sent on the same connection.
+     */
+    private void explain(List<String> violations, String method, Supplier<?> call) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            List<StatementCapture.Statement> statements = ((StatementCapture) dataSource).capture(call);
+            assertThat(statements).as("statements sent by %s", method).isNotEmpty();
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            for (StatementCapture.Statement statement : statements) {
+                String plan = plan(connection, statement);
+                check(plan).forEach(reason -> violations.add(method + ": " + reason + "\n" + plan));
+            }
+        });
+    }
+
+    private static String plan(Connection connection, StatementCapture.Statement statement) {
+        try (PreparedStatement explain = statement.prepare(connection, "EXPLAIN ");
+             ResultSet rs = explain.executeQuery()) {
+            rs.next();
+            return rs.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not explain " + statement.getSql(), e);
+        }
+    }
+
+    private List<String> check(String plan) {
+        List<String> reasons = new ArrayList<>();
+        Matcher scan = TABLE_SCAN.matcher(plan);
+        while (scan.find()) {
+            reasons.add("table scan of " + scan.group(1));
+        }
+        Matcher access = INDEX_ACCESS.matcher(plan);
+        while (access.find()) {
+            String index = access.group(1);
+            String leadingColumn = leadingColumns.get(index);
+            if (leadingColumn == null) {
+                continue;
+            }
+            String conditions = access.group(2);
+            if (conditions == null || !constrains(conditions, leadingColumn)) {
+                reasons.add("index " + index + " walked without a condition on " + leadingColumn);
+            }
+        }
+        return reasons;
+    }
+
+    private static boolean constrains(String conditions, String column) {
+        return Pattern.compile("(?<![\\w.])" + Pattern.quote(column)
+                        + "\\s*(=|<|>|IN\\b|IS NOT DISTINCT FROM)")
+                .matcher(conditions).find();
+    }
+
+    private static long count(Stream<?> stream) {
+        try (stream) {
+            return stream.count();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.wellsfargo.workflow.common.queryplan;
+
+import lombok.Value;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a data source to record the prepared statements, with their parameters,
+ * that the calling thread executes inside {@link #capture}. Statements are
+ * recorded once, with the parameters of their first execution or batch entry.
+ */
+class StatementCapture extends DelegatingDataSource {
+
+    private final ThreadLocal<List<Statement>> captured = new ThreadLocal<>();
+
+    StatementCapture(DataSource target) {
+        super(target);
+    }
+
+    @Value
+    static class Statement {
+        String sql;
+        List<Binding> bindings;
+
+        /**
+         * Prepares {@code prefix + sql} on the connection with the same parameters.
+         */
+        PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(prefix + sql);
+            for (Binding binding : bindings) {
+                binding.apply(statement);
+            }
+            return statement;
+        }
+    }
+
+    @Value
+    static class Binding {
+        Method setter;
+        Object[] args;
+
+        void apply(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, args);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sql) {
+                    throw sql;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} and returns the statements it prepared and executed.
+     */
+    List<Statement> capture(Supplier<?> work) {
+        List<Statement> statements = new ArrayList<>();
+        captured.set(statements);
+        try {
+            work.get();
+        } finally {
+            captured.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                return preparedStatement(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement preparedStatement(PreparedStatement target, String sql) {
+        Map<Integer, Binding> bindings = new TreeMap<>();
+        boolean[] recorded = {false};
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bindings.put(index, new Binding(method, args.clone()));
+            } else if ((name.startsWith("execute") || name.equals("addBatch")) && !recorded[0]) {
+                List<Statement> statements = captured.get();
+                if (statements != null) {
+                    statements.add(new Statement(sql, List.copyOf(bindings.values())));
+                    recorded[0] = true;
+                }
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCapture.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,98 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the limiter with a workload whose capacity is fixed by a pool of
+ * workers: {@value #WORKERS} workers at {@value #SERVICE_MS} ms per execution
+ * serve 400 executions/s. Arrivals run at half that rate, then step to twice
+ * it. Without a limit the excess queues on the workers and latency grows by
+ * seconds; with the limit the excess is shed and p99 stays near the service time.
+ */
+class AdaptiveConcurrencyLimiterSimulationTest {
+
+    private static final int WORKERS = 8;
+    private static final int SERVICE_MS = 20;
+    private static final int STEADY_RATE = 200;
+    private static final int OVERLOAD_RATE = 800;
+    private static final int STEADY_SECONDS = 2;
+    private static final int OVERLOAD_SECONDS = 4;
+
+    @Test
+    void keepsP99StableThroughAnOverloadStep() throws InterruptedException {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setWindowMs(100);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        Semaphore workers = new Semaphore(WORKERS, true);
+        List<Long> steady = Collections.synchronizedList(new ArrayList<>());
+        List<Long> overload = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger shed = new AtomicInteger();
+
+        ExecutorService callers = Executors.newCachedThreadPool();
+        long started = System.nanoTime();
+        for (int second = 0; second < STEADY_SECONDS + OVERLOAD_SECONDS; second++) {
+            boolean overloaded = second >= STEADY_SECONDS;
+            // The first overload second is the limiter's reaction time; measure after it
+            List<Long> latencies = !overloaded ? steady : second > STEADY_SECONDS ? overload : null;
+            int rate = overloaded ? OVERLOAD_RATE : STEADY_RATE;
+            for (int i = 0; i < rate; i++) {
+                long due = started + TimeUnit.SECONDS.toNanos(second) + TimeUnit.SECONDS.toNanos(1) * i / rate;
+                TimeUnit.NANOSECONDS.sleep(due - System.nanoTime());
+                callers.execute(() -> {
+                    long arrived = System.nanoTime();
+                    try {
+                        limiter.execute(() -> serve(workers));
+                        if (latencies != null) {
+                            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - arrived));
+                        }
+                    } catch (ConcurrencyLimitExceededException e) {
+                        shed.incrementAndGet();
+                    }
+                });
+            }
+        }
+        callers.shutdown();
+        assertThat(callers.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        long steadyP99 = p99(steady);
+        long overloadP99 = p99(overload);
+        System.out.printf("p99 %d ms steady, %d ms overloaded; %d served, %d shed, limit %d%n", steadyP99,
+                overloadP99, overload.size(), shed.get(), limiter.getStatistics().getLimit());
+
+        assertThat(shed).hasPositiveValue();
+        assertThat(overloadP99).isLessThan(10L * SERVICE_MS);
+        // Shedding keeps the workers busy rather than idle
+        assertThat(overload.size()).isGreaterThan((OVERLOAD_SECONDS - 1) * 1000 / SERVICE_MS * WORKERS / 2);
+    }
+
+    private static Void serve(Semaphore workers) {
+        try {
+            workers.acquire();
+            try {
+                Thread.sleep(SERVICE_MS);
+            } finally {
+                workers.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+}
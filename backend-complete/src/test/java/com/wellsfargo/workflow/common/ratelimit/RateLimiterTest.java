@@ -0,0 +1,26 @@
+package com.wellsfargo.workflow.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    @Test
+    void chargesTheAuthenticatedPrincipal() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.setUserPrincipal(() -> "alice");
+
+        assertThat(RateLimiter.caller(request)).isEqualTo("user:alice");
+    }
+
+    @Test
+    void chargesTheClientAddressWithoutAPrincipal() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+
+        assertThat(RateLimiter.caller(request)).isEqualTo("address:10.0.0.1");
+    }
+}
@@ -0,0 +1,135 @@
+package com.wellsfargo.workflow.comparison;
+
+import com.wellsfargo.workflow.BenchmarkDatabase;
+import com.wellsfargo.workflow.championchallenge.entity.ChampionChallengeExecutionEntity;
+import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
+import com.wellsfargo.workflow.common.partition.PartitionRouter;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregateState;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonKernel;
+import com.wellsfargo.workflow.comparison.aggregate.ExecutionColumns;
+import com.wellsfargo.workflow.comparison.aggregate.NodeMetricColumns;
+import com.wellsfargo.workflow.comparison.repository.ComparisonColumnRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aggregates a comparison of 100k executions of a 20-node workflow through the
+ * columnar loader and kernel, against entity hydration with boxed, repeatedly
+ * sorted times on a sample of the same executions.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.com.wellsfargo.workflow=INFO"})
+class ComparisonAggregationBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = BenchmarkDatabase.fileUrl("comparison-aggregation");
+        registry.add("spring.datasource.url", () -> url);
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PartitionRouter partitionRouter;
+    @Autowired private ComparisonColumnRepository columnRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void aggregateComparison() {
+        int executions = BenchmarkDatabase.size("executions", 100_000);
+        int nodes = BenchmarkDatabase.size("nodes", 20);
+        int sample = Math.min(executions, BenchmarkDatabase.size("entity-executions", 10_000));
+
+        long seeding = System.nanoTime();
+        String comparisonId = ComparisonBenchmarkData.seed(jdbcTemplate, partitionRouter, "aggregation",
+                executions, nodes);
+        System.out.printf("Seeded %d executions x %d nodes x 2 variants in %d ms%n",
+                executions, nodes, BenchmarkDatabase.millisSince(seeding));
+
+        ComparisonAggregateState state = null;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long started = System.nanoTime();
+            ExecutionColumns executionColumns = columnRepository.loadExecutions(comparisonId);
+            long loadedExecutions = System.nanoTime();
+            NodeMetricColumns nodeColumns = columnRepository.loadNodeMetrics(comparisonId);
+            long loadedNodes = System.nanoTime();
+            state = ComparisonKernel.fold(executionColumns, nodeColumns);
+            System.out.printf("Columnar round %d: executions %d ms, node metrics %d ms, kernel %d ms%n", round,
+                    (loadedExecutions - started) / 1_000_000, (loadedNodes - loadedExecutions) / 1_000_000,
+                    BenchmarkDatabase.millisSince(loadedNodes));
+        }
+        assertThat(state.getExecutionCount()).isEqualTo(executions);
+        assertThat(state.getNodes()).hasSize(nodes);
+
+        List<String> sampleIds = jdbcTemplate.queryForList("""
+                SELECT execution_id FROM execution_comparison_mapping WHERE comparison_id = ? LIMIT ?
+                """, String.class, comparisonId, sample);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        for (int round = 1; round <= ROUNDS; round++) {
+            long started = System.nanoTime();
+            int groups = readOnly.execute(status -> aggregateEntities(sampleIds));
+            long elapsed = BenchmarkDatabase.millisSince(started);
+            System.out.printf("Entity round %d: %d executions in %d ms (%d ms per %d executions)%n", round,
+                    sampleIds.size(), elapsed, elapsed * executions / sampleIds.size(), executions);
+            assertThat(groups).isEqualTo(nodes);
+        }
+    }
+
+    /**
+     * What aggregation did before the columnar loader: full entities, boxed times
+     * copied and sorted for each statistic, node metrics grouped in memory.
+     */
+    private int aggregateEntities(List<String> executionIds) {
+        List<ChampionChallengeExecutionEntity> executions = new ArrayList<>();
+        List<ExecutionNodeMetricEntity> metrics = new ArrayList<>();
+        for (int from = 0; from < executionIds.size(); from += 1000) {
+            List<String> chunk = executionIds.subList(from, Math.min(executionIds.size(), from + 1000));
+            executions.addAll(entityManager.createQuery(
+                            "SELECT e FROM ChampionChallengeExecutionEntity e WHERE e.id IN :ids",
+                            ChampionChallengeExecutionEntity.class)
+                    .setParameter("ids", chunk).getResultList());
+            metrics.addAll(entityManager.createQuery(
+                            "SELECT m FROM ExecutionNodeMetricEntity m WHERE m.execution.id IN :ids",
+                            ExecutionNodeMetricEntity.class)
+                    .setParameter("ids", chunk).getResultList());
+            entityManager.clear();
+        }
+        List<Long> times = executions.stream()
+                .map(ChampionChallengeExecutionEntity::getTotalChampionTimeMs)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        for (int statistic = 0; statistic < 3; statistic++) {
+            List<Long> sorted = new ArrayList<>(times);
+            Collections.sort(sorted);
+        }
+        Map<String, List<ExecutionNodeMetricEntity>> byNode = metrics.stream()
+                .collect(Collectors.groupingBy(ExecutionNodeMetricEntity::getNodeId));
+        byNode.values().forEach(nodeMetrics -> nodeMetrics.stream()
+                .map(ExecutionNodeMetricEntity::getExecutionTimeMs)
+                .sorted()
+                .collect(Collectors.toList()));
+        return byNode.size();
+    }
+}
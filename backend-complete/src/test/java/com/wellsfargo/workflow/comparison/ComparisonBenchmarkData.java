@@ -0,0 +1,104 @@
+package com.wellsfargo.workflow.comparison;
+
+import com.wellsfargo.workflow.common.id.Uuid7;
+import com.wellsfargo.workflow.common.partition.PartitionRouter;
+import com.wellsfargo.workflow.common.partition.PartitionedTable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds a comparison with completed executions, each with a metric per node and
+ * variant written to its routed partition, and attaches them all.
+ */
+final class ComparisonBenchmarkData {
+
+    private static final int BATCH_ROWS = 10_000;
+
+    private static final String COMPARISON_SQL = """
+            INSERT INTO champion_challenge_comparisons (id, name, champion_workflow_id, challenge_workflow_id,
+                                                        created_by)
+            VALUES (?, ?, ?, ?, 'benchmark')
+            """;
+
+    private static final String MASTER_SQL = """
+            INSERT INTO comparison_master (id, name, workflow_pair, champion_workflow_id, challenge_workflow_id)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String EXECUTION_SQL = """
+            INSERT INTO champion_challenge_executions (id, comparison_id, status, started_at, completed_at, created_by,
+                                                       total_champion_time_ms, total_challenge_time_ms, winner)
+            VALUES (?, ?, 'COMPLETED', ?, ?, 'benchmark', ?, ?, ?)
+            """;
+
+    private static final String MAPPING_SQL = """
+            INSERT INTO execution_comparison_mapping (id, comparison_id, execution_id, included, outlier_flag)
+            VALUES (?, ?, ?, TRUE, FALSE)
+            """;
+
+    private static final String NODE_METRIC_SQL = """
+            INSERT INTO %s (id, execution_id, variant, node_id, node_name, node_type, sequence, execution_time_ms,
+                            status, started_at, completed_at)
+            VALUES (?, ?, ?, ?, ?, 'serviceTask', ?, ?, ?, ?, ?)
+            """;
+
+    private ComparisonBenchmarkData() {
+    }
+
+    /**
+     * @return the comparison master id
+     */
+    static String seed(JdbcTemplate jdbcTemplate, PartitionRouter partitionRouter, String name,
+                       int executions, int nodes) {
+        UUID comparisonId = UUID.randomUUID();
+        String masterId = Uuid7.nextString();
+        String champion = name + "-champion";
+        String challenge = name + "-challenge";
+        jdbcTemplate.update(COMPARISON_SQL, comparisonId, name, champion, challenge);
+        jdbcTemplate.update(MASTER_SQL, masterId, name, champion + ":" + challenge, champion, challenge);
+
+        Random random = new Random(1);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> executionRows = new ArrayList<>(BATCH_ROWS);
+        List<Object[]> mappingRows = new ArrayList<>(BATCH_ROWS);
+        Map<String, List<Object[]>> metricRows = new HashMap<>();
+        for (int i = 0; i < executions; i++) {
+            String executionId = Uuid7.nextString();
+            LocalDateTime startedAt = now.minusSeconds(random.nextInt(86_400));
+            Timestamp started = Timestamp.valueOf(startedAt);
+            long championTime = 100 + random.nextInt(3000);
+            long challengeTime = 100 + random.nextInt(3000);
+            executionRows.add(new Object[]{executionId, comparisonId, started, started, championTime, challengeTime,
+                    championTime <= challengeTime ? "CHAMPION" : "CHALLENGE"});
+            mappingRows.add(new Object[]{Uuid7.nextString(), masterId, executionId});
+
+            List<Object[]> partition = metricRows.computeIfAbsent(
+                    partitionRouter.route(PartitionedTable.EXECUTION_NODE_METRICS, startedAt), table -> new ArrayList<>());
+            for (int node = 0; node < nodes; node++) {
+                for (String variant : new String[]{"CHAMPION", "CHALLENGE"}) {
+                    partition.add(new Object[]{Uuid7.nextString(), executionId, variant, "node-" + node,
+                            "Node " + node, node, 10 + random.nextInt(500),
+                            random.nextInt(50) == 0 ? "ERROR" : "SUCCESS", started, started});
+                }
+            }
+
+            if (executionRows.size() == BATCH_ROWS || i == executions - 1) {
+                jdbcTemplate.batchUpdate(EXECUTION_SQL, executionRows);
+                jdbcTemplate.batchUpdate(MAPPING_SQL, mappingRows);
+                metricRows.forEach((table, rows) -> jdbcTemplate.batchUpdate(NODE_METRIC_SQL.formatted(table), rows));
+                executionRows.clear();
+                mappingRows.clear();
+                metricRows.clear();
+            }
+        }
+        return masterId;
+    }
+}
@@ -0,0 +1,116 @@
+package com.wellsfargo.workflow.comparison;
+
+import com.wellsfargo.workflow.BenchmarkDatabase;
+import com.wellsfargo.workflow.championchallenge.repository.ChampionChallengeExecutionRepository;
+import com.wellsfargo.workflow.common.partition.PartitionRouter;
+import com.wellsfargo.workflow.comparison.aggregate.ExecutionColumns;
+import com.wellsfargo.workflow.comparison.aggregate.NodeMetricColumns;
+import com.wellsfargo.workflow.comparison.repository.ComparisonColumnRepository;
+import com.wellsfargo.workflow.comparison.repository.ComparisonMembershipRepository;
+import com.wellsfargo.workflow.comparison.repository.ExecutionSelection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times the membership joins that load a comparison's executions and node
+ * metrics at 1k, 50k and 500k mapped executions, with the array-bound id list
+ * used for attach and detach batches (in chunks of
+ * {@link ExecutionSelection#MAX_IDS}, as the service sends them) and, up to
+ * {@code benchmark.in-list-limit} executions, the IN list they replace.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.com.wellsfargo.workflow=INFO"})
+class ComparisonMembershipBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = BenchmarkDatabase.fileUrl("comparison-membership");
+        registry.add("spring.datasource.url", () -> url);
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PartitionRouter partitionRouter;
+    @Autowired private ComparisonColumnRepository columnRepository;
+    @Autowired private ComparisonMembershipRepository membershipRepository;
+    @Autowired private ChampionChallengeExecutionRepository executionRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void loadMembers() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "1000,50000,500000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int nodes = BenchmarkDatabase.size("nodes", 4);
+        int inListLimit = BenchmarkDatabase.size("in-list-limit", 50_000);
+
+        Map<Integer, String> comparisons = new LinkedHashMap<>();
+        for (int size : sizes) {
+            long seeding = System.nanoTime();
+            comparisons.put(size, ComparisonBenchmarkData.seed(jdbcTemplate, partitionRouter, "membership-" + size,
+                    size, nodes));
+            System.out.printf("Seeded %d executions x %d nodes x 2 variants in %d ms%n",
+                    size, nodes, BenchmarkDatabase.millisSince(seeding));
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        comparisons.forEach((size, comparisonId) -> {
+            List<String> executionIds = jdbcTemplate.queryForList(
+                    "SELECT execution_id FROM execution_comparison_mapping WHERE comparison_id = ?",
+                    String.class, comparisonId);
+            for (int round = 1; round <= ROUNDS; round++) {
+                long started = System.nanoTime();
+                int members = membershipRepository.countMembers(comparisonId).getIncluded();
+                long counted = System.nanoTime();
+                ExecutionColumns executions = columnRepository.loadExecutions(comparisonId);
+                long loadedExecutions = System.nanoTime();
+                NodeMetricColumns nodeMetrics = columnRepository.loadNodeMetrics(comparisonId);
+                long loadedNodes = System.nanoTime();
+                int requested = 0;
+                for (int from = 0; from < size; from += ExecutionSelection.MAX_IDS) {
+                    List<String> chunk = executionIds.subList(from, Math.min(size, from + ExecutionSelection.MAX_IDS));
+                    requested += columnRepository.loadExecutions(
+                            ExecutionSelection.includedAmong(comparisonId, chunk), chunk.size()).getSize();
+                }
+                long loadedRequested = System.nanoTime();
+                System.out.printf("%d mapped, round %d: count %d ms, executions join %d ms, "
+                                + "node metrics join %d ms, id array %d ms%n", size, round,
+                        (counted - started) / 1_000_000, (loadedExecutions - counted) / 1_000_000,
+                        (loadedNodes - loadedExecutions) / 1_000_000, (loadedRequested - loadedNodes) / 1_000_000);
+                assertThat(members).isEqualTo(size);
+                assertThat(executions.getSize()).isEqualTo(size);
+                assertThat(requested).isEqualTo(size);
+                assertThat(nodeMetrics.getSize()).isEqualTo(size * nodes * 2);
+            }
+            if (size <= inListLimit) {
+                for (int round = 1; round <= ROUNDS; round++) {
+                    long started = System.nanoTime();
+                    int found = readOnly.execute(status -> executionRepository.findAllById(executionIds).size());
+                    System.out.printf("%d mapped, round %d: IN list of ids %d ms%n", size, round,
+                            BenchmarkDatabase.millisSince(started));
+                    assertThat(found).isEqualTo(size);
+                }
+            }
+        });
+    }
+}
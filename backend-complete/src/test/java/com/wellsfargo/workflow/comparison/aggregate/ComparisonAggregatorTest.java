@@ -0,0 +1,107 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.championchallenge.entity.ChampionChallengeExecutionEntity;
+import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ComparisonAggregatorTest {
+
+    private final ComparisonAggregator aggregator = new ComparisonAggregator(
+            new ObjectMapper(), new BootstrapEngine(new BootstrapProperties()), new BootstrapProperties());
+
+    @Test
+    void missingTimesAreSkippedPerVariant() {
+        ComparisonAggregateState state = ComparisonAggregateState.empty();
+        aggregator.apply(state, execution(100L, 300L), List.of(metric("CHAMPION", 40L), metric("CHALLENGE", null)), 1);
+        aggregator.apply(state, execution(null, 500L), List.of(metric("CHAMPION", null), metric("CHALLENGE", 60L)), 1);
+
+        assertThat(state.getExecutionCount()).isEqualTo(2);
+        assertThat(state.getChampion().getCount()).isEqualTo(1);
+        assertThat(state.getChampion().mean()).isEqualTo(100.0);
+        assertThat(state.getChampion().getLatency().quantile(0.5)).isCloseTo(100.0, within(2.0));
+        assertThat(state.getChallenge().getCount()).isEqualTo(2);
+        assertThat(state.getChallenge().mean()).isEqualTo(400.0);
+
+        ComparisonAggregateState.NodeAccumulator node = state.getNodes().get("task");
+        assertThat(node.getChampion().getCount()).isEqualTo(1);
+        assertThat(node.getChampion().mean()).isEqualTo(40.0);
+        assertThat(node.getChallenge().getCount()).isEqualTo(1);
+        assertThat(node.getChallenge().mean()).isEqualTo(60.0);
+
+        ComparisonAggregateState.TimeBucket bucket = state.getTimeBuckets().firstEntry().getValue();
+        assertThat(bucket.getCount()).isEqualTo(2);
+        assertThat(bucket.getChampionCount()).isEqualTo(1);
+        assertThat(bucket.getChampionSum()).isEqualTo(100.0);
+    }
+
+    @Test
+    void removingAnExecutionWithMissingTimesRestoresTheState() {
+        ComparisonAggregateState state = ComparisonAggregateState.empty();
+        aggregator.apply(state, execution(100L, 300L), List.of(), 1);
+        ChampionChallengeExecutionEntity partial = execution(null, 500L);
+        partial.setChampionError(true);
+        aggregator.apply(state, partial, List.of(), 1);
+        aggregator.apply(state, partial, List.of(), -1);
+
+        assertThat(state.getExecutionCount()).isEqualTo(1);
+        assertThat(state.getChampion().getCount()).isEqualTo(1);
+        assertThat(state.getChampion().getErrorCount()).isZero();
+        assertThat(state.getChallenge().getCount()).isEqualTo(1);
+        assertThat(state.getChallenge().mean()).isEqualTo(300.0);
+        assertThat(state.getTimeBuckets().firstEntry().getValue().getChallengeSum()).isEqualTo(300.0);
+    }
+
+    @Test
+    void spreadSurvivesRepeatedIncludeAndExclude() {
+        ComparisonAggregateState.VariantAccumulator kept = new ComparisonAggregateState.VariantAccumulator();
+        ComparisonAggregateState.VariantAccumulator toggled = new ComparisonAggregateState.VariantAccumulator();
+        for (long time = 1_000_000_000L; time < 1_000_000_010L; time++) {
+            kept.apply(time, false, 1);
+            toggled.apply(time, false, 1);
+        }
+        for (int round = 0; round < 10_000; round++) {
+            toggled.apply(1_000_000_000L + round % 10, false, -1);
+            toggled.apply(1_000_000_000L + round % 10, false, 1);
+        }
+        ComparisonAggregateState.VariantAccumulator batch = new ComparisonAggregateState.VariantAccumulator();
+        batch.apply(999_999_980L, false, 1);
+        batch.apply(1_000_000_050L, false, 1);
+        toggled.merge(batch, 1);
+        toggled.merge(batch, -1);
+
+        assertThat(toggled.getCount()).isEqualTo(10);
+        assertThat(toggled.mean()).isCloseTo(kept.mean(), within(1e-6));
+        assertThat(toggled.stdDev()).isCloseTo(Math.sqrt(8.25), within(1e-6));
+        assertThat(kept.stdDev()).isCloseTo(Math.sqrt(8.25), within(1e-6));
+
+        toggled.merge(kept, -1);
+        assertThat(toggled.getCount()).isZero();
+        assertThat(toggled.getSquaredDeviations()).isZero();
+    }
+
+    private static ChampionChallengeExecutionEntity execution(Long championTime, Long challengeTime) {
+        ChampionChallengeExecutionEntity execution = new ChampionChallengeExecutionEntity();
+        execution.setStatus(ChampionChallengeExecutionEntity.ExecutionStatus.COMPLETED);
+        execution.setStartedAt(LocalDateTime.of(2024, 3, 1, 10, 15));
+        execution.setTotalChampionTimeMs(championTime);
+        execution.setTotalChallengeTimeMs(challengeTime);
+        return execution;
+    }
+
+    private static ExecutionNodeMetricEntity metric(String variant, Long time) {
+        ExecutionNodeMetricEntity metric = new ExecutionNodeMetricEntity();
+        metric.setNodeId("task");
+        metric.setNodeName("Task");
+        metric.setVariant(variant);
+        metric.setExecutionTimeMs(time);
+        metric.setStatus("SUCCESS");
+        return metric;
+    }
+}
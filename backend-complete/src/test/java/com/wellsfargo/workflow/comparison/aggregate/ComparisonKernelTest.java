@@ -0,0 +1,100 @@
+package com.wellsfargo.workflow.comparison.aggregate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.championchallenge.entity.ChampionChallengeExecutionEntity;
+import com.wellsfargo.workflow.championchallenge.entity.ExecutionNodeMetricEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ComparisonKernelTest {
+
+    private final ComparisonAggregator aggregator = new ComparisonAggregator(
+            new ObjectMapper(), new BootstrapEngine(new BootstrapProperties()), new BootstrapProperties());
+
+    @Test
+    void foldMatchesIncrementalApplyWithMissingTimes() {
+        Random random = new Random(7);
+        ExecutionColumns executions = new ExecutionColumns(0);
+        NodeMetricColumns nodeMetrics = new NodeMetricColumns(0);
+        ComparisonAggregateState incremental = ComparisonAggregateState.empty();
+
+        for (int i = 0; i < 500; i++) {
+            Long championTime = random.nextInt(10) == 0 ? null : 100L + random.nextInt(900);
+            Long challengeTime = random.nextInt(10) == 0 ? null : 100L + random.nextInt(900);
+            LocalDateTime startedAt = LocalDateTime.of(2024, 3, 1, 0, 0).plusMinutes(7L * i);
+            boolean championError = championTime == null;
+
+            ChampionChallengeExecutionEntity execution = new ChampionChallengeExecutionEntity();
+            execution.setStatus(ChampionChallengeExecutionEntity.ExecutionStatus.COMPLETED);
+            execution.setStartedAt(startedAt);
+            execution.setTotalChampionTimeMs(championTime);
+            execution.setTotalChallengeTimeMs(challengeTime);
+            execution.setChampionError(championError);
+            execution.setWinner(i % 3 == 0 ? "CHAMPION" : "CHALLENGE");
+
+            List<ExecutionNodeMetricEntity> metrics = new ArrayList<>();
+            for (String variant : new String[]{"CHAMPION", "CHALLENGE"}) {
+                Long time = random.nextInt(8) == 0 ? null : 10L + random.nextInt(90);
+                ExecutionNodeMetricEntity metric = new ExecutionNodeMetricEntity();
+                metric.setNodeId("node" + (i % 4));
+                metric.setNodeName("Node " + (i % 4));
+                metric.setVariant(variant);
+                metric.setExecutionTimeMs(time);
+                metric.setStatus(time == null ? "ERROR" : "SUCCESS");
+                metrics.add(metric);
+                nodeMetrics.add(metric.getNodeId(), metric.getNodeName(), variant,
+                        time != null ? time : ExecutionColumns.NO_TIME, time == null);
+            }
+
+            aggregator.apply(incremental, execution, metrics, 1);
+            executions.add(
+                    championTime != null ? championTime : ExecutionColumns.NO_TIME,
+                    challengeTime != null ? challengeTime : ExecutionColumns.NO_TIME,
+                    championError, false,
+                    ExecutionColumns.winnerCode(execution.getWinner()),
+                    Math.floorDiv(startedAt.toEpochSecond(ZoneOffset.UTC), 3600));
+        }
+
+        ComparisonAggregateState folded = ComparisonKernel.fold(executions, nodeMetrics);
+
+        assertThat(folded.getExecutionCount()).isEqualTo(incremental.getExecutionCount());
+        assertVariant(folded.getChampion(), incremental.getChampion());
+        assertVariant(folded.getChallenge(), incremental.getChallenge());
+        assertThat(folded.getNodes().keySet()).isEqualTo(incremental.getNodes().keySet());
+        folded.getNodes().forEach((nodeId, node) -> {
+            assertVariant(node.getChampion(), incremental.getNodes().get(nodeId).getChampion());
+            assertVariant(node.getChallenge(), incremental.getNodes().get(nodeId).getChallenge());
+        });
+        assertThat(folded.getTimeBuckets()).isEqualTo(incremental.getTimeBuckets());
+    }
+
+    @Test
+    void pairedTimesDropRowsMissingEitherVariant() {
+        ExecutionColumns executions = new ExecutionColumns(0);
+        executions.add(100, 200, false, false, ExecutionColumns.WINNER_CHAMPION, Long.MIN_VALUE);
+        executions.add(ExecutionColumns.NO_TIME, 300, true, false, ExecutionColumns.WINNER_CHALLENGE, Long.MIN_VALUE);
+        executions.add(150, ExecutionColumns.NO_TIME, false, true, ExecutionColumns.WINNER_CHAMPION, Long.MIN_VALUE);
+
+        long[][] paired = executions.pairedTimes();
+
+        assertThat(paired[0]).containsExactly(100);
+        assertThat(paired[1]).containsExactly(200);
+    }
+
+    private static void assertVariant(ComparisonAggregateState.VariantAccumulator actual,
+                                      ComparisonAggregateState.VariantAccumulator expected) {
+        assertThat(actual.getCount()).isEqualTo(expected.getCount());
+        assertThat(actual.getErrorCount()).isEqualTo(expected.getErrorCount());
+        assertThat(actual.getSum()).isEqualTo(expected.getSum());
+        assertThat(actual.getSquaredDeviations()).isCloseTo(expected.getSquaredDeviations(), within(1e-6));
+        assertThat(actual.getLatency().quantile(0.95)).isCloseTo(expected.getLatency().quantile(0.95), within(1e-9));
+    }
+}
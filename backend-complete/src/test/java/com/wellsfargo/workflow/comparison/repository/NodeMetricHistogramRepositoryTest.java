@@ -0,0 +1,97 @@
+package com.wellsfargo.workflow.comparison.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregateState;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NodeMetricHistogramRepositoryTest {
+
+    private static final String LEGACY = "execution_node_metrics_legacy";
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+    private static final LocalDateTime BEFORE = DAY.plusDays(1).atStartOfDay();
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private NodeMetricHistogramRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:node-histograms-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        repository = new NodeMetricHistogramRepository(jdbcTemplate, new ObjectMapper());
+
+        // Two comparisons of the same workflows; e2 is excluded from cm-a
+        jdbcTemplate.getJdbcTemplate().execute("""
+                INSERT INTO champion_challenge_comparisons (id, name, champion_workflow_id, challenge_workflow_id)
+                VALUES ('00000000-0000-0000-0000-000000000001', 'definition', 'wf-champion', 'wf-challenge');
+                INSERT INTO champion_challenge_executions (id, comparison_id, created_by, started_at)
+                SELECT 'e' || X, '00000000-0000-0000-0000-000000000001', 'me', TIMESTAMP '2024-03-01 10:00:00'
+                FROM SYSTEM_RANGE(1, 3);
+                INSERT INTO comparison_master (id, name, workflow_pair, champion_workflow_id, challenge_workflow_id)
+                SELECT 'cm-' || X, X, 'wf-champion:wf-challenge', 'wf-champion', 'wf-challenge'
+                FROM (VALUES 'a', 'b') AS v(X);
+                INSERT INTO execution_comparison_mapping (id, comparison_id, execution_id, included) VALUES
+                    ('m1', 'cm-a', 'e1', TRUE), ('m2', 'cm-a', 'e2', FALSE), ('m3', 'cm-b', 'e3', TRUE);
+                """);
+        insertMetric("e1", "CHAMPION", 100);
+        insertMetric("e2", "CHAMPION", 200);
+        insertMetric("e3", "CHAMPION", 300);
+        insertMetric("e1", "BASELINE", 400);
+    }
+
+    @Test
+    void membersAreFoldedPerComparisonAndOnlyWhenIncluded() {
+        Map<NodeMetricHistogramRepository.Key, NodeMetricHistogramRepository.Histogram> workflows =
+                repository.fold(LEGACY, BEFORE);
+        Map<NodeMetricHistogramRepository.Key, NodeMetricHistogramRepository.Histogram> members =
+                repository.foldMembers(LEGACY, BEFORE);
+
+        assertThat(workflows).containsOnlyKeys(key("wf-champion"));
+        assertThat(workflows.get(key("wf-champion")).getAccumulator().getCount()).isEqualTo(3);
+        assertThat(members).containsOnlyKeys(key("cm-a"), key("cm-b"));
+        assertThat(members.get(key("cm-a")).getAccumulator().getSum()).isEqualTo(100);
+        assertThat(members.get(key("cm-b")).getAccumulator().getSum()).isEqualTo(300);
+    }
+
+    @Test
+    void onlyFoldedMetricsAreDeleted() {
+        repository.merge(repository.fold(LEGACY, BEFORE));
+        repository.mergeMembers(repository.foldMembers(LEGACY, BEFORE));
+
+        assertThat(repository.countUnfolded(LEGACY)).isEqualTo(1);
+        assertThat(repository.deleteFolded(LEGACY, BEFORE)).isEqualTo(3);
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT variant FROM " + LEGACY, String.class)).isEqualTo("BASELINE");
+
+        ComparisonAggregateState.NodeAccumulator node =
+                repository.loadNodes("cm-a", DAY, DAY).getNodes().get("task");
+        assertThat(node.getChampion().getCount()).isEqualTo(1);
+        assertThat(node.getChampion().getSum()).isEqualTo(100);
+    }
+
+    private void insertMetric(String executionId, String variant, long timeMs) {
+        jdbcTemplate.update("""
+                INSERT INTO execution_node_metrics_legacy (id, execution_id, variant, node_id, node_name, node_type,
+                                                           sequence, execution_time_ms, status, started_at, completed_at)
+                VALUES (:id, :executionId, :variant, 'task', 'Task', 'serviceTask', 1, :timeMs, 'SUCCESS',
+                        TIMESTAMP '2024-03-01 10:00:00', TIMESTAMP '2024-03-01 10:00:01')
+                """, Map.of("id", UUID.randomUUID().toString(), "executionId", executionId, "variant", variant,
+                "timeMs", timeMs));
+    }
+
+    private static NodeMetricHistogramRepository.Key key(String ownerId) {
+        return new NodeMetricHistogramRepository.Key(ownerId, "CHAMPION", DAY, "task");
+    }
+}
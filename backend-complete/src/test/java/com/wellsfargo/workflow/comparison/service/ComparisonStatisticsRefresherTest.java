@@ -0,0 +1,134 @@
+package com.wellsfargo.workflow.comparison.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellsfargo.workflow.comparison.aggregate.BootstrapEngine;
+import com.wellsfargo.workflow.comparison.aggregate.BootstrapProperties;
+import com.wellsfargo.workflow.comparison.aggregate.CompactedNodes;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregateState;
+import com.wellsfargo.workflow.comparison.aggregate.ComparisonAggregator;
+import com.wellsfargo.workflow.comparison.aggregate.ExecutionColumns;
+import com.wellsfargo.workflow.comparison.entity.ComparisonMasterEntity;
+import com.wellsfargo.workflow.comparison.repository.ComparisonColumnRepository;
+import com.wellsfargo.workflow.comparison.repository.ComparisonMasterRepository;
+import com.wellsfargo.workflow.comparison.repository.NodeMetricHistogramRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ComparisonStatisticsRefresherTest {
+
+    private final ComparisonMasterRepository comparisonRepository = mock(ComparisonMasterRepository.class);
+    private final ComparisonColumnRepository columnRepository = mock(ComparisonColumnRepository.class);
+    private final NodeMetricHistogramRepository histogramRepository = mock(NodeMetricHistogramRepository.class);
+    private final ComparisonAggregator aggregator =
+            new ComparisonAggregator(new ObjectMapper(), new BootstrapEngine(properties()), properties());
+    private final ComparisonStatisticsRefresher refresher = new ComparisonStatisticsRefresher(
+            comparisonRepository, columnRepository, histogramRepository, aggregator,
+            mock(PlatformTransactionManager.class));
+
+    private ComparisonMasterEntity comparison;
+
+    @BeforeEach
+    void setUp() {
+        comparison = comparison(3L);
+        when(comparisonRepository.findById("c")).thenReturn(Optional.of(comparison));
+        when(columnRepository.loadExecutions(anyString())).thenReturn(executions());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refresher.shutdown();
+    }
+
+    @Test
+    void storesTheAnalysisWithTheMembershipVersionItWasComputedFrom() {
+        when(comparisonRepository.findByIdForUpdate("c")).thenReturn(Optional.of(comparison));
+
+        refresher.refresh("c");
+
+        assertThat(comparison.getStatisticalAnalysis()).contains("paired bootstrap");
+        assertThat(comparison.getStatisticalAnalysisVersion()).isEqualTo(3L);
+        assertThat(comparison.getStatus()).isEqualTo("COMPLETED");
+        assertThat(ComparisonStatisticsRefresher.isCurrent(comparison)).isTrue();
+    }
+
+    @Test
+    void analysisStaysStaleWhenMembersChangeWhileResampling() {
+        ComparisonMasterEntity changed = comparison(4L);
+        when(comparisonRepository.findByIdForUpdate("c")).thenReturn(Optional.of(changed));
+
+        refresher.refresh("c");
+
+        assertThat(changed.getStatisticalAnalysis()).isNotNull();
+        assertThat(changed.getStatisticalAnalysisVersion()).isEqualTo(3L);
+        assertThat(ComparisonStatisticsRefresher.isCurrent(changed)).isFalse();
+    }
+
+    @Test
+    void currentAnalysisIsNotResampled() {
+        comparison.setStatisticalAnalysis("{}");
+        comparison.setStatisticalAnalysisVersion(3L);
+
+        refresher.refresh("c");
+
+        verify(columnRepository, never()).loadExecutions(anyString());
+        verify(comparisonRepository, never()).findByIdForUpdate(anyString());
+    }
+
+    @Test
+    void compactedNodesForOtherDaysAreReloadedWithoutResampling() {
+        ComparisonAggregateState state = ComparisonAggregateState.empty();
+        state.getTimeBuckets().put("2024-03-01T10:00", new ComparisonAggregateState.TimeBucket());
+        state.getTimeBuckets().put("2024-03-04T08:00", new ComparisonAggregateState.TimeBucket());
+        comparison.setAggregateMetrics(aggregator.write(state));
+        comparison.setCompactedNodes(aggregator.write(new CompactedNodes("2024-03-01", "2024-03-02", new TreeMap<>())));
+        comparison.setStatisticalAnalysis("{}");
+        comparison.setStatisticalAnalysisVersion(3L);
+        CompactedNodes reloaded = new CompactedNodes("2024-03-01", "2024-03-04", new TreeMap<>());
+        when(histogramRepository.loadCompacted(any(), any())).thenReturn(reloaded);
+        when(comparisonRepository.findByIdForUpdate("c")).thenReturn(Optional.of(comparison));
+
+        refresher.refresh("c");
+
+        assertThat(aggregator.read(comparison.getCompactedNodes(), CompactedNodes.class).covers(state)).isTrue();
+        assertThat(comparison.getStatisticalAnalysis()).isEqualTo("{}");
+        verify(columnRepository, never()).loadExecutions(anyString());
+    }
+
+    private ComparisonMasterEntity comparison(long membershipVersion) {
+        ComparisonMasterEntity comparison = new ComparisonMasterEntity();
+        comparison.setId("c");
+        comparison.setStatus("PENDING");
+        comparison.setAggregateMetrics(aggregator.write(ComparisonAggregateState.empty()));
+        comparison.setCompactedNodes(aggregator.write(new CompactedNodes(null, null, new TreeMap<>())));
+        comparison.setMembershipVersion(membershipVersion);
+        return comparison;
+    }
+
+    private static ExecutionColumns executions() {
+        ExecutionColumns executions = new ExecutionColumns(0);
+        for (int i = 0; i < 20; i++) {
+            executions.add(100 + i, 80 + i, false, false, ExecutionColumns.WINNER_CHALLENGE, Long.MIN_VALUE);
+        }
+        return executions;
+    }
+
+    private static BootstrapProperties properties() {
+        BootstrapProperties properties = new BootstrapProperties();
+        properties.setIterations(200);
+        properties.setSeed(1L);
+        return properties;
+    }
+}
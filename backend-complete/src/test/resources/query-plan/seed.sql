@@ -0,0 +1,74 @@
+-- Synthetic rows for RepositoryQueryPlanTest, so plans are taken at realistic
+-- table sizes; @rows is set by the test. Ids start with 'qp-'.
+
+INSERT INTO ab_tests (id, name, workflow_id, status, created_by)
+SELECT 'qp-t-' || X, 'query plan ' || X, 'qp-wf-' || MOD(X, 10), 'RUNNING', 'query-plan'
+FROM SYSTEM_RANGE(1, @rows / 1000 + 1);
+
+INSERT INTO ab_test_arms (id, ab_test_id, name, bpmn_file_path, traffic_percentage, is_control)
+SELECT 'qp-a-' || X, 'qp-t-' || (X / 2 + 1), 'arm ' || X, 'qp.bpmn', 50, MOD(X, 2) = 0
+FROM SYSTEM_RANGE(0, 2 * (@rows / 1000 + 1) - 1);
+
+INSERT INTO ab_test_executions_legacy (id, ab_test_id, arm_id, execution_time_ms, status, started_at, completed_at)
+SELECT 'qp-x-' || X, 'qp-t-' || (MOD(X, @rows / 1000 + 1) + 1), 'qp-a-' || (2 * MOD(X, @rows / 1000 + 1) + MOD(X / 7, 2)),
+       MOD(X * 37, 5000), CASE WHEN MOD(X, 20) = 0 THEN 'ERROR' ELSE 'SUCCESS' END,
+       DATEADD(MINUTE, -X, LOCALTIMESTAMP), DATEADD(MINUTE, -X, LOCALTIMESTAMP)
+FROM SYSTEM_RANGE(1, @rows);
+
+INSERT INTO champion_challenge_comparisons (id, name, champion_workflow_id, challenge_workflow_id, created_by)
+SELECT CAST('00000000-0000-0000-0000-' || LPAD(CAST(X AS VARCHAR), 12, '0') AS UUID), 'query plan ' || X,
+       'qp-champion-' || X, 'qp-challenge-' || X, 'query-plan'
+FROM SYSTEM_RANGE(1, @rows / 1000 + 1);
+
+INSERT INTO champion_challenge_executions (id, comparison_id, status, started_at, completed_at, created_by,
+                                           total_champion_time_ms, total_challenge_time_ms, winner)
+SELECT 'qp-e-' || X,
+       CAST('00000000-0000-0000-0000-' || LPAD(CAST(MOD(X, @rows / 1000 + 1) + 1 AS VARCHAR), 12, '0') AS UUID),
+       'COMPLETED', DATEADD(MINUTE, -X, LOCALTIMESTAMP), DATEADD(MINUTE, -X, LOCALTIMESTAMP), 'query-plan',
+       MOD(X * 31, 4000), MOD(X * 17, 4000), 'CHAMPION'
+FROM SYSTEM_RANGE(1, @rows);
+
+INSERT INTO execution_node_metrics_legacy (id, execution_id, variant, node_id, node_name, node_type, sequence,
+                                           execution_time_ms, status, started_at, completed_at)
+SELECT 'qp-m-' || X, 'qp-e-' || (X / 4 + 1), CASE WHEN MOD(X, 2) = 0 THEN 'CHAMPION' ELSE 'CHALLENGE' END,
+       'node-' || MOD(X / 2, 2), 'Node ' || MOD(X / 2, 2), 'serviceTask', MOD(X / 2, 2),
+       MOD(X * 13, 2000), 'SUCCESS', DATEADD(MINUTE, -(X / 4 + 1), LOCALTIMESTAMP),
+       DATEADD(MINUTE, -(X / 4 + 1), LOCALTIMESTAMP)
+FROM SYSTEM_RANGE(0, 4 * @rows - 1);
+
+INSERT INTO execution_comparisons (id, execution_id, metric_name, metric_category, champion_value, challenge_value,
+                                   difference, difference_percentage, winner)
+SELECT 'qp-c-' || X, 'qp-e-' || X, 'executionTime', 'PERFORMANCE', 1, 2, 1, 100, 'CHAMPION'
+FROM SYSTEM_RANGE(1, @rows);
+
+INSERT INTO comparison_master (id, name, workflow_pair, champion_workflow_id, challenge_workflow_id, status)
+SELECT 'qp-cm-' || X, 'query plan ' || X, 'qp-champion-' || X || ':qp-challenge-' || X,
+       'qp-champion-' || X, 'qp-challenge-' || X, CASE WHEN MOD(X, 3) = 0 THEN 'PENDING' ELSE 'COMPLETED' END
+FROM SYSTEM_RANGE(1, @rows / 100 + 1);
+
+INSERT INTO execution_comparison_mapping (id, comparison_id, execution_id, included, outlier_flag)
+SELECT 'qp-em-' || X, 'qp-cm-' || (MOD(X, @rows / 100 + 1) + 1), 'qp-e-' || X, MOD(X, 10) <> 0, MOD(X, 25) = 0
+FROM SYSTEM_RANGE(1, @rows);
+
+INSERT INTO node_metric_histograms (workflow_id, node_id, variant, metric_day, node_name, sample_count,
+                                    error_count, time_sum, time_squared_deviations, latency_sketch)
+SELECT 'qp-champion-' || MOD(X, 100), 'node-' || MOD(X / 100, 10), CASE WHEN MOD(X / 1000, 2) = 0 THEN 'CHAMPION' ELSE 'CHALLENGE' END,
+       DATEADD(DAY, -(X / 2000), CURRENT_DATE), 'Node', 1, 0, 1, 1, '{}'
+FROM SYSTEM_RANGE(0, @rows - 1);
+
+INSERT INTO comparison_node_histograms (comparison_id, node_id, variant, metric_day, node_name, sample_count,
+                                        error_count, time_sum, time_squared_deviations, latency_sketch)
+SELECT 'qp-cm-' || (MOD(X, 100) + 1), 'node-' || MOD(X / 100, 10), CASE WHEN MOD(X / 1000, 2) = 0 THEN 'CHAMPION' ELSE 'CHALLENGE' END,
+       DATEADD(DAY, -(X / 2000), CURRENT_DATE), 'Node', 1, 0, 1, 1, '{}'
+FROM SYSTEM_RANGE(0, @rows - 1);
+
+INSERT INTO idempotency_keys (idempotency_key, response_body, created_at, expires_at)
+SELECT 'ab-test:qp-t-' || (MOD(X, @rows / 1000 + 1) + 1) || ':qp-key-' || X, '{}', LOCALTIMESTAMP,
+       DATEADD(DAY, 1, LOCALTIMESTAMP)
+FROM SYSTEM_RANGE(1, @rows);
+
+INSERT INTO sla_tracking (id, ab_test_id, arm_id, sla_threshold_ms, window_seconds, execution_count, breach_count,
+                          compliance_rate, avg_response_time_ms, recorded_at)
+SELECT 'qp-sla-' || X, 'qp-t-' || (MOD(X, @rows / 1000 + 1) + 1), 'qp-a-' || (2 * MOD(X, @rows / 1000 + 1) + MOD(X / 7, 2)),
+       1000, 300, 100, MOD(X, 10), 0.95, 250, DATEADD(MINUTE, -X, LOCALTIMESTAMP)
+FROM SYSTEM_RANGE(1, @rows);
@@ -33,12 +33,8 @@ export class ListenerGeneratorService {
     return `package ${config.packageName};
 
 import org.springframework.stereotype.Component;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import com.wellsfargo.workflow.listener.client.ListenerEventClient;
+import jakarta.annotation.PreDestroy;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.delegate.DelegateTask;
@@ -46,6 +42,8 @@ import org.camunda.bpm.engine.delegate.TaskListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
+import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -62,8 +60,10 @@ public class ${config.className} implements ExecutionListener, TaskListener {
     private static final String AB_TEST_ID = "${test.id}";
     private static final String AB_TEST_API_BASE = "http://localhost:8989/api/v1/ab-tests";
     
-    @Autowired
-    private RestTemplate restTemplate;
+    // Batches events to the backend on a background thread; notify() only enqueues.
+    private final ListenerEventClient events = ListenerEventClient.builder(URI.create(AB_TEST_API_BASE + "/events"))
+            .spillDirectory(Paths.get(System.getProperty("java.io.tmpdir"), "ab-test-events", AB_TEST_ID), 256L * 1024 * 1024)
+            .build();
     
     // Process to Arm mapping
     private static final Map<String, String> processArmMapping = new HashMap<>();
@@ -159,7 +159,7 @@ ${armNames}
         logData.put("processInstanceId", execution.getProcessInstanceId());
         logData.put("requestPayload", execution.getVariables());
         
-        sendToABTestAPI("/executions/start", logData);
+        sendToABTestAPI(logData);
     }
     
     private void handleProcessEnd(DelegateExecution execution, String armKey) {
@@ -182,7 +182,7 @@ ${armNames}
         logData.put("responsePayload", execution.getVariables());
         logData.put("activityExecutions", activities);
         
-        sendToABTestAPI("/executions/complete", logData);
+        sendToABTestAPI(logData);
     }
     
     private void handleActivityStart(DelegateExecution execution, String armKey, String activityId) {
@@ -214,7 +214,7 @@ ${armNames}
         logData.put("activityName", task.getName());
         logData.put("assignee", task.getAssignee());
         
-        sendToABTestAPI("/activities/start", logData);
+        sendToABTestAPI(logData);
     }
     
     private void handleTaskComplete(DelegateTask task, String armKey, String activityId) {
@@ -230,30 +230,20 @@ ${armNames}
         logData.put("activityName", task.getName());
         logData.put("outputData", task.getVariables());
         
-        sendToABTestAPI("/activities/complete", logData);
+        sendToABTestAPI(logData);
     }
     
-    private void sendToABTestAPI(String endpoint, Map<String, Object> data) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(data, headers);
-            
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                AB_TEST_API_BASE + endpoint, 
-                request, 
-                String.class
-            );
-            
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                logger.warn("AB test API call failed: {} - {}", response.getStatusCode(), response.getBody());
-            }
-        } catch (Exception e) {
-            logger.error("Failed to send AB test data to API: {}", e.getMessage(), e);
+    private void sendToABTestAPI(Map<String, Object> data) {
+        if (!events.record(data)) {
+            logger.debug("AB test event buffer full; dropped {} event", data.get("event"));
         }
     }
     
+    @PreDestroy
+    public void close() {
+        events.close();
+    }
+    
     // Inner class for activity execution tracking
     public static class ActivityExecution {
         public String activityId;